@@ -32,10 +32,10 @@ import org.netbeans.gradle.model.util.BasicFileUtils;
 import org.netbeans.gradle.model.util.BuilderUtils;
 import org.netbeans.gradle.model.util.ClassLoaderUtils;
 import org.netbeans.gradle.model.util.CollectionUtils;
+import org.netbeans.gradle.model.util.ContentAddressedFileCache;
 import org.netbeans.gradle.model.util.SerializationCache;
 import org.netbeans.gradle.model.util.SerializationCaches;
 import org.netbeans.gradle.model.util.SerializationUtils;
-import org.netbeans.gradle.model.util.TemporaryFileManager;
 import org.netbeans.gradle.model.util.TemporaryFileRef;
 
 public final class GenericModelFetcher {
@@ -147,15 +147,17 @@ public final class GenericModelFetcher {
                 "$NB_BOOT_CLASSPATH",
                 toPastableString(ClassLoaderUtils.getUrlOfClassPath().toExternalForm()));
 
-        TemporaryFileManager fileManager = TemporaryFileManager.getDefault();
+        // The init script refers to the model input file, so both of them must
+        // have a stable path for Gradle to be able to reuse the compiled script.
+        ContentAddressedFileCache fileCache = ContentAddressedFileCache.getDefault();
 
         ModelQueryInput modelInput = new ModelQueryInput(projectInfoBuilders.getSerializableBuilderMap());
-        TemporaryFileRef modelInputFile = fileManager.createFileFromSerialized(modelInputPrefix, modelInput);
+        TemporaryFileRef modelInputFile = fileCache.createFileFromSerialized(modelInputPrefix, modelInput);
         try {
             initScript = initScript.replace("$INPUT_FILE", toPastableString(modelInputFile.getFile()));
 
-            TemporaryFileRef initScriptRef = fileManager
-                    .createFile(initScriptPrefix, initScript, INIT_SCRIPT_ENCODING);
+            TemporaryFileRef initScriptRef = fileCache
+                    .createFile(initScriptPrefix, initScript, INIT_SCRIPT_ENCODING, ".gradle");
             try {
                 String[] executerArgs = new String[userArgs.length + 2];
                 System.arraycopy(userArgs, 0, executerArgs, 0, userArgs.length);
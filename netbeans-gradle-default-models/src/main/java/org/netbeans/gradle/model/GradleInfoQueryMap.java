@@ -6,10 +6,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import org.gradle.tooling.BuildController;
 import org.netbeans.gradle.model.api.GradleInfoQuery;
 import org.netbeans.gradle.model.api.GradleProjectInfoQuery2;
@@ -17,7 +15,7 @@ import org.netbeans.gradle.model.api.ModelClassPathDef;
 import org.netbeans.gradle.model.internal.CustomSerializedMap;
 import org.netbeans.gradle.model.internal.IssueTransformer;
 import org.netbeans.gradle.model.internal.SerializedEntries;
-import org.netbeans.gradle.model.util.ClassLoaderUtils;
+import org.netbeans.gradle.model.util.ClassLoaderCache;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.model.util.MultiMapUtils;
 import org.netbeans.gradle.model.util.SerializationCache;
@@ -220,29 +218,15 @@ final class GradleInfoQueryMap {
             }
         }
 
-        private ClassLoader getClassLoaderForKey(
-                KeyWrapper key,
-                ClassLoader parent,
-                Map<Set<String>, ClassLoader> cache) {
-
+        private ClassLoader getClassLoaderForKey(KeyWrapper key, ClassLoader parent) {
             Collection<URL> files = paths.get(key);
             if (files == null || files.isEmpty()) {
                 return parent;
             }
 
-            Set<String> urlStrings = new HashSet<String>(2 * files.size());
-            for (URL url: files) {
-                urlStrings.add(url.toExternalForm());
-            }
-
-            ClassLoader result = cache.get(urlStrings);
-            if (result != null) {
-                return result;
-            }
-
-            result = ClassLoaderUtils.classLoaderFromClassPathUrls(files, parent);
-            cache.put(urlStrings, result);
-            return result;
+            // The cache outlives this call, so that repeated model queries
+            // executed by the same daemon reuse the already loaded builders.
+            return ClassLoaderCache.getDefault().getClassLoader(files, parent);
         }
 
         @Override
@@ -250,13 +234,12 @@ final class GradleInfoQueryMap {
                 SerializationCache serializationCache,
                 ClassLoader parent,
                 IssueTransformer deserializationIssueTransformer) {
-            Map<Set<String>, ClassLoader> cache = new HashMap<Set<String>, ClassLoader>();
             Map<Object, List<?>> result = CollectionUtils.newHashMap(builderMap.size());
 
             for (Map.Entry<Object, SerializedEntries> entry: builderMap.getMap().entrySet()) {
                 KeyWrapper key = (KeyWrapper)entry.getKey();
 
-                ClassLoader classLoader = getClassLoaderForKey(key, parent, cache);
+                ClassLoader classLoader = getClassLoaderForKey(key, parent);
                 List<?> deserializedValues;
                 try {
                     deserializedValues = entry.getValue().getUnserialized(serializationCache, classLoader);
@@ -0,0 +1,42 @@
+package org.netbeans.gradle.model.java;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Defines the source and javadoc artifacts resolved for the external
+ * dependencies of a project. Only artifacts explicitly requested are
+ * resolved, so this model is expected to contain only the artifacts
+ * of dependencies which were missing their sources or javadoc.
+ */
+public final class DependencySourcesModel implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Map<File, File> sources;
+    private final Map<File, File> javadocs;
+
+    /**
+     * Creates a new {@code DependencySourcesModel} with the given resolved
+     * artifacts.
+     *
+     * @param sources maps binaries to their resolved source artifacts. This
+     *   argument cannot be {@code null}.
+     * @param javadocs maps binaries to their resolved javadoc artifacts. This
+     *   argument cannot be {@code null}.
+     */
+    public DependencySourcesModel(Map<File, File> sources, Map<File, File> javadocs) {
+        this.sources = Collections.unmodifiableMap(new HashMap<File, File>(sources));
+        this.javadocs = Collections.unmodifiableMap(new HashMap<File, File>(javadocs));
+    }
+
+    public Map<File, File> getSources() {
+        return sources;
+    }
+
+    public Map<File, File> getJavadocs() {
+        return javadocs;
+    }
+}
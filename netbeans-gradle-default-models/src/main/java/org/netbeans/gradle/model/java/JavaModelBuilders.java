@@ -1,5 +1,8 @@
 package org.netbeans.gradle.model.java;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
 import org.netbeans.gradle.model.api.ProjectInfoBuilder2;
 import org.netbeans.gradle.model.api.util.ModelBuilders;
 
@@ -28,6 +31,32 @@ public class JavaModelBuilders {
     public static final ProjectInfoBuilder2<GroovyBaseModel> GROOVY_BASE_BUILDER
             = ModelBuilders.wrapEnumBuilder(GroovyBaseModel.class, "GroovyBaseModelBuilder");
 
+    /**
+     * Returns a builder resolving the sources and javadoc of the external
+     * dependencies of the project. Only dependencies whose binary is in one
+     * of the given collections are resolved.
+     * <P>
+     * The returned builder relies on the artifact resolution query of Gradle,
+     * so it can only be used with Gradle 2.0 or later.
+     *
+     * @param missingSources the binaries of dependencies whose sources are
+     *   to be resolved. This argument cannot be {@code null}.
+     * @param missingJavadocs the binaries of dependencies whose javadoc is
+     *   to be resolved. This argument cannot be {@code null}.
+     * @return the builder resolving the requested artifacts. This method
+     *   never returns {@code null}.
+     */
+    public static ProjectInfoBuilder2<DependencySourcesModel> dependencySourcesBuilder(
+            Collection<File> missingSources,
+            Collection<File> missingJavadocs) {
+
+        return ModelBuilders.wrapWithConstructor(
+                DependencySourcesModel.class,
+                "DependencySourcesModelBuilder",
+                new ArrayList<File>(missingSources),
+                new ArrayList<File>(missingJavadocs));
+    }
+
     private JavaModelBuilders() {
         throw new AssertionError();
     }
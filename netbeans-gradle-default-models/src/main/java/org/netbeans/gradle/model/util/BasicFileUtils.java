@@ -146,7 +146,7 @@ public final class BasicFileUtils {
         return ch == '-' || ch == '_';
     }
 
-    private static String makeSafeForFileNames(String unsafeName) {
+    static String makeSafeForFileNames(String unsafeName) {
         if (unsafeName == null) {
             return "";
         }
@@ -0,0 +1,163 @@
+package org.netbeans.gradle.model.util;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Defines a cache of class loaders created for a given class path. The cache
+ * is intended to live as long as the class loader of this class, so that
+ * consecutive model queries executed in the same Gradle daemon can reuse the
+ * already loaded (and linked) classes of the model builders.
+ * <P>
+ * A cached class loader is only reused if the jars on its class path did not
+ * change (according to their size and last modification time) since the class
+ * loader was created. The class loaders are strongly referenced (nothing else
+ * keeps them alive between two model queries) but the cache is bounded: Only
+ * the most recently used class loaders are retained, so the cache cannot
+ * prevent unloading the classes of arbitrarily many class paths.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+public final class ClassLoaderCache {
+    private static final int DEFAULT_MAX_SIZE = 8;
+    private static final ClassLoaderCache DEFAULT = new ClassLoaderCache();
+
+    private final Object cacheLock;
+    private final Map<CacheKey, CachedClassLoader> cache;
+
+    public ClassLoaderCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public ClassLoaderCache(final int maxSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("Illegal maxSize: " + maxSize);
+
+        this.cacheLock = new Object();
+        this.cache = new LinkedHashMap<CacheKey, CachedClassLoader>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedClassLoader> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public static ClassLoaderCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns a class loader loading classes from the given class path and
+     * delegating to the given parent class loader. This method returns the
+     * same class loader if called with the same class path and parent, as long
+     * as the jars on the class path are not modified and the class loader was
+     * not evicted from the cache.
+     *
+     * @param classPath the class path of the returned class loader. This
+     *   argument cannot be {@code null}.
+     * @param parent the parent class loader of the returned class loader. This
+     *   argument can be {@code null}, in which case the bootstrap class loader
+     *   is used as the parent.
+     * @return the class loader loading classes from the given class path. This
+     *   method never returns {@code null}.
+     */
+    public ClassLoader getClassLoader(Collection<URL> classPath, ClassLoader parent) {
+        if (classPath == null) throw new NullPointerException("classPath");
+
+        Set<String> urlStrings = new HashSet<String>(2 * classPath.size());
+        for (URL url: classPath) {
+            urlStrings.add(url.toExternalForm());
+        }
+
+        CacheKey key = new CacheKey(parent, urlStrings);
+        List<Long> fingerprint = getFingerprint(classPath);
+
+        synchronized (cacheLock) {
+            CachedClassLoader cached = cache.get(key);
+            if (cached != null && cached.fingerprint.equals(fingerprint)) {
+                return cached.classLoader;
+            }
+
+            ClassLoader result = ClassLoaderUtils.classLoaderFromClassPathUrls(classPath, parent);
+            // Replacing the previous entry: Loaders of outdated jars are
+            // never going to be used again.
+            cache.put(key, new CachedClassLoader(fingerprint, result));
+            return result;
+        }
+    }
+    private static List<Long> getFingerprint(Collection<URL> classPath) {
+        List<Long> result = new ArrayList<Long>(2 * classPath.size());
+        for (URL url: classPath) {
+            File file = tryGetFile(url);
+            if (file != null) {
+                result.add(file.length());
+                result.add(file.lastModified());
+            }
+            else {
+                result.add(-1L);
+                result.add(-1L);
+            }
+        }
+        return result;
+    }
+
+    private static File tryGetFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException ex) {
+            return null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static final class CacheKey {
+        private final ClassLoader parent;
+        private final Set<String> urlStrings;
+
+        public CacheKey(ClassLoader parent, Set<String> urlStrings) {
+            this.parent = parent;
+            this.urlStrings = urlStrings;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(parent) + urlStrings.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final CacheKey other = (CacheKey)obj;
+            return parent == other.parent
+                    && urlStrings.equals(other.urlStrings);
+        }
+    }
+
+    private static final class CachedClassLoader {
+        private final List<Long> fingerprint;
+        private final ClassLoader classLoader;
+
+        public CachedClassLoader(List<Long> fingerprint, ClassLoader classLoader) {
+            this.fingerprint = fingerprint;
+            this.classLoader = classLoader;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package org.netbeans.gradle.model.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Defines a persistent directory of files whose names are derived from their
+ * content. Requesting a file with the same content always returns the same
+ * path, even after the IDE has been restarted. This allows Gradle to reuse
+ * what it cached for a given init script (e.g.: its compiled classes) and
+ * avoids writing the same file again for each Gradle command.
+ * <P>
+ * Unlike {@link TemporaryFileManager}, closing the last reference to a file
+ * does not delete the file. Instead, files which are not referenced in this
+ * process and were not used for a long time are deleted when the cache is
+ * first used in the process.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently. The cache directory might also be shared by multiple processes.
+ */
+public final class ContentAddressedFileCache {
+    private static final Logger LOGGER = Logger.getLogger(ContentAddressedFileCache.class.getName());
+
+    private static final long DEFAULT_MAX_UNUSED_AGE_MS = TimeUnit.DAYS.toMillis(7);
+    private static final String PARTIAL_FILE_SUFFIX = ".part";
+
+    private final File cacheDir;
+    private final long maxUnusedAgeMs;
+    private final long touchIntervalMs;
+
+    private final Lock mainLock;
+    private final Map<String, CacheEntry> entries;
+    private final AtomicBoolean cleanedUp;
+
+    public ContentAddressedFileCache(File cacheDir, long maxUnusedAgeMs) {
+        if (cacheDir == null) throw new NullPointerException("cacheDir");
+        if (maxUnusedAgeMs <= 0) {
+            throw new IllegalArgumentException("Illegal maxUnusedAgeMs: " + maxUnusedAgeMs);
+        }
+
+        this.cacheDir = cacheDir;
+        this.maxUnusedAgeMs = maxUnusedAgeMs;
+        this.touchIntervalMs = maxUnusedAgeMs / 4;
+        this.mainLock = new ReentrantLock();
+        this.entries = new HashMap<String, CacheEntry>();
+        this.cleanedUp = new AtomicBoolean(false);
+    }
+
+    public static ContentAddressedFileCache getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    public TemporaryFileRef createFile(String preferredPrefix, String strContent, Charset charset, String suffix) throws IOException {
+        return createFile(preferredPrefix, strContent.getBytes(charset.name()), suffix);
+    }
+
+    public TemporaryFileRef createFile(String preferredPrefix, String strContent, String charsetName, String suffix) throws IOException {
+        return createFile(preferredPrefix, strContent.getBytes(charsetName), suffix);
+    }
+
+    public TemporaryFileRef createFileFromSerialized(String preferredPrefix, Object contentObj) throws IOException {
+        return createFile(preferredPrefix, SerializationUtils.serializeObject(contentObj), ".bin");
+    }
+
+    /**
+     * Returns a reference to a file with the given content. The returned
+     * reference must be closed after the file is no longer needed but the
+     * file will not be deleted when it is closed.
+     *
+     * @param preferredPrefix the prefix of the name of the file. This argument
+     *   cannot be {@code null}.
+     * @param content the content of the file. This array is not modified and
+     *   is not retained by this method. This argument cannot be {@code null}.
+     * @param suffix the suffix (usually the extension) of the name of the file.
+     *   This argument cannot be {@code null}.
+     * @return the reference to the file with the given content. This method
+     *   never returns {@code null}.
+     *
+     * @throws IOException thrown if the file could not be created
+     */
+    public TemporaryFileRef createFile(String preferredPrefix, byte[] content, String suffix) throws IOException {
+        if (preferredPrefix == null) throw new NullPointerException("preferredPrefix");
+        if (content == null) throw new NullPointerException("content");
+        if (suffix == null) throw new NullPointerException("suffix");
+
+        cleanupOnce();
+
+        String fileName = BasicFileUtils.makeSafeForFileNames(preferredPrefix)
+                + "-" + BasicFileUtils.getMD5(content)
+                + "-" + content.length
+                + suffix;
+
+        CacheEntry entry;
+        mainLock.lock();
+        try {
+            entry = entries.get(fileName);
+            if (entry == null) {
+                entry = new CacheEntry(new File(cacheDir, fileName));
+                entries.put(fileName, entry);
+            }
+            entry.useCount++;
+        } finally {
+            mainLock.unlock();
+        }
+
+        boolean acquired = false;
+        try {
+            entry.ensureAvailable(content);
+            acquired = true;
+        } finally {
+            if (!acquired) {
+                releaseEntry(entry);
+            }
+        }
+
+        return new CachedFileRef(entry);
+    }
+
+    private void releaseEntry(CacheEntry entry) {
+        mainLock.lock();
+        try {
+            entry.useCount--;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void cleanupOnce() {
+        if (!cleanedUp.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            removeUnusedFiles();
+        } catch (Throwable ex) {
+            LOGGER.log(Level.WARNING, "Failed to clean up the file cache: " + cacheDir, ex);
+        }
+    }
+
+    /**
+     * Deletes the files of the cache directory which are not referenced in
+     * this process and were not used for longer than the allowed period.
+     * This method is called automatically when a file is first requested from
+     * this cache, so it is not normally necessary to call it explicitly.
+     */
+    public void removeUnusedFiles() {
+        File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long expireTime = System.currentTimeMillis() - maxUnusedAgeMs;
+        for (File file: files) {
+            if (!file.isFile() || file.lastModified() >= expireTime) {
+                continue;
+            }
+
+            mainLock.lock();
+            try {
+                String fileName = file.getName();
+                CacheEntry entry = entries.get(fileName);
+                if (entry != null) {
+                    if (entry.useCount > 0) {
+                        continue;
+                    }
+                    entries.remove(fileName);
+                }
+
+                if (!file.delete()) {
+                    LOGGER.log(Level.INFO, "Failed to remove unused cached file: {0}", file);
+                }
+            } finally {
+                mainLock.unlock();
+            }
+        }
+    }
+
+    private static byte[] readAll(File file, int expectedLength) throws IOException {
+        byte[] result = new byte[expectedLength];
+        InputStream input = new FileInputStream(file);
+        try {
+            int offset = 0;
+            while (offset < expectedLength) {
+                int readCount = input.read(result, offset, expectedLength - offset);
+                if (readCount < 0) {
+                    return null;
+                }
+                offset += readCount;
+            }
+
+            return input.read() < 0 ? result : null;
+        } finally {
+            input.close();
+        }
+    }
+
+    private static boolean hasContent(File file, byte[] content) {
+        if (file.length() != content.length) {
+            return false;
+        }
+
+        try {
+            byte[] fileContent = readAll(file, content.length);
+            return fileContent != null && Arrays.equals(fileContent, content);
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static void writeFile(File dest, byte[] content) throws IOException {
+        File dir = dest.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+            throw new IOException("Could not create directory: " + dir);
+        }
+
+        // Write to a different file first, so that other processes never see
+        // a partially written file.
+        File partialFile = File.createTempFile(dest.getName(), PARTIAL_FILE_SUFFIX, dir);
+        try {
+            FileOutputStream output = new FileOutputStream(partialFile);
+            try {
+                output.write(content);
+                output.getFD().sync();
+            } finally {
+                output.close();
+            }
+
+            if (partialFile.renameTo(dest)) {
+                return;
+            }
+
+            // Another process might have written the same file concurrently.
+            if (hasContent(dest, content)) {
+                return;
+            }
+
+            // Renaming over an existing file fails on some platforms.
+            dest.delete();
+            if (!partialFile.renameTo(dest)) {
+                throw new IOException("Failed to create cached file: " + dest);
+            }
+        } finally {
+            if (partialFile.exists() && !partialFile.delete()) {
+                LOGGER.log(Level.WARNING, "Failed to remove temporary file: {0}", partialFile);
+            }
+        }
+    }
+
+    private final class CacheEntry {
+        public final File file;
+
+        // Guarded by mainLock.
+        public int useCount;
+
+        // Guarded by this entry.
+        private boolean verified;
+        private long lastTouchTime;
+
+        public CacheEntry(File file) {
+            this.file = file;
+            this.useCount = 0;
+            this.verified = false;
+            this.lastTouchTime = 0;
+        }
+
+        public synchronized void ensureAvailable(byte[] content) throws IOException {
+            long now = System.currentTimeMillis();
+
+            // The file might have been deleted by an other process (or the user)
+            // since we have verified it.
+            if (!verified || !file.isFile()) {
+                if (!hasContent(file, content)) {
+                    writeFile(file, content);
+                }
+                verified = true;
+                lastTouchTime = 0;
+            }
+
+            // Keep the file from being removed as unused by other processes.
+            if (now - lastTouchTime >= touchIntervalMs) {
+                if (!file.setLastModified(now)) {
+                    LOGGER.log(Level.FINE, "Failed to update the last modified time of {0}", file);
+                }
+                lastTouchTime = now;
+            }
+        }
+    }
+
+    private final class CachedFileRef implements TemporaryFileRef {
+        private final CacheEntry entry;
+        private final ObjectFinalizer finalizer;
+
+        public CachedFileRef(final CacheEntry entry) {
+            this.entry = entry;
+            this.finalizer = new ObjectFinalizer(new Runnable() {
+                @Override
+                public void run() {
+                    releaseEntry(entry);
+                }
+            }, "CachedFileRef{" + entry.file + "}");
+        }
+
+        @Override
+        public File getFile() {
+            return entry.file;
+        }
+
+        @Override
+        public void close() throws IOException {
+            finalizer.doFinalize();
+        }
+
+        @Override
+        public String toString() {
+            return "CachedFileRef{" + entry.file + "}";
+        }
+    }
+
+    private static final class DefaultHolder {
+        public static final ContentAddressedFileCache DEFAULT = new ContentAddressedFileCache(
+                new File(BasicFileUtils.getPluginTmpDir(), "content-cache"),
+                DEFAULT_MAX_UNUSED_AGE_MS);
+    }
+}
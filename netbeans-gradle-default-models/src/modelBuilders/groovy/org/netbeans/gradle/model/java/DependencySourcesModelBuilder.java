@@ -0,0 +1,204 @@
+package org.netbeans.gradle.model.java;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.ResolvedArtifact;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.result.ArtifactResult;
+import org.gradle.api.artifacts.result.ComponentArtifactsResult;
+import org.gradle.api.artifacts.result.ResolvedArtifactResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.component.Artifact;
+import org.gradle.api.plugins.JavaPluginConvention;
+import org.gradle.api.specs.Specs;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.jvm.JvmLibrary;
+import org.gradle.language.base.artifact.SourcesArtifact;
+import org.gradle.language.java.artifact.JavadocArtifact;
+import org.netbeans.gradle.model.api.ProjectInfoBuilder2;
+import org.netbeans.gradle.model.util.BuilderUtils;
+
+/**
+ * Defines a {@code ProjectInfoBuilder2} resolving the sources and javadoc of
+ * the external dependencies of a Gradle project.
+ * <P>
+ * Only the dependencies whose binary was passed to the constructor are
+ * resolved. Since the same builder instance is used for every project of a
+ * build, a dependency shared by multiple projects is only resolved once.
+ */
+public final class DependencySourcesModelBuilder
+implements
+        ProjectInfoBuilder2<DependencySourcesModel> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Set<File> missingSources;
+    private final Set<File> missingJavadocs;
+
+    private transient Set<File> processedBinaries;
+
+    public DependencySourcesModelBuilder(Collection<?> missingSources, Collection<?> missingJavadocs) {
+        this.missingSources = toFileSet(missingSources);
+        this.missingJavadocs = toFileSet(missingJavadocs);
+        this.processedBinaries = null;
+    }
+
+    private static Set<File> toFileSet(Collection<?> files) {
+        Set<File> result = new HashSet<File>(2 * files.size());
+        for (Object file: files) {
+            result.add((File)file);
+        }
+        return result;
+    }
+
+    private synchronized boolean tryMarkProcessed(File binary) {
+        if (processedBinaries == null) {
+            processedBinaries = new HashSet<File>();
+        }
+        return processedBinaries.add(binary);
+    }
+
+    @Override
+    public DependencySourcesModel getProjectInfo(Object project) {
+        return getProjectInfo((Project)project);
+    }
+
+    private DependencySourcesModel getProjectInfo(Project project) {
+        JavaPluginConvention javaPlugin = project.getConvention().findPlugin(JavaPluginConvention.class);
+        if (javaPlugin == null) {
+            return null;
+        }
+
+        Map<ComponentIdentifier, Set<File>> requested = new HashMap<ComponentIdentifier, Set<File>>();
+        for (SourceSet sourceSet: javaPlugin.getSourceSets()) {
+            // These are the configurations backing the compile and runtime
+            // classpath of the source set, so they contain the binaries
+            // the IDE knows about.
+            addRequestedComponents(project, JavaSourcesUtils.getCompileClasspathConfigurationName(sourceSet), requested);
+            addRequestedComponents(project, JavaSourcesUtils.getRuntimeClasspathConfigurationName(sourceSet), requested);
+        }
+
+        Map<File, File> sources = new HashMap<File, File>();
+        Map<File, File> javadocs = new HashMap<File, File>();
+        if (!requested.isEmpty()) {
+            resolveArtifacts(project, requested, sources, javadocs);
+        }
+        return new DependencySourcesModel(sources, javadocs);
+    }
+
+    private void addRequestedComponents(
+            Project project,
+            String configName,
+            Map<ComponentIdentifier, Set<File>> result) {
+
+        Configuration config = project.getConfigurations().findByName(configName);
+        if (config == null) {
+            return;
+        }
+
+        Map<ModuleVersionIdentifier, Set<File>> missingBinaries = new HashMap<ModuleVersionIdentifier, Set<File>>();
+        Set<ResolvedArtifact> artifacts = config.getResolvedConfiguration()
+                .getLenientConfiguration()
+                .getArtifacts(Specs.SATISFIES_ALL);
+        for (ResolvedArtifact artifact: artifacts) {
+            File binary = artifact.getFile();
+            if (!missingSources.contains(binary) && !missingJavadocs.contains(binary)) {
+                continue;
+            }
+            if (!tryMarkProcessed(binary)) {
+                continue;
+            }
+
+            ModuleVersionIdentifier id = artifact.getModuleVersion().getId();
+            Set<File> binaries = missingBinaries.get(id);
+            if (binaries == null) {
+                binaries = new HashSet<File>();
+                missingBinaries.put(id, binaries);
+            }
+            binaries.add(binary);
+        }
+
+        if (missingBinaries.isEmpty()) {
+            return;
+        }
+
+        for (ResolvedComponentResult component: config.getIncoming().getResolutionResult().getAllComponents()) {
+            ComponentIdentifier componentId = component.getId();
+            if (!(componentId instanceof ModuleComponentIdentifier)) {
+                continue;
+            }
+
+            Set<File> binaries = missingBinaries.get(component.getModuleVersion());
+            if (binaries != null) {
+                Set<File> prevBinaries = result.get(componentId);
+                if (prevBinaries == null) {
+                    result.put(componentId, binaries);
+                }
+                else {
+                    prevBinaries.addAll(binaries);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resolveArtifacts(
+            Project project,
+            Map<ComponentIdentifier, Set<File>> requested,
+            Map<File, File> sources,
+            Map<File, File> javadocs) {
+
+        Set<ComponentArtifactsResult> components = project.getDependencies()
+                .createArtifactResolutionQuery()
+                .forComponents(requested.keySet())
+                .withArtifacts(JvmLibrary.class, SourcesArtifact.class, JavadocArtifact.class)
+                .execute()
+                .getResolvedComponents();
+
+        for (ComponentArtifactsResult component: components) {
+            Set<File> binaries = requested.get(component.getId());
+            if (binaries == null) {
+                continue;
+            }
+
+            File sourcesFile = tryGetArtifactFile(component, SourcesArtifact.class);
+            File javadocFile = tryGetArtifactFile(component, JavadocArtifact.class);
+
+            for (File binary: binaries) {
+                if (sourcesFile != null && missingSources.contains(binary)) {
+                    sources.put(binary, sourcesFile);
+                }
+                if (javadocFile != null && missingJavadocs.contains(binary)) {
+                    javadocs.put(binary, javadocFile);
+                }
+            }
+        }
+    }
+
+    private static File tryGetArtifactFile(
+            ComponentArtifactsResult component,
+            Class<? extends Artifact> artifactType) {
+
+        for (ArtifactResult artifact: component.getArtifacts(artifactType)) {
+            if (artifact instanceof ResolvedArtifactResult) {
+                return ((ResolvedArtifactResult)artifact).getFile();
+            }
+        }
+        return null;
+    }
+
+    /** {@inheritDoc } */
+    @Override
+    public String getName() {
+        return BuilderUtils.getNameForGenericBuilder(this,
+                missingSources.size() + " sources, " + missingJavadocs.size() + " javadocs");
+    }
+}
@@ -22,6 +22,22 @@ class JavaSourcesUtils {
         }
     }
 
+    static String getCompileClasspathConfigurationName(SourceSet sourceSet) {
+        if (GradleVersionUtils.GRADLE_3_4_OR_BETTER) {
+            return sourceSet.getCompileClasspathConfigurationName()
+        } else {
+            return sourceSet.getCompileConfigurationName()
+        }
+    }
+
+    static String getRuntimeClasspathConfigurationName(SourceSet sourceSet) {
+        if (GradleVersionUtils.GRADLE_3_4_OR_BETTER) {
+            return sourceSet.getRuntimeClasspathConfigurationName()
+        } else {
+            return sourceSet.getRuntimeConfigurationName()
+        }
+    }
+
     private JavaSourcesUtils() {
         throw new AssertionError()
     }
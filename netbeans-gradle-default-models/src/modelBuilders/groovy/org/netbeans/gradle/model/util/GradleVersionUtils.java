@@ -3,6 +3,7 @@ package org.netbeans.gradle.model.util;
 import org.gradle.util.GradleVersion;
 
 public final class GradleVersionUtils {
+    public static final boolean GRADLE_3_4_OR_BETTER = isBetterOrEqual("3.4");
     public static final boolean GRADLE_4_OR_BETTER = isBetterOrEqual("4.0");
 
     private static boolean isBetterOrEqual(String version) {
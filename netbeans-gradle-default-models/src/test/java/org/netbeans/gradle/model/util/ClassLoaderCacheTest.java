@@ -0,0 +1,80 @@
+package org.netbeans.gradle.model.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class ClassLoaderCacheTest {
+    @Rule
+    public final TemporaryFolder tmpDir = new TemporaryFolder();
+
+    private List<URL> createClassPath() throws IOException {
+        File jar = tmpDir.newFile("test.jar");
+        return Collections.singletonList(jar.toURI().toURL());
+    }
+
+    @Test
+    public void testSameClassPathReusesLoader() throws IOException {
+        ClassLoaderCache cache = new ClassLoaderCache();
+        ClassLoader parent = getClass().getClassLoader();
+
+        List<URL> classPath = createClassPath();
+        ClassLoader loader1 = cache.getClassLoader(classPath, parent);
+        ClassLoader loader2 = cache.getClassLoader(classPath, parent);
+
+        assertSame(loader1, loader2);
+        assertSame(parent, loader1.getParent());
+    }
+
+    @Test
+    public void testDifferentParentCreatesNewLoader() throws IOException {
+        ClassLoaderCache cache = new ClassLoaderCache();
+
+        List<URL> classPath = createClassPath();
+        ClassLoader loader1 = cache.getClassLoader(classPath, getClass().getClassLoader());
+        ClassLoader loader2 = cache.getClassLoader(classPath, null);
+
+        assertNotSame(loader1, loader2);
+    }
+
+    @Test
+    public void testModifiedJarCreatesNewLoader() throws IOException {
+        ClassLoaderCache cache = new ClassLoaderCache();
+        ClassLoader parent = getClass().getClassLoader();
+
+        List<URL> classPath = createClassPath();
+        ClassLoader loader1 = cache.getClassLoader(classPath, parent);
+
+        File jar = new File(classPath.get(0).getPath());
+        assertTrue(jar.setLastModified(jar.lastModified() - 10000));
+
+        ClassLoader loader2 = cache.getClassLoader(classPath, parent);
+        assertNotSame(loader1, loader2);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedLoaderIsEvicted() throws IOException {
+        ClassLoaderCache cache = new ClassLoaderCache(2);
+        ClassLoader parent = getClass().getClassLoader();
+
+        List<URL> classPath1 = Collections.singletonList(tmpDir.newFile("test1.jar").toURI().toURL());
+        List<URL> classPath2 = Collections.singletonList(tmpDir.newFile("test2.jar").toURI().toURL());
+        List<URL> classPath3 = Collections.singletonList(tmpDir.newFile("test3.jar").toURI().toURL());
+
+        ClassLoader loader1 = cache.getClassLoader(classPath1, parent);
+        ClassLoader loader2 = cache.getClassLoader(classPath2, parent);
+        assertSame(loader1, cache.getClassLoader(classPath1, parent));
+
+        cache.getClassLoader(classPath3, parent);
+
+        assertSame(loader1, cache.getClassLoader(classPath1, parent));
+        assertNotSame(loader2, cache.getClassLoader(classPath2, parent));
+    }
+}
@@ -0,0 +1,181 @@
+package org.netbeans.gradle.model.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ContentAddressedFileCacheTest {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final long MAX_UNUSED_AGE_MS = TimeUnit.DAYS.toMillis(1);
+
+    private File cacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        File tmpFile = File.createTempFile("content-cache-test", "");
+        assertTrue(tmpFile.delete());
+        cacheDir = tmpFile;
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = cacheDir.listFiles();
+        if (files != null) {
+            for (File file: files) {
+                file.delete();
+            }
+        }
+        cacheDir.delete();
+    }
+
+    private ContentAddressedFileCache newCache() {
+        return new ContentAddressedFileCache(cacheDir, MAX_UNUSED_AGE_MS);
+    }
+
+    private static String readText(File file) throws IOException {
+        byte[] content = new byte[(int)file.length()];
+        FileInputStream input = new FileInputStream(file);
+        try {
+            int offset = 0;
+            while (offset < content.length) {
+                int readCount = input.read(content, offset, content.length - offset);
+                assertTrue(readCount > 0);
+                offset += readCount;
+            }
+        } finally {
+            input.close();
+        }
+        return new String(content, UTF8.name());
+    }
+
+    private static void writeText(File file, String content) throws IOException {
+        FileOutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content.getBytes(UTF8.name()));
+        } finally {
+            output.close();
+        }
+    }
+
+    @Test
+    public void testSameContentHasStablePath() throws Exception {
+        String content = "println 'testSameContentHasStablePath'";
+
+        File file1;
+        TemporaryFileRef ref1 = newCache().createFile("script", content, UTF8, ".gradle");
+        try {
+            file1 = ref1.getFile();
+            assertEquals(content, readText(file1));
+        } finally {
+            ref1.close();
+        }
+
+        assertTrue("File must be kept after close.", file1.isFile());
+
+        // A new cache instance simulates restarting the IDE.
+        TemporaryFileRef ref2 = newCache().createFile("script", content, UTF8, ".gradle");
+        try {
+            assertEquals(file1, ref2.getFile());
+            assertEquals(content, readText(ref2.getFile()));
+        } finally {
+            ref2.close();
+        }
+    }
+
+    @Test
+    public void testDifferentContentHasDifferentPath() throws Exception {
+        ContentAddressedFileCache cache = newCache();
+        TemporaryFileRef ref1 = cache.createFile("script", "content1", UTF8, ".gradle");
+        try {
+            TemporaryFileRef ref2 = cache.createFile("script", "content2", UTF8, ".gradle");
+            try {
+                assertFalse(ref1.getFile().equals(ref2.getFile()));
+                assertEquals("content1", readText(ref1.getFile()));
+                assertEquals("content2", readText(ref2.getFile()));
+            } finally {
+                ref2.close();
+            }
+        } finally {
+            ref1.close();
+        }
+    }
+
+    @Test
+    public void testCorruptedFileIsRewritten() throws Exception {
+        String content = "println 'testCorruptedFileIsRewritten'";
+
+        File file;
+        TemporaryFileRef ref1 = newCache().createFile("script", content, UTF8, ".gradle");
+        try {
+            file = ref1.getFile();
+        } finally {
+            ref1.close();
+        }
+
+        writeText(file, "println 'something else'");
+
+        TemporaryFileRef ref2 = newCache().createFile("script", content, UTF8, ".gradle");
+        try {
+            assertEquals(file, ref2.getFile());
+            assertEquals(content, readText(file));
+        } finally {
+            ref2.close();
+        }
+    }
+
+    @Test
+    public void testDeletedFileIsRecreated() throws Exception {
+        String content = "println 'testDeletedFileIsRecreated'";
+        ContentAddressedFileCache cache = newCache();
+
+        TemporaryFileRef ref1 = cache.createFile("script", content, UTF8, ".gradle");
+        try {
+            assertTrue(ref1.getFile().delete());
+        } finally {
+            ref1.close();
+        }
+
+        TemporaryFileRef ref2 = cache.createFile("script", content, UTF8, ".gradle");
+        try {
+            assertEquals(content, readText(ref2.getFile()));
+        } finally {
+            ref2.close();
+        }
+    }
+
+    @Test
+    public void testRemoveUnusedFiles() throws Exception {
+        ContentAddressedFileCache cache = newCache();
+        long oldTime = System.currentTimeMillis() - 2 * MAX_UNUSED_AGE_MS;
+
+        TemporaryFileRef unusedRef = cache.createFile("unused", "unused", UTF8, ".gradle");
+        File unusedFile = unusedRef.getFile();
+        unusedRef.close();
+
+        TemporaryFileRef usedRef = cache.createFile("used", "used", UTF8, ".gradle");
+        try {
+            TemporaryFileRef recentRef = cache.createFile("recent", "recent", UTF8, ".gradle");
+            File recentFile = recentRef.getFile();
+            recentRef.close();
+
+            assertTrue(unusedFile.setLastModified(oldTime));
+            assertTrue(usedRef.getFile().setLastModified(oldTime));
+
+            cache.removeUnusedFiles();
+
+            assertFalse("Old unreferenced file must be removed.", unusedFile.exists());
+            assertTrue("Referenced file must be kept.", usedRef.getFile().isFile());
+            assertTrue("Recently used file must be kept.", recentFile.isFile());
+        } finally {
+            usedRef.close();
+        }
+    }
+}
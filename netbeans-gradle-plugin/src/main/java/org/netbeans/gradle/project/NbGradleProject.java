@@ -371,7 +371,7 @@ public final class NbGradleProject implements Project {
             this.extensions = new UpdatableProjectExtensions(projectLookups.getCombinedExtensionLookup());
 
             Lookup extLookup = extensions.getCombinedExtensionLookup();
-            this.mergedCommandQuery = new MergedBuiltInGradleCommandQuery(() -> extLookup.lookupAll(BuiltInGradleCommandQuery.class));
+            this.mergedCommandQuery = new MergedBuiltInGradleCommandQuery(extLookup);
         }
 
         public void updateExtensions(Collection<? extends NbGradleExtensionRef> newExtensions) {
@@ -431,6 +431,22 @@ public final class NbStrings {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.DownloadSourcesFailure");
     }
 
+    public static String getDownloadSourcesProgress(int doneCount, int totalCount) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.DownloadSourcesProgress", doneCount, totalCount);
+    }
+
+    public static String getTaskQueuedProgress(int position, int queueLength) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.TaskQueuedProgress", position, queueLength);
+    }
+
+    public static String getTaskMergedProgress() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.TaskMergedProgress");
+    }
+
+    public static String getDownloadSourcesOfAllProjects() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.DownloadSourcesOfAllProjects");
+    }
+
     public static String getWebPages() {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.WebAppDir");
     }
@@ -5,6 +5,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -18,6 +19,7 @@ import org.netbeans.gradle.model.java.JarOutput;
 import org.netbeans.gradle.model.java.JarOutputsModel;
 import org.netbeans.gradle.model.java.JavaClassPaths;
 import org.netbeans.gradle.model.java.JavaCompatibilityModel;
+import org.netbeans.gradle.model.java.JavaOutputDirs;
 import org.netbeans.gradle.model.java.JavaSourceGroup;
 import org.netbeans.gradle.model.java.JavaSourceSet;
 import org.netbeans.gradle.model.java.JavaSourcesModel;
@@ -35,6 +37,7 @@ import org.netbeans.gradle.project.properties.standard.SourceLevelProperty;
 import org.netbeans.gradle.project.script.ScriptFileProvider;
 import org.netbeans.gradle.project.util.GradleVersions;
 import org.netbeans.gradle.project.util.NbFileUtils;
+import org.netbeans.gradle.project.util.ParallelUtils;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
 import org.openide.util.Lookup;
@@ -42,6 +45,8 @@ import org.openide.util.Lookup;
 public final class JavaParsingUtils {
     private static final Logger LOGGER = Logger.getLogger(JavaParsingUtils.class.getName());
 
+    private static final int MIN_PROJECTS_PER_CHUNK = 16;
+
     private static Collection<JavaSourceSet> getSourceSetsForJar(JarOutput jar, JavaSourcesModel sources) {
         Set<String> sourceSetNames = jar.tryGetSourceSetNames();
         if (sourceSetNames != null) {
@@ -90,7 +95,11 @@ public final class JavaParsingUtils {
         }
     }
 
-    private static Set<File> tryGetBuildDirSourceForJar(JarOutput jar, JavaSourcesModel sources) {
+    private static Set<File> tryGetBuildDirSourceForJar(
+            JarOutput jar,
+            JavaSourcesModel sources,
+            Map<File, File> internedFiles) {
+
         Collection<JavaSourceSet> sourceSets = getSourceSetsForJar(jar, sources);
         if (sourceSets.isEmpty()) {
             return null;
@@ -98,14 +107,25 @@ public final class JavaParsingUtils {
 
         Set<File> result = CollectionUtils.newHashSet(sourceSets.size());
         for (JavaSourceSet sourceSet: sourceSets) {
-            result.addAll(sourceSet.getOutputDirs().getClassesDirs());
+            for (File classesDir: sourceSet.getOutputDirs().getClassesDirs()) {
+                result.add(intern(classesDir, internedFiles));
+            }
         }
-        return result;
+        return Collections.unmodifiableSet(result);
+    }
+
+    private static File intern(File file, Map<File, File> internedFiles) {
+        File prevFile = internedFiles.putIfAbsent(file, file);
+        return prevFile != null ? prevFile : file;
     }
 
     private static Map<File, Set<File>> getJarsToBuildDirs(ModelLoadResult buildInfo) {
         Map<File, Lookup> allProjects = buildInfo.getEvaluatedProjectsModel();
 
+        // The same build directories are added to the class paths of many
+        // source sets, so we want them to share the same File instances.
+        Map<File, File> internedFiles = new HashMap<>();
+
         Map<File, Set<File>> result = CollectionUtils.newHashMap(allProjects.size());
         for (Lookup projectInfo: allProjects.values()) {
             JarOutputsModel jarsModel = projectInfo.lookup(JarOutputsModel.class);
@@ -121,7 +141,7 @@ public final class JavaParsingUtils {
                 }
 
                 for (JarOutput jar: jarsModel.getJars()) {
-                    Set<File> buildDirs = tryGetBuildDirSourceForJar(jar, sources);
+                    Set<File> buildDirs = tryGetBuildDirSourceForJar(jar, sources, internedFiles);
                     if (buildDirs != null) {
                         result.put(jar.getJar(), buildDirs);
                     }
@@ -132,17 +152,35 @@ public final class JavaParsingUtils {
         return result;
     }
 
-    private static Collection<File> adjustedClassPaths(
+    private static boolean needsAdjustment(
             Collection<File> files,
-            Map<File, ? extends Collection<File>> dependencyMap) {
+            Map<File, ? extends Collection<File>> dependencyMap,
+            Set<File> excludedFiles) {
 
-        List<File> result = new ArrayList<>(files.size());
+        for (File file: files) {
+            if (dependencyMap.containsKey(file) || excludedFiles.contains(file)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<File> adjustedClassPaths(
+            Collection<File> files,
+            Map<File, ? extends Collection<File>> dependencyMap,
+            Set<File> excludedFiles) {
+
+        Set<File> result = CollectionUtils.newLinkedHashSet(files.size());
         for (File file: files) {
             Collection<File> adjusted = dependencyMap.get(file);
             if (adjusted != null) {
-                result.addAll(adjusted);
+                for (File adjustedFile: adjusted) {
+                    if (!excludedFiles.contains(adjustedFile)) {
+                        result.add(adjustedFile);
+                    }
+                }
             }
-            else {
+            else if (!excludedFiles.contains(file)) {
                 result.add(file);
             }
         }
@@ -153,16 +191,28 @@ public final class JavaParsingUtils {
             JavaSourceSet sourceSet,
             Map<File, ? extends Collection<File>> dependencyMap) {
 
+        JavaOutputDirs outputDirs = sourceSet.getOutputDirs();
+        Set<File> runtimeExcludes = CollectionUtils.newHashSet(outputDirs.getClassesDirs().size() + 1);
+        runtimeExcludes.addAll(outputDirs.getClassesDirs());
+        runtimeExcludes.add(outputDirs.getResourcesDir());
+
         JavaClassPaths origClassPaths = sourceSet.getClasspaths();
-        Collection<File> compile = adjustedClassPaths(origClassPaths.getCompileClasspaths(), dependencyMap);
-        Collection<File> runtime = adjustedClassPaths(origClassPaths.getRuntimeClasspaths(), dependencyMap);
+        Set<File> origCompile = origClassPaths.getCompileClasspaths();
+        Set<File> origRuntime = origClassPaths.getRuntimeClasspaths();
+
+        // Most source sets do not depend on other projects, so there is no
+        // reason to create a new copy of them.
+        if (!needsAdjustment(origCompile, dependencyMap, Collections.<File>emptySet())
+                && !needsAdjustment(origRuntime, dependencyMap, runtimeExcludes)) {
+            return sourceSet;
+        }
 
-        runtime.removeAll(sourceSet.getOutputDirs().getClassesDirs());
-        runtime.remove(sourceSet.getOutputDirs().getResourcesDir());
+        Set<File> compile = adjustedClassPaths(origCompile, dependencyMap, Collections.<File>emptySet());
+        Set<File> runtime = adjustedClassPaths(origRuntime, dependencyMap, runtimeExcludes);
 
         JavaClassPaths classPaths = new JavaClassPaths(compile, runtime);
 
-        JavaSourceSet.Builder result = new JavaSourceSet.Builder(sourceSet.getName(), sourceSet.getOutputDirs());
+        JavaSourceSet.Builder result = new JavaSourceSet.Builder(sourceSet.getName(), outputDirs);
         result.setClasspaths(classPaths);
         result.setCompileClassPathProblem(sourceSet.getCompileClassPathProblem());
         result.setRuntimeClassPathProblem(sourceSet.getRuntimeClassPathProblem());
@@ -178,8 +228,9 @@ public final class JavaParsingUtils {
             JavaSourcesModel sourcesModel,
             Map<File, ? extends Collection<File>> dependencyMap) {
 
-        List<JavaSourceSet> result = new ArrayList<>();
-        for (JavaSourceSet sourceSet: sourcesModel.getSourceSets()) {
+        Collection<JavaSourceSet> sourceSets = sourcesModel.getSourceSets();
+        List<JavaSourceSet> result = new ArrayList<>(sourceSets.size());
+        for (JavaSourceSet sourceSet: sourceSets) {
             result.add(adjustedSources(sourceSet, dependencyMap));
         }
         return result;
@@ -189,11 +240,15 @@ public final class JavaParsingUtils {
         return NbGradleProjectFactory.tryLoadSafeGradleProject(projectDir);
     }
 
-    private static List<NbListedDir> getListedDirs(ModelLoadResult retrievedModels, Lookup projectInfo) {
+    private static boolean needsWebPages(ModelLoadResult retrievedModels) {
+        NbGradleProject project = getProject(retrievedModels.getMainProjectDir());
+        return project == null || !OtherPlugins.hasJavaEEExtension(project);
+    }
+
+    private static List<NbListedDir> getListedDirs(boolean needsWebPages, Lookup projectInfo) {
         List<NbListedDir> listedDirs = new ArrayList<>();
 
-        NbGradleProject project = getProject(retrievedModels.getMainProjectDir());
-        if (project == null || !OtherPlugins.hasJavaEEExtension(project)) {
+        if (needsWebPages) {
             WarFoldersModel warFolders = projectInfo.lookup(WarFoldersModel.class);
             if (warFolders != null) {
                 listedDirs.add(new NbListedDir(NbStrings.getWebPages(), warFolders.getWebAppDir()));
@@ -205,11 +260,31 @@ public final class JavaParsingUtils {
 
     public static Collection<NbJavaModule> parseModules(ModelLoadResult retrievedModels) {
         Map<File, Set<File>> jarsToBuildDirs = getJarsToBuildDirs(retrievedModels);
+        boolean needsWebPages = needsWebPages(retrievedModels);
 
-        Map<File, Lookup> allProjects = retrievedModels.getEvaluatedProjectsModel();
+        List<Lookup> allProjects = new ArrayList<>(retrievedModels.getEvaluatedProjectsModel().values());
+
+        // Projects are independent of each other, so large multi-project
+        // builds can be processed concurrently.
+        List<List<Lookup>> chunks = ParallelUtils.splitToChunks(allProjects, MIN_PROJECTS_PER_CHUNK);
+        List<List<NbJavaModule>> chunkResults = ParallelUtils.mapInParallel(chunks,
+                chunk -> parseModules(retrievedModels, chunk, jarsToBuildDirs, needsWebPages));
 
         List<NbJavaModule> result = new ArrayList<>(allProjects.size());
-        for (Lookup projectInfo: allProjects.values()) {
+        for (List<NbJavaModule> chunkResult: chunkResults) {
+            result.addAll(chunkResult);
+        }
+        return result;
+    }
+
+    private static List<NbJavaModule> parseModules(
+            ModelLoadResult retrievedModels,
+            List<Lookup> projectInfos,
+            Map<File, Set<File>> jarsToBuildDirs,
+            boolean needsWebPages) {
+
+        List<NbJavaModule> result = new ArrayList<>(projectInfos.size());
+        for (Lookup projectInfo: projectInfos) {
             JavaCompatibilityModel versions = projectInfo.lookup(JavaCompatibilityModel.class);
             JavaSourcesModel sourcesModel = projectInfo.lookup(JavaSourcesModel.class);
             if (versions == null || sourcesModel == null) {
@@ -232,7 +307,7 @@ public final class JavaParsingUtils {
             }
 
             Collection<JavaSourceSet> sourceSets = adjustedSources(sourcesModel, jarsToBuildDirs);
-            List<NbListedDir> listedDirs = getListedDirs(retrievedModels, projectInfo);
+            List<NbListedDir> listedDirs = getListedDirs(needsWebPages, projectInfo);
 
             JavaTestModel testModel = projectInfo.lookup(JavaTestModel.class);
             if (testModel == null) {
@@ -53,6 +53,7 @@ public final class NbJavaModule implements Serializable {
     private final Supplier<Map<File, List<JavaSourceSet>>> buildOutputToSourceSets;
     private final Supplier<Map<File, List<JavaSourceSet>>> jarOutputsToSourceSets;
     private final Supplier<Map<File, File>> classesDirToJars;
+    private final Supplier<SourceRootIndex> sourceRootIndexRef;
 
     public NbJavaModule(
             GenericProjectProperties properties,
@@ -86,6 +87,7 @@ public final class NbJavaModule implements Serializable {
         this.buildOutputToSourceSets = LazyValues.lazyValue(this::createBuildOutputsToSourceSets);
         this.jarOutputsToSourceSets = LazyValues.lazyValue(this::createJarOutputsToSourceSets);
         this.classesDirToJars = LazyValues.lazyValue(this::createClassesDirToJar);
+        this.sourceRootIndexRef = LazyValues.lazyValue(() -> new SourceRootIndex(this));
     }
 
     public GenericProjectProperties getProperties() {
@@ -294,6 +296,17 @@ public final class NbJavaModule implements Serializable {
         return nonTestSourceSetsRef.get();
     }
 
+    /**
+     * Returns the index of the source roots of this module. The index is
+     * created on first access and is never changed afterwards.
+     *
+     * @return the index of the source roots of this module. This method
+     *   never returns {@code null}.
+     */
+    public SourceRootIndex getSourceRootIndex() {
+        return sourceRootIndexRef.get();
+    }
+
     public List<NamedSourceRoot> getNamedSourceRoots() {
         return namedSourceRootsRef.get();
     }
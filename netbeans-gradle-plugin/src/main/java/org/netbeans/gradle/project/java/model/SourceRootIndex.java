@@ -0,0 +1,198 @@
+package org.netbeans.gradle.project.java.model;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.netbeans.gradle.model.java.JavaOutputDirs;
+import org.netbeans.gradle.model.java.JavaSourceGroup;
+import org.netbeans.gradle.model.java.JavaSourceSet;
+import org.netbeans.gradle.project.util.DefaultUrlFactory;
+import org.netbeans.gradle.project.util.UrlFactory;
+
+/**
+ * Defines an immutable index of the source roots of a {@link NbJavaModule}.
+ * The index allows finding the source root (and the source set) of a file
+ * by walking the ancestors of the file instead of checking every source root
+ * of the module.
+ * <P>
+ * Instances of this class are created lazily by {@link NbJavaModule#getSourceRootIndex()}
+ * and are safe to be used by multiple threads concurrently.
+ */
+public final class SourceRootIndex {
+    private static final URL[] NO_URLS = new URL[0];
+
+    private final Map<File, SourceRootInfo> roots;
+    private final URL[] nonTestRootUrls;
+    private final URL[] testRootUrls;
+
+    SourceRootIndex(NbJavaModule module) {
+        Map<File, SourceRootInfo> rootsBuilder = new HashMap<>();
+        addSourceSets(module, module.getNonTestSourceSets(), false, rootsBuilder);
+        addSourceSets(module, module.getTestSourceSets(), true, rootsBuilder);
+
+        this.roots = rootsBuilder;
+        this.nonTestRootUrls = urlsFromSourceSets(module.getNonTestSourceSets());
+        this.testRootUrls = urlsFromSourceSets(module.getTestSourceSets());
+    }
+
+    private static void addSourceSets(
+            NbJavaModule module,
+            Collection<JavaSourceSet> sourceSets,
+            boolean test,
+            Map<File, SourceRootInfo> result) {
+
+        for (JavaSourceSet sourceSet: sourceSets) {
+            URL[] binaryRoots = null;
+            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
+                for (File sourceRoot: sourceGroup.getSourceRoots()) {
+                    if (result.containsKey(sourceRoot)) {
+                        continue;
+                    }
+
+                    if (binaryRoots == null) {
+                        binaryRoots = getBinaryRoots(module, sourceSet);
+                    }
+                    result.put(sourceRoot, new SourceRootInfo(sourceRoot, sourceSet, test, binaryRoots));
+                }
+            }
+        }
+    }
+
+    private static URL[] getBinaryRoots(NbJavaModule module, JavaSourceSet sourceSet) {
+        JavaOutputDirs outputDirs = sourceSet.getOutputDirs();
+
+        UrlFactory dirFactory = DefaultUrlFactory.getDefaultDirFactory();
+
+        List<URL> result = new ArrayList<>();
+        for (File classesDir: outputDirs.getClassesDirs()) {
+            URL url = dirFactory.toUrl(classesDir);
+            if (url != null) {
+                result.add(url);
+            }
+        }
+
+        File jar = module.tryGetJarForOutput(outputDirs);
+        if (jar != null) {
+            UrlFactory urlFactory = DefaultUrlFactory.getDefaultArchiveOrDirFactory();
+            result.add(urlFactory.toUrl(jar));
+        }
+
+        return result.toArray(new URL[result.size()]);
+    }
+
+    private static URL[] urlsFromSourceSets(Collection<JavaSourceSet> sourceSets) {
+        UrlFactory urlFactory = DefaultUrlFactory.getDefaultDirFactory();
+
+        List<URL> result = new ArrayList<>();
+        for (JavaSourceSet sourceSet: sourceSets) {
+            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
+                for (File sourceRoot: sourceGroup.getSourceRoots()) {
+                    URL url = urlFactory.toUrl(sourceRoot);
+                    if (url != null) {
+                        result.add(url);
+                    }
+                }
+            }
+        }
+
+        return result.isEmpty() ? NO_URLS : result.toArray(new URL[result.size()]);
+    }
+
+    /**
+     * Returns the source root containing the given file or directory. If
+     * source roots are nested, the innermost source root is returned.
+     *
+     * @param file the file or directory whose source root is to be returned.
+     *   This argument cannot be {@code null}.
+     * @return the source root containing the given file or {@code null} if
+     *   the given file is not within any of the source roots of the module
+     */
+    public SourceRootInfo tryFindSourceRoot(File file) {
+        Objects.requireNonNull(file, "file");
+
+        for (File current = file; current != null; current = current.getParentFile()) {
+            SourceRootInfo result = roots.get(current);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the source root whose directory is exactly the given directory.
+     *
+     * @param sourceRoot the directory of the source root. This argument
+     *   cannot be {@code null}.
+     * @return the source root whose directory is exactly the given directory
+     *   or {@code null} if there is no such source root
+     */
+    public SourceRootInfo tryGetSourceRoot(File sourceRoot) {
+        Objects.requireNonNull(sourceRoot, "sourceRoot");
+        return roots.get(sourceRoot);
+    }
+
+    /**
+     * Returns the URLs of the source roots of the non-test source sets. The
+     * returned array must not be modified.
+     *
+     * @return the URLs of the source roots of the non-test source sets. This
+     *   method never returns {@code null}.
+     */
+    public URL[] getNonTestRootUrls() {
+        return nonTestRootUrls;
+    }
+
+    /**
+     * Returns the URLs of the source roots of the test source sets. The
+     * returned array must not be modified.
+     *
+     * @return the URLs of the source roots of the test source sets. This
+     *   method never returns {@code null}.
+     */
+    public URL[] getTestRootUrls() {
+        return testRootUrls;
+    }
+
+    public static final class SourceRootInfo {
+        private final File sourceRoot;
+        private final JavaSourceSet sourceSet;
+        private final boolean test;
+        private final URL[] binaryRoots;
+
+        private SourceRootInfo(File sourceRoot, JavaSourceSet sourceSet, boolean test, URL[] binaryRoots) {
+            this.sourceRoot = sourceRoot;
+            this.sourceSet = sourceSet;
+            this.test = test;
+            this.binaryRoots = binaryRoots;
+        }
+
+        public File getSourceRoot() {
+            return sourceRoot;
+        }
+
+        public JavaSourceSet getSourceSet() {
+            return sourceSet;
+        }
+
+        public boolean isTest() {
+            return test;
+        }
+
+        /**
+         * Returns the URLs of the build outputs of the source set owning this
+         * source root. The returned array must not be modified.
+         *
+         * @return the URLs of the build outputs of the source set owning this
+         *   source root. This method never returns {@code null}.
+         */
+        public URL[] getBinaryRoots() {
+            return binaryRoots;
+        }
+    }
+}
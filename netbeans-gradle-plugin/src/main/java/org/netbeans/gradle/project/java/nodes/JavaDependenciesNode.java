@@ -20,6 +20,7 @@ import javax.swing.AbstractAction;
 import javax.swing.Action;
 import org.jtrim2.executor.TaskExecutor;
 import org.netbeans.api.project.Project;
+import org.netbeans.api.project.ui.OpenProjects;
 import org.netbeans.gradle.model.java.JavaClassPaths;
 import org.netbeans.gradle.model.java.JavaSourceSet;
 import org.netbeans.gradle.model.util.CollectionUtils;
@@ -33,8 +34,8 @@ import org.netbeans.gradle.project.java.model.JavaProjectDependencies;
 import org.netbeans.gradle.project.java.model.JavaProjectDependencyDef;
 import org.netbeans.gradle.project.java.model.NbJavaModel;
 import org.netbeans.gradle.project.java.model.NbJavaModule;
+import org.netbeans.gradle.project.java.tasks.DownloadSourcesTask;
 import org.netbeans.gradle.project.tasks.DaemonTaskDef;
-import org.netbeans.gradle.project.tasks.DownloadSourcesTask;
 import org.netbeans.gradle.project.tasks.GradleDaemonManager;
 import org.netbeans.gradle.project.util.ListenerRegistrations;
 import org.netbeans.gradle.project.util.NbTaskExecutors;
@@ -92,7 +93,8 @@ public final class JavaDependenciesNode extends AbstractNode {
     public Action[] getActions(boolean context) {
         NbGradleProject project = NbGradleProjectFactory.getGradleProject(javaExt.getProject());
         return new Action[]{
-            new DownloadSourcesAction(project)
+            new DownloadSourcesAction(project),
+            new DownloadAllSourcesAction(project)
         };
     }
 
@@ -674,4 +676,41 @@ public final class JavaDependenciesNode extends AbstractNode {
             });
         }
     }
+
+    @SuppressWarnings("serial")
+    private static final class DownloadAllSourcesAction extends AbstractAction {
+        private final NbGradleProject project;
+
+        public DownloadAllSourcesAction(NbGradleProject project) {
+            super(NbStrings.getDownloadSourcesOfAllProjects());
+            this.project = project;
+        }
+
+        private static List<NbGradleProject> getOpenedGradleProjects() {
+            Project[] openedProjects = OpenProjects.getDefault().getOpenProjects();
+            List<NbGradleProject> result = new ArrayList<>(openedProjects.length);
+            for (Project openedProject: openedProjects) {
+                NbGradleProject gradleProject = NbGradleProjectFactory.tryGetGradleProject(openedProject);
+                if (gradleProject != null) {
+                    result.add(gradleProject);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            List<NbGradleProject> projects = getOpenedGradleProjects();
+            if (!projects.contains(project)) {
+                projects.add(project);
+            }
+
+            DaemonTaskDef taskDef = DownloadSourcesTask.createTaskDef(projects);
+            GradleDaemonManager.submitGradleTask(SOURCES_DOWNLOADER, taskDef, (Throwable error) -> {
+                if (error != null) {
+                    project.displayError(NbStrings.getDownloadSourcesFailure(), error);
+                }
+            });
+        }
+    }
 }
@@ -2,24 +2,17 @@ package org.netbeans.gradle.project.java.query;
 
 import java.io.File;
 import java.net.URL;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
 import javax.swing.event.ChangeListener;
 import org.netbeans.api.java.queries.BinaryForSourceQuery;
-import org.netbeans.gradle.model.java.JavaOutputDirs;
-import org.netbeans.gradle.model.java.JavaSourceGroup;
-import org.netbeans.gradle.model.java.JavaSourceSet;
 import org.netbeans.gradle.project.java.JavaExtension;
 import org.netbeans.gradle.project.java.JavaModelChangeListener;
 import org.netbeans.gradle.project.java.model.NbJavaModule;
+import org.netbeans.gradle.project.java.model.SourceRootIndex;
 import org.netbeans.gradle.project.query.AbstractBinaryForSourceQuery;
-import org.netbeans.gradle.project.util.DefaultUrlFactory;
 import org.netbeans.gradle.project.util.LazyChangeSupport;
-import org.netbeans.gradle.project.util.NbFileUtils;
-import org.netbeans.gradle.project.util.UrlFactory;
 
 public final class GradleBinaryForSourceQuery
 extends
@@ -43,32 +36,10 @@ implements
     }
 
     private static URL[] getRootsAsURLs(NbJavaModule module, File root) {
-        for (JavaSourceSet sourceSet: module.getSources()) {
-            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
-                for (File sourceRoot: sourceGroup.getSourceRoots()) {
-                    if (Objects.equals(sourceRoot, root)) {
-                        JavaOutputDirs outputDirs = sourceSet.getOutputDirs();
-
-                        UrlFactory dirFactory = DefaultUrlFactory.getDefaultDirFactory();
-
-                        List<URL> result = new ArrayList<>();
-                        outputDirs.getClassesDirs().stream()
-                                .map(dirFactory::toUrl)
-                                .filter(url -> url != null)
-                                .forEach(result::add);
-
-                        File jar = module.tryGetJarForOutput(outputDirs);
-                        if (jar != null) {
-                            UrlFactory urlFactory = DefaultUrlFactory.getDefaultArchiveOrDirFactory();
-                            result.add(urlFactory.toUrl(jar));
-                        }
-
-                        return result.toArray(new URL[result.size()]);
-                    }
-                }
-            }
-        }
-        return NO_ROOTS;
+        SourceRootIndex.SourceRootInfo rootInfo = module.getSourceRootIndex().tryGetSourceRoot(root);
+        return rootInfo != null
+                ? rootInfo.getBinaryRoots().clone()
+                : NO_ROOTS;
     }
 
     @Override
@@ -79,16 +50,8 @@ implements
     @Override
     protected File normalizeSourcePath(File sourcePath) {
         NbJavaModule module = moduleProvider.get();
-        for (JavaSourceSet sourceSet: module.getSources()) {
-            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
-                for (File sourceRoot: sourceGroup.getSourceRoots()) {
-                    if (NbFileUtils.isParentOrSame(sourceRoot, sourcePath)) {
-                        return sourceRoot;
-                    }
-                }
-            }
-        }
-        return null;
+        SourceRootIndex.SourceRootInfo rootInfo = module.getSourceRootIndex().tryFindSourceRoot(sourcePath);
+        return rootInfo != null ? rootInfo.getSourceRoot() : null;
     }
 
     @Override
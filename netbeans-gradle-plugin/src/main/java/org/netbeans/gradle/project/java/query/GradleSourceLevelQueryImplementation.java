@@ -1,5 +1,6 @@
 package org.netbeans.gradle.project.java.query;
 
+import java.io.File;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -10,9 +11,11 @@ import org.netbeans.api.project.FileOwnerQuery;
 import org.netbeans.api.project.Project;
 import org.netbeans.gradle.project.api.property.GradleProperty;
 import org.netbeans.gradle.project.java.JavaExtension;
+import org.netbeans.gradle.project.java.model.NbJavaModule;
 import org.netbeans.gradle.project.properties.NbProperties;
 import org.netbeans.spi.java.queries.SourceLevelQueryImplementation2;
 import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
 
 public final class GradleSourceLevelQueryImplementation
 implements
@@ -22,12 +25,12 @@ implements
 
     private static final String JAVA_VERSION_PREFIX = "1.";
 
+    private final JavaExtension javaExt;
     private final FileObject projectDir;
     private final Result result;
 
     public GradleSourceLevelQueryImplementation(JavaExtension javaExt) {
-        Objects.requireNonNull(javaExt, "javaExt");
-
+        this.javaExt = Objects.requireNonNull(javaExt, "javaExt");
         this.projectDir = javaExt.getProjectDirectory();
 
         GradleProperty.SourceLevel sourceLevel = javaExt.getOwnerProjectLookup().lookup(GradleProperty.SourceLevel.class);
@@ -58,6 +61,12 @@ implements
 
     @Override
     public Result getSourceLevel(FileObject javaFile) {
+        // Files in our source roots are the common case, and checking them
+        // is a lot cheaper than querying the owner project.
+        if (isInSourceRoot(javaFile)) {
+            return result;
+        }
+
         Project owner = FileOwnerQuery.getOwner(javaFile);
         if (owner == null) {
             return null;
@@ -68,6 +77,16 @@ implements
                 : null;
     }
 
+    private boolean isInSourceRoot(FileObject file) {
+        File rawFile = FileUtil.toFile(file);
+        if (rawFile == null) {
+            return false;
+        }
+
+        NbJavaModule module = javaExt.getCurrentModel().getMainModule();
+        return module.getSourceRootIndex().tryFindSourceRoot(rawFile) != null;
+    }
+
     private static final class ResultImpl implements Result {
         private final SwingPropertySource<String, ChangeListener> property;
 
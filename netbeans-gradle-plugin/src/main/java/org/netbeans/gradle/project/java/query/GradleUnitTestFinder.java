@@ -2,17 +2,11 @@ package org.netbeans.gradle.project.java.query;
 
 import java.io.File;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
 import java.util.Objects;
-import org.netbeans.gradle.model.java.JavaSourceGroup;
-import org.netbeans.gradle.model.java.JavaSourceSet;
 import org.netbeans.gradle.project.java.JavaExtension;
 import org.netbeans.gradle.project.java.model.NbJavaModel;
 import org.netbeans.gradle.project.java.model.NbJavaModule;
-import org.netbeans.gradle.project.util.DefaultUrlFactory;
-import org.netbeans.gradle.project.util.UrlFactory;
+import org.netbeans.gradle.project.java.model.SourceRootIndex;
 import org.netbeans.spi.java.queries.MultipleRootsUnitTestForSourceQueryImplementation;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
@@ -25,44 +19,21 @@ public final class GradleUnitTestFinder implements MultipleRootsUnitTestForSourc
     }
 
     private static boolean hasSource(NbJavaModule module, FileObject source) {
-        for (JavaSourceSet sourceSet: module.getNonTestSourceSets()) {
-            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
-                for (File sourceRoot: sourceGroup.getSourceRoots()) {
-                    FileObject sourceRootObj = FileUtil.toFileObject(sourceRoot);
-                    if (sourceRootObj != null && FileUtil.getRelativePath(sourceRootObj, source) != null) {
-                        return true;
-                    }
-                }
-            }
+        File sourceFile = FileUtil.toFile(source);
+        if (sourceFile == null) {
+            return false;
         }
 
-        return false;
-    }
-
-    private static URL[] urlsFromSourceSets(Collection<JavaSourceSet> sourceSets) {
-        UrlFactory urlFactory = DefaultUrlFactory.getDefaultDirFactory();
-
-        List<URL> result = new ArrayList<>();
-        for (JavaSourceSet sourceSet: sourceSets) {
-            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
-                for (File sourceRoot: sourceGroup.getSourceRoots()) {
-                    URL url = urlFactory.toUrl(sourceRoot);
-                    if (url != null) {
-                        result.add(url);
-                    }
-                }
-            }
-        }
-
-        return result.toArray(new URL[result.size()]);
+        SourceRootIndex.SourceRootInfo rootInfo = module.getSourceRootIndex().tryFindSourceRoot(sourceFile);
+        return rootInfo != null && !rootInfo.isTest();
     }
 
     private static URL[] getSourceRoots(NbJavaModule module) {
-        return urlsFromSourceSets(module.getNonTestSourceSets());
+        return module.getSourceRootIndex().getNonTestRootUrls().clone();
     }
 
     private static URL[] getTestRoots(NbJavaModule module) {
-        return urlsFromSourceSets(module.getTestSourceSets());
+        return module.getSourceRootIndex().getTestRootUrls().clone();
     }
 
     @Override
@@ -1,13 +1,20 @@
 package org.netbeans.gradle.project.java.tasks;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import javax.swing.text.Document;
 import org.netbeans.api.editor.mimelookup.MimeRegistration;
 import org.netbeans.api.java.project.JavaProjectConstants;
 import org.netbeans.api.project.FileOwnerQuery;
 import org.netbeans.api.project.Project;
+import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbGradleProjectFactory;
+import org.netbeans.gradle.project.api.task.CommandCompleteListener;
 import org.netbeans.gradle.project.api.task.GradleActionProviderContext;
+import org.netbeans.gradle.project.model.DefaultGradleModelLoader;
 import org.netbeans.gradle.project.properties.global.CommonGlobalSettings;
 import org.netbeans.modules.parsing.api.Source;
 import org.netbeans.spi.editor.document.OnSaveTask;
@@ -16,6 +23,11 @@ import org.openide.filesystems.FileObject;
 import org.openide.util.lookup.Lookups;
 
 public final class CompileOnSaveAction implements OnSaveTask {
+    // Saving all files usually saves many files in quick succession, we only
+    // want to build them once.
+    private static final long QUIET_PERIOD_MS = 300;
+    private static final long MAX_BUILD_TIME_MS = TimeUnit.MINUTES.toMillis(5);
+
     private final FileObject srcFile;
 
     public CompileOnSaveAction(FileObject srcFile) {
@@ -33,16 +45,38 @@ public final class CompileOnSaveAction implements OnSaveTask {
             return;
         }
 
+        CoordinatorHolder.COORDINATOR.fileSaved(project, srcFile);
+    }
+
+    private static Object getRootKey(Project project) {
+        NbGradleProject gradleProject = NbGradleProjectFactory.tryGetGradleProject(project);
+        return gradleProject != null
+                ? DefaultGradleModelLoader.getAppliedRootProjectDir(gradleProject)
+                : project;
+    }
+
+    private static boolean tryStartBuild(
+            Project project,
+            Collection<FileObject> srcFiles,
+            Runnable completeListener) {
+
         ActionProvider actionProvider
                 = project.getLookup().lookup(ActionProvider.class);
         if (actionProvider == null) {
-            return;
+            return false;
         }
+
+        List<Object> context = new ArrayList<>(srcFiles.size() + 3);
+        context.addAll(srcFiles);
+        context.add(GradleActionProviderContext.DONT_SAVE_FILES);
+        context.add(GradleActionProviderContext.DONT_FOCUS_ON_OUTPUT);
+        // Also called if the build is canceled.
+        context.add((CommandCompleteListener)error -> completeListener.run());
+
         actionProvider.invokeAction(
                 JavaProjectConstants.COMMAND_DEBUG_FIX,
-                Lookups.fixed(srcFile,
-                        GradleActionProviderContext.DONT_SAVE_FILES,
-                        GradleActionProviderContext.DONT_FOCUS_ON_OUTPUT));
+                Lookups.fixed(context.toArray()));
+        return true;
     }
 
     private static boolean isGradleProject(Project project) {
@@ -59,6 +93,15 @@ public final class CompileOnSaveAction implements OnSaveTask {
         return false;
     }
 
+    private static final class CoordinatorHolder {
+        public static final CompileOnSaveCoordinator<Project, FileObject> COORDINATOR
+                = new CompileOnSaveCoordinator<>(
+                        QUIET_PERIOD_MS,
+                        MAX_BUILD_TIME_MS,
+                        CompileOnSaveAction::getRootKey,
+                        CompileOnSaveAction::tryStartBuild);
+    }
+
     @MimeRegistration(mimeType = "", service = OnSaveTask.Factory.class, position = 30000)
     public static final class CompileOnSaveActionFactory implements Factory {
         @Override
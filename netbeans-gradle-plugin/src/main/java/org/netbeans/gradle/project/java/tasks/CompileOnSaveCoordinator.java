@@ -0,0 +1,272 @@
+package org.netbeans.gradle.project.java.tasks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim2.executor.TaskExecutor;
+import org.netbeans.gradle.project.util.NbTaskExecutors;
+
+/**
+ * Collects the files saved in quick succession and builds them together
+ * instead of starting a build for each saved file.
+ * <P>
+ * Saves are grouped by the root build of the owner project: A batch is only
+ * built after no file was saved in the same root build for the quiet period
+ * and there is at most one batch being built for a root build at any time.
+ * Files saved while a batch is being built are added to the next batch, which
+ * is started after the current one completes. A batch contains a single
+ * build for each affected project.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+final class CompileOnSaveCoordinator<ProjectKey, FileKey> {
+    private static final Logger LOGGER = Logger.getLogger(CompileOnSaveCoordinator.class.getName());
+
+    private final long quietPeriodNanos;
+    private final long maxBuildTimeNanos;
+    private final Function<? super ProjectKey, ?> rootKeyGetter;
+    private final BatchBuilder<ProjectKey, FileKey> builder;
+    private final TaskExecutor executor;
+
+    private final ReentrantLock mainLock;
+    private final Map<Object, RootState> roots;
+    private long runIdCounter;
+
+    /**
+     * Creates a new coordinator.
+     *
+     * @param quietPeriodMs the time (in milliseconds) which must elapse without
+     *   saving a file in a root build before the saved files are built
+     * @param maxBuildTimeMs the time (in milliseconds) after which a build is
+     *   assumed to be completed even without being notified. This is only a
+     *   safety net for builds failing to notify their listeners.
+     * @param rootKeyGetter the function returning the key of the root build of
+     *   a project. This function is never called on the thread saving the
+     *   files, so it is allowed to do I/O. This argument cannot be {@code null}.
+     * @param builder the object starting the builds. This argument cannot
+     *   be {@code null}.
+     */
+    public CompileOnSaveCoordinator(
+            long quietPeriodMs,
+            long maxBuildTimeMs,
+            Function<? super ProjectKey, ?> rootKeyGetter,
+            BatchBuilder<ProjectKey, FileKey> builder) {
+
+        this.quietPeriodNanos = TimeUnit.MILLISECONDS.toNanos(quietPeriodMs);
+        this.maxBuildTimeNanos = TimeUnit.MILLISECONDS.toNanos(maxBuildTimeMs);
+        this.rootKeyGetter = Objects.requireNonNull(rootKeyGetter, "rootKeyGetter");
+        this.builder = Objects.requireNonNull(builder, "builder");
+        this.executor = NbTaskExecutors.DEFAULT_EXECUTOR;
+
+        this.mainLock = new ReentrantLock();
+        this.roots = new HashMap<>();
+        this.runIdCounter = 0;
+    }
+
+    public void fileSaved(ProjectKey project, FileKey file) {
+        Objects.requireNonNull(project, "project");
+        Objects.requireNonNull(file, "file");
+
+        // Finding the root build might need to read the settings file, which
+        // we do not want to do on the thread saving the file.
+        executor.execute(() -> addSavedFile(project, file));
+    }
+
+    private void addSavedFile(ProjectKey project, FileKey file) {
+        Object rootKey;
+        try {
+            rootKey = rootKeyGetter.apply(project);
+        } catch (Throwable ex) {
+            LOGGER.log(Level.WARNING, "Failed to find the root build of " + project, ex);
+            return;
+        }
+
+        mainLock.lock();
+        try {
+            RootState state = roots.computeIfAbsent(rootKey, RootState::new);
+            state.pending.computeIfAbsent(project, key -> new LinkedHashSet<>()).add(file);
+            state.lastSaveTime = System.nanoTime();
+            if (!state.quietFlushScheduled) {
+                // Otherwise the scheduled flush will reschedule itself if needed.
+                scheduleFlush(state, quietPeriodNanos, true);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void scheduleFlush(RootState state, long delayNanos, boolean quietFlush) {
+        assert mainLock.isHeldByCurrentThread();
+
+        state.scheduledFlushCount++;
+        if (quietFlush) {
+            state.quietFlushScheduled = true;
+        }
+
+        NbTaskExecutors.executeAfterDelay(executor, delayNanos, TimeUnit.NANOSECONDS, () -> flush(state, quietFlush));
+    }
+
+    private void flush(RootState state, boolean quietFlush) {
+        long runId;
+        Map<ProjectKey, Set<FileKey>> batch;
+
+        mainLock.lock();
+        try {
+            state.scheduledFlushCount--;
+            if (quietFlush) {
+                state.quietFlushScheduled = false;
+            }
+
+            if (state.pending.isEmpty()) {
+                if (state.runningBuilds == 0 && state.scheduledFlushCount == 0) {
+                    roots.remove(state.rootKey, state);
+                }
+                return;
+            }
+
+            long currentTime = System.nanoTime();
+            long quietTime = currentTime - state.lastSaveTime;
+            if (quietTime < quietPeriodNanos) {
+                if (!state.quietFlushScheduled) {
+                    scheduleFlush(state, quietPeriodNanos - quietTime, true);
+                }
+                return;
+            }
+
+            if (state.runningBuilds > 0) {
+                long buildTime = currentTime - state.runStartTime;
+                if (buildTime < maxBuildTimeNanos) {
+                    // The saved files will be built when the current batch completes
+                    // but do not wait forever if we are not notified.
+                    if (state.scheduledFlushCount == 0) {
+                        scheduleFlush(state, maxBuildTimeNanos - buildTime, false);
+                    }
+                    return;
+                }
+                LOGGER.log(Level.INFO, "Compile on save build was not completed in time for {0}", state.rootKey);
+            }
+
+            batch = state.pending;
+            state.pending = new LinkedHashMap<>();
+
+            runId = ++runIdCounter;
+            state.runId = runId;
+            state.runningBuilds = batch.size();
+            state.runStartTime = currentTime;
+        } finally {
+            mainLock.unlock();
+        }
+
+        for (Map.Entry<ProjectKey, Set<FileKey>> entry: batch.entrySet()) {
+            startBuild(state, runId, entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+    }
+
+    private void startBuild(RootState state, long runId, ProjectKey project, List<FileKey> files) {
+        Runnable completeListener = new OnceRunnable(() -> onBuildCompleted(state, runId));
+
+        boolean started = false;
+        try {
+            started = builder.tryStartBuild(project, files, completeListener);
+        } catch (Throwable ex) {
+            LOGGER.log(Level.WARNING, "Failed to start compile on save build for " + project, ex);
+        } finally {
+            if (!started) {
+                completeListener.run();
+            }
+        }
+    }
+
+    private void onBuildCompleted(RootState state, long runId) {
+        mainLock.lock();
+        try {
+            if (state.runId != runId || state.runningBuilds <= 0) {
+                // A late notification of a build we have already given up on.
+                return;
+            }
+
+            state.runningBuilds--;
+            if (state.runningBuilds > 0) {
+                return;
+            }
+
+            if (!state.pending.isEmpty()) {
+                scheduleFlush(state, 0, false);
+            }
+            else if (state.scheduledFlushCount == 0) {
+                roots.remove(state.rootKey, state);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    public interface BatchBuilder<ProjectKey, FileKey> {
+        /**
+         * Starts building the given saved files of the given project.
+         *
+         * @param project the project owning the saved files. This argument
+         *   cannot be {@code null}.
+         * @param files the saved files in the order they were first saved. This
+         *   argument cannot be {@code null} and is never empty.
+         * @param completeListener the listener to be called after the build
+         *   completes. This listener might be called multiple times, subsequent
+         *   calls are ignored. This argument cannot be {@code null}.
+         * @return {@code true} if the build was started, {@code false} otherwise.
+         *   The complete listener does not need to be called if this method
+         *   returns {@code false}.
+         */
+        public boolean tryStartBuild(ProjectKey project, Collection<FileKey> files, Runnable completeListener);
+    }
+
+    private final class RootState {
+        public final Object rootKey;
+
+        // The following fields are guarded by mainLock.
+        public Map<ProjectKey, Set<FileKey>> pending;
+        public long lastSaveTime;
+        public int scheduledFlushCount;
+        public boolean quietFlushScheduled;
+        public long runId;
+        public int runningBuilds;
+        public long runStartTime;
+
+        public RootState(Object rootKey) {
+            this.rootKey = rootKey;
+            this.pending = new LinkedHashMap<>();
+            this.scheduledFlushCount = 0;
+            this.quietFlushScheduled = false;
+            this.runId = 0;
+            this.runningBuilds = 0;
+        }
+    }
+
+    private static final class OnceRunnable implements Runnable {
+        private final AtomicReference<Runnable> taskRef;
+
+        public OnceRunnable(Runnable task) {
+            this.taskRef = new AtomicReference<>(task);
+        }
+
+        @Override
+        public void run() {
+            Runnable task = taskRef.getAndSet(null);
+            if (task != null) {
+                task.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package org.netbeans.gradle.project.java.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.gradle.tooling.ModelBuilder;
+import org.gradle.tooling.ProjectConnection;
+import org.gradle.tooling.model.build.BuildEnvironment;
+import org.gradle.tooling.model.idea.IdeaProject;
+import org.gradle.util.GradleVersion;
+import org.jtrim2.cancel.CancellationToken;
+import org.netbeans.api.progress.ProgressHandle;
+import org.netbeans.api.project.Project;
+import org.netbeans.gradle.model.BuilderResult;
+import org.netbeans.gradle.model.FetchedModels;
+import org.netbeans.gradle.model.FetchedModelsOrError;
+import org.netbeans.gradle.model.FetchedProjectModels;
+import org.netbeans.gradle.model.GenericModelFetcher;
+import org.netbeans.gradle.model.GradleBuildInfoQuery;
+import org.netbeans.gradle.model.OperationInitializer;
+import org.netbeans.gradle.model.api.GradleProjectInfoQuery2;
+import org.netbeans.gradle.model.java.DependencySourcesModel;
+import org.netbeans.gradle.model.java.JavaClassPaths;
+import org.netbeans.gradle.model.java.JavaModelBuilders;
+import org.netbeans.gradle.model.java.JavaSourceSet;
+import org.netbeans.gradle.project.NbGradleProject;
+import org.netbeans.gradle.project.NbGradleProjectFactory;
+import org.netbeans.gradle.project.NbStrings;
+import org.netbeans.gradle.project.api.modelquery.GradleModelDef;
+import org.netbeans.gradle.project.java.JavaExtension;
+import org.netbeans.gradle.project.java.model.NbJavaModel;
+import org.netbeans.gradle.project.model.DefaultGradleModelLoader;
+import org.netbeans.gradle.project.model.GradleConnectorRef;
+import org.netbeans.gradle.project.model.ProjectConnectionPool;
+import org.netbeans.gradle.project.model.ProjectConnectionRef;
+import org.netbeans.gradle.project.query.GradleCacheByBinaryLookup;
+import org.netbeans.gradle.project.tasks.DaemonTask;
+import org.netbeans.gradle.project.tasks.DaemonTaskDef;
+import org.netbeans.gradle.project.util.GradleFileUtils;
+import org.netbeans.gradle.project.util.GradleVersions;
+import org.netbeans.spi.java.queries.SourceForBinaryQueryImplementation2;
+
+/**
+ * Defines a task downloading the sources and javadoc of the external
+ * dependencies of a set of projects.
+ * <P>
+ * The projects are grouped by their root project, and only a single
+ * {@code BuildAction} is executed for each root project. Only the artifacts
+ * missing from the Gradle cache are requested from Gradle. Builds using
+ * Gradle older than 2.0 (which cannot resolve source artifacts explicitly)
+ * fetch the {@code IdeaProject} model instead, which downloads every source
+ * artifact of the build as a side effect.
+ */
+public final class DownloadSourcesTask implements DaemonTask {
+    private static final Logger LOGGER = Logger.getLogger(DownloadSourcesTask.class.getName());
+
+    private static final Object DOWNLOAD_KEY = DownloadSourcesTask.class.getName();
+
+    private final Collection<NbGradleProject> projects;
+    private final GradleCacheByBinaryLookup sourceLookup;
+    private final GradleCacheByBinaryLookup javadocLookup;
+
+    public DownloadSourcesTask(Project project) {
+        this(Collections.singleton(NbGradleProjectFactory.getGradleProject(project)));
+    }
+
+    public DownloadSourcesTask(Collection<? extends NbGradleProject> projects) {
+        this.projects = new ArrayList<>(projects);
+        this.sourceLookup = new GradleCacheByBinaryLookup(
+                GradleFileUtils.SOURCE_DIR_NAME,
+                GradleFileUtils.GRADLE_USER_HOME_PROVIDER,
+                GradleFileUtils::binaryToSourceName);
+        this.javadocLookup = new GradleCacheByBinaryLookup(
+                GradleFileUtils.JAVADOC_DIR_NAME,
+                GradleFileUtils.GRADLE_USER_HOME_PROVIDER,
+                GradleFileUtils::binaryToJavadocName);
+
+        for (NbGradleProject project: this.projects) {
+            Objects.requireNonNull(project, "projects[?]");
+        }
+    }
+
+    public static DaemonTaskDef createTaskDef(Project project) {
+        return new DaemonTaskDef(
+                NbStrings.getDownloadSourcesProgressCaption(),
+                true,
+                new DownloadSourcesTask(project));
+    }
+
+    public static DaemonTaskDef createTaskDef(Collection<? extends NbGradleProject> projects) {
+        return new DaemonTaskDef(
+                NbStrings.getDownloadSourcesProgressCaption(),
+                true,
+                new DownloadSourcesTask(projects));
+    }
+
+    @Override
+    public void run(CancellationToken cancelToken, ProgressHandle progress) {
+        Map<Path, MissingArtifacts> requests = collectMissingArtifacts();
+
+        int totalCount = 0;
+        for (MissingArtifacts request: requests.values()) {
+            totalCount += request.getRequestCount();
+        }
+        if (totalCount == 0) {
+            return;
+        }
+
+        DownloadProgress downloadProgress = new DownloadProgress(progress, totalCount);
+        downloadProgress.start();
+
+        int downloadedCount = 0;
+        RuntimeException failure = null;
+        try {
+            for (Map.Entry<Path, MissingArtifacts> entry: requests.entrySet()) {
+                if (cancelToken.isCanceled()) {
+                    break;
+                }
+
+                MissingArtifacts request = entry.getValue();
+                if (request.getRequestCount() == 0) {
+                    continue;
+                }
+
+                // A failure of a root project must not prevent downloading
+                // the sources of other builds.
+                int rootDownloadedCount = 0;
+                try {
+                    rootDownloadedCount = downloadForRoot(cancelToken, entry.getKey().toFile(), request, progress);
+                    downloadedCount += rootDownloadedCount;
+                } catch (IOException | RuntimeException ex) {
+                    if (failure == null) {
+                        failure = new RuntimeException(ex);
+                    }
+                    else {
+                        failure.addSuppressed(ex);
+                    }
+                }
+                downloadProgress.rootCompleted(request.getRequestCount(), rootDownloadedCount);
+            }
+        } finally {
+            if (downloadedCount > 0) {
+                GradleCacheByBinaryLookup.notifyCacheChange();
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private int downloadForRoot(
+            CancellationToken cancelToken,
+            File rootProjectDir,
+            MissingArtifacts request,
+            ProgressHandle progress) throws IOException {
+
+        NbGradleProject project = request.project;
+        GradleConnectorRef connectorRef = DefaultGradleModelLoader.createGradleConnectorRef(cancelToken, project);
+        OperationInitializer setup = DefaultGradleModelLoader.modelBuilderSetup(project, progress);
+
+        FetchedModelsOrError modelsOrError;
+        try (ProjectConnectionRef connectionRef = ProjectConnectionPool.getDefault().connect(connectorRef, rootProjectDir)) {
+            try {
+                ProjectConnection connection = connectionRef.getConnection();
+                if (!supportsArtifactResolution(connection, setup)) {
+                    return downloadWithIdeaModel(connection, setup, request);
+                }
+                modelsOrError = fetchDependencySources(connection, setup, request);
+            } catch (Throwable ex) {
+                connectionRef.operationFailed(ex);
+                throw ex;
+            }
+        }
+
+        Throwable error = modelsOrError.getUnexpectedError();
+        if (error == null) {
+            error = modelsOrError.getBuildScriptEvaluationError();
+        }
+        if (error != null) {
+            throw new IOException("Failed to download sources of " + rootProjectDir, error);
+        }
+
+        FetchedModels models = modelsOrError.getModels();
+        int result = countDownloaded(models.getDefaultProjectModels());
+        for (FetchedProjectModels projectModels: models.getOtherProjectModels()) {
+            result += countDownloaded(projectModels);
+        }
+        return result;
+    }
+
+    private static boolean supportsArtifactResolution(ProjectConnection connection, OperationInitializer setup) {
+        ModelBuilder<BuildEnvironment> envGetter = connection.model(BuildEnvironment.class);
+        DefaultGradleModelLoader.setupLongRunningOP(setup, envGetter);
+
+        GradleVersion version = GradleVersion.version(envGetter.get().getGradle().getGradleVersion());
+        return version.getBaseVersion().compareTo(GradleVersions.VERSION_2_0) >= 0;
+    }
+
+    private static int downloadWithIdeaModel(
+            ProjectConnection connection,
+            OperationInitializer setup,
+            MissingArtifacts request) {
+
+        ModelBuilder<IdeaProject> builder = connection.model(IdeaProject.class);
+        DefaultGradleModelLoader.setupLongRunningOP(setup, builder);
+        builder.get();
+
+        // The IdeaProject model does not tell which artifacts were downloaded,
+        // so assume that all of them were.
+        return request.getRequestCount();
+    }
+
+    private static FetchedModelsOrError fetchDependencySources(
+            ProjectConnection connection,
+            OperationInitializer setup,
+            MissingArtifacts request) throws IOException {
+
+        GradleModelDef modelDef = GradleModelDef.fromProjectInfoBuilders2(
+                JavaModelBuilders.dependencySourcesBuilder(request.missingSources, request.missingJavadocs));
+
+        Map<Object, List<GradleBuildInfoQuery<?>>> buildInfoRequests = Collections.emptyMap();
+        Map<Object, List<GradleProjectInfoQuery2<?>>> projectInfoRequests = Collections.singletonMap(
+                DOWNLOAD_KEY,
+                new ArrayList<>(modelDef.getProjectInfoQueries2()));
+        GenericModelFetcher modelFetcher = new GenericModelFetcher(
+                buildInfoRequests,
+                projectInfoRequests,
+                Collections.<Class<?>>emptySet());
+
+        return modelFetcher.getModels(connection, setup);
+    }
+
+    private static int countDownloaded(FetchedProjectModels projectModels) {
+        List<BuilderResult> results = projectModels.getProjectInfoResults().get(DOWNLOAD_KEY);
+        if (results == null) {
+            return 0;
+        }
+
+        int result = 0;
+        for (BuilderResult builderResult: results) {
+            Object model = builderResult.getResultObject();
+            if (model instanceof DependencySourcesModel) {
+                DependencySourcesModel sourcesModel = (DependencySourcesModel)model;
+                result += sourcesModel.getSources().size();
+                result += sourcesModel.getJavadocs().size();
+            }
+
+            Throwable issue = builderResult.getIssue() != null
+                    ? builderResult.getIssue().getException()
+                    : null;
+            if (issue != null) {
+                LOGGER.log(Level.INFO, "Failed to resolve some of the sources.", issue);
+            }
+        }
+        return result;
+    }
+
+    private Map<Path, MissingArtifacts> collectMissingArtifacts() {
+        Map<Path, MissingArtifacts> result = new LinkedHashMap<>();
+        Map<File, Boolean> checkedBinaries = new HashMap<>();
+
+        for (NbGradleProject project: projects) {
+            Path rootProjectDir = DefaultGradleModelLoader.getAppliedRootProjectDir(project);
+            MissingArtifacts request = result.get(rootProjectDir);
+            if (request == null) {
+                request = new MissingArtifacts(project);
+                result.put(rootProjectDir, request);
+            }
+
+            for (File binary: getExternalBinaries(project)) {
+                // The same binary is usually referenced by many projects,
+                // so check each of them only once.
+                if (checkedBinaries.put(binary, Boolean.TRUE) != null) {
+                    continue;
+                }
+
+                if (isMissing(sourceLookup, binary)) {
+                    request.missingSources.add(binary);
+                }
+                if (isMissing(javadocLookup, binary)) {
+                    request.missingJavadocs.add(binary);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isMissing(GradleCacheByBinaryLookup lookup, File binary) {
+        // Binaries not in the Gradle cache are not external dependencies,
+        // so there is nothing to download for them.
+        SourceForBinaryQueryImplementation2.Result entry = lookup.tryFindEntryByBinary(binary);
+        return entry != null && entry.getRoots().length == 0;
+    }
+
+    private static Set<File> getExternalBinaries(NbGradleProject project) {
+        JavaExtension javaExt = project.getLookup().lookup(JavaExtension.class);
+        if (javaExt == null) {
+            return Collections.emptySet();
+        }
+
+        NbJavaModel javaModel = javaExt.getCurrentModel();
+        Set<File> result = new LinkedHashSet<>();
+        for (JavaSourceSet sourceSet: javaModel.getMainModule().getSources()) {
+            JavaClassPaths classpaths = sourceSet.getClasspaths();
+            addBinaries(classpaths.getCompileClasspaths(), result);
+            addBinaries(classpaths.getRuntimeClasspaths(), result);
+        }
+        return result;
+    }
+
+    private static void addBinaries(Collection<File> classpath, Set<File> result) {
+        for (File entry: classpath) {
+            if (entry.isFile()) {
+                result.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Reports the progress of the download after each root project is done.
+     * The progress is measured in the number of requested artifacts, while the
+     * number of artifacts actually resolved is displayed in the message.
+     */
+    private static final class DownloadProgress {
+        private final ProgressHandle progress;
+        private final int totalCount;
+
+        private int doneCount;
+        private int resolvedCount;
+
+        public DownloadProgress(ProgressHandle progress, int totalCount) {
+            this.progress = progress;
+            this.totalCount = totalCount;
+            this.doneCount = 0;
+            this.resolvedCount = 0;
+        }
+
+        public void start() {
+            progress.switchToDeterminate(totalCount);
+        }
+
+        public void rootCompleted(int requestCount, int rootResolvedCount) {
+            doneCount += requestCount;
+            resolvedCount += rootResolvedCount;
+            progress.progress(NbStrings.getDownloadSourcesProgress(resolvedCount, totalCount), doneCount);
+        }
+    }
+
+    private static final class MissingArtifacts {
+        public final NbGradleProject project;
+        public final Set<File> missingSources;
+        public final Set<File> missingJavadocs;
+
+        public MissingArtifacts(NbGradleProject project) {
+            this.project = project;
+            this.missingSources = new LinkedHashSet<>();
+            this.missingJavadocs = new LinkedHashSet<>();
+        }
+
+        public int getRequestCount() {
+            return missingSources.size() + missingJavadocs.size();
+        }
+    }
+}
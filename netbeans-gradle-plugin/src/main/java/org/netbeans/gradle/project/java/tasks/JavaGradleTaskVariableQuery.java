@@ -16,6 +16,7 @@ import org.netbeans.gradle.project.api.task.TaskVariableMap;
 import org.netbeans.gradle.project.java.JavaExtension;
 import org.netbeans.gradle.project.java.test.TestTaskName;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap;
+import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.CacheKeyGetter;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.ValueGetter;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableDef;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableDefMap;
@@ -115,7 +116,7 @@ public final class JavaGradleTaskVariableQuery implements GradleTaskVariableQuer
             boolean hasCodeCoverage = project.getCurrentModel().getMainModule().getCodeCoverage().hasCodeCoverage();
             // TODO: It should be somehow determined by the build script
             return new VariableValue(hasCodeCoverage ? "jacocoTestReport" : "");
-        });
+        }, JavaExtension::getCurrentModel);
     }
 
     private static VariableDefMap<JavaExtension> getVariableDefMap() {
@@ -132,7 +133,15 @@ public final class JavaGradleTaskVariableQuery implements GradleTaskVariableQuer
             Map<TaskVariable, VariableDef<JavaExtension>> varMap,
             TaskVariable taskVariable,
             ValueGetter<JavaExtension> valueGetter) {
-        varMap.put(taskVariable, new VariableDef<>(taskVariable, valueGetter));
+        addVariable(varMap, taskVariable, valueGetter, null);
+    }
+
+    private static void addVariable(
+            Map<TaskVariable, VariableDef<JavaExtension>> varMap,
+            TaskVariable taskVariable,
+            ValueGetter<JavaExtension> valueGetter,
+            CacheKeyGetter<JavaExtension> cacheKeyGetter) {
+        varMap.put(taskVariable, new VariableDef<>(taskVariable, valueGetter, cacheKeyGetter));
     }
 
     @Override
@@ -65,8 +65,11 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
     private static final MonitorableTaskExecutorService DEFAULT_MODEL_LOAD_NOTIFIER
             = NbTaskExecutors.newExecutor("Gradle-Project-Load-Notifier", 1);
 
+    private static final int MODEL_PERSISTER_THREAD_COUNT
+            = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
     private static final MonitorableTaskExecutorService DEFAULT_MODEL_PERSISTER
-            = NbTaskExecutors.newExecutor("Gradle-Project-Model-Persister", 1);
+            = NbTaskExecutors.newExecutor("Gradle-Project-Model-Persister", MODEL_PERSISTER_THREAD_COUNT);
 
     private static final AtomicReference<GradleModelCache> DEFAULT_CACHE_REF
             = new AtomicReference<>(null);
@@ -187,12 +190,15 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
         }
     }
 
-    private static void reportModelLoadError(NbGradleProject project, GradleModelLoadError error) {
+    private static void reportModelLoadError(
+            NbGradleProject project,
+            GradleModelLoadError error,
+            boolean explicitReload) {
         Throwable unexpectedError = error.getUnexpectedError();
         if (unexpectedError != null) {
             ModelLoadIssue unexpectedIssue = ModelLoadIssues
                     .projectModelLoadError(project, null, null, unexpectedError);
-            ModelLoadIssueReporter.reportAllIssues(Collections.singleton(unexpectedIssue));
+            ModelLoadIssueReporter.reportAllIssues(Collections.singleton(unexpectedIssue), explicitReload);
         }
 
         Throwable buildScriptEvaluationError = error.getBuildScriptEvaluationError();
@@ -334,7 +340,7 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
                         "Reloading the guessed root project of {0} because its project directory was created after parsing the root project.",
                         project.getProjectDirectoryAsPath());
             }
-            rootModel = loadModelWithProgress(cancelToken, rootLoadKey, progress, null);
+            rootModel = loadModelWithProgress(cancelToken, rootLoadKey, progress, null, false);
             assert rootModel != null;
         }
 
@@ -390,7 +396,7 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
                     model = tryGetFromCache(fixedLoadKey);
                 }
                 if (model == null || hasUnloadedExtension(model)) {
-                    model = loadModelWithProgress(cancelToken, fixedLoadKey, progress, model);
+                    model = loadModelWithProgress(cancelToken, fixedLoadKey, progress, model, !mayFetchFromCache);
                 }
             } catch (IOException | BuildException ex) {
                 error = ex;
@@ -398,7 +404,7 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
                 error = ex;
             } catch (GradleModelLoadError ex) {
                 error = ex;
-                reportModelLoadError(project, ex);
+                reportModelLoadError(project, ex, !mayFetchFromCache);
             } finally {
                 safeCompleteListener.run();
                 onModelLoaded(model, error, listener);
@@ -500,7 +506,8 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
             CancellationToken cancelToken,
             final ProjectLoadRequest projectLoadKey,
             final ProgressHandle progress,
-            final NbGradleModel cachedEntry) throws IOException, GradleModelLoadError {
+            final NbGradleModel cachedEntry,
+            boolean explicitReload) throws IOException, GradleModelLoadError {
 
         File projectDir = project.getProjectDirectoryAsFile();
 
@@ -508,35 +515,20 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
                 "Loading Gradle project from directory: {0}, settings.gradle: {1}",
                 new Object[]{projectDir, projectLoadKey.settingsGradleDef});
 
-        GradleConnector gradleConnector = createGradleConnector(cancelToken, project);
-        gradleConnector.forProjectDirectory(projectDir);
-        ProjectConnection projectConnection = null;
+        GradleConnectorRef gradleConnectorRef = createGradleConnectorRef(cancelToken, project);
 
         NbModelLoader.Result loadedModels;
-        try {
-            projectConnection = gradleConnector.connect();
-
-            DefaultModelBuilderSetup setup = modelBuilderSetup(projectLoadKey, progress);
-
-            ModelBuilder<BuildEnvironment> modelBuilder = projectConnection.model(BuildEnvironment.class);
-            setupLongRunningOP(setup, modelBuilder);
-
-            BuildEnvironment env = modelBuilder.get();
-            reportKnownIssues(env);
-
-            GradleTarget gradleTarget = new GradleTarget(
-                    setup.getJDKVersion(),
-                    GradleVersion.version(env.getGradle().getGradleVersion()));
-            NbModelLoader modelLoader = chooseModel(projectLoadKey.settingsGradleDef, gradleTarget, setup);
-
-            loadedModels = modelLoader.loadModels(project, projectConnection, progress);
-        } finally {
-            if (projectConnection != null) {
-                projectConnection.close();
+        try (ProjectConnectionRef connectionRef = ProjectConnectionPool.getDefault().connect(gradleConnectorRef, projectDir)) {
+            ProjectConnection projectConnection = connectionRef.getConnection();
+            try {
+                loadedModels = loadModels(projectLoadKey, progress, projectConnection);
+            } catch (Throwable ex) {
+                connectionRef.operationFailed(ex);
+                throw ex;
             }
         }
 
-        ModelLoadIssueReporter.reportAllIssues(loadedModels.getIssues());
+        ModelLoadIssueReporter.reportAllIssues(loadedModels.getIssues(), explicitReload);
 
         NbGradleModel result = cachedEntry != null
                 ? cachedEntry.updateEntry(loadedModels.getMainModel())
@@ -547,6 +539,27 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
         return result;
     }
 
+    private NbModelLoader.Result loadModels(
+            ProjectLoadRequest projectLoadKey,
+            ProgressHandle progress,
+            ProjectConnection projectConnection) throws IOException, GradleModelLoadError {
+
+        DefaultModelBuilderSetup setup = modelBuilderSetup(projectLoadKey, progress);
+
+        ModelBuilder<BuildEnvironment> modelBuilder = projectConnection.model(BuildEnvironment.class);
+        setupLongRunningOP(setup, modelBuilder);
+
+        BuildEnvironment env = modelBuilder.get();
+        reportKnownIssues(env);
+
+        GradleTarget gradleTarget = new GradleTarget(
+                setup.getJDKVersion(),
+                GradleVersion.version(env.getGradle().getGradleVersion()));
+        NbModelLoader modelLoader = chooseModel(projectLoadKey.settingsGradleDef, gradleTarget, setup);
+
+        return modelLoader.loadModels(project, projectConnection, progress);
+    }
+
     private static void reportKnownIssues(BuildEnvironment env) {
         GradleVersion version = GradleVersion.version(env.getGradle().getGradleVersion());
         if (GradleVersions.VERSION_1_7.compareTo(version) < 0
@@ -612,7 +625,10 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
         private static final PersistentProjectModelStoreFactory DEFAULT_MODEL_STORE_FACTORY
                 = new PersistentProjectModelStoreFactory();
         private static final LazyPersistentModelStoreFactory<NbGradleModel> DEFAULT_LAZY_MODEL_STORE_FACTORY
-                = new LazyPersistentModelStoreFactory<>(DEFAULT_MODEL_STORE_FACTORY.getModelPersister(), DEFAULT_MODEL_PERSISTER);
+                = new LazyPersistentModelStoreFactory<>(
+                        DEFAULT_MODEL_STORE_FACTORY.getModelPersister(),
+                        DEFAULT_MODEL_PERSISTER,
+                        MODEL_PERSISTER_THREAD_COUNT);
 
         private final NbGradleProject project;
 
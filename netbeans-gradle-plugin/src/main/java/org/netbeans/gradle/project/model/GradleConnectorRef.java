@@ -1,11 +1,16 @@
 package org.netbeans.gradle.project.model;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.gradle.tooling.GradleConnector;
 import org.gradle.tooling.internal.consumer.DefaultGradleConnector;
 import org.jtrim2.cancel.CancellationToken;
@@ -19,21 +24,30 @@ import org.netbeans.gradle.project.properties.NbGradleCommonProperties;
 import org.netbeans.gradle.project.properties.global.CommonGlobalSettings;
 import org.netbeans.gradle.project.tasks.vars.StringResolver;
 import org.netbeans.gradle.project.tasks.vars.StringResolvers;
+import org.netbeans.gradle.project.util.StringUtils;
 import org.openide.util.Lookup;
 
 public final class GradleConnectorRef {
+    private static final Logger LOGGER = Logger.getLogger(GradleConnectorRef.class.getName());
+
     private final GradleConnector gradleConnector;
     private final GradleLocation requestedGradleLocation;
+    private final String wrapperPropertiesHash;
     private final File requestedGradleUserHome;
+    private final Integer requestedDaemonTimeoutSec;
 
     private GradleConnectorRef(
             GradleConnector gradleConnector,
             GradleLocation requestedGradleLocation,
-            File requestedGradleUserHome) {
+            String wrapperPropertiesHash,
+            File requestedGradleUserHome,
+            Integer requestedDaemonTimeoutSec) {
 
         this.gradleConnector = Objects.requireNonNull(gradleConnector, "gradleConnector");
         this.requestedGradleLocation = Objects.requireNonNull(requestedGradleLocation, "requestedGradleLocation");
+        this.wrapperPropertiesHash = wrapperPropertiesHash;
         this.requestedGradleUserHome = requestedGradleUserHome;
+        this.requestedDaemonTimeoutSec = requestedDaemonTimeoutSec;
     }
 
     public static GradleConnectorRef open(CancellationToken cancelToken, Project project) {
@@ -75,7 +89,11 @@ public final class GradleConnectorRef {
             }
         });
 
-        return new GradleConnectorRef(result, gradleLocation, gradleUserHome);
+        String wrapperPropertiesHash = gradleLocation == GradleLocationDefault.DEFAULT
+                ? tryHashWrapperProperties(gradleProject)
+                : null;
+
+        return new GradleConnectorRef(result, gradleLocation, wrapperPropertiesHash, gradleUserHome, timeoutSec);
     }
 
     private static GradleLocation getGradleLocation(NbGradleProject gradleProject) {
@@ -94,10 +112,27 @@ public final class GradleConnectorRef {
         return requestedGradleLocation;
     }
 
+    /**
+     * Returns the hash of the content of the {@code gradle-wrapper.properties}
+     * file if the wrapper might be used to determine the Gradle distribution.
+     * Editing the wrapper properties changes the distribution to be used
+     * without changing the requested {@link #getRequestedGradleLocation() Gradle location}.
+     *
+     * @return the hash of the content of the wrapper properties or {@code null}
+     *   if the wrapper is not relied on or there are no wrapper properties
+     */
+    public String getWrapperPropertiesHash() {
+        return wrapperPropertiesHash;
+    }
+
     public File getRequestedGradleUserHome() {
         return requestedGradleUserHome;
     }
 
+    public Integer getRequestedDaemonTimeoutSec() {
+        return requestedDaemonTimeoutSec;
+    }
+
     private static boolean shouldRelyOnWrapper(NbGradleProject project, GradleLocationDef locationDef) {
         if (locationDef.getLocationRef() == GradleLocationDefault.DEFAULT_REF) {
             return true;
@@ -107,15 +142,40 @@ public final class GradleConnectorRef {
     }
 
     private static boolean hasWrapper(NbGradleProject project) {
+        return Files.isRegularFile(getWrapperPropertiesFile(project));
+    }
+
+    private static String tryHashWrapperProperties(NbGradleProject project) {
+        Path wrapperPropertiesFile = getWrapperPropertiesFile(project);
+        if (!Files.isRegularFile(wrapperPropertiesFile)) {
+            return null;
+        }
+
+        try {
+            byte[] content = Files.readAllBytes(wrapperPropertiesFile);
+            return StringUtils.byteArrayToHex(getMD5().digest(content));
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to read the wrapper properties: " + wrapperPropertiesFile, ex);
+            return null;
+        }
+    }
+
+    private static MessageDigest getMD5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException("Unable to load the MD5 calculator.", ex);
+        }
+    }
+
+    private static Path getWrapperPropertiesFile(NbGradleProject project) {
         Path rootDir = DefaultGradleModelLoader.getAppliedRootProjectDir(project);
-        Path wrapperPropertiesFile = rootDir
+        return rootDir
                 .resolve("gradle")
                 .resolve("wrapper")
                 .resolve("gradle-wrapper.properties");
-        return Files.isRegularFile(wrapperPropertiesFile);
     }
 
-
     public GradleConnector getGradleConnector() {
         return gradleConnector;
     }
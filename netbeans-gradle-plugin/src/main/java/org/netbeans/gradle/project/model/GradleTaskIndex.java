@@ -0,0 +1,70 @@
+package org.netbeans.gradle.project.model;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.netbeans.gradle.model.GradleTaskID;
+import org.netbeans.gradle.model.util.CollectionUtils;
+
+/**
+ * Defines an immutable index of the tasks of a single project. The index
+ * allows looking up tasks by name without scanning all the tasks of the project.
+ * <P>
+ * Instances of this class are created lazily by {@link NbGradleProjectTree#getTaskIndex()}
+ * and are safe to be used by multiple threads concurrently.
+ */
+public final class GradleTaskIndex {
+    private final List<GradleTaskID> tasks;
+    private final Map<String, GradleTaskID> byName;
+
+    public GradleTaskIndex(Collection<GradleTaskID> tasks) {
+        this.tasks = CollectionUtils.copyNullSafeList(tasks);
+
+        this.byName = CollectionUtils.newHashMap(this.tasks.size());
+        for (GradleTaskID task: this.tasks) {
+            byName.putIfAbsent(task.getName(), task);
+        }
+    }
+
+    public List<GradleTaskID> getTasks() {
+        return tasks;
+    }
+
+    public boolean containsTask(String name) {
+        Objects.requireNonNull(name, "name");
+        return byName.containsKey(name);
+    }
+
+    /**
+     * Returns {@code true} if this index contains the same tasks in the same
+     * order as the given index. This method can be used to avoid rebuilding
+     * views of the tasks when the model of the project is reloaded but its
+     * tasks did not change.
+     *
+     * @param other the other index to compare against. This argument can be
+     *   {@code null}, in which case the return value is {@code false}.
+     * @return {@code true} if this index contains the same tasks in the same
+     *   order as the given index, {@code false} otherwise
+     */
+    public boolean hasSameTasks(GradleTaskIndex other) {
+        if (other == this) return true;
+        if (other == null) return false;
+
+        List<GradleTaskID> otherTasks = other.tasks;
+        int count = tasks.size();
+        if (count != otherTasks.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < count; i++) {
+            GradleTaskID task1 = tasks.get(i);
+            GradleTaskID task2 = otherTasks.get(i);
+            if (!Objects.equals(task1.getFullName(), task2.getFullName())
+                    || !Objects.equals(task1.getName(), task2.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
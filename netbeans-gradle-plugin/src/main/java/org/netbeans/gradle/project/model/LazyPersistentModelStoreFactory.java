@@ -3,35 +3,63 @@ package org.netbeans.gradle.project.model;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.jtrim2.executor.GenericUpdateTaskExecutor;
 import org.jtrim2.executor.TaskExecutor;
-import org.jtrim2.executor.UpdateTaskExecutor;
+import org.jtrim2.utils.ExceptionHelper;
 
 public final class LazyPersistentModelStoreFactory<T> {
     private static final Logger LOGGER = Logger.getLogger(LazyPersistentModelStoreFactory.class.getName());
 
     private final ModelPersister<? super T> modelPersister;
 
-    private final UpdateTaskExecutor persisterExecutor;
+    private final TaskExecutor persisterExecutor;
+    private final int maxParallelism;
 
     private final ReentrantLock queueLock;
     private final Queue<Path> taskQueue;
     private final Map<Path, T> toSave;
+    private final Set<Path> beingSaved;
+    private int activeDrainerCount;
 
     public LazyPersistentModelStoreFactory(ModelPersister<? super T> modelPersister, TaskExecutor persisterExecutor) {
+        this(modelPersister, persisterExecutor, 1);
+    }
+
+    /**
+     * Creates a new factory persisting models on the given executor.
+     *
+     * @param modelPersister the persister actually saving the models. This
+     *   argument cannot be {@code null}.
+     * @param persisterExecutor the executor on which models are saved. This
+     *   argument cannot be {@code null}.
+     * @param maxParallelism the maximum number of tasks concurrently saving models
+     *   submitted to {@code persisterExecutor}. Note that the same path is never
+     *   written concurrently regardless of this value. This argument must be
+     *   greater than zero.
+     */
+    public LazyPersistentModelStoreFactory(
+            ModelPersister<? super T> modelPersister,
+            TaskExecutor persisterExecutor,
+            int maxParallelism) {
+
         this.modelPersister = Objects.requireNonNull(modelPersister, "modelPersister");
-        this.persisterExecutor = new GenericUpdateTaskExecutor(persisterExecutor);
+        this.persisterExecutor = Objects.requireNonNull(persisterExecutor, "persisterExecutor");
+        ExceptionHelper.checkArgumentInRange(maxParallelism, 1, Integer.MAX_VALUE, "maxParallelism");
+        this.maxParallelism = maxParallelism;
 
         this.queueLock = new ReentrantLock();
         this.taskQueue = new LinkedList<>();
         this.toSave = new HashMap<>();
+        this.beingSaved = new HashSet<>();
+        this.activeDrainerCount = 0;
     }
 
     public PersistentModelStore<T> createStore(PersistentModelRetriever<? extends T> modelRetriever) {
@@ -50,16 +78,27 @@ public final class LazyPersistentModelStoreFactory<T> {
             Objects.requireNonNull(model, "model");
             Objects.requireNonNull(dest, "dest");
 
+            boolean startDrainer;
+
             queueLock.lock();
             try {
-                if (toSave.put(dest, model) == null) {
+                // If the path is being saved, then the drainer saving it
+                // will save the new model as well once it is done.
+                if (toSave.put(dest, model) == null && !beingSaved.contains(dest)) {
                     taskQueue.add(dest);
                 }
+
+                startDrainer = activeDrainerCount < maxParallelism;
+                if (startDrainer) {
+                    activeDrainerCount++;
+                }
             } finally {
                 queueLock.unlock();
             }
 
-            persisterExecutor.execute(this::persistQueue);
+            if (startDrainer) {
+                persisterExecutor.execute(this::persistQueue);
+            }
         }
 
         private void fixEmptyQueue() {
@@ -69,25 +108,58 @@ public final class LazyPersistentModelStoreFactory<T> {
             // between `toSave` and `taskQueue`. Inconsistencies should never happen
             // except in case of a bug.
 
-            if (!toSave.isEmpty()) {
-                LOGGER.log(Level.WARNING, "Internal error: Task queue is empty while there are models to save.");
-                taskQueue.addAll(toSave.keySet());
+            for (Path dest: toSave.keySet()) {
+                if (!beingSaved.contains(dest)) {
+                    LOGGER.log(Level.WARNING, "Internal error: Task queue is empty while there are models to save.");
+                    taskQueue.add(dest);
+                }
+            }
+        }
+
+        private Path pollNextDest() {
+            assert queueLock.isHeldByCurrentThread();
+
+            while (true) {
+                Path dest = taskQueue.poll();
+                if (dest == null) {
+                    fixEmptyQueue();
+                    dest = taskQueue.poll();
+                    if (dest == null) {
+                        return null;
+                    }
+                }
+
+                // If another drainer is currently writing this path, then that
+                // drainer will save the new model as well once it is done.
+                if (beingSaved.add(dest)) {
+                    return dest;
+                }
             }
         }
 
         private void persistQueue() {
+            Path dest = null;
             while (true) {
-                Path dest;
                 T model;
 
                 queueLock.lock();
                 try {
-                    dest = taskQueue.poll();
-                    if (dest == null) {
-                        fixEmptyQueue();
-                        return;
+                    model = dest != null ? toSave.remove(dest) : null;
+                    if (model == null) {
+                        if (dest != null) {
+                            beingSaved.remove(dest);
+                        }
+
+                        dest = pollNextDest();
+                        if (dest == null) {
+                            // Must be done while still holding the lock, otherwise
+                            // a model queued after we have seen the empty queue
+                            // might not start a new drainer.
+                            activeDrainerCount--;
+                            return;
+                        }
+                        model = toSave.remove(dest);
                     }
-                    model = toSave.remove(dest);
                 } finally {
                     queueLock.unlock();
                 }
@@ -10,6 +10,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.gradle.tooling.ProjectConnection;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.gradle.model.BuilderIssue;
@@ -34,10 +37,15 @@ import org.netbeans.gradle.project.api.modelquery.GradleTarget;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssue;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssues;
+import org.netbeans.gradle.project.util.ParallelUtils;
 import org.openide.util.Lookup;
 import org.openide.util.lookup.Lookups;
 
 public final class NbGradle18ModelLoader implements NbModelLoader {
+    private static final Logger LOGGER = Logger.getLogger(NbGradle18ModelLoader.class.getName());
+
+    private static final long SLOW_PARSE_TIME_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private final SettingsGradleDef settingsGradleDef;
     private final GradleTarget gradleTarget;
     private final OperationInitializer setup;
@@ -89,10 +97,9 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
         private final NbGradleProject mainProject;
         private final List<NbGradleExtensionRef> extensions;
         private final ProjectModelFetcher modelFetcher;
-        private final ExtensionModelCache cache;
         private final List<ModelLoadIssue> issues;
-        private final Map<String, ModelLoadResult> modelLoadResultCache;
         private final SettingsGradleDef settingsGradleDef;
+        private NbGradleMultiProjectDef lastProjectDef;
 
         public ProjectModelParser(
                 GradleTarget gradleTarget,
@@ -105,9 +112,8 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
             this.settingsGradleDef = settingsGradleDef;
             this.extensions = mainProject.getExtensions().getExtensionRefs();
             this.modelFetcher = modelFetcher;
-            this.cache = new ExtensionModelCache();
             this.issues = new ArrayList<>();
-            this.modelLoadResultCache = CollectionUtils.newHashMap(extensions.size());
+            this.lastProjectDef = null;
         }
 
         private void addProjectInfoResults(
@@ -185,6 +191,12 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
 
             Collection<FetchedProjectModels> otherProjectModels = fetchedModels.getOtherProjectModels();
 
+            // The main project must be the first, because the models of the
+            // other projects are parsed together with the main project if
+            // the extension supports it.
+            List<FetchedProjectModels> allProjectModels = new ArrayList<>(otherProjectModels.size() + 1);
+            allProjectModels.add(fetchedModels.getDefaultProjectModels());
+
             Map<File, ProjectModelsOfExtensions> extensionModels
                     = CollectionUtils.newHashMap(otherProjectModels.size());
             for (FetchedProjectModels models: otherProjectModels) {
@@ -193,30 +205,72 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
                     continue;
                 }
 
+                allProjectModels.add(models);
                 extensionModels.put(projectDir, new ProjectModelsOfExtensions(this, models));
             }
 
             extensionModels.put(defaultProjectDir, extensionsForDefault);
 
-            NbGradleModel mainModel = parseModel(
-                    fetchedModels.getDefaultProjectModels(),
-                    extensionModels);
+            List<NbGradleModel.Builder> builders = new ArrayList<>(allProjectModels.size());
+            List<File> projectDirs = new ArrayList<>(allProjectModels.size());
+            for (FetchedProjectModels models: allProjectModels) {
+                NbGradleModel.Builder builder = createModelBuilder(models);
+                builders.add(builder);
+                projectDirs.add(builder.getProjectDir());
+            }
 
-            List<NbGradleModel> otherModels = new ArrayList<>();
-            for (FetchedProjectModels models: otherProjectModels) {
-                File projectDir = getProjectDirFromModels(models);
-                if (defaultProjectDir.equals(projectDir)) {
-                    continue;
+            // Extensions are independent of each other, so they can parse
+            // their models concurrently. Models are merged in the order of the
+            // extensions, so the result does not depend on the scheduling.
+            List<ParsedExtensionModels> parsedModels = ParallelUtils.mapInParallel(
+                    extensions,
+                    extension -> parseExtensionModels(extension, projectDirs, extensionModels));
+
+            List<NbGradleModel> models = new ArrayList<>(builders.size());
+            for (int projectIndex = 0; projectIndex < builders.size(); projectIndex++) {
+                NbGradleModel.Builder builder = builders.get(projectIndex);
+                for (ParsedExtensionModels extensionModelsOfProjects: parsedModels) {
+                    builder.setModelForExtension(
+                            extensionModelsOfProjects.extension,
+                            extensionModelsOfProjects.models.get(projectIndex));
                 }
-                otherModels.add(parseModel(models, extensionModels));
+                models.add(builder.create());
             }
 
+            logParseTimes(parsedModels);
+
+            NbGradleModel mainModel = models.get(0);
+            List<NbGradleModel> otherModels = new ArrayList<>(models.subList(1, models.size()));
             return new Result(mainModel, otherModels, issues);
         }
 
-        private NbGradleModel parseModel(
-                FetchedProjectModels projectModels,
-                Map<File, ProjectModelsOfExtensions> extensionModels) {
+        private void logParseTimes(List<ParsedExtensionModels> parsedModels) {
+            Level level = Level.FINE;
+            for (ParsedExtensionModels models: parsedModels) {
+                if (models.parseTimeNanos >= SLOW_PARSE_TIME_NANOS) {
+                    level = Level.INFO;
+                    break;
+                }
+            }
+
+            if (!LOGGER.isLoggable(level)) {
+                return;
+            }
+
+            StringBuilder message = new StringBuilder();
+            message.append("Model parse times of extensions for ");
+            message.append(mainProject.getProjectDirectoryAsPath());
+            for (ParsedExtensionModels models: parsedModels) {
+                message.append("\n    ");
+                message.append(models.extension.getName());
+                message.append(": ");
+                message.append(TimeUnit.NANOSECONDS.toMillis(models.parseTimeNanos));
+                message.append(" ms");
+            }
+            LOGGER.log(level, message.toString());
+        }
+
+        private NbGradleModel.Builder createModelBuilder(FetchedProjectModels projectModels) {
             Throwable issue = projectModels.getIssue();
             if (issue != null) {
                 issues.add(ModelLoadIssues.projectModelLoadError(
@@ -226,18 +280,32 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
                         issue));
             }
 
-            NbGradleMultiProjectDef projectDef = new NbGradleMultiProjectDef(projectModels.getProjectDef());
+            // The projects of the build share the same tree, so parse it only once.
+            NbGradleMultiProjectDef projectDef = NbGradleMultiProjectDef.createSharingRoot(
+                    projectModels.getProjectDef(),
+                    lastProjectDef);
+            lastProjectDef = projectDef;
+
             NbGenericModelInfo genericInfo = new NbGenericModelInfo(projectDef, modelFetcher.getSettingsFile());
             NbGradleModel.Builder result = new NbGradleModel.Builder(genericInfo);
             result.setRootWithoutSettingsGradle(!settingsGradleDef.isMaySearchUpwards());
+            return result;
+        }
 
-            File projectDir = genericInfo.getProjectDir();
+        private ParsedExtensionModels parseExtensionModels(
+                NbGradleExtensionRef extension,
+                List<File> projectDirs,
+                Map<File, ProjectModelsOfExtensions> extensionModels) {
 
-            ProjectExtensionModelCache projectCache = cache.tryGetProjectCache(projectDir);
+            long startTime = System.nanoTime();
 
-            for (NbGradleExtensionRef extension: extensions) {
-                String extensionName = extension.getName();
+            String extensionName = extension.getName();
+            ExtensionModelCache cache = new ExtensionModelCache();
+            ModelLoadResult mainModelLoadResult = null;
 
+            List<Object> models = new ArrayList<>(projectDirs.size());
+            for (File projectDir: projectDirs) {
+                ProjectExtensionModelCache projectCache = cache.tryGetProjectCache(projectDir);
                 CachedModel cachedModel = projectCache != null
                         ? projectCache.tryGetModel(extensionName)
                         : null;
@@ -247,13 +315,13 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
                     extensionModel = cachedModel.model;
                 }
                 else {
-                    ModelLoadResult modelLoadResult = modelLoadResultCache.get(extensionName);
-                    if (modelLoadResult == null) {
-                        modelLoadResult = getModelLoadResult(extension, projectDir, extensionModels);
-                        modelLoadResultCache.put(extensionName, modelLoadResult);
+                    ModelLoadResult modelLoadResult;
+                    if (mainModelLoadResult == null) {
+                        mainModelLoadResult = getModelLoadResult(extension, projectDir, extensionModels);
+                        modelLoadResult = mainModelLoadResult;
                     }
                     else {
-                        modelLoadResult = modelLoadResult.withMainProject(projectDir);
+                        modelLoadResult = mainModelLoadResult.withMainProject(projectDir);
                     }
 
                     ParsedModel<?> parsedModels = extension.parseModel(modelLoadResult);
@@ -264,10 +332,22 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
                     }
                 }
 
-                result.setModelForExtension(extension, extensionModel);
+                models.add(extensionModel);
             }
 
-            return result.create();
+            return new ParsedExtensionModels(extension, models, System.nanoTime() - startTime);
+        }
+    }
+
+    private static final class ParsedExtensionModels {
+        public final NbGradleExtensionRef extension;
+        public final List<Object> models;
+        public final long parseTimeNanos;
+
+        public ParsedExtensionModels(NbGradleExtensionRef extension, List<Object> models, long parseTimeNanos) {
+            this.extension = extension;
+            this.models = models;
+            this.parseTimeNanos = parseTimeNanos;
         }
     }
 
@@ -113,23 +113,48 @@ public final class NbGradleModel {
     }
 
     public boolean hasModelOfExtension(String extensionName) {
-        return extensionModels.containsKey(extensionName);
+        Object storedModel = extensionModels.get(extensionName);
+        if (storedModel instanceof SerializedExtensionModel) {
+            return !((SerializedExtensionModel)storedModel).isFailed();
+        }
+        return storedModel != null || extensionModels.containsKey(extensionName);
     }
 
     public Object getModelOfExtension(NbGradleExtensionRef extension) {
-        return extensionModels.get(extension.getName());
+        return getModelOfExtension(extension.getName());
     }
 
     public Object getModelOfExtension(String extensionName) {
-        return extensionModels.get(extensionName);
+        return SerializedExtensionModel.tryGetModel(extensionModels.get(extensionName));
     }
 
+    /**
+     * Returns the models of the extensions. Note that calling this method
+     * deserializes every extension model not yet deserialized. Prefer
+     * {@link #getModelOfExtension(String) getModelOfExtension} when possible.
+     *
+     * @return the models of the extensions mapped by the name of the extension.
+     *   This method never returns {@code null}.
+     */
     public Map<String, Object> getExtensionModels() {
+        Map<String, Object> result = CollectionUtils.newHashMap(extensionModels.size());
+        for (Map.Entry<String, Object> entry: extensionModels.entrySet()) {
+            result.put(entry.getKey(), SerializedExtensionModel.tryGetModel(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the extension models as they are stored. That is, the values of
+     * the returned map might be {@link SerializedExtensionModel} instances
+     * not yet deserialized.
+     */
+    Map<String, Object> getStoredExtensionModels() {
         return extensionModels;
     }
 
     public void setModelForExtension(NbGradleExtensionRef extension) {
-        extension.setModelForExtension(extensionModels.get(extension.getName()));
+        extension.setModelForExtension(getModelOfExtension(extension));
     }
 
     public ProjectId getProjectId() {
@@ -47,6 +47,54 @@ public final class NbGradleMultiProjectDef implements Serializable {
         }
     }
 
+    /**
+     * Creates the project definition of a project of the same build as the
+     * given project definition. The returned definition shares the tree of the
+     * root project with the given definition (if the trees are the same), so
+     * the tree is not duplicated for each project of the build.
+     *
+     * @param model the project definition as returned by Gradle. This argument
+     *   cannot be {@code null}.
+     * @param sameBuildDef the already parsed definition of another project of
+     *   the same build. This argument can be {@code null}, in which case the
+     *   tree is parsed from {@code model}.
+     * @return the project definition. This method never returns {@code null}.
+     */
+    public static NbGradleMultiProjectDef createSharingRoot(
+            GradleMultiProjectDef model,
+            NbGradleMultiProjectDef sameBuildDef) {
+        Objects.requireNonNull(model, "model");
+
+        if (sameBuildDef != null) {
+            NbGradleProjectTree sharedRoot = sameBuildDef.getRootProject();
+            GradleProjectTree rootModel = model.getRootProject();
+            GradleProjectTree mainModel = model.getMainProject();
+
+            if (cmpTrees(sharedRoot, rootModel)) {
+                NbGradleProjectTree parsedMain = sharedRoot.findByPath(
+                        mainModel.getGenericProperties().getProjectFullName());
+                if (cmpTrees(parsedMain, mainModel)) {
+                    return new NbGradleMultiProjectDef(sharedRoot, parsedMain);
+                }
+            }
+        }
+
+        return new NbGradleMultiProjectDef(model);
+    }
+
+    /**
+     * Returns the full path of the main project if the main project is part of
+     * the tree of the root project. That is, if the main project can be looked
+     * up by its path from the root project.
+     *
+     * @return the full path of the main project or {@code null} if the main
+     *   project is not part of the tree of the root project
+     */
+    public String tryGetMainProjectPathInRoot() {
+        String path = mainProject.getProjectFullName();
+        return rootProject.findByPath(path) == mainProject ? path : null;
+    }
+
     public int getNumberOfProjectsInThisBuild() {
         return rootProject.getNumberOfSubprojects() + 1;
     }
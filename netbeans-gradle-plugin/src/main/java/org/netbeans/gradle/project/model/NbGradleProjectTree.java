@@ -33,6 +33,7 @@ public final class NbGradleProjectTree implements Serializable {
     private final AtomicReference<NbGradleProjectTree> parentRef;
 
     private final Supplier<Map<String, NbGradleProjectTree>> childrenMap;
+    private final Supplier<GradleTaskIndex> taskIndex;
     private final AtomicInteger numberOfSubprojectsRef;
 
     public NbGradleProjectTree(
@@ -44,6 +45,7 @@ public final class NbGradleProjectTree implements Serializable {
         this.children = CollectionUtils.copyNullSafeList(children);
 
         this.childrenMap = LazyValues.lazyValue(this::createChildrenMap);
+        this.taskIndex = LazyValues.lazyValue(() -> new GradleTaskIndex(this.tasks));
         this.parentRef = new AtomicReference<>(null);
         this.numberOfSubprojectsRef = new AtomicInteger(-1);
     }
@@ -56,6 +58,7 @@ public final class NbGradleProjectTree implements Serializable {
         this.children = fromModels(tree.getChildren());
 
         this.childrenMap = LazyValues.lazyValue(this::createChildrenMap);
+        this.taskIndex = LazyValues.lazyValue(() -> new GradleTaskIndex(this.tasks));
         this.parentRef = new AtomicReference<>(null);
         this.numberOfSubprojectsRef = new AtomicInteger(-1);
     }
@@ -122,6 +125,10 @@ public final class NbGradleProjectTree implements Serializable {
         return tasks;
     }
 
+    public GradleTaskIndex getTaskIndex() {
+        return taskIndex.get();
+    }
+
     public String getProjectName() {
         return genericProperties.getProjectName();
     }
@@ -0,0 +1,199 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import org.jtrim2.utils.ExceptionHelper;
+import org.netbeans.gradle.model.util.SerializationUtils;
+import org.netbeans.gradle.project.util.SerializationUtils2;
+import org.netbeans.gradle.project.util.StringUtils;
+
+/**
+ * Stores the tree of the projects of a build in a single file, shared by the
+ * persisted models of all the projects of the build. This way the persisted
+ * models do not need to contain the whole tree of the build.
+ * <P>
+ * Each stored tree has an id derived from its content which the persisted
+ * project models refer to. So storing an equivalent tree again (e.g., because
+ * the projects of a build were loaded concurrently) keeps the models referring
+ * to the previously stored tree valid. If the tree of a build is overwritten
+ * by a different tree (because the build was changed), then project models
+ * referring to the previous tree are considered to be outdated.
+ * <P>
+ * Loaded trees are remembered as long as they are referenced, so the projects
+ * of the same build loaded from the persistent cache also share the same tree
+ * in memory and saving models referencing an already saved tree does not
+ * rewrite the tree (unless its file was removed). Only the trees of a limited
+ * number of the most recently used files are remembered.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+final class PersistentBuildDefStore {
+    private static final String FILE_NAME_PREFIX = "build-";
+    private static final int DEFAULT_MAX_REMEMBERED_DEFS = 256;
+
+    private final BooleanSupplier compressQuery;
+    private final Lock storedDefsLock;
+    private final Map<Path, StoredBuildDef> storedDefs;
+
+    public PersistentBuildDefStore(BooleanSupplier compressQuery) {
+        this(compressQuery, DEFAULT_MAX_REMEMBERED_DEFS);
+    }
+
+    public PersistentBuildDefStore(BooleanSupplier compressQuery, int maxRememberedDefs) {
+        this.compressQuery = Objects.requireNonNull(compressQuery, "compressQuery");
+        ExceptionHelper.checkArgumentInRange(maxRememberedDefs, 1, Integer.MAX_VALUE, "maxRememberedDefs");
+
+        this.storedDefsLock = new ReentrantLock();
+        this.storedDefs = new LinkedHashMap<Path, StoredBuildDef>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, StoredBuildDef> eldest) {
+                return size() > maxRememberedDefs;
+            }
+        };
+    }
+
+    /**
+     * Returns the path of the file storing the tree of the build with the given
+     * root project, assuming that the models of the projects of the build are
+     * stored in the same directory as the given file.
+     */
+    public static Path getBuildDefPath(Path modelFile, File rootProjectDir) {
+        String rootKey = rootProjectDir.toString();
+        String keyHash = StringUtils.byteArrayToHex(getMD5().digest(rootKey.getBytes(StringUtils.UTF8)));
+        return modelFile.resolveSibling(FILE_NAME_PREFIX + keyHash);
+    }
+
+    private static MessageDigest getMD5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException("Unable to load the MD5 calculator.", ex);
+        }
+    }
+
+    private StoredBuildDef getStoredDef(Path path) {
+        storedDefsLock.lock();
+        try {
+            return storedDefs.computeIfAbsent(path, key -> new StoredBuildDef());
+        } finally {
+            storedDefsLock.unlock();
+        }
+    }
+
+    /**
+     * Saves the given tree to the given file unless it (or an equivalent tree)
+     * has already been saved there and the file still exists.
+     *
+     * @return the id of the stored tree. This method never returns {@code null}.
+     */
+    public String persistBuildDef(Path dest, NbGradleProjectTree rootProject) throws IOException {
+        Objects.requireNonNull(dest, "dest");
+        Objects.requireNonNull(rootProject, "rootProject");
+
+        StoredBuildDef storedDef = getStoredDef(dest);
+        synchronized (storedDef) {
+            String id = storedDef.getRootProject() == rootProject
+                    ? storedDef.id
+                    : getContentId(rootProject);
+
+            if (id.equals(storedDef.id) && Files.isRegularFile(dest)) {
+                if (storedDef.getRootProject() == null) {
+                    storedDef.set(id, rootProject);
+                }
+                return id;
+            }
+
+            SerializationUtils2.serializeToFileAtomic(
+                    dest,
+                    new SerializedBuildDef(id, rootProject),
+                    compressQuery.getAsBoolean());
+            storedDef.set(id, rootProject);
+            return id;
+        }
+    }
+
+    private static String getContentId(NbGradleProjectTree rootProject) {
+        byte[] content = SerializationUtils.serializeObject(rootProject);
+        return StringUtils.byteArrayToHex(getMD5().digest(content));
+    }
+
+    /**
+     * Returns the tree with the given id stored in the given file.
+     *
+     * @return the tree with the given id or {@code null} if the file does not
+     *   exist or contains a different tree
+     */
+    public NbGradleProjectTree tryLoadBuildDef(Path src, String id) throws IOException {
+        Objects.requireNonNull(src, "src");
+        Objects.requireNonNull(id, "id");
+
+        StoredBuildDef storedDef = getStoredDef(src);
+        synchronized (storedDef) {
+            if (id.equals(storedDef.id)) {
+                NbGradleProjectTree result = storedDef.getRootProject();
+                if (result != null) {
+                    return result;
+                }
+            }
+
+            if (!Files.isRegularFile(src)) {
+                return null;
+            }
+
+            SerializedBuildDef serialized = (SerializedBuildDef)SerializationUtils2.deserializeFile(src);
+            if (serialized == null) {
+                return null;
+            }
+
+            storedDef.set(serialized.id, serialized.rootProject);
+            return id.equals(serialized.id) ? serialized.rootProject : null;
+        }
+    }
+
+    private static final class StoredBuildDef {
+        // Guarded by the monitor of this object.
+        public String id;
+        private WeakReference<NbGradleProjectTree> rootProjectRef;
+
+        public StoredBuildDef() {
+            this.id = null;
+            this.rootProjectRef = null;
+        }
+
+        public NbGradleProjectTree getRootProject() {
+            return rootProjectRef != null ? rootProjectRef.get() : null;
+        }
+
+        public void set(String id, NbGradleProjectTree rootProject) {
+            this.id = id;
+            this.rootProjectRef = new WeakReference<>(rootProject);
+        }
+    }
+
+    private static final class SerializedBuildDef implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String id;
+        private final NbGradleProjectTree rootProject;
+
+        public SerializedBuildDef(String id, NbGradleProjectTree rootProject) {
+            this.id = id;
+            this.rootProject = rootProject;
+        }
+    }
+}
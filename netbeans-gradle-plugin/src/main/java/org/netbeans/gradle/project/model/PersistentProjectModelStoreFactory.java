@@ -4,23 +4,38 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
+import java.util.function.BooleanSupplier;
 import org.netbeans.gradle.project.NbGradleProject;
+import org.netbeans.gradle.project.properties.global.CommonGlobalSettings;
 import org.netbeans.gradle.project.util.SerializationUtils2;
 
 public final class PersistentProjectModelStoreFactory {
+    private final ProjectModelPersister modelPersister;
+
     public PersistentProjectModelStoreFactory() {
+        this(() -> CommonGlobalSettings.getDefault().compressModelCache().getActiveValue());
+    }
+
+    public PersistentProjectModelStoreFactory(BooleanSupplier compressQuery) {
+        this.modelPersister = new ProjectModelPersister(compressQuery);
     }
 
     public ModelPersister<NbGradleModel> getModelPersister() {
-        return ProjectModelPersister.INSANCE;
+        return modelPersister;
     }
 
     public PersistentModelStore<NbGradleModel> createModelStore(NbGradleProject ownerProject) {
-        return new PersistentProjectModelStore(ownerProject);
+        return new PersistentProjectModelStore(modelPersister, ownerProject);
     }
 
-    private enum ProjectModelPersister implements ModelPersister<NbGradleModel> {
-        INSANCE;
+    private static final class ProjectModelPersister implements ModelPersister<NbGradleModel> {
+        private final BooleanSupplier compressQuery;
+        private final PersistentBuildDefStore buildDefStore;
+
+        public ProjectModelPersister(BooleanSupplier compressQuery) {
+            this.compressQuery = Objects.requireNonNull(compressQuery, "compressQuery");
+            this.buildDefStore = new PersistentBuildDefStore(compressQuery);
+        }
 
         @Override
         public void persistModel(NbGradleModel model, Path dest) throws IOException {
@@ -29,34 +44,58 @@ public final class PersistentProjectModelStoreFactory {
                 Files.createDirectories(destDir);
             }
 
-            SerializedNbGradleModels toSave = SerializedNbGradleModels.createSerialized(model);
-            SerializationUtils2.serializeToFile(dest, toSave);
+            // The tree of the build is the same for every project of the build,
+            // so it is only stored once.
+            NbGradleProjectTree rootProject = model.getProjectDef().getRootProject();
+            Path buildDefPath = PersistentBuildDefStore.getBuildDefPath(dest, rootProject.getProjectDir());
+            String buildDefId = buildDefStore.persistBuildDef(buildDefPath, rootProject);
+
+            SerializedNbGradleModels toSave = SerializedNbGradleModels.createSerialized(model, buildDefId);
+            SerializationUtils2.serializeToFileAtomic(dest, toSave, compressQuery.getAsBoolean());
+        }
+
+        public NbGradleModel tryLoadModel(NbGradleProject ownerProject, Path src) throws IOException {
+            if (!Files.isRegularFile(src)) {
+                return null;
+            }
+
+            SerializedNbGradleModels serializedModel
+                    = (SerializedNbGradleModels)SerializationUtils2.deserializeFile(src);
+            if (serializedModel == null) {
+                return null;
+            }
+
+            NbGradleProjectTree buildDef = null;
+            Path buildDefPath = serializedModel.tryGetBuildDefPath(src);
+            if (buildDefPath != null) {
+                buildDef = buildDefStore.tryLoadBuildDef(buildDefPath, serializedModel.tryGetBuildDefId());
+                if (buildDef == null) {
+                    // The build was reloaded but this model was not yet saved.
+                    return null;
+                }
+            }
+
+            return serializedModel.deserializeModel(ownerProject, buildDef);
         }
     }
 
     private static final class PersistentProjectModelStore implements PersistentModelStore<NbGradleModel> {
+        private final ProjectModelPersister modelPersister;
         private final NbGradleProject ownerProject;
 
-        public PersistentProjectModelStore(NbGradleProject ownerProject) {
+        public PersistentProjectModelStore(ProjectModelPersister modelPersister, NbGradleProject ownerProject) {
+            this.modelPersister = modelPersister;
             this.ownerProject = Objects.requireNonNull(ownerProject, "ownerProject");
         }
 
         @Override
         public void persistModel(NbGradleModel model, Path dest) throws IOException {
-            ProjectModelPersister.INSANCE.persistModel(model, dest);
+            modelPersister.persistModel(model, dest);
         }
 
         @Override
         public NbGradleModel tryLoadModel(Path src) throws IOException {
-            if (!Files.isRegularFile(src)) {
-                return null;
-            }
-
-            SerializedNbGradleModels serializedModel
-                    = (SerializedNbGradleModels)SerializationUtils2.deserializeFile(src);
-            return serializedModel != null
-                    ? serializedModel.deserializeModel(ownerProject)
-                    : null;
+            return modelPersister.tryLoadModel(ownerProject, src);
         }
     }
 }
@@ -0,0 +1,293 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.gradle.tooling.BuildCancelledException;
+import org.gradle.tooling.BuildException;
+import org.gradle.tooling.GradleConnector;
+import org.gradle.tooling.ProjectConnection;
+import org.gradle.tooling.TestExecutionException;
+import org.netbeans.gradle.project.properties.GradleLocation;
+import org.netbeans.gradle.project.util.NbTaskExecutors;
+
+/**
+ * Defines a pool of Tooling API {@code ProjectConnection} instances so that
+ * consecutive operations on the same project do not have to connect again.
+ * <P>
+ * Connections are keyed by the project directory the connection was created
+ * for, the requested Gradle location, the content of the wrapper properties
+ * (if the wrapper is relied on), the Gradle user home and the daemon
+ * timeout: If any of these change, a new connection is created. Connections
+ * not used for a while are closed automatically.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently. Note that {@code ProjectConnection} itself allows concurrent
+ * operations, so a pooled connection might be leased by multiple threads
+ * at the same time.
+ */
+public final class ProjectConnectionPool {
+    private static final Logger LOGGER = Logger.getLogger(ProjectConnectionPool.class.getName());
+
+    private static final long DEFAULT_IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(3);
+    private static final ProjectConnectionPool DEFAULT = new ProjectConnectionPool(DEFAULT_IDLE_TIMEOUT_MS);
+
+    private final long idleTimeoutNanos;
+
+    private final ReentrantLock mainLock;
+    private final Map<ConnectionKey, PooledConnection> connections;
+
+    public ProjectConnectionPool(long idleTimeoutMs) {
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.mainLock = new ReentrantLock();
+        this.connections = new HashMap<>();
+    }
+
+    public static ProjectConnectionPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns a connection to the given project directory, reusing a previously
+     * created connection if there is one with the same settings. The returned
+     * reference must be closed after the operation using the connection completes.
+     *
+     * @param connectorRef the connector to be used if a new connection needs to
+     *   be created. This argument cannot be {@code null}.
+     * @param projectDir the project directory to connect to. This argument
+     *   cannot be {@code null}.
+     * @return the reference to the leased connection. This method never
+     *   returns {@code null}.
+     */
+    public ProjectConnectionRef connect(GradleConnectorRef connectorRef, File projectDir) {
+        ConnectionKey key = new ConnectionKey(projectDir, connectorRef);
+
+        PooledConnection connection;
+        mainLock.lock();
+        try {
+            connection = connections.get(key);
+            if (connection == null) {
+                connection = new PooledConnection(key);
+                connections.put(key, connection);
+            }
+            connection.leaseCount++;
+        } finally {
+            mainLock.unlock();
+        }
+
+        try {
+            // Connecting happens outside the lock, so that a slow connection
+            // does not block operations on other projects.
+            return new ProjectConnectionRef(this, connection, connection.getConnection(connectorRef));
+        } catch (Throwable ex) {
+            release(connection, true);
+            throw ex;
+        }
+    }
+
+    void release(PooledConnection connection, boolean discard) {
+        List<PooledConnection> toClose = new ArrayList<>();
+
+        mainLock.lock();
+        try {
+            connection.leaseCount--;
+            connection.lastReleaseTime = System.nanoTime();
+
+            if (discard && connections.get(connection.key) == connection) {
+                connections.remove(connection.key);
+            }
+            if (connection.leaseCount <= 0 && connections.get(connection.key) != connection) {
+                toClose.add(connection);
+            }
+
+            if (connection.leaseCount <= 0) {
+                scheduleEviction();
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        closeAll(toClose);
+    }
+
+    private void scheduleEviction() {
+        assert mainLock.isHeldByCurrentThread();
+
+        NbTaskExecutors.executeAfterDelay(
+                NbTaskExecutors.DEFAULT_EXECUTOR,
+                idleTimeoutNanos,
+                TimeUnit.NANOSECONDS,
+                this::evictIdleConnections);
+    }
+
+    private void evictIdleConnections() {
+        List<PooledConnection> toClose = new ArrayList<>();
+
+        mainLock.lock();
+        try {
+            long currentTime = System.nanoTime();
+            Iterator<PooledConnection> connectionItr = connections.values().iterator();
+            while (connectionItr.hasNext()) {
+                PooledConnection connection = connectionItr.next();
+                if (connection.leaseCount <= 0 && currentTime - connection.lastReleaseTime >= idleTimeoutNanos) {
+                    connectionItr.remove();
+                    toClose.add(connection);
+                }
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        closeAll(toClose);
+    }
+
+    private static void closeAll(List<PooledConnection> toClose) {
+        for (PooledConnection connection: toClose) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Returns {@code true} if the connection might be used after the given
+     * error was thrown by an operation of the connection. That is, if the
+     * error is known to be a failure of the build itself.
+     */
+    static boolean isReusableAfter(Throwable error) {
+        return error instanceof BuildException
+                || error instanceof BuildCancelledException
+                || error instanceof TestExecutionException;
+    }
+
+    static final class PooledConnection {
+        private final ConnectionKey key;
+        private final Lock connectLock;
+        private volatile ProjectConnection connection;
+
+        // Guarded by the mainLock of the pool.
+        private int leaseCount;
+        private long lastReleaseTime;
+
+        public PooledConnection(ConnectionKey key) {
+            this.key = key;
+            this.connectLock = new ReentrantLock();
+            this.connection = null;
+            this.leaseCount = 0;
+            this.lastReleaseTime = System.nanoTime();
+        }
+
+        public ProjectConnection getConnection(GradleConnectorRef connectorRef) {
+            ProjectConnection result = connection;
+            if (result == null) {
+                connectLock.lock();
+                try {
+                    result = connection;
+                    if (result == null) {
+                        GradleConnector connector = connectorRef.getGradleConnector();
+                        connector.forProjectDirectory(key.projectDir);
+                        result = connector.connect();
+                        connection = result;
+                    }
+                } finally {
+                    connectLock.unlock();
+                }
+            }
+            return result;
+        }
+
+        public void close() {
+            ProjectConnection currentConnection;
+            connectLock.lock();
+            try {
+                currentConnection = connection;
+                connection = null;
+            } finally {
+                connectLock.unlock();
+            }
+
+            if (currentConnection != null) {
+                try {
+                    currentConnection.close();
+                } catch (Throwable ex) {
+                    LOGGER.log(Level.INFO, "Failed to close connection to " + key.projectDir, ex);
+                }
+            }
+        }
+    }
+
+    private static final class ConnectionKey {
+        private final File projectDir;
+        private final String gradleLocation;
+        private final String wrapperPropertiesHash;
+        private final File gradleUserHome;
+        private final Integer daemonTimeoutSec;
+
+        public ConnectionKey(File projectDir, GradleConnectorRef connectorRef) {
+            this.projectDir = Objects.requireNonNull(projectDir, "projectDir");
+            this.gradleLocation = getLocationKey(connectorRef.getRequestedGradleLocation());
+            this.wrapperPropertiesHash = connectorRef.getWrapperPropertiesHash();
+            this.gradleUserHome = connectorRef.getRequestedGradleUserHome();
+            this.daemonTimeoutSec = connectorRef.getRequestedDaemonTimeoutSec();
+        }
+
+        private static String getLocationKey(GradleLocation location) {
+            StringBuilder result = new StringBuilder();
+            location.applyLocation(new GradleLocation.Applier() {
+                @Override
+                public void applyVersion(String versionStr) {
+                    result.append("version:").append(versionStr);
+                }
+
+                @Override
+                public void applyDirectory(File gradleHome) {
+                    result.append("dir:").append(gradleHome);
+                }
+
+                @Override
+                public void applyDistribution(URI location) {
+                    result.append("dist:").append(location);
+                }
+
+                @Override
+                public void applyDefault() {
+                    result.append("default");
+                }
+            });
+            return result.toString();
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 5;
+            hash = 41 * hash + Objects.hashCode(this.projectDir);
+            hash = 41 * hash + Objects.hashCode(this.gradleLocation);
+            hash = 41 * hash + Objects.hashCode(this.wrapperPropertiesHash);
+            hash = 41 * hash + Objects.hashCode(this.gradleUserHome);
+            hash = 41 * hash + Objects.hashCode(this.daemonTimeoutSec);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null) return false;
+            if (obj == this) return true;
+            if (getClass() != obj.getClass()) return false;
+
+            final ConnectionKey other = (ConnectionKey)obj;
+            return Objects.equals(this.projectDir, other.projectDir)
+                    && Objects.equals(this.gradleLocation, other.gradleLocation)
+                    && Objects.equals(this.wrapperPropertiesHash, other.wrapperPropertiesHash)
+                    && Objects.equals(this.gradleUserHome, other.gradleUserHome)
+                    && Objects.equals(this.daemonTimeoutSec, other.daemonTimeoutSec);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.netbeans.gradle.project.model;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.gradle.tooling.ProjectConnection;
+
+/**
+ * Defines a connection leased from a {@link ProjectConnectionPool}. The
+ * connection must not be closed directly, instead this reference must be
+ * closed which returns the connection to the pool.
+ */
+public final class ProjectConnectionRef implements AutoCloseable {
+    private final ProjectConnectionPool pool;
+    private final ProjectConnectionPool.PooledConnection pooledConnection;
+    private final ProjectConnection connection;
+
+    private final AtomicBoolean closed;
+    private volatile boolean reusable;
+
+    ProjectConnectionRef(
+            ProjectConnectionPool pool,
+            ProjectConnectionPool.PooledConnection pooledConnection,
+            ProjectConnection connection) {
+
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.pooledConnection = Objects.requireNonNull(pooledConnection, "pooledConnection");
+        this.connection = Objects.requireNonNull(connection, "connection");
+        this.closed = new AtomicBoolean(false);
+        this.reusable = true;
+    }
+
+    public ProjectConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Notifies the pool that an operation on this connection failed with the
+     * given error. If the error might have left the connection in an unusable
+     * state, the connection will not be reused after this reference is closed.
+     *
+     * @param error the error thrown by an operation of this connection. This
+     *   argument cannot be {@code null}.
+     */
+    public void operationFailed(Throwable error) {
+        if (!ProjectConnectionPool.isReusableAfter(error)) {
+            reusable = false;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            pool.release(pooledConnection, !reusable);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.netbeans.gradle.project.model;
+
+import java.lang.ref.SoftReference;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.netbeans.gradle.model.util.SerializationCaches;
+import org.netbeans.gradle.model.util.SerializationUtils;
+
+/**
+ * Defines an extension model which is only deserialized when it is first
+ * requested. The deserialized model is only softly referenced, so it might be
+ * reclaimed by the garbage collector in which case it will be deserialized
+ * again on the next request.
+ * <P>
+ * Whether the model can be deserialized is only known when it is first
+ * requested. If the deserialization fails, the model is considered to be
+ * missing from then on and the failure listener is notified (once), so that
+ * the owner project can be reloaded.
+ * <P>
+ * Instances of this class are stored in place of the actual extension model in
+ * {@link NbGradleModel} and they are never exposed outside of this package.
+ */
+final class SerializedExtensionModel {
+    private static final Logger LOGGER = Logger.getLogger(SerializedExtensionModel.class.getName());
+
+    private final String extensionName;
+    private final byte[] serializedModel;
+    private final ClassLoader modelClassLoader;
+    private final Runnable failureListener;
+
+    private volatile SoftReference<Object> modelRef;
+    private final AtomicBoolean failed;
+
+    public SerializedExtensionModel(
+            String extensionName,
+            byte[] serializedModel,
+            ClassLoader modelClassLoader,
+            Runnable failureListener) {
+        this.extensionName = Objects.requireNonNull(extensionName, "extensionName");
+        this.serializedModel = Objects.requireNonNull(serializedModel, "serializedModel");
+        this.modelClassLoader = modelClassLoader;
+        this.failureListener = Objects.requireNonNull(failureListener, "failureListener");
+        this.modelRef = null;
+        this.failed = new AtomicBoolean(false);
+    }
+
+    public static Object tryGetModel(Object storedModel) {
+        if (storedModel instanceof SerializedExtensionModel) {
+            return ((SerializedExtensionModel)storedModel).tryGetModel();
+        }
+        return storedModel;
+    }
+
+    public byte[] getSerializedModel() {
+        return serializedModel;
+    }
+
+    /**
+     * Returns {@code true} if the model was requested and it failed to be
+     * deserialized. This method never deserializes the model.
+     */
+    public boolean isFailed() {
+        return failed.get();
+    }
+
+    public Object tryGetModel() {
+        SoftReference<Object> currentRef = modelRef;
+        Object result = currentRef != null ? currentRef.get() : null;
+        if (result != null || failed.get()) {
+            return result;
+        }
+
+        // Concurrent calls might deserialize the model multiple times but
+        // that is harmless and cheaper than blocking every access.
+        try {
+            result = SerializationUtils.deserializeObject(
+                    serializedModel,
+                    SerializationCaches.getDefault(),
+                    modelClassLoader);
+        } catch (Throwable ex) {
+            if (failed.compareAndSet(false, true)) {
+                LOGGER.log(Level.INFO,
+                        "There was a problem when deserializing model for " + extensionName,
+                        ex);
+                failureListener.run();
+            }
+            return null;
+        }
+
+        modelRef = new SoftReference<>(result);
+        return result;
+    }
+}
@@ -1,21 +1,32 @@
 package org.netbeans.gradle.project.model;
 
+import java.io.File;
 import java.io.Serializable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.netbeans.gradle.model.util.CollectionUtils;
-import org.netbeans.gradle.model.util.SerializationCache;
-import org.netbeans.gradle.model.util.SerializationCaches;
 import org.netbeans.gradle.model.util.SerializationUtils;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
 
 public final class SerializedNbGradleModels implements Serializable {
-    private static final long serialVersionUID = 1L;
+    // The tree of the build is not stored in this object since version 2.
+    private static final long serialVersionUID = 2L;
     private static final Logger LOGGER = Logger.getLogger(SerializedNbGradleModels.class.getName());
 
-    private final NbGenericModelInfo genericInfo;
+    // The id of the separately stored tree of the build
+    // or null if the project definition is stored in this object.
+    private final String buildDefId;
+    private final String rootProjectDir;
+    private final String mainProjectPath;
+    private final NbGradleMultiProjectDef projectDef;
+
+    private final String settingsPath;
+    private final long createTimeEpochMs;
+
     // Maps extension name to serialized extension model
     private final Map<String, byte[]> extensionModels;
 
@@ -23,25 +34,82 @@ public final class SerializedNbGradleModels implements Serializable {
 
     private SerializedNbGradleModels(
             NbGenericModelInfo genericInfo,
+            String buildDefId,
             Map<String, byte[]> extensionModels,
             boolean rootWithoutSettingsGradle) {
 
         assert genericInfo != null;
         assert extensionModels != null;
 
-        this.genericInfo = genericInfo;
+        NbGradleMultiProjectDef fullProjectDef = genericInfo.getProjectDef();
+        String mainPath = fullProjectDef.tryGetMainProjectPathInRoot();
+
+        if (buildDefId != null && mainPath != null) {
+            this.buildDefId = buildDefId;
+            this.mainProjectPath = mainPath;
+            this.projectDef = null;
+        }
+        else {
+            this.buildDefId = null;
+            this.mainProjectPath = null;
+            this.projectDef = fullProjectDef;
+        }
+        this.rootProjectDir = fullProjectDef.getRootProject().getProjectDir().toString();
+
+        Path settingsFile = genericInfo.getSettingsFile();
+        this.settingsPath = settingsFile != null ? settingsFile.toString() : null;
+        this.createTimeEpochMs = genericInfo.getCreateTimeEpochMs();
+
         this.extensionModels = extensionModels;
         this.rootWithoutSettingsGradle = rootWithoutSettingsGradle;
     }
 
-    public static SerializedNbGradleModels createSerialized(NbGradleModel model) {
-        Map<String, Object> extensionModels = model.getExtensionModels();
+    /**
+     * Returns the file storing the tree of the build this model refers to.
+     *
+     * @param modelFile the file this model is stored in. This argument cannot
+     *   be {@code null}.
+     * @return the file storing the tree of the build this model refers to
+     *   or {@code null} if this model contains the tree itself
+     */
+    public Path tryGetBuildDefPath(Path modelFile) {
+        return buildDefId != null
+                ? PersistentBuildDefStore.getBuildDefPath(modelFile, new File(rootProjectDir))
+                : null;
+    }
+
+    public String tryGetBuildDefId() {
+        return buildDefId;
+    }
+
+    /**
+     * Creates the serialized form of the given model, not containing the tree
+     * of the build if the tree was stored separately.
+     *
+     * @param model the model to be serialized. This argument cannot be
+     *   {@code null}.
+     * @param buildDefId the id of the stored tree of the build or {@code null}
+     *   if the tree was not stored separately
+     * @return the serialized form of the given model. This method never
+     *   returns {@code null}.
+     */
+    public static SerializedNbGradleModels createSerialized(NbGradleModel model, String buildDefId) {
+        Map<String, Object> extensionModels = model.getStoredExtensionModels();
         Map<String, byte[]> serializedModels = CollectionUtils.newHashMap(extensionModels.size());
 
         for (Map.Entry<String, Object> entry: extensionModels.entrySet()) {
             String extensionName = entry.getKey();
             Object extensionModel = entry.getValue();
 
+            if (extensionModel instanceof SerializedExtensionModel) {
+                // No need to serialize again what we have never deserialized.
+                SerializedExtensionModel storedModel = (SerializedExtensionModel)extensionModel;
+                if (!storedModel.isFailed()) {
+                    serializedModels.put(extensionName, storedModel.getSerializedModel());
+                }
+                continue;
+            }
+
             if (!(extensionModel instanceof Serializable)) {
                 continue;
             }
@@ -57,29 +125,57 @@ public final class SerializedNbGradleModels implements Serializable {
             serializedModels.put(extensionName, serializedModel);
         }
 
-        return new SerializedNbGradleModels(model.getGenericInfo(), serializedModels, model.isRootWithoutSettingsGradle());
+        return new SerializedNbGradleModels(
+                model.getGenericInfo(),
+                buildDefId,
+                serializedModels,
+                model.isRootWithoutSettingsGradle());
     }
 
-    public NbGradleModel deserializeModel(NbGradleProject ownerProject) {
-        SerializationCache serializationCache = SerializationCaches.getDefault();
-        Map<String, Object> deserializedModels = CollectionUtils.newHashMap(extensionModels.size());
+    /**
+     * Deserializes the model of the project. The extension models are only
+     * deserialized when first requested, and the owner project is reloaded if
+     * any of them turns out to be unusable.
+     *
+     * @param ownerProject the project owning the model. This argument cannot
+     *   be {@code null}.
+     * @param buildDef the tree of the build this model refers to. This argument
+     *   is ignored if this model contains the tree itself, otherwise it must
+     *   be the stored tree with the id returned by {@link #tryGetBuildDefId()}.
+     * @return the model of the project or {@code null} if the model cannot
+     *   be deserialized without the tree of the build
+     */
+    public NbGradleModel deserializeModel(NbGradleProject ownerProject, NbGradleProjectTree buildDef) {
+        NbGradleMultiProjectDef currentProjectDef = projectDef;
+        if (currentProjectDef == null) {
+            NbGradleProjectTree mainProject = buildDef != null
+                    ? buildDef.findByPath(mainProjectPath)
+                    : null;
+            if (mainProject == null) {
+                return null;
+            }
+            currentProjectDef = new NbGradleMultiProjectDef(buildDef, mainProject);
+        }
+
+        Path settingsFile = settingsPath != null ? Paths.get(settingsPath) : null;
+        NbGenericModelInfo genericInfo = new NbGenericModelInfo(currentProjectDef, settingsFile, createTimeEpochMs);
+
+        Map<String, Object> lazyModels = CollectionUtils.newHashMap(extensionModels.size());
 
         for (NbGradleExtensionRef extensionRef: ownerProject.getExtensions().getExtensionRefs()) {
-            byte[] serializedModel = extensionModels.get(extensionRef.getName());
+            String extensionName = extensionRef.getName();
+            byte[] serializedModel = extensionModels.get(extensionName);
 
             if (serializedModel != null) {
-                try {
-                    ClassLoader modelClassLoader = extensionRef.getExtensionDef().getModelType().getClassLoader();
-                    Object model = SerializationUtils.deserializeObject(serializedModel, serializationCache, modelClassLoader);
-                    deserializedModels.put(extensionRef.getName(), model);
-                } catch (Throwable ex) {
-                    LOGGER.log(Level.INFO,
-                            "There was a problem when deserializing model for " + extensionRef.getName(),
-                            ex);
-                }
+                ClassLoader modelClassLoader = extensionRef.getExtensionDef().getModelType().getClassLoader();
+                lazyModels.put(extensionName, new SerializedExtensionModel(
+                        extensionName,
+                        serializedModel,
+                        modelClassLoader,
+                        ownerProject::reloadProject));
             }
         }
 
-        return new NbGradleModel(genericInfo, deserializedModels, rootWithoutSettingsGradle);
+        return new NbGradleModel(genericInfo, lazyModels, rootWithoutSettingsGradle);
     }
 }
@@ -5,6 +5,7 @@ import java.awt.Dialog;
 import java.awt.Toolkit;
 import java.awt.datatransfer.StringSelection;
 import java.awt.event.ActionEvent;
+import java.util.function.Supplier;
 import javax.swing.JButton;
 import org.netbeans.gradle.project.NbStrings;
 import org.openide.DialogDescriptor;
@@ -20,15 +21,23 @@ public class IssueDetailsPanel extends javax.swing.JPanel {
     }
 
     public static JButton createShowStackTraceButton(final String caption, final String detailsContent) {
+        return createShowStackTraceButton(caption, () -> detailsContent);
+    }
+
+    public static JButton createShowStackTraceButton(String caption, Supplier<String> detailsProvider) {
         JButton button = new JButton(NbStrings.getShowStackTrace());
         button.addActionListener((ActionEvent e) -> {
-            showModalDialog(caption, detailsContent);
+            showModalDialog(caption, detailsProvider);
         });
         return button;
     }
 
     public static void showModalDialog(String caption, String detailsContent) {
-        IssueDetailsPanel panel = new IssueDetailsPanel(detailsContent);
+        showModalDialog(caption, () -> detailsContent);
+    }
+
+    public static void showModalDialog(String caption, Supplier<String> detailsProvider) {
+        IssueDetailsPanel panel = new IssueDetailsPanel(detailsProvider.get());
         DialogDescriptor dlgDescriptor = new DialogDescriptor(
                 panel,
                 caption,
@@ -0,0 +1,61 @@
+package org.netbeans.gradle.project.model.issue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.netbeans.gradle.model.util.Exceptions;
+
+/**
+ * Defines the values identifying issues across model reloads. Two issues have
+ * the same fingerprint if they are the same problem of the same project, even if
+ * they were reported by different loads of the project models.
+ * <P>
+ * Calculating a fingerprint does not require formatting the stack trace of the
+ * error of the issue.
+ */
+final class IssueFingerprints {
+    private static final int MAX_CAUSE_DEPTH = 16;
+
+    public static Object errorFingerprint(Throwable error) {
+        Objects.requireNonNull(error, "error");
+
+        List<Object> result = new ArrayList<>();
+        Throwable cause = error;
+        int depth = 0;
+        while (cause != null && depth < MAX_CAUSE_DEPTH) {
+            result.add(cause.getClass().getName());
+            result.add(Exceptions.getActualMessage(cause));
+
+            StackTraceElement[] stackTrace = cause.getStackTrace();
+            result.add(stackTrace.length > 0 ? stackTrace[0] : null);
+
+            cause = cause.getCause();
+            depth++;
+        }
+        return result;
+    }
+
+    public static Object modelLoadIssueFingerprint(ModelLoadIssue issue) {
+        return Arrays.asList(
+                ModelLoadIssue.class,
+                issue.getRequestedProject().getProjectDirectoryAsFile(),
+                issue.getActualProjectPath(),
+                issue.getExtensionName(),
+                issue.getBuilderName(),
+                errorFingerprint(issue.getStackTrace()));
+    }
+
+    public static Object dependencyResolutionIssueFingerprint(DependencyResolutionIssue issue) {
+        return Arrays.asList(
+                DependencyResolutionIssue.class,
+                issue.getProjectName(),
+                issue.getSourceSetName(),
+                issue.getDependencyKind(),
+                errorFingerprint(issue.getStackTrace()));
+    }
+
+    private IssueFingerprints() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,138 @@
+package org.netbeans.gradle.project.model.issue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Collects the issues to be displayed to the user and limits the rate of the
+ * displayed notifications. If issues are added too soon after the previous
+ * notifications, then they are displayed later, merged with the other issues of
+ * the same kind (as defined by {@link NotificationFormat#equals(Object) equals})
+ * added in the meantime.
+ * <P>
+ * The details of the issues are only formatted if the user requests them.
+ * <P>
+ * The methods of this class must only be called from the Event Dispatch Thread.
+ */
+final class IssueNotificationQueue {
+    /**
+     * Defines how a notification is displayed for a list of issues.
+     * Equivalent formats must accept the same type of issues, because issues
+     * of equivalent formats are merged into a single notification.
+     *
+     * @param <T> the type of the issues
+     */
+    public interface NotificationFormat<T> {
+        public String getMessage(List<T> issues);
+        public String getDetailsCaption(List<T> issues);
+        public String getDetails(List<T> issues);
+    }
+
+    public interface NotificationDisplay {
+        public void showNotification(String message, String detailsCaption, Supplier<String> detailsProvider);
+    }
+
+    private final long minIntervalNanos;
+    private final NotificationDisplay display;
+
+    private final Map<NotificationFormat<?>, PendingNotification<?>> pendingNotifications;
+    private final Timer flushTimer;
+    private boolean flushedBefore;
+    private long lastFlushTime;
+
+    public IssueNotificationQueue(long minInterval, TimeUnit unit, NotificationDisplay display) {
+        this.minIntervalNanos = unit.toNanos(minInterval);
+        this.display = Objects.requireNonNull(display, "display");
+
+        this.pendingNotifications = new LinkedHashMap<>();
+        this.flushTimer = new Timer(0, e -> flush());
+        this.flushTimer.setRepeats(false);
+        this.flushedBefore = false;
+        this.lastFlushTime = 0;
+    }
+
+    public <T> void addIssues(NotificationFormat<T> format, Collection<? extends T> issues) {
+        assert SwingUtilities.isEventDispatchThread();
+        Objects.requireNonNull(format, "format");
+
+        if (issues.isEmpty()) {
+            return;
+        }
+
+        PendingNotification<?> existing = pendingNotifications.get(format);
+        PendingNotification<T> pending;
+        if (existing != null) {
+            pending = existing.castTo(format);
+        }
+        else {
+            pending = new PendingNotification<>(format);
+            pendingNotifications.put(format, pending);
+        }
+        pending.issues.addAll(issues);
+
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        long elapsed = System.nanoTime() - lastFlushTime;
+        if (!flushedBefore || elapsed >= minIntervalNanos) {
+            flush();
+            return;
+        }
+
+        if (!flushTimer.isRunning()) {
+            long delayMs = TimeUnit.NANOSECONDS.toMillis(minIntervalNanos - elapsed) + 1;
+            flushTimer.setInitialDelay((int)Math.min(delayMs, Integer.MAX_VALUE));
+            flushTimer.start();
+        }
+    }
+
+    private void flush() {
+        flushTimer.stop();
+        flushedBefore = true;
+        lastFlushTime = System.nanoTime();
+
+        List<PendingNotification<?>> notifications = new ArrayList<>(pendingNotifications.values());
+        pendingNotifications.clear();
+
+        for (PendingNotification<?> notification: notifications) {
+            notification.show(display);
+        }
+    }
+
+    private static final class PendingNotification<T> {
+        private final NotificationFormat<T> format;
+        private final List<T> issues;
+
+        public PendingNotification(NotificationFormat<T> format) {
+            this.format = format;
+            this.issues = new ArrayList<>();
+        }
+
+        public <T2> PendingNotification<T2> castTo(NotificationFormat<T2> otherFormat) {
+            if (otherFormat.getClass() != format.getClass()) {
+                throw new IllegalArgumentException("Incompatible formats: "
+                        + format.getClass().getName() + " and " + otherFormat.getClass().getName());
+            }
+
+            // The formats are equivalent, so they must accept the same issues.
+            @SuppressWarnings("unchecked")
+            PendingNotification<T2> result = (PendingNotification<T2>)this;
+            return result;
+        }
+
+        public void show(NotificationDisplay display) {
+            String message = format.getMessage(issues);
+            String detailsCaption = format.getDetailsCaption(issues);
+            display.showNotification(message, detailsCaption, () -> format.getDetails(issues));
+        }
+    }
+}
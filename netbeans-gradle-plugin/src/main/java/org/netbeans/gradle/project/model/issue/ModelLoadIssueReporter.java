@@ -4,14 +4,19 @@ import java.awt.Color;
 import java.awt.FlowLayout;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.io.File;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.Icon;
@@ -21,12 +26,12 @@ import javax.swing.JPanel;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import org.jtrim2.utils.ExceptionHelper;
-import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.model.util.Exceptions;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbIcons;
 import org.netbeans.gradle.project.NbStrings;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
+import org.netbeans.gradle.project.model.issue.IssueNotificationQueue.NotificationFormat;
 import org.openide.awt.NotificationDisplayer;
 
 public final class ModelLoadIssueReporter {
@@ -34,6 +39,21 @@ public final class ModelLoadIssueReporter {
     private static final Icon ERROR_ICON = NbIcons.getPriorityHighIcon();
     private static final Color TRANSPARENT_COLOR = new Color(0, 0, 0, 0);
 
+    private static final long FORGET_REPORTED_ISSUE_MINUTES = 10;
+    private static final int MAX_REMEMBERED_ISSUES = 1024;
+    private static final long MIN_NOTIFICATION_INTERVAL_MS = 2000;
+
+    // Issues repeated by consecutive model loads are only reported once.
+    private static final ReportedIssueFilter REPORTED_ISSUES = new ReportedIssueFilter(
+            FORGET_REPORTED_ISSUE_MINUTES,
+            TimeUnit.MINUTES,
+            MAX_REMEMBERED_ISSUES);
+
+    private static final IssueNotificationQueue NOTIFICATIONS = new IssueNotificationQueue(
+            MIN_NOTIFICATION_INTERVAL_MS,
+            TimeUnit.MILLISECONDS,
+            ModelLoadIssueReporter::showNotification);
+
     private static void printStackTrace(Throwable error, Writer output) {
         PrintWriter writer = new PrintWriter(output);
         try {
@@ -91,15 +111,52 @@ public final class ModelLoadIssueReporter {
         return details.toString();
     }
 
-    private static JComponent createDetailsComponent(String caption, String detailsContent) {
+    private static String createBuildScriptErrorDetails(Collection<? extends Throwable> errors) {
+        StringBuilder details = new StringBuilder();
+        for (Throwable error: errors) {
+            if (details.length() > 0) {
+                details.append("\n\n");
+            }
+            details.append(getStackTrace(error));
+        }
+        return details.toString();
+    }
+
+    private static String createDependencyResolutionDetails(Collection<? extends DependencyResolutionIssue> issues) {
+        StringBuilder detailsContent = new StringBuilder(1024);
+        for (DependencyResolutionIssue issue: issues) {
+            detailsContent.append("- ");
+            detailsContent.append(issue.getMessage());
+            detailsContent.append(" (");
+            detailsContent.append(getImportantCause(issue));
+            detailsContent.append(")\n");
+        }
+
+        detailsContent.append("\nDetails: \n");
+
+        int issueIndex = 1;
+        for (DependencyResolutionIssue issue: issues) {
+            detailsContent.append("\n");
+            detailsContent.append("Exception ");
+            detailsContent.append(issueIndex);
+            detailsContent.append("\n---------------\n\n");
+            detailsContent.append(getStackTrace(issue.getStackTrace()));
+
+            issueIndex++;
+        }
+
+        return detailsContent.toString();
+    }
+
+    private static JComponent createDetailsComponent(String caption, Supplier<String> detailsProvider) {
         JPanel detailsComponent = new JPanel(new FlowLayout());
         detailsComponent.setOpaque(false);
         detailsComponent.setBackground(TRANSPARENT_COLOR);
-        detailsComponent.add(IssueDetailsPanel.createShowStackTraceButton(caption, detailsContent));
+        detailsComponent.add(IssueDetailsPanel.createShowStackTraceButton(caption, detailsProvider));
         return detailsComponent;
     }
 
-    private static JLabel errorBalloonLabel(String message, final String detailsCaption, final String details) {
+    private static JLabel errorBalloonLabel(String message, String detailsCaption, Supplier<String> detailsProvider) {
         String htmlMessage = "<html>" + message + "</html>";
         JLabel label = new JLabel(
                 htmlMessage,
@@ -109,24 +166,18 @@ public final class ModelLoadIssueReporter {
         label.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
-                IssueDetailsPanel.showModalDialog(detailsCaption, details);
+                IssueDetailsPanel.showModalDialog(detailsCaption, detailsProvider);
             }
         });
 
         return label;
     }
 
-    private static void reportAllIssuesNow(String message, Collection<? extends ModelLoadIssue> issues) {
+    private static void showNotification(String message, String detailsCaption, Supplier<String> detailsProvider) {
         assert SwingUtilities.isEventDispatchThread();
 
-        if (issues.isEmpty()) {
-            return;
-        }
-
-        String details = createDetails(issues);
-
-        JLabel messageLabel = errorBalloonLabel(message, message, details);
-        JComponent detailsComponent = createDetailsComponent(message, details);
+        JLabel messageLabel = errorBalloonLabel(message, detailsCaption, detailsProvider);
+        JComponent detailsComponent = createDetailsComponent(detailsCaption, detailsProvider);
 
         NotificationDisplayer.getDefault().notify(
                 message,
@@ -136,28 +187,59 @@ public final class ModelLoadIssueReporter {
                 NotificationDisplayer.Priority.HIGH);
     }
 
-    private static void logIssues(Collection<? extends ModelLoadIssue> issues) {
+    private static <T> void notifyLater(NotificationFormat<T> format, List<T> issues) {
+        if (issues.isEmpty()) {
+            return;
+        }
+
+        SwingUtilities.invokeLater(() -> {
+            NOTIFICATIONS.addIssues(format, issues);
+        });
+    }
+
+    private static void logIssues(Collection<? extends ModelLoadIssue> issues, Level level) {
+        if (!LOGGER.isLoggable(level)) {
+            return;
+        }
+
         for (ModelLoadIssue issue: issues) {
-            if (issue != null) {
-                LOGGER.log(Level.INFO,
-                        "Model load issue: " + issue,
-                        issue.getStackTrace());
-            }
+            LOGGER.log(level,
+                    "Model load issue: " + issue,
+                    issue.getStackTrace());
         }
     }
 
-    public static void reportAllIssues(
-            final String message,
-            Collection<? extends ModelLoadIssue> issues) {
+    private static List<ModelLoadIssue> filterNewIssues(
+            Collection<? extends ModelLoadIssue> issues,
+            boolean explicitReload) {
 
-        logIssues(issues);
+        if (explicitReload) {
+            REPORTED_ISSUES.markAllReported(issues, IssueFingerprints::modelLoadIssueFingerprint);
+            logIssues(issues, Level.INFO);
+            return new ArrayList<>(issues);
+        }
+
+        List<ModelLoadIssue> newIssues = REPORTED_ISSUES.filterNewIssues(
+                issues,
+                IssueFingerprints::modelLoadIssueFingerprint);
+
+        if (newIssues.size() < issues.size()) {
+            List<ModelLoadIssue> repeatedIssues = new ArrayList<>(issues);
+            repeatedIssues.removeAll(newIssues);
+            logIssues(repeatedIssues, Level.FINE);
+        }
+        logIssues(newIssues, Level.INFO);
+
+        return newIssues;
+    }
 
+    public static void reportAllIssues(
+            String message,
+            Collection<? extends ModelLoadIssue> issues) {
+        Objects.requireNonNull(message, "message");
         ExceptionHelper.checkNotNullElements(issues, "issues");
 
-        final List<ModelLoadIssue> issuesCopy = CollectionUtils.copyNullSafeList(issues);
-        SwingUtilities.invokeLater(() -> {
-            reportAllIssuesNow(message, issuesCopy);
-        });
+        notifyLater(new CustomMessageFormat(message), filterNewIssues(issues, false));
     }
 
     private static String setToString(Set<String> strings) {
@@ -189,43 +271,27 @@ public final class ModelLoadIssueReporter {
     }
 
     public static void reportAllIssues(Collection<? extends ModelLoadIssue> issues) {
+        reportAllIssues(issues, false);
+    }
+
+    /**
+     * Reports the given issues of a model load. Issues reported recently are
+     * only logged (on the {@code FINE} level) unless the models were loaded due
+     * to an explicit request of the user.
+     *
+     * @param issues the issues to be reported. This argument cannot be
+     *   {@code null} and cannot contain {@code null} elements.
+     * @param explicitReload {@code true} if the models were loaded due to an
+     *   explicit request of the user, in which case all the issues are
+     *   reported
+     */
+    public static void reportAllIssues(Collection<? extends ModelLoadIssue> issues, boolean explicitReload) {
         if (issues.isEmpty()) {
             return;
         }
 
-        logIssues(issues);
-
-        final List<ModelLoadIssue> issuesCopy = CollectionUtils.copyNullSafeList(issues);
-
-        String projectName = setToString(getProjectNames(issuesCopy));
-        String extensionName = setToString(getExtensionNames(issuesCopy));
-
-        final String message = NbStrings.getInternalExtensionErrorInProject(extensionName, projectName);
-        SwingUtilities.invokeLater(() -> {
-            reportAllIssuesNow(message, issuesCopy);
-        });
-    }
-
-    private static void reportErrorNow(String message, String detailsCaption, Throwable error) {
-        assert SwingUtilities.isEventDispatchThread();
-
-        String details = getStackTrace(error);
-
-        JLabel messageLabel = errorBalloonLabel(message, detailsCaption, details);
-        JComponent detailsComponent = createDetailsComponent(detailsCaption, details);
-
-        NotificationDisplayer.getDefault().notify(
-                message,
-                ERROR_ICON,
-                messageLabel,
-                detailsComponent,
-                NotificationDisplayer.Priority.HIGH);
-    }
-
-    private static void reportBuildScriptErrorNow(NbGradleProject project, Throwable error) {
-        String projectName = project.getDisplayName();
-        String message = NbStrings.getBuildScriptErrorInProject(projectName);
-        reportErrorNow(message, projectName, error);
+        ExceptionHelper.checkNotNullElements(issues, "issues");
+        notifyLater(ExtensionIssuesFormat.INSTANCE, filterNewIssues(issues, explicitReload));
     }
 
     @SuppressWarnings("ThrowableResultIgnored")
@@ -233,9 +299,12 @@ public final class ModelLoadIssueReporter {
         Objects.requireNonNull(project, "project");
         Objects.requireNonNull(error, "error");
 
-        SwingUtilities.invokeLater(() -> {
-            reportBuildScriptErrorNow(project, error);
-        });
+        // Build script errors are always reported because they are expected
+        // to be fixed by the user before the next reload.
+        File projectDir = project.getProjectDirectoryAsFile();
+        notifyLater(
+                new BuildScriptErrorFormat(projectDir, project.getDisplayName()),
+                Collections.singletonList(error));
     }
 
     private static Set<String> getFailedDependencyProjectNames(List<DependencyResolutionIssue> issues) {
@@ -268,56 +337,33 @@ public final class ModelLoadIssueReporter {
                 .replace('\n', ' ');
     }
 
-    private static void reportDependencyResolutionFailures(List<DependencyResolutionIssue> issues) {
-        assert SwingUtilities.isEventDispatchThread();
-
-        String projectName = setToString(getFailedDependencyProjectNames(issues));
-        String message = NbStrings.getDependencyResolutionFailure(projectName);
-
-        StringBuilder detailsContent = new StringBuilder(1024);
-        for (DependencyResolutionIssue issue: issues) {
-            String issueMessage = issue.getMessage();
-            LOGGER.log(Level.INFO, issueMessage, issue.getStackTrace());
-
-            detailsContent.append("- ");
-            detailsContent.append(issueMessage);
-            detailsContent.append(" (");
-            detailsContent.append(getImportantCause(issue));
-            detailsContent.append(")\n");
+    private static void logDependencyResolutionIssues(
+            Collection<? extends DependencyResolutionIssue> issues,
+            Level level) {
+        if (!LOGGER.isLoggable(level)) {
+            return;
         }
 
-        detailsContent.append("\nDetails: \n");
-
-        int issueIndex = 1;
         for (DependencyResolutionIssue issue: issues) {
-            detailsContent.append("\n");
-            detailsContent.append("Exception ");
-            detailsContent.append(issueIndex);
-            detailsContent.append("\n---------------\n\n");
-            detailsContent.append(getStackTrace(issue.getStackTrace()));
-
-            issueIndex++;
+            LOGGER.log(level, issue.getMessage(), issue.getStackTrace());
         }
+    }
 
-        String details = detailsContent.toString();
-        String detailsCaption = message;
+    public static void reportDependencyResolutionFailures(Collection<? extends DependencyResolutionIssue> issues) {
+        ExceptionHelper.checkNotNullElements(issues, "issues");
 
-        JLabel messageLabel = errorBalloonLabel(message, detailsCaption, details);
-        JComponent detailsComponent = createDetailsComponent(detailsCaption, details);
+        List<DependencyResolutionIssue> newIssues = REPORTED_ISSUES.filterNewIssues(
+                issues,
+                IssueFingerprints::dependencyResolutionIssueFingerprint);
 
-        NotificationDisplayer.getDefault().notify(
-                message,
-                ERROR_ICON,
-                messageLabel,
-                detailsComponent,
-                NotificationDisplayer.Priority.HIGH);
-    }
+        if (newIssues.size() < issues.size()) {
+            List<DependencyResolutionIssue> repeatedIssues = new ArrayList<>(issues);
+            repeatedIssues.removeAll(newIssues);
+            logDependencyResolutionIssues(repeatedIssues, Level.FINE);
+        }
+        logDependencyResolutionIssues(newIssues, Level.INFO);
 
-    public static void reportDependencyResolutionFailures(Collection<? extends DependencyResolutionIssue> issues) {
-        final List<DependencyResolutionIssue> issuesCopy = CollectionUtils.copyNullSafeList(issues);
-        SwingUtilities.invokeLater(() -> {
-            reportDependencyResolutionFailures(issuesCopy);
-        });
+        notifyLater(DependencyFailuresFormat.INSTANCE, newIssues);
     }
 
     public static boolean reportIfBuildScriptError(NbGradleProject project, Throwable error) {
@@ -333,6 +379,125 @@ public final class ModelLoadIssueReporter {
         return false;
     }
 
+    private static final class ExtensionIssuesFormat implements NotificationFormat<ModelLoadIssue> {
+        public static final ExtensionIssuesFormat INSTANCE = new ExtensionIssuesFormat();
+
+        @Override
+        public String getMessage(List<ModelLoadIssue> issues) {
+            String projectName = setToString(getProjectNames(issues));
+            String extensionName = setToString(getExtensionNames(issues));
+            return NbStrings.getInternalExtensionErrorInProject(extensionName, projectName);
+        }
+
+        @Override
+        public String getDetailsCaption(List<ModelLoadIssue> issues) {
+            return getMessage(issues);
+        }
+
+        @Override
+        public String getDetails(List<ModelLoadIssue> issues) {
+            return createDetails(issues);
+        }
+    }
+
+    private static final class CustomMessageFormat implements NotificationFormat<ModelLoadIssue> {
+        private final String message;
+
+        public CustomMessageFormat(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String getMessage(List<ModelLoadIssue> issues) {
+            return message;
+        }
+
+        @Override
+        public String getDetailsCaption(List<ModelLoadIssue> issues) {
+            return message;
+        }
+
+        @Override
+        public String getDetails(List<ModelLoadIssue> issues) {
+            return createDetails(issues);
+        }
+
+        @Override
+        public int hashCode() {
+            return 235 + message.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final CustomMessageFormat other = (CustomMessageFormat)obj;
+            return message.equals(other.message);
+        }
+    }
+
+    private static final class BuildScriptErrorFormat implements NotificationFormat<Throwable> {
+        private final File projectDir;
+        private final String projectName;
+
+        public BuildScriptErrorFormat(File projectDir, String projectName) {
+            this.projectDir = projectDir;
+            this.projectName = projectName;
+        }
+
+        @Override
+        public String getMessage(List<Throwable> issues) {
+            return NbStrings.getBuildScriptErrorInProject(projectName);
+        }
+
+        @Override
+        public String getDetailsCaption(List<Throwable> issues) {
+            return projectName;
+        }
+
+        @Override
+        public String getDetails(List<Throwable> issues) {
+            return createBuildScriptErrorDetails(issues);
+        }
+
+        @Override
+        public int hashCode() {
+            return 413 + projectDir.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final BuildScriptErrorFormat other = (BuildScriptErrorFormat)obj;
+            return projectDir.equals(other.projectDir);
+        }
+    }
+
+    private static final class DependencyFailuresFormat implements NotificationFormat<DependencyResolutionIssue> {
+        public static final DependencyFailuresFormat INSTANCE = new DependencyFailuresFormat();
+
+        @Override
+        public String getMessage(List<DependencyResolutionIssue> issues) {
+            String projectName = setToString(getFailedDependencyProjectNames(issues));
+            return NbStrings.getDependencyResolutionFailure(projectName);
+        }
+
+        @Override
+        public String getDetailsCaption(List<DependencyResolutionIssue> issues) {
+            return getMessage(issues);
+        }
+
+        @Override
+        public String getDetails(List<DependencyResolutionIssue> issues) {
+            return createDependencyResolutionDetails(issues);
+        }
+    }
+
     private ModelLoadIssueReporter() {
         throw new AssertionError();
     }
@@ -0,0 +1,160 @@
+package org.netbeans.gradle.project.model.issue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers the fingerprints of the recently reported issues, so that the same issue
+ * reported by consecutive model loads is only reported once.
+ * <P>
+ * An issue is forgotten after a given amount of time has elapsed since it was
+ * first reported, even if it was seen again in the meantime. That is, an issue
+ * present in every model load is reported again periodically. If too many
+ * issues are remembered, then the earliest reported issues are forgotten first.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+final class ReportedIssueFilter {
+    private final long forgetTimeoutNanos;
+    private final int maxRememberedIssues;
+    private final LongSupplier nanoTimeProvider;
+
+    private final Lock mainLock;
+    // Ordered by the time the issues were first reported.
+    private final Map<Object, Long> reportTimes;
+
+    public ReportedIssueFilter(long forgetTimeout, TimeUnit unit, int maxRememberedIssues) {
+        this(forgetTimeout, unit, maxRememberedIssues, System::nanoTime);
+    }
+
+    ReportedIssueFilter(
+            long forgetTimeout,
+            TimeUnit unit,
+            int maxRememberedIssues,
+            LongSupplier nanoTimeProvider) {
+
+        if (maxRememberedIssues <= 0) {
+            throw new IllegalArgumentException("Illegal maxRememberedIssues: " + maxRememberedIssues);
+        }
+
+        this.forgetTimeoutNanos = unit.toNanos(forgetTimeout);
+        this.maxRememberedIssues = maxRememberedIssues;
+        this.nanoTimeProvider = Objects.requireNonNull(nanoTimeProvider, "nanoTimeProvider");
+
+        this.mainLock = new ReentrantLock();
+        this.reportTimes = new LinkedHashMap<>();
+    }
+
+    /**
+     * Returns the issues which were not reported recently (in their original
+     * order) and marks the returned issues as reported. The report time of
+     * issues reported earlier is not updated.
+     *
+     * @param issues the issues to be filtered. This argument cannot be
+     *   {@code null} and cannot contain {@code null} elements.
+     * @param fingerprintGetter the function returning the fingerprint of an
+     *   issue. Issues are considered to be the same if their fingerprints are
+     *   equal. This argument cannot be {@code null}.
+     * @return the issues which were not reported recently. This method never
+     *   returns {@code null}.
+     */
+    public <T> List<T> filterNewIssues(
+            Collection<? extends T> issues,
+            Function<? super T, ?> fingerprintGetter) {
+        return markReported(issues, fingerprintGetter, false);
+    }
+
+    /**
+     * Marks all the given issues as reported now, regardless if they were
+     * reported recently. This method is to be called when the issues are
+     * reported without filtering them (e.g., because the user explicitly
+     * requested them).
+     *
+     * @param issues the reported issues. This argument cannot be
+     *   {@code null} and cannot contain {@code null} elements.
+     * @param fingerprintGetter the function returning the fingerprint of an
+     *   issue. This argument cannot be {@code null}.
+     */
+    public <T> void markAllReported(
+            Collection<? extends T> issues,
+            Function<? super T, ?> fingerprintGetter) {
+        markReported(issues, fingerprintGetter, true);
+    }
+
+    private <T> List<T> markReported(
+            Collection<? extends T> issues,
+            Function<? super T, ?> fingerprintGetter,
+            boolean reportAll) {
+        Objects.requireNonNull(fingerprintGetter, "fingerprintGetter");
+
+        if (issues.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Object> fingerprints = new ArrayList<>(issues.size());
+        for (T issue: issues) {
+            fingerprints.add(Objects.requireNonNull(fingerprintGetter.apply(issue), "fingerprint"));
+        }
+
+        List<T> result = new ArrayList<>();
+
+        mainLock.lock();
+        try {
+            long currentTime = nanoTimeProvider.getAsLong();
+            forgetOldIssues(currentTime);
+
+            Iterator<Object> fingerprintItr = fingerprints.iterator();
+            for (T issue: issues) {
+                Object fingerprint = fingerprintItr.next();
+                if (reportAll) {
+                    // Removing first moves the issue to the end of the order.
+                    reportTimes.remove(fingerprint);
+                    reportTimes.put(fingerprint, currentTime);
+                    result.add(issue);
+                }
+                else if (reportTimes.putIfAbsent(fingerprint, currentTime) == null) {
+                    result.add(issue);
+                }
+            }
+
+            forgetExcessIssues();
+        } finally {
+            mainLock.unlock();
+        }
+
+        return result;
+    }
+
+    private void forgetOldIssues(long currentTime) {
+        Iterator<Long> reportTimeItr = reportTimes.values().iterator();
+        while (reportTimeItr.hasNext()) {
+            long reportTime = reportTimeItr.next();
+            if (currentTime - reportTime <= forgetTimeoutNanos) {
+                break;
+            }
+            reportTimeItr.remove();
+        }
+    }
+
+    private void forgetExcessIssues() {
+        int excessCount = reportTimes.size() - maxRememberedIssues;
+        Iterator<?> keyItr = reportTimes.keySet().iterator();
+        while (excessCount > 0) {
+            keyItr.next();
+            keyItr.remove();
+            excessCount--;
+        }
+    }
+}
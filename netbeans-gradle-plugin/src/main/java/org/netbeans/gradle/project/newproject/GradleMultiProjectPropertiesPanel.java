@@ -32,10 +32,10 @@ public class GradleMultiProjectPropertiesPanel extends javax.swing.JPanel {
             return;
         }
 
-        bckgValidator.addValidator(
+        bckgValidator.addMemoizedValidator(
                 NewProjectUtils.createGroupIdValidator(),
                 Validators.trimmedText(jMavenGroupEdit));
-        bckgValidator.addValidator(
+        bckgValidator.addMemoizedValidator(
                 NewProjectUtils.createVersionValidator(),
                 Validators.trimmedText(jMavenVersionEdit));
 
@@ -282,7 +282,7 @@ public final class NewProjectUtils {
 
         List<ListenerRef> refs = new ArrayList<>();
 
-        refs.add(bckgValidator.addValidator(
+        refs.add(bckgValidator.addMemoizedValidator(
                 NewProjectUtils.createProjectNameValidator(),
                 projectName));
         refs.add(bckgValidator.addValidator(
@@ -1,6 +1,5 @@
 package org.netbeans.gradle.project.others;
 
-import java.lang.reflect.Method;
 import org.netbeans.api.project.Project;
 import org.netbeans.spi.project.ui.support.ProjectCustomizer;
 
@@ -23,7 +22,7 @@ public final class ChangeLFPlugin {
             return null;
         }
 
-        Method lineFeedStrMethod = ReflectionHelper.tryGetMethod(lineFeedEnum.getClass(), "getLineSeparator");
+        MethodInvoker lineFeedStrMethod = ReflectionHelper.tryGetMethodInvoker(lineFeedEnum.getClass(), "getLineSeparator");
         if (lineFeedStrMethod == null) {
             return null;
         }
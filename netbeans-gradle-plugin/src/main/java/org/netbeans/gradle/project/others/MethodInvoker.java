@@ -0,0 +1,227 @@
+package org.netbeans.gradle.project.others;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Invokes a public method through a {@code MethodHandle} instead of
+ * {@code Method.invoke}. The invokers are cached per class and method
+ * signature, so looking up the same method again is cheap as well. A lookup
+ * is only cached if all the parameter types of the signature are visible from
+ * the class loader of the searched class, so the cache of a class never keeps
+ * classes of unrelated (e.g., plugin) class loaders alive.
+ * <P>
+ * The invoker behaves like {@code Method.invoke}. Calls requiring a widening
+ * conversion of the arguments (or otherwise failing the fast path checks) are
+ * delegated to {@code Method.invoke}.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+final class MethodInvoker {
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private static final ClassValue<ConcurrentMap<MethodSignature, Optional<MethodInvoker>>> INVOKERS
+            = new ClassValue<ConcurrentMap<MethodSignature, Optional<MethodInvoker>>>() {
+        @Override
+        protected ConcurrentMap<MethodSignature, Optional<MethodInvoker>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Method method;
+    private final boolean staticMethod;
+    private final Class<?>[] paramTypes;
+    private final Class<?>[] argTypes;
+    // (Object, Object[])Object or null if not accessible through a handle.
+    private final MethodHandle invoker;
+
+    private MethodInvoker(Method method) {
+        this.method = method;
+        this.staticMethod = Modifier.isStatic(method.getModifiers());
+        this.paramTypes = method.getParameterTypes();
+        this.argTypes = wrapperTypes(paramTypes);
+        this.invoker = tryCreateInvoker(method);
+    }
+
+    /**
+     * Returns the invoker of the public method of the given class with the
+     * given name and parameter types, as found by {@code Class.getMethod}.
+     *
+     * @return the invoker of the method or {@code null} if there is no such
+     *   method
+     */
+    public static MethodInvoker tryGetPublicMethod(Class<?> type, String methodName, Class<?>... paramTypes) {
+        Objects.requireNonNull(type, "type");
+
+        MethodSignature signature = new MethodSignature(methodName, paramTypes);
+        ConcurrentMap<MethodSignature, Optional<MethodInvoker>> invokers = INVOKERS.get(type);
+
+        Optional<MethodInvoker> result = invokers.get(signature);
+        if (result == null) {
+            result = Optional.ofNullable(tryFindPublicMethod(type, signature));
+            if (isVisibleFrom(type, signature.paramTypes)) {
+                invokers.putIfAbsent(signature, result);
+            }
+        }
+        return result.orElse(null);
+    }
+
+    private static MethodInvoker tryFindPublicMethod(Class<?> type, MethodSignature signature) {
+        try {
+            return new MethodInvoker(type.getMethod(signature.methodName, signature.paramTypes));
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    private static boolean isVisibleFrom(Class<?> type, Class<?>[] referencedTypes) {
+        ClassLoader classLoader = type.getClassLoader();
+        for (Class<?> referencedType: referencedTypes) {
+            if (referencedType.isPrimitive() || referencedType.getClassLoader() == classLoader) {
+                continue;
+            }
+
+            try {
+                if (Class.forName(referencedType.getName(), false, classLoader) != referencedType) {
+                    return false;
+                }
+            } catch (ClassNotFoundException ex) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MethodHandle tryCreateInvoker(Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException ex) {
+            return null;
+        }
+
+        int paramCount = method.getParameterCount();
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+
+        return handle
+                .asType(MethodType.genericMethodType(paramCount + 1))
+                .asSpreader(Object[].class, paramCount);
+    }
+
+    private static Class<?>[] wrapperTypes(Class<?>[] types) {
+        Class<?>[] result = new Class<?>[types.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = MethodType.methodType(types[i]).wrap().returnType();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the invoked method. The returned {@code Method} is a new copy,
+     * so it is not shared with other users of this invoker and might be
+     * modified freely (e.g., by calling {@code setAccessible}).
+     * <P>
+     * Note that this method looks up the method again on each call, so it is
+     * meant for one-off use. Call {@link #invoke(Object, Object[]) invoke}
+     * to call the method repeatedly.
+     *
+     * @return the invoked method. This method never returns {@code null}.
+     */
+    public Method getMethod() {
+        try {
+            return method.getDeclaringClass().getMethod(method.getName(), paramTypes);
+        } catch (NoSuchMethodException ex) {
+            throw new AssertionError(ex);
+        }
+    }
+
+    private boolean canInvokeDirectly(Object instance, Object[] args) {
+        if (invoker == null) {
+            return false;
+        }
+
+        if (!staticMethod && !method.getDeclaringClass().isInstance(instance)) {
+            return false;
+        }
+
+        if (args.length != argTypes.length) {
+            return false;
+        }
+
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg == null
+                    ? paramTypes[i].isPrimitive()
+                    : !argTypes[i].isInstance(arg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Invokes the method with the given arguments.
+     *
+     * @param instance the object whose method is to be called. This argument
+     *   is ignored for static methods.
+     * @param args the arguments of the method
+     * @return the value returned by the method or {@code null} if the method
+     *   is a {@code void} method
+     * @throws IllegalAccessException thrown if the method is not accessible
+     * @throws InvocationTargetException thrown if the invoked method throws an
+     *   exception
+     */
+    public Object invoke(Object instance, Object... args)
+            throws IllegalAccessException, InvocationTargetException {
+        Object[] actualArgs = args != null ? args : NO_ARGS;
+
+        if (canInvokeDirectly(instance, actualArgs)) {
+            try {
+                return (Object)invoker.invokeExact(instance, actualArgs);
+            } catch (Throwable ex) {
+                throw new InvocationTargetException(ex);
+            }
+        }
+
+        // Let reflection handle (or report) the unusual cases.
+        return method.invoke(instance, actualArgs);
+    }
+
+    private static final class MethodSignature {
+        private final String methodName;
+        private final Class<?>[] paramTypes;
+
+        public MethodSignature(String methodName, Class<?>[] paramTypes) {
+            this.methodName = Objects.requireNonNull(methodName, "methodName");
+            this.paramTypes = paramTypes.clone();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * methodName.hashCode() + Arrays.hashCode(paramTypes);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final MethodSignature other = (MethodSignature)obj;
+            return methodName.equals(other.methodName)
+                    && Arrays.equals(paramTypes, other.paramTypes);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Supplier;
 import org.jtrim2.utils.LazyValues;
 import org.netbeans.gradle.model.util.CollectionUtils;
@@ -80,16 +82,31 @@ public final class PluginClassImplementation {
             InvocationHandlerFactory {
 
         private final Object delegate;
+        private final ConcurrentMap<Method, MethodInvoker> delegateMethods;
 
         public SimpleDelegator(Object delegate) {
             this.delegate = Objects.requireNonNull(delegate, "delegate");
+            this.delegateMethods = new ConcurrentHashMap<>();
+        }
+
+        private MethodInvoker getDelegateMethod(Method method) throws NoSuchMethodException {
+            MethodInvoker result = delegateMethods.get(method);
+            if (result == null) {
+                result = MethodInvoker.tryGetPublicMethod(
+                        delegate.getClass(),
+                        method.getName(),
+                        method.getParameterTypes());
+                if (result == null) {
+                    throw new NoSuchMethodException(delegate.getClass().getName() + "." + method.getName());
+                }
+                delegateMethods.putIfAbsent(method, result);
+            }
+            return result;
         }
 
         @Override
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-            Method delegateMethod
-                    = delegate.getClass().getMethod(method.getName(), method.getParameterTypes());
-            return delegateMethod.invoke(delegate, args);
+            return getDelegateMethod(method).invoke(delegate, args);
         }
 
         @Override
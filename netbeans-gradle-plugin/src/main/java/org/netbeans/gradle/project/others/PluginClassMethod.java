@@ -16,7 +16,7 @@ public final class PluginClassMethod {
     private final ClassFinder pluginClass;
     private final String methodName;
     private final ClassFinder[] argTypeFinders;
-    private final Supplier<Method> methodRef;
+    private final Supplier<MethodInvoker> methodRef;
 
     @SuppressWarnings("VolatileArrayField")
     private volatile Class<?>[] argTypesCache;
@@ -64,20 +64,22 @@ public final class PluginClassMethod {
     }
 
     public Method tryGetMethod() {
-        return methodRef.get();
+        MethodInvoker invoker = methodRef.get();
+        return invoker != null ? invoker.getMethod() : null;
     }
 
-    private Method tryFindMethod() {
+    private MethodInvoker tryFindMethod() {
         Class<?> type = pluginClass.tryGetClass();
         if (type == null) {
             return null;
         }
 
-        try {
-            return type.getMethod(methodName, getArgTypes());
-        } catch (NoSuchMethodException ex) {
+        Class<?>[] argTypes = getArgTypes();
+        if (argTypes == null) {
             return null;
         }
+
+        return MethodInvoker.tryGetPublicMethod(type, methodName, argTypes);
     }
 
     private String getClassName() {
@@ -86,7 +88,7 @@ public final class PluginClassMethod {
     }
 
     public Object tryInvoke(Object instance, Object... arguments) {
-        Method method = tryGetMethod();
+        MethodInvoker method = methodRef.get();
         try {
             if (method != null) {
                 return method.invoke(instance, arguments);
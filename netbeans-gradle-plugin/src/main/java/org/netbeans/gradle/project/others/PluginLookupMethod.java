@@ -1,6 +1,5 @@
 package org.netbeans.gradle.project.others;
 
-import java.lang.reflect.Method;
 import org.openide.util.Lookup;
 
 public final class PluginLookupMethod {
@@ -25,7 +24,7 @@ public final class PluginLookupMethod {
             return null;
         }
 
-        Method method = ReflectionHelper.tryGetMethod(cl, methodName, argTypes);
+        MethodInvoker method = ReflectionHelper.tryGetMethodInvoker(cl, methodName, argTypes);
         if (method == null) {
             return null;
         }
@@ -6,6 +6,7 @@ import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
@@ -19,21 +20,36 @@ public final class ReflectionHelper {
         return isInstanceOfAny(obj, Collections.singleton(requiredTypeName));
     }
 
-    private static boolean isTypeOfAny(Class<?> type, Set<String> requiredTypeNames) {
-        if (requiredTypeNames.contains(type.getName())) {
-            return true;
+    private static final ClassValue<Set<String>> TYPE_NAMES = new ClassValue<Set<String>>() {
+        @Override
+        protected Set<String> computeValue(Class<?> type) {
+            return findTypeNames(type);
+        }
+    };
+
+    /**
+     * Returns the names of the given class, its superclasses and the interfaces
+     * directly implemented by these classes.
+     */
+    private static Set<String> findTypeNames(Class<?> type) {
+        Set<String> result = new HashSet<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            result.add(current.getName());
+            for (Class<?> implementedIF: current.getInterfaces()) {
+                result.add(implementedIF.getName());
+            }
         }
+        return result;
+    }
 
-        for (Class<?> implementedIF: type.getInterfaces()) {
-            if (requiredTypeNames.contains(implementedIF.getName())) {
+    private static boolean isTypeOfAny(Class<?> type, Set<String> requiredTypeNames) {
+        Set<String> typeNames = TYPE_NAMES.get(type);
+        for (String requiredTypeName: requiredTypeNames) {
+            if (typeNames.contains(requiredTypeName)) {
                 return true;
             }
         }
-
-        Class<?> superclass = type.getSuperclass();
-        return superclass != null
-                ? isTypeOfAny(superclass, requiredTypeNames)
-                : false;
+        return false;
     }
 
     public static boolean isInstanceOfAny(Object obj, Set<String> requiredTypeNames) {
@@ -83,16 +99,25 @@ public final class ReflectionHelper {
     }
 
     public static Method tryGetMethod(Class<?> cl, String methodName, Class<?>... args) {
-        try {
-            return cl.getMethod(methodName, args);
-        } catch (NoSuchMethodException ex) {
-            return null;
-        }
+        MethodInvoker invoker = tryGetMethodInvoker(cl, methodName, args);
+        return invoker != null ? invoker.getMethod() : null;
+    }
+
+    static MethodInvoker tryGetMethodInvoker(Class<?> cl, String methodName, Class<?>... args) {
+        return MethodInvoker.tryGetPublicMethod(cl, methodName, args);
     }
 
     public static Object tryInvoke(Method method, Object obj, Object... args) {
+        return tryInvokeCall(method::invoke, obj, args);
+    }
+
+    static Object tryInvoke(MethodInvoker invoker, Object obj, Object... args) {
+        return tryInvokeCall(invoker::invoke, obj, args);
+    }
+
+    private static Object tryInvokeCall(ReflectiveCall call, Object obj, Object... args) {
         try {
-            return method.invoke(obj, args);
+            return call.invoke(obj, args);
         } catch (IllegalAccessException ex) {
         } catch (IllegalArgumentException ex) {
             LOGGER.log(Level.WARNING, "Unexpected IllegalArgumentException.", ex);
@@ -102,6 +127,10 @@ public final class ReflectionHelper {
         return null;
     }
 
+    private interface ReflectiveCall {
+        public Object invoke(Object obj, Object... args) throws IllegalAccessException, InvocationTargetException;
+    }
+
     public static ClassFinder constClassFinder(Class<?> type) {
         return () -> type;
     }
@@ -5,4 +5,21 @@ import java.io.IOException;
 public interface IOTabDef {
     public boolean isDestroyed();
     public void close() throws IOException;
+
+    /**
+     * Called when the tab is about to be reused by a new task. Implementations
+     * may discard some of the previous output to limit the memory retained by
+     * long lived tabs.
+     *
+     * @throws IOException thrown if trimming the output failed
+     */
+    public void trimOutput() throws IOException;
+
+    /**
+     * Permanently closes this tab. Called when the tab is no longer retained
+     * for reuse.
+     *
+     * @throws IOException thrown if closing the tab failed
+     */
+    public void destroy() throws IOException;
 }
@@ -1,120 +1,160 @@
 package org.netbeans.gradle.project.output;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
+import java.util.Comparator;
+import java.util.NavigableSet;
 import java.util.Objects;
-import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.netbeans.gradle.model.util.Exceptions;
 
+/**
+ * Maintains output tabs so that tabs of completed tasks are reused by later
+ * tasks with the same key.
+ * <P>
+ * Idle tabs are kept in lock-free free lists (one for each key) ordered by
+ * the index of the tab, so acquiring a tab does not contend with other
+ * threads acquiring or releasing tabs. The number of idle tabs retained is
+ * limited: If there are more idle tabs than allowed, the tabs released the
+ * longest time ago are destroyed.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
 public final class IOTabMaintainer<TabKey, IOTab extends IOTabDef> {
-    private final Lock mainLock;
+    private static final Logger LOGGER = Logger.getLogger(IOTabMaintainer.class.getName());
+
     private final IOTabFactory<? extends IOTab> factory;
-    private final Map<TabKey, List<CountedTab<IOTab>>> currentTabs;
+    private final IntSupplier maxIdleTabs;
+
+    private final ConcurrentMap<TabKey, NavigableSet<CountedTab<IOTab>>> idleTabs;
+    private final Queue<IdleTabRef<TabKey, IOTab>> releaseOrder;
+    private final AtomicInteger releaseOrderSize;
+    private final AtomicInteger idleCount;
+    private final AtomicLong tabIdCounter;
     private final KeyCounter<TabKey> tabIndexes;
 
     public IOTabMaintainer(IOTabFactory<? extends IOTab> factory) {
-        this.mainLock = new ReentrantLock();
-        this.currentTabs = new HashMap<>();
+        this(factory, () -> Integer.MAX_VALUE);
+    }
+
+    public IOTabMaintainer(IOTabFactory<? extends IOTab> factory, IntSupplier maxIdleTabs) {
         this.factory = Objects.requireNonNull(factory, "factory");
+        this.maxIdleTabs = Objects.requireNonNull(maxIdleTabs, "maxIdleTabs");
+
+        this.idleTabs = new ConcurrentHashMap<>();
+        this.releaseOrder = new ConcurrentLinkedQueue<>();
+        this.releaseOrderSize = new AtomicInteger(0);
+        this.idleCount = new AtomicInteger(0);
+        this.tabIdCounter = new AtomicLong(0);
         this.tabIndexes = new KeyCounter<>();
     }
 
-    private CountedTab<IOTab> tryGetAvailable(TabKey key) {
-        CountedTab<IOTab> result;
-
-        do {
-            mainLock.lock();
-            try {
-                List<CountedTab<IOTab>> list = currentTabs.get(key);
-                if (list == null) {
-                    return null;
-                }
+    private void addIdleTab(TabKey key, CountedTab<IOTab> tab) {
+        // Adding must be atomic with respect to removeIfNoIdleTabs, otherwise
+        // the tab could be added to a set no longer in the map.
+        idleTabs.compute(key, (unused, tabs) -> {
+            NavigableSet<CountedTab<IOTab>> result = tabs != null
+                    ? tabs
+                    : new ConcurrentSkipListSet<>(CountedTab.INDEX_ORDER);
+            result.add(tab);
+            return result;
+        });
+    }
 
-                result = null;
-                for (CountedTab<IOTab> tab: list) {
-                    if (result == null || tab.index < result.index) {
-                        result = tab;
-                    }
-                }
+    private void removeIfNoIdleTabs(TabKey key) {
+        // So that keys of tabs no longer used do not accumulate.
+        idleTabs.computeIfPresent(key, (unused, tabs) -> tabs.isEmpty() ? null : tabs);
+    }
 
-                // Should never happen in the current implementation because
-                // empty lists are removed and the list does not contain
-                // null elements.
-                if (result == null) {
-                    return null;
-                }
+    private CountedTab<IOTab> tryGetAvailable(TabKey key) {
+        NavigableSet<CountedTab<IOTab>> tabs = idleTabs.get(key);
+        if (tabs == null) {
+            return null;
+        }
 
-                list.remove(result);
-                if (list.isEmpty()) {
-                    currentTabs.remove(key);
+        try {
+            CountedTab<IOTab> result;
+            while ((result = tabs.pollFirst()) != null) {
+                idleCount.decrementAndGet();
+                if (!result.isClosed()) {
+                    return result;
                 }
-            } finally {
-                mainLock.unlock();
             }
-        } while (result.isClosed());
+            return null;
+        } finally {
+            removeIfNoIdleTabs(key);
+        }
+    }
+
+    private void addIdle(TabKey key, CountedTab<IOTab> tab) {
+        long releaseId = tab.releaseCount.incrementAndGet();
 
-        return result;
+        idleCount.incrementAndGet();
+        addIdleTab(key, tab);
+        releaseOrder.add(new IdleTabRef<>(key, tab, releaseId));
+        releaseOrderSize.incrementAndGet();
+
+        evictExcessTabs();
     }
 
-    private Set<CountedTab<IOTab>> getTabsToClose() {
-        List<CountedTab<IOTab>> allTabs = new ArrayList<>();
+    private void evictExcessTabs() {
+        int maxIdle = Math.max(0, maxIdleTabs.getAsInt());
+        while (idleCount.get() > maxIdle) {
+            IdleTabRef<TabKey, IOTab> oldest = releaseOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            releaseOrderSize.decrementAndGet();
 
-        mainLock.lock();
-        try {
-            for (List<CountedTab<IOTab>> tabs: currentTabs.values()) {
-                allTabs.addAll(tabs);
+            if (oldest.isOutdated()) {
+                // The tab was reused (and maybe released again) since.
+                continue;
             }
-        } finally {
-            mainLock.unlock();
-        }
 
-        Set<CountedTab<IOTab>> result = new HashSet<>();
-        for (CountedTab<IOTab> tab: allTabs) {
-            if (tab.isClosed()) {
-                result.add(tab);
+            NavigableSet<CountedTab<IOTab>> tabs = idleTabs.get(oldest.key);
+            // Whoever removes the tab from the free list owns the tab.
+            if (tabs != null && tabs.remove(oldest.tab)) {
+                idleCount.decrementAndGet();
+                removeIfNoIdleTabs(oldest.key);
+                destroyTab(oldest.tab);
             }
         }
-        return result;
+
+        // Remove references of reused tabs, so that the queue does not grow
+        // beyond the number of idle tabs.
+        if (releaseOrderSize.get() > 2 * idleCount.get() + 16) {
+            releaseOrder.removeIf(IdleTabRef::isOutdated);
+            releaseOrderSize.set(releaseOrder.size());
+        }
     }
 
-    private void cleanupTabs() {
-        Set<CountedTab<IOTab>> toClose = getTabsToClose();
-        if (toClose.isEmpty()) {
+    private static void destroyTab(CountedTab<?> tab) {
+        if (tab.isClosed()) {
             return;
         }
 
-        mainLock.lock();
         try {
-            for (List<CountedTab<IOTab>> tabs: currentTabs.values()) {
-                Iterator<CountedTab<IOTab>> tabsItr = tabs.iterator();
-                while (tabsItr.hasNext()) {
-                    CountedTab<IOTab> tab = tabsItr.next();
-                    if (toClose.contains(tab)) {
-                        tabsItr.remove();
-                    }
-                }
-            }
-
-            Iterator<Map.Entry<TabKey, List<CountedTab<IOTab>>>> entryItr
-                    = currentTabs.entrySet().iterator();
+            tab.tab.destroy();
+        } catch (Throwable ex) {
+            LOGGER.log(Level.INFO, "Failed to destroy idle output tab.", ex);
+        }
+    }
 
-            while (entryItr.hasNext()) {
-                Map.Entry<TabKey, List<CountedTab<IOTab>>> entry = entryItr.next();
-                if (entry.getValue().isEmpty()) {
-                    entryItr.remove();
-                }
-            }
-        } finally {
-            mainLock.unlock();
+    private static void trimOutput(CountedTab<?> tab) {
+        try {
+            tab.tab.trimOutput();
+        } catch (Throwable ex) {
+            LOGGER.log(Level.INFO, "Failed to trim the output of a reused tab.", ex);
         }
     }
 
@@ -125,7 +165,7 @@ public final class IOTabMaintainer<TabKey, IOTab extends IOTabDef> {
                     ? caption
                     : caption + " #" + index;
             IOTab tab = factory.create(captionWithIndex);
-            return new CountedTab<>(index, tab);
+            return new CountedTab<>(index, tabIdCounter.incrementAndGet(), tab);
         } catch (Throwable ex) {
             tabIndexes.decAndGet(key);
             throw Exceptions.throwUnchecked(ex);
@@ -144,19 +184,28 @@ public final class IOTabMaintainer<TabKey, IOTab extends IOTabDef> {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(caption, "caption");
 
-        cleanupTabs();
-
         CountedTab<IOTab> result = tryGetAvailable(key);
         if (result == null) {
             result = newTabWithContext(key, caption);
         }
         else {
             tabIndexes.incAndGet(key);
+            trimOutput(result);
         }
 
         return new IOTabRefImpl(key, result);
     }
 
+    /**
+     * Returns the number of tabs currently waiting to be reused. This method
+     * is intended to be used for diagnostic purposes.
+     *
+     * @return the number of tabs currently waiting to be reused
+     */
+    public int getIdleTabCount() {
+        return idleCount.get();
+    }
+
     private class IOTabRefImpl implements IOTabRef<IOTab> {
         private final TabKey key;
         private final CountedTab<IOTab> tab;
@@ -181,31 +230,48 @@ public final class IOTabMaintainer<TabKey, IOTab extends IOTabDef> {
 
             tabIndexes.decAndGet(key);
 
-            mainLock.lock();
             try {
-                List<CountedTab<IOTab>> tabList = currentTabs.get(key);
-                if (tabList == null) {
-                    tabList = new LinkedList<>();
-                    currentTabs.put(key, tabList);
-                }
-                tabList.add(tab);
-            } finally {
-                mainLock.unlock();
-
                 // Fixes memory leak: #256355 (netbeans.org/bugzilla)
                 // Also, removes the boldness from the caption of the output tab.
                 getTab().close();
+            } finally {
+                addIdle(key, tab);
             }
         }
     }
 
+    private static final class IdleTabRef<TabKey, IOTab extends IOTabDef> {
+        public final TabKey key;
+        public final CountedTab<IOTab> tab;
+        private final long releaseId;
+
+        public IdleTabRef(TabKey key, CountedTab<IOTab> tab, long releaseId) {
+            this.key = key;
+            this.tab = tab;
+            this.releaseId = releaseId;
+        }
+
+        public boolean isOutdated() {
+            return tab.releaseCount.get() != releaseId;
+        }
+    }
+
     private static final class CountedTab<IOTab extends IOTabDef> {
+        public static final Comparator<CountedTab<?>> INDEX_ORDER = (tab1, tab2) -> {
+            int result = Integer.compare(tab1.index, tab2.index);
+            return result != 0 ? result : Long.compare(tab1.id, tab2.id);
+        };
+
         public final int index;
+        public final long id;
         public final IOTab tab;
+        public final AtomicLong releaseCount;
 
-        public CountedTab(int index, IOTab tab) {
+        public CountedTab(int index, long id, IOTab tab) {
             this.index = index;
+            this.id = id;
             this.tab = tab;
+            this.releaseCount = new AtomicLong(0);
         }
 
         public boolean isClosed() {
@@ -27,7 +27,7 @@ import org.openide.windows.InputOutput;
 
 public final class IOTabs {
     private static final IOTabMaintainer<TaskOutputKey, TaskIOTab> TASK_TABS
-            = new IOTabMaintainer<>(createTaskIOTabFactory());
+            = new IOTabMaintainer<>(createTaskIOTabFactory(), IOTabs::getMaxIdleTaskTabs);
 
     private static IOTabFactory<TaskIOTab> createTaskIOTabFactory() {
         return (String caption) -> {
@@ -37,6 +37,11 @@ public final class IOTabs {
         };
     }
 
+    private static int getMaxIdleTaskTabs() {
+        Integer maxIdleTabs = CommonGlobalSettings.getDefault().maxIdleOutputTabs().getActiveValue();
+        return maxIdleTabs != null ? maxIdleTabs : Integer.MAX_VALUE;
+    }
+
     private static TaskTabAction[] createActions(String caption) {
         return new TaskTabAction[] {
             new ReRunTask(),
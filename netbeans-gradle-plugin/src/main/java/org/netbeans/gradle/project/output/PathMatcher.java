@@ -0,0 +1,148 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Defines an Aho-Corasick automaton finding the first occurrence of any of a
+ * given set of paths in a line. Characters are compared case insensitively and
+ * the platform specific separator matches {@code '/'}, so the matcher finds
+ * the same paths as if both the line and the paths were normalized.
+ * <P>
+ * The cost of searching a line is proportional to the length of the line and
+ * does not depend on the number of paths.
+ * <P>
+ * Instances of this class are immutable and safe to be used by multiple
+ * threads concurrently.
+ */
+final class PathMatcher {
+    private final Node root;
+    private final int maxPathLength;
+
+    public PathMatcher(Collection<String> normalizedPaths) {
+        this.root = new Node(0);
+
+        int maxLength = 0;
+        for (String path: normalizedPaths) {
+            if (!path.isEmpty()) {
+                addPath(root, path);
+                maxLength = Math.max(maxLength, path.length());
+            }
+        }
+        this.maxPathLength = maxLength;
+
+        buildFailureLinks(root);
+    }
+
+    public static char normalizeChar(char ch) {
+        if (ch == File.separatorChar) {
+            return '/';
+        }
+        return Character.toLowerCase(ch);
+    }
+
+    private static void addPath(Node root, String path) {
+        Node node = root;
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            char ch = path.charAt(i);
+            Node child = node.children.get(ch);
+            if (child == null) {
+                child = new Node(i + 1);
+                node.children.put(ch, child);
+            }
+            node = child;
+        }
+        node.terminal = true;
+    }
+
+    private static void buildFailureLinks(Node root) {
+        Deque<Node> queue = new ArrayDeque<>();
+        for (Node child: root.children.values()) {
+            child.failure = root;
+            child.output = child.terminal ? child : null;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> entry: node.children.entrySet()) {
+                char ch = entry.getKey();
+                Node child = entry.getValue();
+
+                Node failure = node.failure;
+                while (failure != root && !failure.children.containsKey(ch)) {
+                    failure = failure.failure;
+                }
+                Node failureChild = failure.children.get(ch);
+                child.failure = failureChild != null && failureChild != child ? failureChild : root;
+                child.output = child.terminal ? child : child.failure.output;
+
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Returns the start index of the first occurrence of any of the paths in
+     * the given line. If there are multiple paths starting at the same index,
+     * the longest one is considered.
+     *
+     * @param line the line to be searched. This argument cannot be {@code null}.
+     * @return the start index of the first occurrence of any of the paths or
+     *   -1 if none of the paths can be found in the line
+     */
+    public int findFirstMatch(String line) {
+        int bestStart = -1;
+
+        Node node = root;
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            if (bestStart >= 0 && i - maxPathLength >= bestStart) {
+                // No path starting before the best match can end here.
+                break;
+            }
+
+            char ch = normalizeChar(line.charAt(i));
+
+            Node next = node.children.get(ch);
+            while (next == null && node != root) {
+                node = node.failure;
+                next = node.children.get(ch);
+            }
+            node = next != null ? next : root;
+
+            // The first output is always the longest path ending here, so it
+            // has the smallest start index.
+            Node output = node.output;
+            if (output != null) {
+                int start = i - output.depth + 1;
+                if (bestStart < 0 || start < bestStart) {
+                    bestStart = start;
+                }
+            }
+        }
+
+        return bestStart;
+    }
+
+    private static final class Node {
+        public final int depth;
+        public final Map<Character, Node> children;
+        public boolean terminal;
+        public Node failure;
+        public Node output;
+
+        public Node(int depth) {
+            this.depth = depth;
+            this.children = new HashMap<>();
+            this.terminal = false;
+            this.failure = null;
+            this.output = null;
+        }
+    }
+}
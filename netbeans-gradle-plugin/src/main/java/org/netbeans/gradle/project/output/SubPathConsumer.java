@@ -4,67 +4,58 @@ import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Locale;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
 import org.netbeans.gradle.project.util.StringUtils;
 import org.openide.util.Utilities;
 
 public final class SubPathConsumer implements OutputLinkFinder {
-    private final String normalizedPath;
+    private static final int MATCHER_CACHE_SIZE = 8;
+    private static final Map<Set<String>, SubPathConsumer> MATCHER_CACHE = new LinkedHashMap<Set<String>, SubPathConsumer>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
 
-    private SubPathConsumer(String normalizedPath) {
-        this.normalizedPath = Objects.requireNonNull(normalizedPath, "normalizedPath");
-    }
-
-    private static Set<String> filterRedundantDirs(Collection<Path> roots) {
-        Set<String> result = new HashSet<>();
-        for (Path root: roots) {
-            addNonRedundant(result, root);
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Set<String>, SubPathConsumer> eldest) {
+            return size() > MATCHER_CACHE_SIZE;
         }
-        return result;
-    }
+    };
 
-    private static void addNonRedundant(Set<String> roots, Path newRoot) {
-        String normNewRoot = normalizePath(newRoot.toString());
-        if (!isRedundant(roots, normNewRoot)) {
-            roots.add(normNewRoot);
-        }
-    }
+    private final PathMatcher pathMatcher;
 
-    private static boolean isRedundant(Set<String> roots, String newRoot) {
-        for (String currentRoot: roots) {
-            if (currentRoot.startsWith(newRoot) || newRoot.startsWith(currentRoot)) {
-                return true;
-            }
-        }
-        return false;
+    private SubPathConsumer(Collection<String> normalizedPaths) {
+        this.pathMatcher = new PathMatcher(normalizedPaths);
     }
 
+    /**
+     * Returns a link finder detecting paths within any of the given roots.
+     * The cost of searching a line does not depend on the number of roots.
+     * <P>
+     * The returned finder is shared with previous calls with the same roots,
+     * so that tasks of the same build do not have to rebuild the matcher.
+     *
+     * @param roots the directories within which paths are to be detected.
+     *   This argument cannot be {@code null}.
+     * @return the link finder detecting paths within any of the given roots.
+     *   This method never returns {@code null}.
+     */
     public static OutputLinkFinder pathLinks(Collection<Path> roots) {
-        Set<String> uniqueDirs = filterRedundantDirs(roots);
-        final List<OutputLinkFinder> linkFinders = new ArrayList<>(uniqueDirs.size());
-        for (final String root: uniqueDirs) {
-            linkFinders.add(new SubPathConsumer(root));
-        }
-
-        if (linkFinders.size() == 1) {
-            return linkFinders.get(0);
+        Set<String> normalizedRoots = new HashSet<>();
+        for (Path root: roots) {
+            normalizedRoots.add(normalizePath(root.toString()));
         }
 
-        return (String line) -> {
-            for (OutputLinkFinder linkFinder: linkFinders) {
-                OutputLinkDef result = linkFinder.tryFindLink(line);
-                if (result != null) {
-                    return result;
-                }
+        synchronized (MATCHER_CACHE) {
+            SubPathConsumer result = MATCHER_CACHE.get(normalizedRoots);
+            if (result == null) {
+                result = new SubPathConsumer(normalizedRoots);
+                MATCHER_CACHE.put(normalizedRoots, result);
             }
-            return null;
-        };
+            return result;
+        }
     }
 
     public static boolean isBrowserFile(String path) {
@@ -118,18 +109,31 @@ public final class SubPathConsumer implements OutputLinkFinder {
     private static String normalizePath(String path) {
         // In case the filesystem is not case-sesitive, otherwise it shouldn't
         // hurt much, since we will check if the file exists anyway.
-        return path.replace(File.separatorChar, '/').toLowerCase(Locale.ROOT);
+        int length = path.length();
+        StringBuilder result = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            result.append(PathMatcher.normalizeChar(path.charAt(i)));
+        }
+        return result.toString();
+    }
+
+    private static int lastIndexOfSeparator(String line) {
+        for (int i = line.length() - 1; i >= 0; i--) {
+            if (PathMatcher.normalizeChar(line.charAt(i)) == '/') {
+                return i;
+            }
+        }
+        return -1;
     }
 
     @Override
     public OutputLinkDef tryFindLink(String line) {
-        String normalizedLine = normalizePath(line);
-        int startIndex = normalizedLine.indexOf(normalizedPath);
+        int startIndex = pathMatcher.findFirstMatch(line);
         if (startIndex < 0) {
             return null;
         }
 
-        int endPathIndex = normalizedLine.lastIndexOf('/');
+        int endPathIndex = lastIndexOfSeparator(line);
         if (endPathIndex < 0) {
             // I don't think that this is possible but just in case it happens.
             return null;
@@ -2,6 +2,7 @@ package org.netbeans.gradle.project.output;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.jtrim2.cancel.CancellationSource;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.project.tasks.AsyncGradleTask;
@@ -9,12 +10,17 @@ import org.netbeans.gradle.project.tasks.GradleTaskDef;
 import org.openide.windows.InputOutput;
 
 public final class TaskIOTab implements IOTabDef {
+    // The output of this many tasks is kept in a reused tab before clearing it.
+    private static final int MAX_KEPT_TASK_OUTPUTS = 10;
+
     private final InputOutputWrapper io;
     private final TaskTabAction[] actions;
+    private final AtomicInteger reuseCount;
 
     public TaskIOTab(InputOutput io, TaskTabAction... actions) {
         this.io = new InputOutputWrapper(io);
         this.actions = actions.clone();
+        this.reuseCount = new AtomicInteger(0);
 
         CollectionUtils.checkNoNullElements(Arrays.asList(this.actions), "actions");
     }
@@ -50,4 +56,20 @@ public final class TaskIOTab implements IOTabDef {
     public void close() throws IOException {
         getIo().closeStreamsForNow();
     }
+
+    @Override
+    public void trimOutput() throws IOException {
+        if (reuseCount.incrementAndGet() % MAX_KEPT_TASK_OUTPUTS == 0) {
+            getIo().getOutRef().reset();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        try {
+            io.close();
+        } finally {
+            io.getIo().closeInputOutput();
+        }
+    }
 }
@@ -48,6 +48,13 @@ public final class ProfileSettings {
     private static final Logger LOGGER = Logger.getLogger(ProfileSettings.class.getName());
     private static final int FILE_STREAM_BUFFER_SIZE = 8 * 1024;
     private static final Set<ConfigPath> ROOT_PATH = Collections.singleton(ConfigPath.ROOT);
+
+    // Looking up the factory is expensive and document builders are not
+    // thread-safe, so every thread reuses its own builder.
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER
+            = ThreadLocal.withInitial(ProfileSettings::createDocumentBuilder);
+
     private static final Document EXPORT_DOCUMENT = tryCreateDocument();
 
     private final ListenerManager<ConfigUpdateListener> configUpdateListeners;
@@ -84,8 +91,16 @@ public final class ProfileSettings {
     }
 
     private static DocumentBuilder getDocumentBuilder() {
+        DocumentBuilder result = DOCUMENT_BUILDER.get();
+        result.reset();
+        return result;
+    }
+
+    private static DocumentBuilder createDocumentBuilder() {
         try {
-            return DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            synchronized (DOCUMENT_BUILDER_FACTORY) {
+                return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+            }
         } catch (ParserConfigurationException ex) {
             throw new RuntimeException("Cannot create Document builder.", ex);
         }
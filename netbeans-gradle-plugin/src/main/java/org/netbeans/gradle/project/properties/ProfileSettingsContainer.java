@@ -1,9 +1,15 @@
 package org.netbeans.gradle.project.properties;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
@@ -12,18 +18,32 @@ import java.util.function.Consumer;
 import org.jtrim2.concurrent.Tasks;
 import org.jtrim2.event.ListenerRef;
 import org.jtrim2.event.ListenerRefs;
+import org.jtrim2.executor.TaskExecutorService;
 import org.jtrim2.utils.ExceptionHelper;
+import org.netbeans.gradle.model.util.Exceptions;
+import org.netbeans.gradle.project.util.NbTaskExecutors;
 import org.netbeans.gradle.project.util.TestDetectUtils;
 
 public final class ProfileSettingsContainer {
     private static final AtomicReference<ProfileSettingsContainer> DEFAULT_REF = new AtomicReference<>(null);
 
+    // Profile files are small, so loading them is dominated by the latency
+    // of the file system. Loading many of them concurrently pays off even
+    // on a single disk.
+    private static final TaskExecutorService BULK_LOAD_EXECUTOR = NbTaskExecutors.newExecutor(
+            "Profile-Bulk-Loader",
+            Math.min(4, Runtime.getRuntime().availableProcessors()));
+
     private final Lock mainLock;
-    private final WeakValueHashMap<ProfileSettingsKey, LoadableSingleProfileSettingsEx> loaded;
+    // Reads are lock free, only adding new settings and removing collected
+    // ones requires mainLock.
+    private final ConcurrentMap<ProfileSettingsKey, SettingsRef> loaded;
+    private final ReferenceQueue<LoadableSingleProfileSettingsEx> collectedSettings;
 
     private ProfileSettingsContainer() {
         this.mainLock = new ReentrantLock();
-        this.loaded = new WeakValueHashMap<>();
+        this.loaded = new ConcurrentHashMap<>();
+        this.collectedSettings = new ReferenceQueue<>();
     }
 
     public static ProfileSettingsContainer getDefault() {
@@ -45,12 +65,12 @@ public final class ProfileSettingsContainer {
     }
 
     private void saveAllProfilesNow() {
-        List<LoadableSingleProfileSettingsEx> toSave;
-        mainLock.lock();
-        try {
-            toSave = new ArrayList<>(loaded.values());
-        } finally {
-            mainLock.unlock();
+        List<LoadableSingleProfileSettingsEx> toSave = new ArrayList<>(loaded.size());
+        for (SettingsRef ref: loaded.values()) {
+            LoadableSingleProfileSettingsEx settings = ref.get();
+            if (settings != null) {
+                toSave.add(settings);
+            }
         }
 
         for (LoadableSingleProfileSettingsEx settings: toSave) {
@@ -61,14 +81,19 @@ public final class ProfileSettingsContainer {
     private LoadableSingleProfileSettingsEx getUnloadedProfileSettings(ProfileSettingsKey key) {
         Objects.requireNonNull(key, "key");
 
-        LoadableSingleProfileSettingsEx result;
+        LoadableSingleProfileSettingsEx result = tryGetCached(key);
+        if (result != null) {
+            return result;
+        }
 
         mainLock.lock();
         try {
-            result = loaded.get(key);
+            removeCollected();
+
+            result = tryGetCached(key);
             if (result == null) {
                 result = key.openUnloadedProfileSettings();
-                loaded.put(key, result);
+                loaded.put(key, new SettingsRef(key, result, collectedSettings));
             }
         } finally {
             mainLock.unlock();
@@ -77,6 +102,18 @@ public final class ProfileSettingsContainer {
         return result;
     }
 
+    private LoadableSingleProfileSettingsEx tryGetCached(ProfileSettingsKey key) {
+        SettingsRef ref = loaded.get(key);
+        return ref != null ? ref.get() : null;
+    }
+
+    private void removeCollected() {
+        SettingsRef ref;
+        while ((ref = (SettingsRef)collectedSettings.poll()) != null) {
+            loaded.remove(ref.key, ref);
+        }
+    }
+
     public SingleProfileSettingsEx loadProfileSettings(ProfileSettingsKey key) {
         LoadableSingleProfileSettingsEx result = getUnloadedProfileSettings(key);
         result.ensureLoadedAndWait();
@@ -110,7 +147,10 @@ public final class ProfileSettingsContainer {
 
         final AtomicInteger loadCount = new AtomicInteger(result.size());
         for (LoadableSingleProfileSettingsEx settings: result) {
-            settings.ensureLoaded();
+            // The settings are loaded on a shared pool instead of the single
+            // threaded executor of the settings, so that the files are read
+            // concurrently.
+            BULK_LOAD_EXECUTOR.execute(settings::ensureLoadedAndWait);
             ListenerRef notifyRef = settings.notifyWhenLoaded(Tasks.runOnceTask(() -> {
                 if (loadCount.decrementAndGet() == 0) {
                     listener.accept(new ArrayList<>(result));
@@ -122,13 +162,60 @@ public final class ProfileSettingsContainer {
         return ListenerRefs.combineListenerRefs(resultRefs);
     }
 
+    /**
+     * Loads the settings of all the given keys and waits until all of them are
+     * loaded. The settings are loaded concurrently, so loading the settings
+     * of many projects is not limited by the latency of reading a single file.
+     *
+     * @param keys the keys of the settings to be loaded. This argument cannot
+     *   be {@code null} and cannot contain {@code null} elements.
+     * @return the loaded settings in the order of the given keys. This method
+     *   never returns {@code null}.
+     */
     public List<SingleProfileSettingsEx> loadAllProfileSettings(Collection<ProfileSettingsKey> keys) {
         ExceptionHelper.checkNotNullElements(keys, "keys");
 
-        List<SingleProfileSettingsEx> result = new ArrayList<>(keys.size());
+        List<LoadableSingleProfileSettingsEx> result = new ArrayList<>(keys.size());
         for (ProfileSettingsKey key: keys) {
-            result.add(loadProfileSettings(key));
+            result.add(getUnloadedProfileSettings(key));
+        }
+
+        ensureAllLoadedAndWait(result);
+        return new ArrayList<>(result);
+    }
+
+    private static void ensureAllLoadedAndWait(List<LoadableSingleProfileSettingsEx> settingsList) {
+        int count = settingsList.size();
+        if (count == 0) {
+            return;
+        }
+
+        List<CompletableFuture<Void>> loadFutures = new ArrayList<>(count - 1);
+        for (LoadableSingleProfileSettingsEx settings: settingsList.subList(1, count)) {
+            loadFutures.add(CompletableFuture.runAsync(settings::ensureLoadedAndWait, BULK_LOAD_EXECUTOR));
+        }
+
+        // Do something useful while the other settings are being loaded.
+        settingsList.get(0).ensureLoadedAndWait();
+
+        for (CompletableFuture<Void> loadFuture: loadFutures) {
+            try {
+                loadFuture.join();
+            } catch (CompletionException ex) {
+                throw Exceptions.throwUnchecked(ex.getCause());
+            }
+        }
+    }
+
+    private static final class SettingsRef extends WeakReference<LoadableSingleProfileSettingsEx> {
+        private final ProfileSettingsKey key;
+
+        public SettingsRef(
+                ProfileSettingsKey key,
+                LoadableSingleProfileSettingsEx settings,
+                ReferenceQueue<? super LoadableSingleProfileSettingsEx> queue) {
+            super(settings, queue);
+            this.key = key;
         }
-        return result;
     }
 }
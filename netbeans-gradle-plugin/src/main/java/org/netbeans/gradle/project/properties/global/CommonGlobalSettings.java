@@ -54,7 +54,11 @@ public final class CommonGlobalSettings {
     private final PropertyReference<SelfMaintainedTasks> selfMaintainedTasks;
 
     private final PropertyReference<Integer> projectCacheSize;
+    private final PropertyReference<Boolean> compressModelCache;
     private final PropertyReference<Integer> gradleDaemonTimeoutSec;
+    private final PropertyReference<Integer> maxConcurrentBuilds;
+    private final PropertyReference<Integer> maxConcurrentBuildsPerRoot;
+    private final PropertyReference<Integer> maxIdleOutputTabs;
 
     public CommonGlobalSettings(ActiveSettingsQuery activeSettingsQuery) {
         this.activeSettingsQuery = Objects.requireNonNull(activeSettingsQuery, "activeSettingsQuery");
@@ -75,7 +79,11 @@ public final class CommonGlobalSettings {
         this.detectProjectDependenciesByJarName = detectProjectDependenciesByJarName(activeSettingsQuery);
         this.selfMaintainedTasks = selfMaintainedTasks(activeSettingsQuery);
         this.projectCacheSize = projectCacheSize(activeSettingsQuery);
+        this.compressModelCache = compressModelCache(activeSettingsQuery);
         this.gradleDaemonTimeoutSec = gradleDaemonTimeoutSec(activeSettingsQuery);
+        this.maxConcurrentBuilds = maxConcurrentBuilds(activeSettingsQuery);
+        this.maxConcurrentBuildsPerRoot = maxConcurrentBuildsPerRoot(activeSettingsQuery);
+        this.maxIdleOutputTabs = maxIdleOutputTabs(activeSettingsQuery);
         this.showGradleVersion = showGradleVersion(activeSettingsQuery);
     }
 
@@ -236,6 +244,14 @@ public final class CommonGlobalSettings {
         return projectCacheSize;
     }
 
+    public static PropertyReference<Boolean> compressModelCache(ActiveSettingsQuery activeSettingsQuery) {
+        return propertyRef(defineBooleanProperty("cache", "compress"), activeSettingsQuery, false);
+    }
+
+    public PropertyReference<Boolean> compressModelCache() {
+        return compressModelCache;
+    }
+
     public static PropertyReference<Integer> gradleDaemonTimeoutSec(ActiveSettingsQuery activeSettingsQuery) {
         return propertyRef(defineIntProperty("daemon", "timeout-seconds"), activeSettingsQuery, null);
     }
@@ -244,6 +260,30 @@ public final class CommonGlobalSettings {
         return gradleDaemonTimeoutSec;
     }
 
+    public static PropertyReference<Integer> maxConcurrentBuilds(ActiveSettingsQuery activeSettingsQuery) {
+        return propertyRef(defineIntProperty("tasks", "max-concurrent-builds"), activeSettingsQuery, 8);
+    }
+
+    public PropertyReference<Integer> maxConcurrentBuilds() {
+        return maxConcurrentBuilds;
+    }
+
+    public static PropertyReference<Integer> maxConcurrentBuildsPerRoot(ActiveSettingsQuery activeSettingsQuery) {
+        return propertyRef(defineIntProperty("tasks", "max-concurrent-builds-per-root"), activeSettingsQuery, 3);
+    }
+
+    public PropertyReference<Integer> maxConcurrentBuildsPerRoot() {
+        return maxConcurrentBuildsPerRoot;
+    }
+
+    public static PropertyReference<Integer> maxIdleOutputTabs(ActiveSettingsQuery activeSettingsQuery) {
+        return propertyRef(defineIntProperty("tasks", "max-idle-output-tabs"), activeSettingsQuery, 10);
+    }
+
+    public PropertyReference<Integer> maxIdleOutputTabs() {
+        return maxIdleOutputTabs;
+    }
+
     public File tryGetGradleInstallationAsFile() {
         GradleLocationDef locationDef = gradleLocation.getActiveValue();
         GradleLocation location = locationDef.getLocation(StringResolvers.getDefaultGlobalResolver());
@@ -20,11 +20,17 @@ public final class DefaultScriptFileProvider implements ScriptFileProvider {
     public DefaultScriptFileProvider() {
     }
 
+    private static boolean endsWithIgnoreCase(String str, String suffix) {
+        int offset = str.length() - suffix.length();
+        return offset >= 0 && str.regionMatches(true, offset, suffix, 0, suffix.length());
+    }
+
     @Override
     public boolean isScriptFileName(String fileName) {
-        String normName = fileName.toLowerCase(Locale.ROOT);
+        // This method is called for every file event of the listened
+        // directories, so avoid creating a lower case copy of the name.
         for (String ext: EXTENSIONS) {
-            if (normName.endsWith(ext)) {
+            if (endsWithIgnoreCase(fileName, ext)) {
                 return true;
             }
         }
@@ -25,7 +25,6 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.SwingUtilities;
 import org.gradle.tooling.BuildLauncher;
-import org.gradle.tooling.GradleConnector;
 import org.gradle.tooling.ModelBuilder;
 import org.gradle.tooling.ProjectConnection;
 import org.gradle.tooling.internal.consumer.DefaultCancellationTokenSource;
@@ -40,7 +39,7 @@ import org.jtrim2.executor.TaskExecutor;
 import org.jtrim2.utils.ExceptionHelper;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.gradle.model.OperationInitializer;
-import org.netbeans.gradle.model.util.TemporaryFileManager;
+import org.netbeans.gradle.model.util.ContentAddressedFileCache;
 import org.netbeans.gradle.model.util.TemporaryFileRef;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbStrings;
@@ -61,6 +60,8 @@ import org.netbeans.gradle.project.model.DefaultGradleModelLoader;
 import org.netbeans.gradle.project.model.DefaultModelBuilderSetup;
 import org.netbeans.gradle.project.model.GradleConnectorRef;
 import org.netbeans.gradle.project.model.NbGradleProjectTree;
+import org.netbeans.gradle.project.model.ProjectConnectionPool;
+import org.netbeans.gradle.project.model.ProjectConnectionRef;
 import org.netbeans.gradle.project.output.BuildErrorConsumer;
 import org.netbeans.gradle.project.output.FileLineConsumer;
 import org.netbeans.gradle.project.output.IOTabRef;
@@ -97,6 +98,8 @@ import org.openide.filesystems.FileObject;
 import org.openide.windows.OutputWriter;
 
 public final class AsyncGradleTask implements Runnable {
+    // This executor only prepares the commands (and waits for the scheduler),
+    // the number of concurrently executed commands is limited by GradleTaskScheduler.
     private static final TaskExecutor TASK_EXECUTOR
             = NbTaskExecutors.newExecutor("Gradle-Task-Executor", Integer.MAX_VALUE);
     private static final TaskExecutor CANCEL_EXECUTOR
@@ -197,8 +200,8 @@ public final class AsyncGradleTask implements Runnable {
                     }
                     else {
                         String scriptContent = scriptQuery.getInitScript();
-                        results.add(TemporaryFileManager.getDefault().createFile(
-                                "task-init-script", scriptContent, StringUtils.UTF8));
+                        results.add(ContentAddressedFileCache.getDefault().createFile(
+                                "task-init-script", scriptContent, StringUtils.UTF8, ".gradle"));
                     }
                 } catch (Throwable ex) {
                     LOGGER.log(Level.SEVERE,
@@ -510,12 +513,11 @@ public final class AsyncGradleTask implements Runnable {
         Throwable commandError = null;
 
         GradleConnectorRef gradleConnectorRef = DefaultGradleModelLoader.createGradleConnectorRef(cancelToken, project);
-        GradleConnector gradleConnector = gradleConnectorRef.getGradleConnector();
 
-        gradleConnector.forProjectDirectory(projectDir);
-        ProjectConnection projectConnection = null;
+        ProjectConnectionRef projectConnectionRef = null;
         try {
-            projectConnection = gradleConnector.connect();
+            projectConnectionRef = ProjectConnectionPool.getDefault().connect(gradleConnectorRef, projectDir);
+            ProjectConnection projectConnection = projectConnectionRef.getConnection();
 
             BuildLauncher buildLauncher = projectConnection.newBuild();
             List<TemporaryFileRef> initScripts = getAllInitScriptFiles(project);
@@ -573,6 +575,8 @@ public final class AsyncGradleTask implements Runnable {
                             }
                         }
                     } catch (Throwable ex) {
+                        projectConnectionRef.operationFailed(ex);
+
                         Level logLevel;
 
                         if (taskDef.getCommandExceptionHider().hideException(ex)) {
@@ -604,8 +608,8 @@ public final class AsyncGradleTask implements Runnable {
             }
         } finally {
             try {
-                if (projectConnection != null) {
-                    projectConnection.close();
+                if (projectConnectionRef != null) {
+                    projectConnectionRef.close();
                 }
             } finally {
                 ExecutedCommandContext commandContext = buildItem.getCommandContext();
@@ -659,13 +663,6 @@ public final class AsyncGradleTask implements Runnable {
         }
     }
 
-    private static void collectTaskVars(String[] strings, List<DisplayedTaskVariable> taskVars) {
-        VariableResolver resolver = VariableResolvers.getDefault();
-        for (String str: strings) {
-            resolver.collectVars(str, EmptyTaskVarMap.INSTANCE, taskVars);
-        }
-    }
-
     private static TaskVariableMap queryVariablesNow(List<DisplayedTaskVariable> taskVars) {
         assert SwingUtilities.isEventDispatchThread();
 
@@ -711,21 +708,22 @@ public final class AsyncGradleTask implements Runnable {
     }
 
     private static GradleTaskDef queryUserDefinedInputOfTask(GradleTaskDef taskDef) {
-        String[] taskNames = taskDef.getTaskNamesArray();
-        String[] arguments = taskDef.getArgumentArray();
-        String[] jvmArguments = taskDef.getJvmArgumentsArray();
-
-        List<DisplayedTaskVariable> taskVars = new LinkedList<>();
-        collectTaskVars(taskNames, taskVars);
-        collectTaskVars(arguments, taskVars);
-        collectTaskVars(jvmArguments, taskVars);
+        List<DisplayedTaskVariable> referencedVars = taskDef.getReferencedVariables();
+        if (referencedVars.isEmpty()) {
+            return taskDef;
+        }
 
+        List<DisplayedTaskVariable> taskVars = new LinkedList<>(referencedVars);
         filterServiceVariables(taskDef, taskVars);
 
         if (taskVars.isEmpty()) {
             return taskDef;
         }
 
+        String[] taskNames = taskDef.getTaskNamesArray();
+        String[] arguments = taskDef.getArgumentArray();
+        String[] jvmArguments = taskDef.getJvmArgumentsArray();
+
         TaskVariableMap varMap = queryVariables(taskVars);
         if (varMap == null) {
             return null;
@@ -798,7 +796,17 @@ public final class AsyncGradleTask implements Runnable {
             }
         };
 
-        GradleDaemonManager.submitGradleTask(TASK_EXECUTOR, daemonTaskDefFactory, listener);
+        GradleDaemonManager.submitGradleTask(TASK_EXECUTOR, getScheduling(), daemonTaskDefFactory, listener);
+    }
+
+    private GradleDaemonManager.ScheduledTaskInfo getScheduling() {
+        // Commands not bringing their output to the front are not something
+        // the user is actively waiting for (e.g.: compile on save).
+        boolean background = actionContexts.contains(GradleActionProviderContext.DONT_FOCUS_ON_OUTPUT);
+        return new GradleDaemonManager.ScheduledTaskInfo(
+                GradleTaskScheduler.getDefault(),
+                () -> DefaultGradleModelLoader.getAppliedRootProjectDir(project),
+                background);
     }
 
     private AsyncGradleTask adjust(GradleTaskDef taskDef) {
@@ -881,13 +889,25 @@ public final class AsyncGradleTask implements Runnable {
             this.processedCommandSpec = processedCommandSpec;
 
             String progressCaption = processedCommandSpec.getProgressCaption();
-            boolean nonBlocking = processedCommandSpec.getProcessedTaskDef().isNonBlocking();
-            this.daemonTaskDef = new DaemonTaskDef(progressCaption, nonBlocking, (cancelToken, progress) -> {
+            GradleTaskDef processedTaskDef = processedCommandSpec.getProcessedTaskDef();
+            boolean nonBlocking = processedTaskDef.isNonBlocking();
+            boolean longRunning = processedTaskDef.isLongRunning();
+            this.daemonTaskDef = new DaemonTaskDef(progressCaption, nonBlocking, longRunning, (cancelToken, progress) -> {
                 doGradleTasksWithProgress(cancelToken, progress, BuildExecutionItem.this);
-            });
+            }, getMergeKey(processedTaskDef));
             this.running = true;
         }
 
+        private Object getMergeKey(GradleTaskDef taskDef) {
+            return Arrays.asList(
+                    project.getProjectDirectoryAsFile(),
+                    taskDef.getSafeCommandName(),
+                    taskDef.getTaskNames(),
+                    taskDef.getArguments(),
+                    taskDef.getJvmArguments(),
+                    taskDef.isNonBlocking());
+        }
+
         public DaemonTaskDef getDaemonTaskDef() {
             return daemonTaskDef;
         }
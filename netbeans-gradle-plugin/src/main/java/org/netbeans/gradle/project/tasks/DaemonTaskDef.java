@@ -6,12 +6,58 @@ import org.jtrim2.cancel.CancellationToken;
 public final class DaemonTaskDef {
     private final String caption;
     private final boolean nonBlocking;
+    private final boolean longRunning;
     private final DaemonTask task;
+    private final Object mergeKey;
 
     public DaemonTaskDef(String caption, boolean nonBlocking, DaemonTask task) {
+        this(caption, nonBlocking, task, null);
+    }
+
+    /**
+     * Creates a new task definition which might be merged with identical
+     * tasks waiting to be executed.
+     *
+     * @param caption the caption of the task displayed in the progress UI.
+     *   This argument cannot be {@code null}.
+     * @param nonBlocking {@code true} if the task must wait for other
+     *   non-blocking tasks to complete
+     * @param task the task to be executed. This argument cannot be {@code null}.
+     * @param mergeKey the key identifying identical tasks, it must have
+     *   properly implemented {@code equals} and {@code hashCode} methods. This
+     *   argument can be {@code null}, in which case the task is never merged.
+     */
+    public DaemonTaskDef(String caption, boolean nonBlocking, DaemonTask task, Object mergeKey) {
+        this(caption, nonBlocking, false, task, mergeKey);
+    }
+
+    /**
+     * Creates a new task definition which might be merged with identical
+     * tasks waiting to be executed.
+     *
+     * @param caption the caption of the task displayed in the progress UI.
+     *   This argument cannot be {@code null}.
+     * @param nonBlocking {@code true} if the task must wait for other
+     *   non-blocking tasks to complete
+     * @param longRunning {@code true} if the task might run for an unbounded
+     *   time (e.g., runs the application), in which case its execution is not
+     *   limited by the {@link GradleTaskScheduler}
+     * @param task the task to be executed. This argument cannot be {@code null}.
+     * @param mergeKey the key identifying identical tasks, it must have
+     *   properly implemented {@code equals} and {@code hashCode} methods. This
+     *   argument can be {@code null}, in which case the task is never merged.
+     */
+    public DaemonTaskDef(
+            String caption,
+            boolean nonBlocking,
+            boolean longRunning,
+            DaemonTask task,
+            Object mergeKey) {
         this.caption = Objects.requireNonNull(caption, "caption");
         this.nonBlocking = nonBlocking;
+        this.longRunning = longRunning;
         this.task = Objects.requireNonNull(task, "task");
+        this.mergeKey = mergeKey;
     }
 
     public String getCaption() {
@@ -22,10 +68,18 @@ public final class DaemonTaskDef {
         return nonBlocking;
     }
 
+    public boolean isLongRunning() {
+        return longRunning;
+    }
+
     public DaemonTask getTask() {
         return task;
     }
 
+    public Object getMergeKey() {
+        return mergeKey;
+    }
+
     public DaemonTaskDefFactory toFactory() {
         return new ConstFactory(this);
     }
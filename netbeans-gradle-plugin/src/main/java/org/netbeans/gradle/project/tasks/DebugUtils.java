@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.netbeans.api.debugger.DebuggerEngine;
 import org.netbeans.api.debugger.DebuggerManager;
 import org.netbeans.api.debugger.jpda.JPDADebugger;
@@ -62,6 +64,38 @@ public final class DebugUtils {
         return className.toString();
     }
 
+    /**
+     * Returns the names of the classes defined by the (non-folder) source files
+     * on the given lookup. Unlike {@link #getActiveClassName(Project, Lookup) getActiveClassName},
+     * this method does not require the files to be in the same source group.
+     */
+    public static List<String> getActiveClassNames(Project project, Lookup lookup) {
+        FileObject[] filesOnLookup = extractFileObjectsfromLookup(lookup);
+        SourceGroup[] groups = ProjectUtils.getSources(project).getSourceGroups(JavaProjectConstants.SOURCES_TYPE_JAVA);
+
+        Set<String> result = new LinkedHashSet<>();
+        for (FileObject file: filesOnLookup) {
+            if (file.isFolder()) {
+                continue;
+            }
+
+            SourceGroup group = findGroup(groups, new FileObject[]{file});
+            if (group == null) {
+                continue;
+            }
+
+            String relP = FileUtil.getRelativePath(group.getRootFolder(), file.getParent());
+            if (relP == null) {
+                continue;
+            }
+
+            result.add(relP.isEmpty()
+                    ? file.getName()
+                    : relP.replace('/', '.') + '.' + file.getName());
+        }
+        return new ArrayList<>(result);
+    }
+
     private static FileObject[] extractFileObjectsfromLookup(Lookup lookup) {
         List<FileObject> files = new ArrayList<>(lookup.lookupAll(FileObject.class));
         if (files.isEmpty()) { // fallback to old nodes
@@ -100,7 +134,7 @@ public final class DebugUtils {
         return selected;
     }
 
-    public static void applyChanges(Project project, OutputWriter logger, String classname) {
+    public static void applyChanges(Project project, OutputWriter logger, Collection<String> classnames) {
         // check debugger state
         DebuggerEngine debuggerEngine = DebuggerManager.getDebuggerManager().
                 getCurrentEngine();
@@ -126,11 +160,15 @@ public final class DebugUtils {
         EditorContext editorContext = DebuggerManager.
                 getDebuggerManager().lookupFirst(null, EditorContext.class);
 
-        String clazz = classname.replace('.', '/') + ".class"; //NOI18N
         GradleClassPathProvider prv = project.getLookup().lookup(GradleClassPathProvider.class);
-        FileObject fo2 = prv.getBuildOutputClassPaths().findResource(clazz);
+        ClassPath buildOutputClassPaths = prv.getBuildOutputClassPaths();
+        for (String classname: classnames) {
+            String clazz = classname.replace('.', '/') + ".class"; //NOI18N
+            FileObject fo2 = buildOutputClassPaths.findResource(clazz);
+            if (fo2 == null) {
+                continue;
+            }
 
-        if (fo2 != null) {
             try {
                 String basename = fo2.getName();
                 for (FileObject classfile : fo2.getParent().getChildren()) {
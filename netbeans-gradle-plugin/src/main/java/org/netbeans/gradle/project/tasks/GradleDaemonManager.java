@@ -4,6 +4,7 @@ import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.jtrim2.cancel.CancelableWaits;
@@ -12,6 +13,7 @@ import org.jtrim2.cancel.CancellationController;
 import org.jtrim2.cancel.CancellationSource;
 import org.jtrim2.cancel.CancellationToken;
 import org.jtrim2.concurrent.AsyncTasks;
+import org.jtrim2.executor.CancelableTask;
 import org.jtrim2.executor.TaskExecutor;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.gradle.project.api.task.CommandCompleteListener;
@@ -72,6 +74,28 @@ public final class GradleDaemonManager {
             TaskExecutor executor,
             final DaemonTaskDefFactory taskDefFactory,
             final CommandCompleteListener listener) {
+        submitGradleTask(executor, null, taskDefFactory, listener);
+    }
+
+    /**
+     * Submits a Gradle command whose execution is limited by the given
+     * scheduler. The task definition is created on the given executor, and
+     * then the task is executed once the scheduler allows it.
+     *
+     * @param executor the executor creating the task definition and waiting
+     *   for the scheduler. This argument cannot be {@code null}.
+     * @param scheduling the scheduler and the properties of the submitted
+     *   command relevant for the scheduler. This argument cannot be {@code null}.
+     * @param taskDefFactory the factory creating the task to be executed.
+     *   This argument cannot be {@code null}.
+     * @param listener the listener to be notified when the command completes.
+     *   This argument cannot be {@code null}.
+     */
+    public static void submitGradleTask(
+            TaskExecutor executor,
+            ScheduledTaskInfo scheduling,
+            final DaemonTaskDefFactory taskDefFactory,
+            final CommandCompleteListener listener) {
         Objects.requireNonNull(executor, "executor");
         Objects.requireNonNull(taskDefFactory, "taskDefFactory");
         Objects.requireNonNull(listener, "listener");
@@ -113,15 +137,35 @@ public final class GradleDaemonManager {
                 progress.start(displayName);
             }
 
-            if (nonBlocking) {
-                runNonBlockingGradleTask(cancelToken, task, progress.getCurrentHandle());
+            ProgressHandle currentProgress = progress.getCurrentHandle();
+            CancelableTask daemonTask = (CancellationToken taskCancelToken) -> {
+                if (nonBlocking) {
+                    runNonBlockingGradleTask(taskCancelToken, task, currentProgress);
+                }
+                else {
+                    runBlockingGradleTask(taskCancelToken, task, currentProgress);
+                }
+            };
+
+            if (scheduling != null) {
+                scheduling.getScheduler().execute(
+                        cancelToken,
+                        scheduling.getRootKey(),
+                        scheduling.isBackground(),
+                        getCommandKind(taskDef),
+                        taskDef.getMergeKey(),
+                        currentProgress::suspend,
+                        daemonTask);
             }
             else {
-                runBlockingGradleTask(cancelToken, task, progress.getCurrentHandle());
+                daemonTask.execute(cancelToken);
             }
         }).handle((result, error) -> {
             if (AsyncTasks.isCanceled(error)) {
                 LOGGER.log(Level.INFO, "Canceled task: {0}", origDisplayName);
+                // Listeners might wait for the completion of the command
+                // (e.g., to start the next one), so notify them anyway.
+                listener.onComplete(null);
             }
             else {
                 listener.onComplete(error);
@@ -132,6 +176,54 @@ public final class GradleDaemonManager {
         }).exceptionally(AsyncTasks::expectNoError);
     }
 
+    private static GradleTaskScheduler.CommandKind getCommandKind(DaemonTaskDef taskDef) {
+        if (taskDef.isLongRunning()) {
+            return GradleTaskScheduler.CommandKind.LONG_RUNNING;
+        }
+        // Non-blocking tasks are executed one by one (see QUEUE_LOCK), so
+        // they must not hold the slots of other tasks while waiting for
+        // each other.
+        return taskDef.isNonBlocking()
+                ? GradleTaskScheduler.CommandKind.EXCLUSIVE
+                : GradleTaskScheduler.CommandKind.NORMAL;
+    }
+
+    public static final class ScheduledTaskInfo {
+        private final GradleTaskScheduler scheduler;
+        private final Supplier<?> rootKeyProvider;
+        private final boolean background;
+
+        /**
+         * Creates the scheduling properties of a command.
+         *
+         * @param scheduler the scheduler limiting the execution of the command.
+         *   This argument cannot be {@code null}.
+         * @param rootKeyProvider the provider of the key identifying the root
+         *   build of the command. The provider is called on the executor the
+         *   command was submitted to, so it is allowed to do I/O. This argument
+         *   cannot be {@code null} and the provider must not return {@code null}.
+         * @param background {@code true} if the command was not directly
+         *   requested by the user, {@code false} otherwise
+         */
+        public ScheduledTaskInfo(GradleTaskScheduler scheduler, Supplier<?> rootKeyProvider, boolean background) {
+            this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+            this.rootKeyProvider = Objects.requireNonNull(rootKeyProvider, "rootKeyProvider");
+            this.background = background;
+        }
+
+        public GradleTaskScheduler getScheduler() {
+            return scheduler;
+        }
+
+        public Object getRootKey() {
+            return Objects.requireNonNull(rootKeyProvider.get(), "rootKeyProvider.get()");
+        }
+
+        public boolean isBackground() {
+            return background;
+        }
+    }
+
     private static final class ReplaceableProgressHandle {
         private final AtomicReference<ProgressHandle> handleRef;
         private final CancellationController cancelController;
@@ -5,11 +5,13 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.jtrim2.cancel.Cancellation;
 import org.jtrim2.cancel.CancellationToken;
 import org.jtrim2.utils.ExceptionHelper;
+import org.jtrim2.utils.LazyValues;
 import org.netbeans.api.project.Project;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.project.NbGradleProject;
@@ -30,11 +32,13 @@ import org.netbeans.gradle.project.api.task.SingleExecutionOutputProcessor;
 import org.netbeans.gradle.project.api.task.TaskKind;
 import org.netbeans.gradle.project.api.task.TaskOutputProcessor;
 import org.netbeans.gradle.project.api.task.TaskVariableMap;
+import org.netbeans.gradle.project.tasks.vars.DisplayedTaskVariable;
 import org.netbeans.gradle.project.tasks.vars.CombinedTaskVariableMap;
 import org.netbeans.gradle.project.tasks.vars.EmptyTaskVarMap;
 import org.netbeans.gradle.project.tasks.vars.StringResolver;
 import org.netbeans.gradle.project.tasks.vars.StringResolvers;
 import org.netbeans.gradle.project.tasks.vars.TaskVariableMaps;
+import org.netbeans.gradle.project.tasks.vars.VariableResolver;
 import org.netbeans.gradle.project.tasks.vars.VariableResolvers;
 import org.openide.util.Lookup;
 import org.openide.windows.OutputWriter;
@@ -61,6 +65,7 @@ public final class GradleTaskDef {
 
         private boolean cleanOutput;
         private boolean nonBlocking;
+        private boolean longRunning;
 
         public Builder(GradleTaskDef taskDef) {
             this.commandName = taskDef.getCommandName();
@@ -71,6 +76,7 @@ public final class GradleTaskDef {
             this.stdOutListener = taskDef.getStdOutListener();
             this.stdErrListener = taskDef.getStdErrListener();
             this.nonBlocking = taskDef.isNonBlocking();
+            this.longRunning = taskDef.isLongRunning();
             this.cleanOutput = taskDef.isCleanOutput();
             this.successfulCommandFinalizer = taskDef.getSuccessfulCommandFinalizer();
             this.commandFinalizer = taskDef.getCommandFinalizer();
@@ -98,6 +104,7 @@ public final class GradleTaskDef {
             this.stdOutListener = NoOpSingleExecutionOutputProcessor.INSTANCE;
             this.stdErrListener = NoOpSingleExecutionOutputProcessor.INSTANCE;
             this.nonBlocking = false;
+            this.longRunning = false;
             this.cleanOutput = false;
             this.successfulCommandFinalizer = NoOpSuccessfulFinalizer.INSTANCE;
             this.commandFinalizer = NoOpFinalizer.INSTANCE;
@@ -189,6 +196,22 @@ public final class GradleTaskDef {
             this.nonBlocking = nonBlocking;
         }
 
+        public boolean isLongRunning() {
+            return longRunning;
+        }
+
+        /**
+         * Sets if the command might keep running for an unbounded time
+         * (e.g., runs or debugs the application). Such commands are not
+         * limited by the {@link GradleTaskScheduler}.
+         *
+         * @param longRunning {@code true} if the command might run for an
+         *   unbounded time, {@code false} otherwise
+         */
+        public void setLongRunning(boolean longRunning) {
+            this.longRunning = longRunning;
+        }
+
         public List<String> getTaskNames() {
             return taskNames;
         }
@@ -294,9 +317,11 @@ public final class GradleTaskDef {
     private final TaskVariableMap nonUserTaskVariables;
     private final CommandExceptionHider commandExceptionHider;
     private final boolean nonBlocking;
+    private final boolean longRunning;
     private final boolean cleanOutput;
     private final CancellationToken cancelToken;
     private final GradleCommandServiceFactory commandServiceFactory;
+    private final Supplier<List<DisplayedTaskVariable>> referencedVariablesRef;
 
     private GradleTaskDef(Builder builder) {
         this.commandName = builder.getCommandName();
@@ -307,6 +332,7 @@ public final class GradleTaskDef {
         this.stdOutListener = builder.getStdOutListener();
         this.stdErrListener = builder.getStdErrListener();
         this.nonBlocking = builder.isNonBlocking();
+        this.longRunning = builder.isLongRunning();
         this.cleanOutput = builder.isCleanOutput();
         this.successfulCommandFinalizer = builder.getSuccessfulCommandFinalizer();
         this.commandFinalizer = builder.getCommandFinalizer();
@@ -315,6 +341,7 @@ public final class GradleTaskDef {
         this.commandExceptionHider = builder.getCommandExceptionHider();
         this.cancelToken = builder.getCancelToken();
         this.commandServiceFactory = builder.getCommandServiceFactory();
+        this.referencedVariablesRef = LazyValues.lazyValue(this::collectReferencedVariables);
     }
 
     public GradleCommandServiceFactory getCommandServiceFactory() {
@@ -361,6 +388,10 @@ public final class GradleTaskDef {
         return nonBlocking;
     }
 
+    public boolean isLongRunning() {
+        return longRunning;
+    }
+
     public List<String> getTaskNames() {
         return taskNames;
     }
@@ -409,7 +440,40 @@ public final class GradleTaskDef {
         return commandFinalizer;
     }
 
+    /**
+     * Returns the variables referenced by the task names and the arguments of
+     * this command in the order they appear. Variables referenced multiple
+     * times are returned multiple times. The values of the variables are not
+     * resolved by this method and the result is computed only once.
+     *
+     * @return the variables referenced by the task names and the arguments of
+     *   this command. This method never returns {@code null}.
+     */
+    public List<DisplayedTaskVariable> getReferencedVariables() {
+        return referencedVariablesRef.get();
+    }
+
+    private List<DisplayedTaskVariable> collectReferencedVariables() {
+        List<DisplayedTaskVariable> result = new ArrayList<>();
+        collectReferencedVariables(taskNames, result);
+        collectReferencedVariables(arguments, result);
+        collectReferencedVariables(jvmArguments, result);
+        return result.isEmpty()
+                ? Collections.<DisplayedTaskVariable>emptyList()
+                : Collections.unmodifiableList(result);
+    }
+
+    private static void collectReferencedVariables(List<String> strings, List<DisplayedTaskVariable> result) {
+        VariableResolver resolver = VariableResolvers.getDefault();
+        for (String str: strings) {
+            resolver.collectVars(str, EmptyTaskVarMap.INSTANCE, result);
+        }
+    }
+
     public GradleTaskDef updateTaskVariables(TaskVariableMap taskVars) {
+        if (getReferencedVariables().isEmpty()) {
+            return this;
+        }
         return updateTaskVariables(StringResolvers.bindVariableResolver(VariableResolvers.getDefault(), taskVars));
     }
 
@@ -568,9 +632,9 @@ public final class GradleTaskDef {
             CustomCommandActions customActions,
             Lookup actionContext) {
 
-        StringResolver strResolver = StringResolvers.getDefaultResolverSelector().getProjectResolver(project, actionContext);
-
+        // Share the variable map, so that each variable is resolved only once.
         TaskVariableMap varReplaceMap = TaskVariableMaps.createProjectActionVariableMap(project, actionContext);
+        StringResolver strResolver = StringResolvers.bindVariableResolver(VariableResolvers.getDefault(), varReplaceMap);
         TaskOutputDef caption = getOutputDef(project, customActions.getTaskKind(), command);
         GradleTaskDef.Builder builder = createFromTemplate(caption, command, strResolver);
         addAdditionalArguments(project, actionContext, customActions, strResolver, builder);
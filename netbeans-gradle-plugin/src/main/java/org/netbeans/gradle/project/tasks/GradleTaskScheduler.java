@@ -0,0 +1,488 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import org.jtrim2.cancel.CancelableWaits;
+import org.jtrim2.cancel.CancellationToken;
+import org.jtrim2.cancel.OperationCanceledException;
+import org.jtrim2.executor.CancelableTask;
+import org.netbeans.gradle.project.NbStrings;
+import org.netbeans.gradle.project.properties.global.CommonGlobalSettings;
+
+/**
+ * Defines a scheduler limiting the number of Gradle commands executed
+ * concurrently. The number of concurrently executed commands is limited
+ * globally and separately for each root build, so that a burst of commands
+ * does not spawn many daemons and does not make them contend for the same
+ * project.
+ * <P>
+ * Waiting commands are started in FIFO order except that interactive
+ * (user initiated) commands are preferred over background commands. However,
+ * background commands are not starved: After a few interactive commands, a
+ * waiting background command is started even if there are interactive
+ * commands waiting.
+ * <P>
+ * If a command is submitted while an identical command (according to
+ * its merge key) is still waiting, the new command is not executed but
+ * completes along with the waiting one.
+ * <P>
+ * Long running commands (e.g., running the application) are not limited at
+ * all and they do not count towards any limit, because they might keep running
+ * indefinitely after the build itself has completed. Exclusive commands are
+ * limited as usual, but at most one of them is started at a time. This is for
+ * commands which cannot run concurrently with each other anyway (i.e., the
+ * non-blocking commands of {@link GradleDaemonManager}), so that they do not
+ * occupy the slots of other commands while waiting for each other.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+public final class GradleTaskScheduler {
+    private static final int MAX_INTERACTIVE_STREAK = 2;
+
+    private static final GradleTaskScheduler DEFAULT = new GradleTaskScheduler(
+            () -> getLimit(CommonGlobalSettings.getDefault().maxConcurrentBuilds().getActiveValue()),
+            () -> getLimit(CommonGlobalSettings.getDefault().maxConcurrentBuildsPerRoot().getActiveValue()));
+
+    private final IntSupplier globalLimit;
+    private final IntSupplier perRootLimit;
+
+    private final ReentrantLock mainLock;
+    private final Condition queueChangedSignal;
+    private final List<Ticket> interactiveQueue;
+    private final List<Ticket> backgroundQueue;
+    private final Map<Object, Ticket> waitingByMergeKey;
+    private final Map<Object, Integer> runningPerRoot;
+    private int runningCount;
+    private int limitedRunningCount;
+    private boolean exclusiveRunning;
+    private int interactiveStreak;
+
+    public GradleTaskScheduler(IntSupplier globalLimit, IntSupplier perRootLimit) {
+        this.globalLimit = Objects.requireNonNull(globalLimit, "globalLimit");
+        this.perRootLimit = Objects.requireNonNull(perRootLimit, "perRootLimit");
+
+        this.mainLock = new ReentrantLock();
+        this.queueChangedSignal = mainLock.newCondition();
+        this.interactiveQueue = new LinkedList<>();
+        this.backgroundQueue = new LinkedList<>();
+        this.waitingByMergeKey = new HashMap<>();
+        this.runningPerRoot = new HashMap<>();
+        this.runningCount = 0;
+        this.limitedRunningCount = 0;
+        this.exclusiveRunning = false;
+        this.interactiveStreak = 0;
+    }
+
+    /**
+     * Defines how the limits of the scheduler apply to a task.
+     */
+    public enum CommandKind {
+        /**
+         * The task is limited both globally and per root build.
+         */
+        NORMAL,
+
+        /**
+         * The task is limited like {@link #NORMAL} tasks, but at most one
+         * exclusive task is executed at a time.
+         */
+        EXCLUSIVE,
+
+        /**
+         * The task might run for an unbounded time (e.g., runs the
+         * application). Such tasks are started immediately and they do not
+         * count towards any limit.
+         */
+        LONG_RUNNING
+    }
+
+    public static GradleTaskScheduler getDefault() {
+        return DEFAULT;
+    }
+
+    private static int getLimit(Integer limit) {
+        return limit != null ? Math.max(1, limit) : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Executes the given task when the limits of this scheduler allow it and
+     * waits until it completes. This method is the same as calling the
+     * {@link #execute(CancellationToken, Object, boolean, CommandKind, Object, Consumer, CancelableTask) execute}
+     * method with {@link CommandKind#NORMAL NORMAL} command kind.
+     *
+     * @param cancelToken the cancellation token signaling that the task is no
+     *   longer needed. This argument cannot be {@code null}.
+     * @param rootKey the key identifying the root build the task is executed
+     *   against. This argument cannot be {@code null}.
+     * @param background {@code true} if the task was not directly requested
+     *   by the user, {@code false} otherwise
+     * @param mergeKey the key identifying identical tasks. This argument can
+     *   be {@code null}.
+     * @param queueStateListener the listener to be notified with a displayable
+     *   message when the state of the task in the queue changes. This argument
+     *   cannot be {@code null}.
+     * @param task the task to be executed. This argument cannot be {@code null}.
+     *
+     * @throws Exception thrown if the task (or the identical task it was
+     *   merged with) fails
+     */
+    public void execute(
+            CancellationToken cancelToken,
+            Object rootKey,
+            boolean background,
+            Object mergeKey,
+            Consumer<? super String> queueStateListener,
+            CancelableTask task) throws Exception {
+        execute(cancelToken, rootKey, background, CommandKind.NORMAL, mergeKey, queueStateListener, task);
+    }
+
+    /**
+     * Executes the given task when the limits of this scheduler allow it and
+     * waits until it completes. While waiting, the position of the task in
+     * the queue is reported to the given listener.
+     *
+     * @param cancelToken the cancellation token signaling that the task is no
+     *   longer needed. If the task is canceled while waiting, it is removed
+     *   from the queue. This argument cannot be {@code null}.
+     * @param rootKey the key identifying the root build the task is executed
+     *   against. This argument cannot be {@code null}.
+     * @param background {@code true} if the task was not directly requested
+     *   by the user, {@code false} otherwise
+     * @param kind the kind of the task determining how the limits of this
+     *   scheduler apply to it. This argument cannot be {@code null}.
+     * @param mergeKey the key identifying identical tasks. This argument can
+     *   be {@code null}, in which case the task is never merged with other
+     *   tasks.
+     * @param queueStateListener the listener to be notified with a displayable
+     *   message when the state of the task in the queue changes. This argument
+     *   cannot be {@code null}.
+     * @param task the task to be executed. This argument cannot be {@code null}.
+     *
+     * @throws Exception thrown if the task (or the identical task it was
+     *   merged with) fails
+     */
+    public void execute(
+            CancellationToken cancelToken,
+            Object rootKey,
+            boolean background,
+            CommandKind kind,
+            Object mergeKey,
+            Consumer<? super String> queueStateListener,
+            CancelableTask task) throws Exception {
+        Objects.requireNonNull(cancelToken, "cancelToken");
+        Objects.requireNonNull(rootKey, "rootKey");
+        Objects.requireNonNull(kind, "kind");
+        Objects.requireNonNull(queueStateListener, "queueStateListener");
+        Objects.requireNonNull(task, "task");
+
+        Ticket ticket;
+        boolean merged;
+
+        mainLock.lock();
+        try {
+            Ticket waiting = mergeKey != null ? waitingByMergeKey.get(mergeKey) : null;
+            if (kind == CommandKind.LONG_RUNNING) {
+                // Long running tasks never wait, so they are never merged.
+                ticket = new Ticket(rootKey, background, kind, null);
+                merged = false;
+
+                startUnlocked(ticket);
+            }
+            else if (waiting != null) {
+                ticket = waiting;
+                merged = true;
+            }
+            else {
+                ticket = new Ticket(rootKey, background, kind, mergeKey);
+                merged = false;
+
+                getQueue(background).add(ticket);
+                if (mergeKey != null) {
+                    waitingByMergeKey.put(mergeKey, ticket);
+                }
+                dispatchTasks();
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (merged) {
+            queueStateListener.accept(NbStrings.getTaskMergedProgress());
+            awaitCompletion(cancelToken, ticket);
+            return;
+        }
+
+        boolean started = false;
+        try {
+            awaitStart(cancelToken, ticket, queueStateListener);
+            started = true;
+        } finally {
+            if (!started) {
+                cancelWaiting(ticket);
+            }
+        }
+
+        Throwable failure = null;
+        try {
+            task.execute(cancelToken);
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            release(ticket, failure);
+        }
+    }
+
+    private List<Ticket> getQueue(boolean background) {
+        return background ? backgroundQueue : interactiveQueue;
+    }
+
+    private void awaitStart(
+            CancellationToken cancelToken,
+            Ticket ticket,
+            Consumer<? super String> queueStateListener) {
+        int lastPosition = -1;
+
+        mainLock.lock();
+        try {
+            while (!ticket.started) {
+                int position = getQueuePosition(ticket);
+                if (position != lastPosition) {
+                    lastPosition = position;
+                    queueStateListener.accept(NbStrings.getTaskQueuedProgress(position + 1, getQueueLength()));
+                }
+
+                CancelableWaits.await(cancelToken, queueChangedSignal);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void awaitCompletion(CancellationToken cancelToken, Ticket ticket) throws Exception {
+        Throwable failure;
+
+        mainLock.lock();
+        try {
+            while (!ticket.completed) {
+                CancelableWaits.await(cancelToken, queueChangedSignal);
+            }
+            failure = ticket.failure;
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (failure instanceof Exception) {
+            throw (Exception)failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error)failure;
+        }
+    }
+
+    private int getQueuePosition(Ticket ticket) {
+        int interactivePosition = interactiveQueue.indexOf(ticket);
+        if (interactivePosition >= 0) {
+            return interactivePosition;
+        }
+        return interactiveQueue.size() + backgroundQueue.indexOf(ticket);
+    }
+
+    private int getQueueLength() {
+        return interactiveQueue.size() + backgroundQueue.size();
+    }
+
+    private void cancelWaiting(Ticket ticket) {
+        mainLock.lock();
+        try {
+            if (ticket.started) {
+                // Started just after the cancellation: Hand over its slot.
+                releaseUnlocked(ticket, null);
+                return;
+            }
+
+            getQueue(ticket.background).remove(ticket);
+            removeMergeKey(ticket);
+            // Tasks merged into this one must not wait forever.
+            completeUnlocked(ticket, OperationCanceledException.withoutStackTrace());
+            queueChangedSignal.signalAll();
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void release(Ticket ticket, Throwable failure) {
+        mainLock.lock();
+        try {
+            releaseUnlocked(ticket, failure);
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void releaseUnlocked(Ticket ticket, Throwable failure) {
+        assert mainLock.isHeldByCurrentThread();
+
+        runningCount--;
+        if (ticket.kind != CommandKind.LONG_RUNNING) {
+            limitedRunningCount--;
+
+            int rootCount = runningPerRoot.get(ticket.rootKey) - 1;
+            if (rootCount > 0) {
+                runningPerRoot.put(ticket.rootKey, rootCount);
+            }
+            else {
+                runningPerRoot.remove(ticket.rootKey);
+            }
+        }
+        if (ticket.kind == CommandKind.EXCLUSIVE) {
+            exclusiveRunning = false;
+        }
+
+        completeUnlocked(ticket, failure);
+        dispatchTasks();
+    }
+
+    private static void completeUnlocked(Ticket ticket, Throwable failure) {
+        ticket.completed = true;
+        ticket.failure = failure;
+    }
+
+    private void removeMergeKey(Ticket ticket) {
+        if (ticket.mergeKey != null && waitingByMergeKey.get(ticket.mergeKey) == ticket) {
+            waitingByMergeKey.remove(ticket.mergeKey);
+        }
+    }
+
+    private void dispatchTasks() {
+        assert mainLock.isHeldByCurrentThread();
+
+        int maxRunning = globalLimit.getAsInt();
+        int maxRunningPerRoot = perRootLimit.getAsInt();
+
+        while (limitedRunningCount < maxRunning) {
+            Ticket next = pollNextTicket(maxRunningPerRoot);
+            if (next == null) {
+                break;
+            }
+
+            removeMergeKey(next);
+            startUnlocked(next);
+        }
+
+        // Signal even if nothing was started: Queue positions might have changed.
+        queueChangedSignal.signalAll();
+    }
+
+    private void startUnlocked(Ticket ticket) {
+        assert mainLock.isHeldByCurrentThread();
+
+        ticket.started = true;
+
+        runningCount++;
+        if (ticket.kind != CommandKind.LONG_RUNNING) {
+            limitedRunningCount++;
+            runningPerRoot.merge(ticket.rootKey, 1, Integer::sum);
+        }
+        if (ticket.kind == CommandKind.EXCLUSIVE) {
+            exclusiveRunning = true;
+        }
+    }
+
+    private Ticket pollNextTicket(int maxRunningPerRoot) {
+        boolean preferBackground = interactiveStreak >= MAX_INTERACTIVE_STREAK;
+
+        List<Ticket> firstQueue = preferBackground ? backgroundQueue : interactiveQueue;
+        List<Ticket> secondQueue = preferBackground ? interactiveQueue : backgroundQueue;
+
+        Ticket result = pollFirstStartable(firstQueue, maxRunningPerRoot);
+        if (result == null) {
+            result = pollFirstStartable(secondQueue, maxRunningPerRoot);
+        }
+
+        if (result != null) {
+            interactiveStreak = result.background ? 0 : interactiveStreak + 1;
+        }
+        return result;
+    }
+
+    private Ticket pollFirstStartable(List<Ticket> queue, int maxRunningPerRoot) {
+        // Tasks of a busy root build must not block the tasks of other builds.
+        Iterator<Ticket> queueItr = queue.iterator();
+        while (queueItr.hasNext()) {
+            Ticket ticket = queueItr.next();
+            if (ticket.kind == CommandKind.EXCLUSIVE && exclusiveRunning) {
+                continue;
+            }
+
+            Integer rootCount = runningPerRoot.get(ticket.rootKey);
+            if (rootCount == null || rootCount < maxRunningPerRoot) {
+                queueItr.remove();
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of tasks currently being executed (including long
+     * running tasks). This method is intended to be used for diagnostic
+     * purposes.
+     *
+     * @return the number of tasks currently being executed
+     */
+    public int getRunningCount() {
+        mainLock.lock();
+        try {
+            return runningCount;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tasks waiting to be executed. This method is
+     * intended to be used for diagnostic purposes.
+     *
+     * @return the number of tasks waiting to be executed
+     */
+    public int getWaitingCount() {
+        mainLock.lock();
+        try {
+            return getQueueLength();
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private static final class Ticket {
+        public final Object rootKey;
+        public final boolean background;
+        public final CommandKind kind;
+        public final Object mergeKey;
+
+        // The following fields are guarded by mainLock.
+        public boolean started;
+        public boolean completed;
+        public Throwable failure;
+
+        public Ticket(Object rootKey, boolean background, CommandKind kind, Object mergeKey) {
+            this.rootKey = rootKey;
+            this.background = background;
+            this.kind = kind;
+            this.mergeKey = mergeKey;
+            this.started = false;
+            this.completed = false;
+            this.failure = null;
+        }
+    }
+}
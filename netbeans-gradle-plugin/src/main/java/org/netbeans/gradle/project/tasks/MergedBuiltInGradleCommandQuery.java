@@ -2,23 +2,85 @@ package org.netbeans.gradle.project.tasks;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import org.netbeans.gradle.project.api.config.ProfileDef;
 import org.netbeans.gradle.project.api.task.BuiltInGradleCommandQuery;
 import org.netbeans.gradle.project.api.task.CustomCommandActions;
 import org.netbeans.gradle.project.api.task.GradleCommandTemplate;
+import org.openide.util.Lookup;
 
 public final class MergedBuiltInGradleCommandQuery implements BuiltInGradleCommandQuery {
     private final BuiltInGradleCommandQuery defaultBuiltInTasks;
     private final Supplier<? extends Collection<? extends BuiltInGradleCommandQuery>> extraQueries;
 
+    // Kept only to prevent the lookup result (and its listener) from being
+    // garbage collected.
+    private final Lookup.Result<BuiltInGradleCommandQuery> extraQueriesResult;
+
+    private final AtomicLong queriesVersion;
+    private volatile MergedQueries mergedQueries;
+
     public MergedBuiltInGradleCommandQuery(Supplier<? extends Collection<? extends BuiltInGradleCommandQuery>> extraQueries) {
+        this(extraQueries, null);
+    }
+
+    /**
+     * Creates a query merging the queries found on the given lookup. The merged
+     * queries (and their supported commands) are cached until the content of the
+     * lookup changes.
+     *
+     * @param extraQueriesLookup the lookup containing the queries to be merged.
+     *   This argument cannot be {@code null}.
+     */
+    public MergedBuiltInGradleCommandQuery(Lookup extraQueriesLookup) {
+        this(extraQueriesLookup.lookupResult(BuiltInGradleCommandQuery.class));
+    }
+
+    private MergedBuiltInGradleCommandQuery(Lookup.Result<BuiltInGradleCommandQuery> extraQueriesResult) {
+        this(extraQueriesResult::allInstances, extraQueriesResult);
+    }
+
+    private MergedBuiltInGradleCommandQuery(
+            Supplier<? extends Collection<? extends BuiltInGradleCommandQuery>> extraQueries,
+            Lookup.Result<BuiltInGradleCommandQuery> extraQueriesResult) {
+
         this.extraQueries = Objects.requireNonNull(extraQueries, "extraQueries");
         this.defaultBuiltInTasks = new DefaultBuiltInTasks();
+        this.extraQueriesResult = extraQueriesResult;
+        this.queriesVersion = new AtomicLong(0);
+        this.mergedQueries = null;
+
+        if (extraQueriesResult != null) {
+            extraQueriesResult.addLookupListener(ev -> invalidate());
+        }
+    }
+
+    private void invalidate() {
+        queriesVersion.incrementAndGet();
+        mergedQueries = null;
+    }
+
+    private MergedQueries getMergedQueries() {
+        if (extraQueriesResult == null) {
+            // We cannot detect changes of the queries, so don't cache.
+            return new MergedQueries(-1, getAllQueries());
+        }
+
+        long currentVersion = queriesVersion.get();
+        MergedQueries result = mergedQueries;
+        if (result != null && result.version == currentVersion) {
+            return result;
+        }
+
+        result = new MergedQueries(currentVersion, getAllQueries());
+        mergedQueries = result;
+        return result;
     }
 
     private List<BuiltInGradleCommandQuery> getAllQueries() {
@@ -28,19 +90,20 @@ public final class MergedBuiltInGradleCommandQuery implements BuiltInGradleComma
         return result;
     }
 
+    /**
+     * {@inheritDoc }
+     * <P>
+     * Note that this method returns the same set instance until the queries
+     * to be merged change.
+     */
     @Override
     public Set<String> getSupportedCommands() {
-        Set<String> result = new HashSet<>(32);
-        for (BuiltInGradleCommandQuery query: getAllQueries()) {
-            result.addAll(query.getSupportedCommands());
-        }
-        return result;
-
+        return getMergedQueries().supportedCommands;
     }
 
     @Override
     public String tryGetDisplayNameOfCommand(String command) {
-        for (BuiltInGradleCommandQuery query: getAllQueries()) {
+        for (BuiltInGradleCommandQuery query: getMergedQueries().queries) {
             String displayName = query.tryGetDisplayNameOfCommand(command);
             if (displayName != null) {
                 return displayName;
@@ -51,7 +114,7 @@ public final class MergedBuiltInGradleCommandQuery implements BuiltInGradleComma
 
     @Override
     public GradleCommandTemplate tryGetDefaultGradleCommand(ProfileDef profileDef, String command) {
-        for (BuiltInGradleCommandQuery query: getAllQueries()) {
+        for (BuiltInGradleCommandQuery query: getMergedQueries().queries) {
             if (query.getSupportedCommands().contains(command)) {
                 return query.tryGetDefaultGradleCommand(profileDef, command);
             }
@@ -61,11 +124,31 @@ public final class MergedBuiltInGradleCommandQuery implements BuiltInGradleComma
 
     @Override
     public CustomCommandActions tryGetCommandDefs(ProfileDef profileDef, String command) {
-        for (BuiltInGradleCommandQuery query: getAllQueries()) {
+        for (BuiltInGradleCommandQuery query: getMergedQueries().queries) {
             if (query.getSupportedCommands().contains(command)) {
                 return query.tryGetCommandDefs(profileDef, command);
             }
         }
         return null;
     }
+
+    private static final class MergedQueries {
+        public final long version;
+        public final List<BuiltInGradleCommandQuery> queries;
+        public final Set<String> supportedCommands;
+
+        public MergedQueries(long version, List<BuiltInGradleCommandQuery> queries) {
+            this.version = version;
+            this.queries = Collections.unmodifiableList(queries);
+            this.supportedCommands = Collections.unmodifiableSet(collectSupportedCommands(queries));
+        }
+
+        private static Set<String> collectSupportedCommands(List<BuiltInGradleCommandQuery> queries) {
+            Set<String> result = new HashSet<>(32);
+            for (BuiltInGradleCommandQuery query: queries) {
+                result.addAll(query.getSupportedCommands());
+            }
+            return result;
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package org.netbeans.gradle.project.tasks.vars;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import org.netbeans.gradle.project.api.task.TaskVariable;
@@ -15,6 +18,21 @@ public final class CachingVariableMap<ProjectInfo> implements TaskVariableMap {
                 Lookup actionContext);
     }
 
+    public interface CacheKeyGetter<ProjectInfo> {
+        /**
+         * Returns the object identifying the state of the project the value
+         * of the variable depends on (usually the current model of the project).
+         * Values are recomputed when this object changes.
+         *
+         * @param project the project whose state is to be returned. This
+         *   argument cannot be {@code null}.
+         * @return the object identifying the state of the project the value
+         *   of the variable depends on. This method may return {@code null}
+         *   if the value must not be cached.
+         */
+        public Object tryGetCacheKey(ProjectInfo project);
+    }
+
     public interface VariableDefMap<ProjectInfo> {
         public VariableDef<ProjectInfo> tryGetDef(TaskVariable variable);
     }
@@ -22,10 +40,39 @@ public final class CachingVariableMap<ProjectInfo> implements TaskVariableMap {
     public static final class VariableDef<ProjectInfo> {
         private final TaskVariable variable;
         private final ValueGetter<ProjectInfo> valueGetter;
+        private final CacheKeyGetter<? super ProjectInfo> cacheKeyGetter;
+        private final Map<Object, VariableValue> projectValues;
 
         public VariableDef(TaskVariable variable, ValueGetter<ProjectInfo> valueGetter) {
-            this.variable = variable;
-            this.valueGetter = valueGetter;
+            this(variable, valueGetter, null);
+        }
+
+        /**
+         * Creates a definition of a variable whose value might be shared by
+         * all commands of the project as long as the object returned by the
+         * given {@code CacheKeyGetter} does not change. That is, the value of
+         * such variables must not depend on the action context or on other
+         * variables.
+         *
+         * @param variable the variable defined. This argument cannot be
+         *   {@code null}.
+         * @param valueGetter the function computing the value of the variable.
+         *   This argument cannot be {@code null}.
+         * @param cacheKeyGetter the function returning the state of the project
+         *   the value depends on. This argument can be {@code null} if the
+         *   value of the variable must not be shared between commands.
+         */
+        public VariableDef(
+                TaskVariable variable,
+                ValueGetter<ProjectInfo> valueGetter,
+                CacheKeyGetter<? super ProjectInfo> cacheKeyGetter) {
+            this.variable = Objects.requireNonNull(variable, "variable");
+            this.valueGetter = Objects.requireNonNull(valueGetter, "valueGetter");
+            this.cacheKeyGetter = cacheKeyGetter;
+            // Weak keys: The cached values must not retain old models.
+            this.projectValues = cacheKeyGetter != null
+                    ? Collections.synchronizedMap(new WeakHashMap<>())
+                    : null;
         }
 
         public TaskVariable getVariable() {
@@ -37,7 +84,17 @@ public final class CachingVariableMap<ProjectInfo> implements TaskVariableMap {
         }
 
         public VariableValue tryGetValue(TaskVariableMap variables, ProjectInfo project, Lookup actionContext) {
-            return valueGetter.getValue(variables, project, actionContext);
+            Object cacheKey = cacheKeyGetter != null ? cacheKeyGetter.tryGetCacheKey(project) : null;
+            if (cacheKey == null) {
+                return valueGetter.getValue(variables, project, actionContext);
+            }
+
+            VariableValue result = projectValues.get(cacheKey);
+            if (result == null) {
+                result = valueGetter.getValue(variables, project, actionContext);
+                projectValues.put(cacheKey, result);
+            }
+            return result;
         }
     }
 
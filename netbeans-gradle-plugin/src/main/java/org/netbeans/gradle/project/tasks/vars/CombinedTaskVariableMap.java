@@ -2,12 +2,18 @@ package org.netbeans.gradle.project.tasks.vars;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.project.api.task.TaskVariable;
 import org.netbeans.gradle.project.api.task.TaskVariableMap;
+import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableValue;
 
 public final class CombinedTaskVariableMap implements TaskVariableMap {
     private final TaskVariableMap[] maps;
+    // The same variable is usually requested multiple times (e.g.: when
+    // collecting and then replacing variables), so remember which map had it.
+    private final ConcurrentMap<TaskVariable, VariableValue> cache;
 
     public CombinedTaskVariableMap(Collection<? extends TaskVariableMap> maps) {
         this(maps.toArray(new TaskVariableMap[maps.size()]));
@@ -15,18 +21,31 @@ public final class CombinedTaskVariableMap implements TaskVariableMap {
 
     public CombinedTaskVariableMap(TaskVariableMap... maps) {
         this.maps = maps.clone();
+        this.cache = new ConcurrentHashMap<>();
 
         CollectionUtils.checkNoNullElements(Arrays.asList(this.maps), "maps");
     }
 
     @Override
     public String tryGetValueForVariable(TaskVariable variable) {
+        VariableValue result = cache.get(variable);
+        if (result == null) {
+            result = findValue(variable);
+            VariableValue prevResult = cache.putIfAbsent(variable, result);
+            if (prevResult != null) {
+                result = prevResult;
+            }
+        }
+        return result.getValue();
+    }
+
+    private VariableValue findValue(TaskVariable variable) {
         for (TaskVariableMap map: maps) {
             String value = map.tryGetValueForVariable(variable);
             if (value != null) {
-                return value;
+                return new VariableValue(value);
             }
         }
-        return null;
+        return VariableValue.NULL_VALUE;
     }
 }
@@ -21,6 +21,7 @@ import org.netbeans.gradle.project.api.task.TaskVariableMap;
 import org.netbeans.gradle.project.java.test.SpecificTestClass;
 import org.netbeans.gradle.project.java.test.SpecificTestcase;
 import org.netbeans.gradle.project.java.test.TestTaskName;
+import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.CacheKeyGetter;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.ValueGetter;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableDef;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableValue;
@@ -32,11 +33,11 @@ import org.openide.loaders.DataObject;
 import org.openide.util.Lookup;
 
 public enum StandardTaskVariable {
-    PROJECT_PATH_NOT_NORMALIZED("project-path", (variables, project, actionContext) -> {
+    PROJECT_PATH_NOT_NORMALIZED("project-path", StandardTaskVariable::getModelCacheKey, (variables, project, actionContext) -> {
         String uniqueName = project.currentModel().getValue().getMainProject().getProjectFullName();
         return new VariableValue(uniqueName);
     }),
-    PROJECT_PATH_NORMALIZED("project", (variables, project, actionContext) -> {
+    PROJECT_PATH_NORMALIZED("project", StandardTaskVariable::getModelCacheKey, (variables, project, actionContext) -> {
         String uniqueName = project.currentModel().getValue().getMainProject().getProjectFullName();
         if (":".equals(uniqueName)) { // This is the root project.
             uniqueName = "";
@@ -66,7 +67,7 @@ public enum StandardTaskVariable {
     TEST_METHOD("test-method", (variables, project, actionContext) -> {
         return getOneValue(getMethodReplaceVariables(variables, project, actionContext));
     }),
-    PLATFORM_DIR("platform-dir", (variables, project, actionContext) -> {
+    PLATFORM_DIR("platform-dir", StandardTaskVariable::getPlatformCacheKey, (variables, project, actionContext) -> {
         ProjectPlatform targetPlatform = project.getCommonProperties().targetPlatform().getActiveValue();
         FileObject rootFolder = targetPlatform != null ? targetPlatform.getRootFolder() : null;
         return new VariableValue(rootFolder != null
@@ -105,6 +106,14 @@ public enum StandardTaskVariable {
 
     public static final String TEST_ARGUMENT = "--tests";
 
+    private static Object getModelCacheKey(NbGradleProject project) {
+        return project.currentModel().getValue();
+    }
+
+    private static Object getPlatformCacheKey(NbGradleProject project) {
+        return project.getCommonProperties().targetPlatform().getActiveValue();
+    }
+
     private static String deducePathFromClass(String selectedClass) {
         return selectedClass != null
                 ? selectedClass.replace('.', '/')
@@ -210,10 +219,19 @@ public enum StandardTaskVariable {
 
     private final TaskVariable variable;
     private final ValueGetter<NbGradleProject> valueGetter;
+    private final CacheKeyGetter<NbGradleProject> cacheKeyGetter;
 
     private StandardTaskVariable(String variableName, ValueGetter<NbGradleProject> valueGetter) {
+        this(variableName, null, valueGetter);
+    }
+
+    private StandardTaskVariable(
+            String variableName,
+            CacheKeyGetter<NbGradleProject> cacheKeyGetter,
+            ValueGetter<NbGradleProject> valueGetter) {
         this.variable = new TaskVariable(variableName);
         this.valueGetter = valueGetter;
+        this.cacheKeyGetter = cacheKeyGetter;
     }
 
     public TaskVariable getVariable() {
@@ -285,6 +303,6 @@ public enum StandardTaskVariable {
     }
 
     private VariableDef<NbGradleProject> asVariableDef() {
-        return new VariableDef<>(variable, valueGetter);
+        return new VariableDef<>(variable, valueGetter, cacheKeyGetter);
     }
 }
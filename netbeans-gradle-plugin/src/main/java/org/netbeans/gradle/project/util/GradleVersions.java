@@ -17,6 +17,7 @@ public final class GradleVersions {
     public static final GradleVersion VERSION_1_7 = GradleVersion.version("1.7");
     public static final GradleVersion VERSION_1_8_RC_1 = GradleVersion.version("1.8-rc-1");
     public static final GradleVersion VERSION_1_8 = GradleVersion.version("1.8");
+    public static final GradleVersion VERSION_2_0 = GradleVersion.version("2.0");
     public static final GradleVersion VERSION_2_3 = GradleVersion.version("2.3");
 
     private static SpecificationVersion getDefaultSpecVersion() {
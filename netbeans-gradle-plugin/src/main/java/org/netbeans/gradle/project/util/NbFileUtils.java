@@ -17,6 +17,7 @@ import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
 import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.jtrim2.cancel.CancellationToken;
@@ -28,6 +29,7 @@ import org.openide.filesystems.FileChangeAdapter;
 import org.openide.filesystems.FileChangeListener;
 import org.openide.filesystems.FileEvent;
 import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileRenameEvent;
 import org.openide.filesystems.FileUtil;
 
 public final class NbFileUtils {
@@ -126,25 +128,61 @@ public final class NbFileUtils {
             final FileObject dir,
             final boolean listenForDirs,
             final Runnable listener) {
+        return addDirectoryContentListener(dir, listenForDirs, name -> true, listener);
+    }
+
+    /**
+     * Registers a listener to be notified when a file is created, deleted or
+     * renamed in the given directory and the name of the file is accepted by
+     * the given filter. Events of files not accepted by the filter are
+     * ignored, so that changes of unrelated files do not cause the caller to
+     * list the directory.
+     */
+    public static ListenerRef addDirectoryContentListener(
+            final FileObject dir,
+            final boolean listenForDirs,
+            final Predicate<? super String> nameFilter,
+            final Runnable listener) {
         Objects.requireNonNull(dir, "dir");
+        Objects.requireNonNull(nameFilter, "nameFilter");
         Objects.requireNonNull(listener, "listener");
 
         final FileChangeListener fileChangeListener = new FileChangeAdapter() {
+            private void fileChanged(FileEvent fe) {
+                if (nameFilter.test(fe.getFile().getNameExt())) {
+                    listener.run();
+                }
+            }
+
             @Override
             public void fileFolderCreated(FileEvent fe) {
                 if (listenForDirs) {
-                    listener.run();
+                    fileChanged(fe);
                 }
-
             }
+
             @Override
             public void fileDeleted(FileEvent fe) {
-                listener.run();
+                fileChanged(fe);
             }
 
             @Override
             public void fileDataCreated(FileEvent fe) {
-                listener.run();
+                fileChanged(fe);
+            }
+
+            @Override
+            public void fileRenamed(FileRenameEvent fe) {
+                FileObject file = fe.getFile();
+                if (file.equals(dir) || (file.isFolder() && !listenForDirs)) {
+                    return;
+                }
+
+                String ext = fe.getExt();
+                String prevName = ext.isEmpty() ? fe.getName() : fe.getName() + "." + ext;
+                if (nameFilter.test(prevName) || nameFilter.test(file.getNameExt())) {
+                    listener.run();
+                }
             }
         };
         dir.addFileChangeListener(fileChangeListener);
@@ -1,11 +1,14 @@
 package org.netbeans.gradle.project.util;
 
+import java.util.Objects;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import org.jtrim2.executor.DelegatedTaskExecutorService;
 import org.jtrim2.executor.GenericUpdateTaskExecutor;
 import org.jtrim2.executor.MonitorableTaskExecutor;
 import org.jtrim2.executor.MonitorableTaskExecutorService;
 import org.jtrim2.executor.SingleThreadedExecutor;
+import org.jtrim2.executor.TaskExecutor;
 import org.jtrim2.executor.TaskExecutors;
 import org.jtrim2.executor.ThreadPoolTaskExecutor;
 import org.jtrim2.executor.UpdateTaskExecutor;
@@ -48,6 +51,30 @@ public final class NbTaskExecutors {
         return new GenericUpdateTaskExecutor(TaskExecutors.inOrderSimpleExecutor(NbTaskExecutors.DEFAULT_EXECUTOR));
     }
 
+    /**
+     * Submits the given task to the given executor after the given delay.
+     * <P>
+     * The delay is measured by a single timer thread shared by all callers.
+     * The timer thread never runs the submitted tasks itself and it terminates
+     * when there are no delayed tasks waiting to be submitted, so there is no
+     * need to shut down anything.
+     *
+     * @param executor the executor to which the task is submitted after the
+     *   delay elapses. This argument cannot be {@code null}.
+     * @param delay the time to wait before submitting the task. A non-positive
+     *   delay submits the task as soon as possible.
+     * @param delayUnit the time unit of the {@code delay} argument. This
+     *   argument cannot be {@code null}.
+     * @param task the task to be executed. This argument cannot be {@code null}.
+     */
+    public static void executeAfterDelay(TaskExecutor executor, long delay, TimeUnit delayUnit, Runnable task) {
+        Objects.requireNonNull(executor, "executor");
+        Objects.requireNonNull(delayUnit, "delayUnit");
+        Objects.requireNonNull(task, "task");
+
+        DelayTimerHolder.TIMER.schedule(() -> executor.execute(task), delay, delayUnit);
+    }
+
     private static int getDefaultThreadCount() {
         // We don't want too much thread, because there is little benefit
         // and many threads might need much more memory.
@@ -94,6 +121,21 @@ public final class NbTaskExecutors {
         }
     }
 
+    private static final class DelayTimerHolder {
+        public static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+        private static ScheduledThreadPoolExecutor createTimer() {
+            ScheduledThreadPoolExecutor result = new ScheduledThreadPoolExecutor(1, task -> {
+                Thread thread = new Thread(task, "Gradle-Delay-Timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            result.setKeepAliveTime(DEFAULT_IDLE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            result.allowCoreThreadTimeOut(true);
+            return result;
+        }
+    }
+
     private NbTaskExecutors() {
         throw new AssertionError();
     }
@@ -0,0 +1,152 @@
+package org.netbeans.gradle.project.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.netbeans.gradle.model.util.Exceptions;
+
+public final class ParallelUtils {
+    private static final int DEFAULT_PARALLELISM = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+
+    /**
+     * Applies the given function to each element of the given list concurrently
+     * and returns the results in the order of the input elements.
+     * <P>
+     * The calling thread also applies the function, and only waits for the
+     * elements already being processed by other threads. Therefore this method
+     * is safe to be called from a task of {@link NbTaskExecutors#DEFAULT_EXECUTOR}
+     * (even when nested) without the risk of dead-locking.
+     *
+     * @param <T> the type of the input elements
+     * @param <R> the type of the results
+     * @param inputs the elements to be converted. This argument cannot be
+     *   {@code null}.
+     * @param mapper the function converting the elements. This function might
+     *   be called concurrently from multiple threads (but not for the same
+     *   element). This argument cannot be {@code null}.
+     * @return the results in the order of the input elements. This method
+     *   never returns {@code null}.
+     */
+    public static <T, R> List<R> mapInParallel(
+            List<? extends T> inputs,
+            Function<? super T, ? extends R> mapper) {
+        return mapInParallel(NbTaskExecutors.DEFAULT_EXECUTOR::execute, DEFAULT_PARALLELISM, inputs, mapper);
+    }
+
+    public static <T, R> List<R> mapInParallel(
+            Executor executor,
+            int maxParallelism,
+            List<? extends T> inputs,
+            Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(executor, "executor");
+        Objects.requireNonNull(inputs, "inputs");
+        Objects.requireNonNull(mapper, "mapper");
+
+        int count = inputs.size();
+        int threadCount = Math.min(maxParallelism, count);
+        if (threadCount <= 1) {
+            List<R> result = new ArrayList<>(count);
+            for (T input: inputs) {
+                result.add(mapper.apply(input));
+            }
+            return result;
+        }
+
+        Object[] results = new Object[count];
+        AtomicInteger nextIndex = new AtomicInteger(0);
+        AtomicReference<Throwable> failureRef = new AtomicReference<>(null);
+        CountDownLatch doneSignal = new CountDownLatch(count);
+
+        Runnable worker = () -> {
+            int index;
+            while ((index = nextIndex.getAndIncrement()) < count) {
+                try {
+                    if (failureRef.get() == null) {
+                        results[index] = mapper.apply(inputs.get(index));
+                    }
+                } catch (Throwable ex) {
+                    if (!failureRef.compareAndSet(null, ex)) {
+                        failureRef.get().addSuppressed(ex);
+                    }
+                } finally {
+                    doneSignal.countDown();
+                }
+            }
+        };
+
+        for (int i = 1; i < threadCount; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException ex) {
+                break;
+            }
+        }
+        worker.run();
+
+        awaitUninterruptibly(doneSignal);
+
+        Throwable failure = failureRef.get();
+        if (failure != null) {
+            throw Exceptions.throwUnchecked(failure);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<R> resultList = (List<R>)Arrays.asList(results);
+        return Collections.unmodifiableList(resultList);
+    }
+
+    /**
+     * Splits the given list into consecutive sublists of (roughly) equal size,
+     * so that the sublists can be processed in parallel.
+     *
+     * @param <T> the type of the elements
+     * @param list the list to be split. This argument cannot be {@code null}.
+     * @param minChunkSize the minimum number of elements in a chunk (unless
+     *   the list itself is smaller)
+     * @return the consecutive sublists of the given list. This method never
+     *   returns {@code null}.
+     */
+    public static <T> List<List<T>> splitToChunks(List<T> list, int minChunkSize) {
+        int size = list.size();
+        int chunkCount = Math.max(1, Math.min(DEFAULT_PARALLELISM, size / Math.max(1, minChunkSize)));
+        if (chunkCount <= 1) {
+            return Collections.singletonList(list);
+        }
+
+        List<List<T>> result = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            int start = (int)((long)size * i / chunkCount);
+            int end = (int)((long)size * (i + 1) / chunkCount);
+            result.add(list.subList(start, end));
+        }
+        return result;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch signal) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                signal.await();
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ParallelUtils() {
+        throw new AssertionError();
+    }
+}
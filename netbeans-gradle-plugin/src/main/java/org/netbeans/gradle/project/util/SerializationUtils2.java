@@ -1,14 +1,47 @@
 package org.netbeans.gradle.project.util;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 public final class SerializationUtils2 {
+    private static final Logger LOGGER = Logger.getLogger(SerializationUtils2.class.getName());
+
+    // The first bytes of a Java serialization stream are 0xACED, so this
+    // header can never be confused with a file written by older versions.
+    private static final int CHECKED_FILE_MAGIC = 0x4E42474D; // "NBGM"
+    private static final int CHECKED_FILE_VERSION = 1;
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final int COMPRESSION_BUFFER_SIZE = 64 * 1024;
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final long STALE_TEMP_FILE_AGE_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final Set<Path> CLEANED_DIRS = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
     public static void serializeToFile(Path file, Object object) throws IOException {
         try (OutputStream fileOutput = Files.newOutputStream(file);
                 ObjectOutputStream output = new ObjectOutputStream(fileOutput)) {
@@ -16,10 +49,170 @@ public final class SerializationUtils2 {
         }
     }
 
+    /**
+     * Serializes the given object into the given file, so that a crash while
+     * writing the file cannot leave a partially written file at the given path.
+     * That is, the serialized form is written into a temporary file in the
+     * same directory first which is then moved into the final location.
+     * Temporary files left behind by a crash are removed by the first call
+     * writing into the same directory.
+     * <P>
+     * The written file starts with a header containing a checksum of the content
+     * which is verified by {@link #deserializeFile(Path) deserializeFile}.
+     *
+     * @param file the file to write the serialized object into. This argument
+     *   cannot be {@code null}.
+     * @param object the object to serialize. This argument can be {@code null}.
+     * @param compress {@code true} if the serialized content should be compressed,
+     *   {@code false} otherwise
+     *
+     * @throws IOException thrown if some I/O error occurs
+     */
+    public static void serializeToFileAtomic(Path file, Object object, boolean compress) throws IOException {
+        byte[] content = serializeContent(object, compress);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(content);
+
+        Path dir = file.toAbsolutePath().getParent();
+        deleteStaleTempFiles(dir);
+
+        Path tmpFile = Files.createTempFile(dir, file.getFileName().toString(), TEMP_FILE_SUFFIX);
+        try {
+            try (OutputStream fileOutput = Files.newOutputStream(tmpFile);
+                    DataOutputStream output = new DataOutputStream(fileOutput)) {
+                output.writeInt(CHECKED_FILE_MAGIC);
+                output.writeByte(CHECKED_FILE_VERSION);
+                output.writeByte(compress ? FLAG_COMPRESSED : 0);
+                output.writeLong(checksum.getValue());
+                output.writeInt(content.length);
+                output.write(content);
+            }
+
+            moveReplace(tmpFile, file);
+            tmpFile = null;
+        } finally {
+            if (tmpFile != null) {
+                Files.deleteIfExists(tmpFile);
+            }
+        }
+    }
+
+    private static void deleteStaleTempFiles(Path dir) {
+        if (!CLEANED_DIRS.add(dir)) {
+            return;
+        }
+
+        // Temporary files being written by another process are not old.
+        long staleTime = System.currentTimeMillis() - STALE_TEMP_FILE_AGE_MS;
+        try (DirectoryStream<Path> tmpFiles = Files.newDirectoryStream(dir, "*" + TEMP_FILE_SUFFIX)) {
+            for (Path tmpFile: tmpFiles) {
+                if (Files.getLastModifiedTime(tmpFile).toMillis() < staleTime) {
+                    Files.deleteIfExists(tmpFile);
+                }
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to remove the stale temporary files from " + dir, ex);
+        }
+    }
+
+    private static void moveReplace(Path src, Path dest) throws IOException {
+        try {
+            Files.move(src, dest, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(src, dest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static byte[] serializeContent(Object object, boolean compress) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(COMPRESSION_BUFFER_SIZE);
+
+        if (compress) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                try (OutputStream compressedOutput = new DeflaterOutputStream(result, deflater, COMPRESSION_BUFFER_SIZE);
+                        ObjectOutputStream output = new ObjectOutputStream(compressedOutput)) {
+                    output.writeObject(object);
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+        else {
+            try (ObjectOutputStream output = new ObjectOutputStream(result)) {
+                output.writeObject(object);
+            }
+        }
+
+        return result.toByteArray();
+    }
+
+    /**
+     * Deserializes the object stored in the given file. The file might have been
+     * written either by {@link #serializeToFile(Path, Object) serializeToFile} or
+     * by {@link #serializeToFileAtomic(Path, Object, boolean) serializeToFileAtomic}.
+     *
+     * @param file the file containing the serialized object. This argument cannot
+     *   be {@code null}.
+     * @return the deserialized object. This method may only return {@code null}
+     *   if {@code null} was serialized.
+     *
+     * @throws IOException thrown if the file cannot be read or if its checksum
+     *   does not match its content
+     */
     public static Object deserializeFile(Path file) throws IOException {
-        try (InputStream fileInput = Files.newInputStream(file);
-                ObjectInputStream input = new ObjectInputStream(fileInput)) {
-            return input.readObject();
+        try (InputStream fileInput = new BufferedInputStream(Files.newInputStream(file))) {
+            fileInput.mark(Integer.BYTES);
+            if (!hasCheckedFileHeader(fileInput)) {
+                fileInput.reset();
+                return readObject(fileInput);
+            }
+
+            return readCheckedContent(file, new DataInputStream(fileInput));
+        }
+    }
+
+    private static boolean hasCheckedFileHeader(InputStream input) throws IOException {
+        DataInputStream dataInput = new DataInputStream(input);
+        try {
+            return dataInput.readInt() == CHECKED_FILE_MAGIC;
+        } catch (EOFException ex) {
+            return false;
+        }
+    }
+
+    private static Object readCheckedContent(Path file, DataInputStream input) throws IOException {
+        int version = input.readUnsignedByte();
+        if (version != CHECKED_FILE_VERSION) {
+            throw new IOException("Unsupported file format version " + version + " in " + file);
+        }
+
+        int flags = input.readUnsignedByte();
+        long expectedChecksum = input.readLong();
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid content length in " + file);
+        }
+
+        byte[] content = new byte[length];
+        input.readFully(content);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(content);
+        if (checksum.getValue() != expectedChecksum) {
+            throw new IOException("Checksum mismatch in " + file);
+        }
+
+        InputStream contentInput = new ByteArrayInputStream(content);
+        if ((flags & FLAG_COMPRESSED) != 0) {
+            contentInput = new InflaterInputStream(contentInput);
+        }
+        return readObject(contentInput);
+    }
+
+    private static Object readObject(InputStream input) throws IOException {
+        try (ObjectInputStream objectInput = new ObjectInputStream(input)) {
+            return objectInput.readObject();
         } catch (ClassNotFoundException ex) {
             throw new IOException(ex);
         }
@@ -1,9 +1,11 @@
 package org.netbeans.gradle.project.validate;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import javax.swing.event.ChangeEvent;
@@ -25,8 +27,31 @@ import org.netbeans.gradle.project.util.NbTaskExecutors;
 
 import static org.jtrim2.property.PropertyFactory.*;
 
+/**
+ * Validates the inputs of a panel in the background and provides the most
+ * severe problem found by the added validators.
+ * <P>
+ * The validators are run independently of each other, so a slow validator
+ * (e.g., one checking the file system) does not delay the others. Only the
+ * validation of the most recent input of a validator is relevant: Outdated
+ * validations are not started and their results are ignored. Note however that
+ * a {@link Validator} cannot be canceled and a validator is never run
+ * concurrently with itself. So if the input changes while the validator is
+ * running, the new input is only validated after the outdated validation
+ * completes. Validators which were found to be slow are only run after their
+ * input stopped changing for a short while.
+ * <P>
+ * The results of validators added by {@link #addMemoizedValidator(Validator, PropertySource) addMemoizedValidator}
+ * are remembered for a short time, so that inputs changed back to a recent
+ * value are not validated again.
+ */
 public final class BackgroundValidator {
-    private final UpdateTaskExecutor validationExecutor;
+    private static final long SLOW_VALIDATION_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MAX_DEBOUNCE_NANOS = TimeUnit.MILLISECONDS.toNanos(300);
+    private static final long MEMOIZED_RESULT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int MAX_MEMOIZED_RESULTS = 16;
+
+    private final UpdateTaskExecutor problemUpdater;
 
     private final MutableProperty<Problem> currentProblem;
     private final SwingPropertySource<Problem, ChangeListener> currentProblemForSwing;
@@ -35,7 +60,7 @@ public final class BackgroundValidator {
     private final MostSevereValidator validator;
 
     public BackgroundValidator() {
-        this.validationExecutor = NbTaskExecutors.newDefaultUpdateExecutor();
+        this.problemUpdater = NbTaskExecutors.newDefaultUpdateExecutor();
         this.validator = new MostSevereValidator();
 
         this.currentProblem = lazilySetProperty(memProperty((Problem)null, true), Equality.<Problem>referenceEquality());
@@ -53,9 +78,39 @@ public final class BackgroundValidator {
     }
 
     public <InputType> ListenerRef addValidator(
+            Validator<InputType> validator,
+            PropertySource<? extends InputType> input,
+            TaskExecutor inputReaderExecutor) {
+
+        return addValidator(validator, input, inputReaderExecutor, false);
+    }
+
+    /**
+     * Adds a validator whose results are remembered for a short time. This
+     * method may only be used for validators whose result depends only on
+     * their input. That is, validators reading external state (e.g., the
+     * file system) must be added by {@link #addValidator(Validator, PropertySource) addValidator}.
+     */
+    public <InputType> ListenerRef addMemoizedValidator(
+            Validator<InputType> validator,
+            PropertySource<? extends InputType> input) {
+
+        return addMemoizedValidator(validator, input, SwingExecutors.getStrictExecutor(true));
+    }
+
+    public <InputType> ListenerRef addMemoizedValidator(
+            Validator<InputType> validator,
+            PropertySource<? extends InputType> input,
+            TaskExecutor inputReaderExecutor) {
+
+        return addValidator(validator, input, inputReaderExecutor, true);
+    }
+
+    private <InputType> ListenerRef addValidator(
             final Validator<InputType> validator,
             final PropertySource<? extends InputType> input,
-            final TaskExecutor inputReaderExecutor) {
+            final TaskExecutor inputReaderExecutor,
+            boolean memoize) {
 
         Objects.requireNonNull(validator, "validator");
         Objects.requireNonNull(input, "input");
@@ -63,18 +118,17 @@ public final class BackgroundValidator {
 
         final UpdateTaskExecutor updateReader = new GenericUpdateTaskExecutor(inputReaderExecutor);
 
-        AtomicReference<InputType> valueRef = new AtomicReference<>(input.getValue());
+        ValidatorEntry<InputType> entry = new ValidatorEntry<>(validator, memoize, this::performValidation);
         Runnable updateValueTask = () -> {
-            valueRef.set(input.getValue());
-            performValidation();
+            entry.setInput(input.getValue());
         };
 
         ListenerRef ref1 = input.addChangeListener(() -> {
             updateReader.execute(updateValueTask);
         });
-        ListenerRef ref2 = this.validator.addValidator((Void inputType) -> validator.validateInput(valueRef.get()));
+        ListenerRef ref2 = this.validator.addValidator(entry);
 
-        performValidation();
+        entry.setInput(input.getValue());
 
         return ListenerRefs.combineListenerRefs(ref1, ref2, this::performValidation);
     }
@@ -88,7 +142,7 @@ public final class BackgroundValidator {
     }
 
     private void performValidation() {
-        validationExecutor.execute(() -> {
+        problemUpdater.execute(() -> {
             Problem problem = validator.validateInput(null);
             currentProblem.setValue(problem);
         });
@@ -102,6 +156,186 @@ public final class BackgroundValidator {
         return valid.getValue();
     }
 
+    private static final class ValidatorEntry<InputType> implements Validator<Void> {
+        private final Validator<InputType> validator;
+        private final boolean memoize;
+        private final Runnable resultListener;
+        private final UpdateTaskExecutor validationExecutor;
+
+        private final Lock entryLock;
+        private InputType input;
+        private long inputVersion;
+        private Problem problem;
+        private long lastValidationNanos;
+        private final Map<InputType, MemoizedResult> memoizedResults;
+
+        public ValidatorEntry(Validator<InputType> validator, boolean memoize, Runnable resultListener) {
+            this.validator = validator;
+            this.memoize = memoize;
+            this.resultListener = resultListener;
+            this.validationExecutor = NbTaskExecutors.newDefaultUpdateExecutor();
+
+            this.entryLock = new ReentrantLock();
+            this.input = null;
+            this.inputVersion = 0;
+            this.problem = null;
+            this.lastValidationNanos = 0;
+            this.memoizedResults = new LinkedHashMap<InputType, MemoizedResult>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<InputType, MemoizedResult> eldest) {
+                    return size() > MAX_MEMOIZED_RESULTS;
+                }
+            };
+        }
+
+        public void setInput(InputType newInput) {
+            long version;
+            long debounceNanos;
+            boolean validated;
+
+            entryLock.lock();
+            try {
+                input = newInput;
+                inputVersion++;
+                version = inputVersion;
+
+                MemoizedResult memoized = tryGetMemoizedResult(newInput, System.nanoTime());
+                validated = memoized != null;
+                if (validated) {
+                    problem = memoized.problem;
+                }
+
+                debounceNanos = lastValidationNanos >= SLOW_VALIDATION_NANOS
+                        ? Math.min(2 * lastValidationNanos, MAX_DEBOUNCE_NANOS)
+                        : 0;
+            } finally {
+                entryLock.unlock();
+            }
+
+            if (validated) {
+                resultListener.run();
+            }
+            else if (debounceNanos > 0) {
+                Runnable validateIfCurrentTask = () -> {
+                    if (isCurrentVersion(version)) {
+                        validationExecutor.execute(this::validateCurrentInput);
+                    }
+                };
+                NbTaskExecutors.executeAfterDelay(
+                        NbTaskExecutors.DEFAULT_EXECUTOR,
+                        debounceNanos,
+                        TimeUnit.NANOSECONDS,
+                        validateIfCurrentTask);
+            }
+            else {
+                validationExecutor.execute(this::validateCurrentInput);
+            }
+        }
+
+        private boolean isCurrentVersion(long version) {
+            entryLock.lock();
+            try {
+                return inputVersion == version;
+            } finally {
+                entryLock.unlock();
+            }
+        }
+
+        private MemoizedResult tryGetMemoizedResult(InputType currentInput, long currentTime) {
+            assert ((ReentrantLock)entryLock).isHeldByCurrentThread();
+
+            if (!memoize) {
+                return null;
+            }
+
+            MemoizedResult result = memoizedResults.get(currentInput);
+            if (result == null) {
+                return null;
+            }
+
+            if (currentTime - result.validationTime > MEMOIZED_RESULT_TIMEOUT_NANOS) {
+                memoizedResults.remove(currentInput);
+                return null;
+            }
+            return result;
+        }
+
+        private void validateCurrentInput() {
+            InputType currentInput;
+            long version;
+            MemoizedResult memoized;
+
+            entryLock.lock();
+            try {
+                currentInput = input;
+                version = inputVersion;
+                // An outdated validation might have validated the same input
+                // since we were scheduled.
+                memoized = tryGetMemoizedResult(currentInput, System.nanoTime());
+                if (memoized != null) {
+                    problem = memoized.problem;
+                }
+            } finally {
+                entryLock.unlock();
+            }
+
+            if (memoized != null) {
+                resultListener.run();
+                return;
+            }
+
+            long startTime = System.nanoTime();
+            Problem result = validator.validateInput(currentInput);
+            long endTime = System.nanoTime();
+
+            entryLock.lock();
+            try {
+                lastValidationNanos = endTime - startTime;
+                if (memoize) {
+                    memoizedResults.put(currentInput, new MemoizedResult(result, endTime));
+                }
+
+                if (version != inputVersion) {
+                    // The input has been changed during the validation, so
+                    // the result is outdated. Another validation has already
+                    // been scheduled for the new input.
+                    return;
+                }
+                problem = result;
+            } finally {
+                entryLock.unlock();
+            }
+
+            resultListener.run();
+        }
+
+        @Override
+        public Problem validateInput(Void inputType) {
+            entryLock.lock();
+            try {
+                return problem;
+            } finally {
+                entryLock.unlock();
+            }
+        }
+    }
+
+    private static final class MemoizedResult {
+        public final Problem problem;
+        public final long validationTime;
+
+        public MemoizedResult(Problem problem, long validationTime) {
+            this.problem = problem;
+            this.validationTime = validationTime;
+        }
+    }
+
+    /**
+     * Combines the last results of the validators. The validators must
+     * return their last result without actually validating anything.
+     */
     private static class MostSevereValidator implements Validator<Void> {
         private final Lock validatorsLock;
         private final RefList<Validator<Void>> validators;
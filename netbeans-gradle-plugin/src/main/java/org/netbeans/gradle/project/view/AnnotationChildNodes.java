@@ -3,10 +3,10 @@ package org.netbeans.gradle.project.view;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -49,7 +49,7 @@ public final class AnnotationChildNodes {
 
     private final Lock nodeLock;
     private boolean removedChildren;
-    private Set<NodeList<?>> currentNodeLists;
+    private Map<NodeFactory, NodeList<?>> currentNodeLists;
 
     public AnnotationChildNodes(Project project) {
         this(project, () -> Lookups.forPath("Projects/" + GradleProjectIDs.MODULE_NAME + "/Nodes"));
@@ -62,7 +62,7 @@ public final class AnnotationChildNodes {
         this.nodeLock = new ReentrantLock();
         this.removedChildren = true;
         this.removeChildrenRef = new RemovedChildrenProperty();
-        this.currentNodeLists = Collections.emptySet();
+        this.currentNodeLists = Collections.emptyMap();
 
         this.nodeFactories = PropertyFactory.combine(
                 new NodeFactories(factoryLookupProvider),
@@ -71,17 +71,12 @@ public final class AnnotationChildNodes {
         this.singleNodeFactories = PropertyFactory.propertyOfProperty(nodeFactories, this::convertFactories);
     }
 
-    private void createAll(
-            Collection<? extends NodeFactory> factories,
-            Collection<NodeList<?>> result) {
-
-        for (NodeFactory factory: factories) {
-            try {
-                NodeList<?> nodeList = factory.createNodes(project);
-                result.add(nodeList);
-            } catch (Throwable ex) {
-                LOGGER.log(Level.SEVERE, "Exception thrown by NodeFactory.createNodes: " + factory, ex);
-            }
+    private NodeList<?> tryCreateNodeList(NodeFactory factory) {
+        try {
+            return factory.createNodes(project);
+        } catch (Throwable ex) {
+            LOGGER.log(Level.SEVERE, "Exception thrown by NodeFactory.createNodes: " + factory, ex);
+            return null;
         }
     }
 
@@ -90,11 +85,32 @@ public final class AnnotationChildNodes {
             return Collections.emptyList();
         }
 
-        Collection<NodeList<?>> result = CollectionUtils.newLinkedHashSet(factories.size());
-        createAll(factories, result);
+        Map<NodeFactory, NodeList<?>> prevNodeLists;
+        nodeLock.lock();
+        try {
+            if (removedChildren) {
+                return Collections.emptyList();
+            }
+            prevNodeLists = currentNodeLists;
+        } finally {
+            nodeLock.unlock();
+        }
+
+        // Only the node lists of new factories are created, so the nodes
+        // of the other node lists are not recreated.
+        Map<NodeFactory, NodeList<?>> createdNodeLists = new HashMap<>();
+        for (NodeFactory factory: factories) {
+            if (!prevNodeLists.containsKey(factory)) {
+                NodeList<?> nodeList = tryCreateNodeList(factory);
+                if (nodeList != null) {
+                    createdNodeLists.put(factory, nodeList);
+                }
+            }
+        }
 
         List<NodeList<?>> removed = new ArrayList<>();
         List<NodeList<?>> added = new ArrayList<>();
+        Map<NodeFactory, NodeList<?>> result = CollectionUtils.newLinkedHashMap(factories.size());
 
         nodeLock.lock();
         try {
@@ -103,19 +119,27 @@ public final class AnnotationChildNodes {
                 return Collections.emptyList();
             }
 
-            Set<NodeList<?>> prevNodeLists = currentNodeLists;
-            currentNodeLists = new LinkedHashSet<>(result);
-
-            for (NodeList<?> nodeList: result) {
-                if (!prevNodeLists.contains(nodeList)) {
+            // The node lists might have been updated concurrently.
+            Map<NodeFactory, NodeList<?>> lastNodeLists = currentNodeLists;
+            for (NodeFactory factory: factories) {
+                NodeList<?> nodeList = lastNodeLists.get(factory);
+                if (nodeList == null) {
+                    nodeList = createdNodeLists.get(factory);
+                    if (nodeList == null) {
+                        continue;
+                    }
                     added.add(nodeList);
                 }
+                result.put(factory, nodeList);
             }
-            for (NodeList<?> nodeList: prevNodeLists) {
-                if (!result.contains(nodeList)) {
-                    removed.add(nodeList);
+
+            for (Map.Entry<NodeFactory, NodeList<?>> entry: lastNodeLists.entrySet()) {
+                if (!result.containsKey(entry.getKey())) {
+                    removed.add(entry.getValue());
                 }
             }
+
+            currentNodeLists = result;
         } finally {
             nodeLock.unlock();
         }
@@ -123,7 +147,7 @@ public final class AnnotationChildNodes {
         removeNotifyAll(removed);
         addNotifyAll(added);
 
-        return result;
+        return result.values();
     }
 
     private PropertySource<Collection<SingleNodeFactory>> convertFactories(Collection<? extends NodeFactory> factories) {
@@ -204,8 +228,8 @@ public final class AnnotationChildNodes {
         nodeLock.lock();
         try {
             removedChildren = true;
-            removed = new ArrayList<>(currentNodeLists);
-            currentNodeLists = Collections.emptySet();
+            removed = new ArrayList<>(currentNodeLists.values());
+            currentNodeLists = Collections.emptyMap();
         } finally {
             nodeLock.unlock();
         }
@@ -6,8 +6,11 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.jtrim2.executor.UpdateTaskExecutor;
@@ -45,6 +48,11 @@ public final class BadgeAwareNode extends FilterNode {
     private final MutableProperty<FileObjects> fileObjs;
     private final ListenerRegistrations listenerRegs;
 
+    // Only accessed from the fileUpdater.
+    private Collection<File> lastResolvedFiles;
+
+    private volatile AnnotatedIconCache iconCache;
+
     private BadgeAwareNode(Node original, PropertySource<? extends Collection<File>> files) {
         super(original);
         Objects.requireNonNull(files, "files");
@@ -55,6 +63,8 @@ public final class BadgeAwareNode extends FilterNode {
         this.fileUpdater = NbTaskExecutors.newDefaultUpdateExecutor();
         this.iconChangeNotifier = SwingExecutors.getSwingUpdateExecutor(true);
         this.statusProperty = PropertyFactory.propertyOfProperty(fileObjs, arg -> new FileSystemStatusProperty(arg).toStandard());
+        this.lastResolvedFiles = null;
+        this.iconCache = new AnnotatedIconCache();
     }
 
     public static Node makeBadgeAware(Node original, PropertySource<? extends Collection<File>> files) {
@@ -78,18 +88,30 @@ public final class BadgeAwareNode extends FilterNode {
         return null;
     }
 
-    private void updateFilesNow(Collection<File> currentFiles) {
-        fileObjs.setValue(new FileObjects(currentFiles));
-    }
-
     private void updateFiles() {
         fileUpdater.execute(() -> {
             Collection<File> currentFiles = files.getValue();
-            updateFilesNow(currentFiles != null ? currentFiles : Collections.<File>emptySet());
+            if (currentFiles == null) {
+                currentFiles = Collections.emptySet();
+            }
+
+            // The files are usually reported again after each model reload,
+            // even if they did not change.
+            if (currentFiles.equals(lastResolvedFiles)) {
+                return;
+            }
+
+            FileObjects newFileObjs = new FileObjects(currentFiles);
+            // Files not resolved now (e.g., not yet created) might be resolved
+            // later, so we must not skip resolving them again.
+            lastResolvedFiles = newFileObjs.allResolved ? currentFiles : null;
+            // Does nothing if the resolved FileObjects did not change.
+            fileObjs.setValue(newFileObjs);
         });
     }
 
     private void updateIcons() {
+        iconCache = new AnnotatedIconCache();
         iconChangeNotifier.execute(this::updateIconsNow);
     }
 
@@ -104,19 +126,30 @@ public final class BadgeAwareNode extends FilterNode {
         listenerRegs.add(NbProperties.weakListenerProperty(statusProperty).addChangeListener(this::updateIcons));
     }
 
-    private Image annotate(Image src) {
+    private Image annotate(Image src, int type, boolean opened) {
+        if (src == null) {
+            return null;
+        }
+
+        // Read the cache first, so that we never store an icon annotated with
+        // an outdated status into a new cache.
+        AnnotatedIconCache currentCache = iconCache;
+        return currentCache.getAnnotatedIcon(new IconKey(src, type, opened), () -> annotateNow(src));
+    }
+
+    private Image annotateNow(Image src) {
         ImageDecorator status = statusProperty.getValue();
         return status != null ? status.annotateIcon(src, BeanInfo.ICON_COLOR_16x16, fileObjs.getValue().fileObjs) : src;
     }
 
     @Override
     public Image getOpenedIcon(int type) {
-        return annotate(super.getOpenedIcon(type));
+        return annotate(super.getOpenedIcon(type), type, true);
     }
 
     @Override
     public Image getIcon(int type) {
-        return annotate(super.getIcon(type));
+        return annotate(super.getIcon(type), type, false);
     }
 
     @Override
@@ -126,9 +159,80 @@ public final class BadgeAwareNode extends FilterNode {
         super.destroy();
     }
 
+    /**
+     * Stores the annotated icons for a particular state of the file system
+     * status. A new cache is created whenever the status changes, so the
+     * annotated icons need not to be recomputed each time the node is painted.
+     */
+    private static final class AnnotatedIconCache {
+        // There are only a few different base icons, so we don't need
+        // anything fancy here.
+        private static final int MAX_CACHED_ICONS = 8;
+
+        private final Map<IconKey, Image> icons;
+
+        public AnnotatedIconCache() {
+            this.icons = new HashMap<>();
+        }
+
+        public Image getAnnotatedIcon(IconKey key, Supplier<? extends Image> iconFactory) {
+            synchronized (icons) {
+                Image result = icons.get(key);
+                if (result != null) {
+                    return result;
+                }
+            }
+
+            Image result = iconFactory.get();
+            if (result != null) {
+                synchronized (icons) {
+                    if (icons.size() >= MAX_CACHED_ICONS) {
+                        icons.clear();
+                    }
+                    icons.put(key, result);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class IconKey {
+        private final Image baseIcon;
+        private final int type;
+        private final boolean opened;
+
+        public IconKey(Image baseIcon, int type, boolean opened) {
+            this.baseIcon = baseIcon;
+            this.type = type;
+            this.opened = opened;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 41 * hash + System.identityHashCode(baseIcon);
+            hash = 41 * hash + type;
+            hash = 41 * hash + (opened ? 1 : 0);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final IconKey other = (IconKey)obj;
+            return this.baseIcon == other.baseIcon
+                    && this.type == other.type
+                    && this.opened == other.opened;
+        }
+    }
+
     private static final class FileObjects {
         private final Set<FileObject> fileObjs;
         private final FileSystem fileSystem;
+        private final boolean allResolved;
 
         public FileObjects() {
             this(Collections.<File>emptySet());
@@ -136,15 +240,20 @@ public final class BadgeAwareNode extends FilterNode {
 
         public FileObjects(Collection<File> files) {
             Set<FileObject> newFileObjs = CollectionUtils.newHashSet(files.size());
+            boolean newAllResolved = true;
             for (File file: files) {
                 FileObject fileObj = file != null ? FileUtil.toFileObject(file) : null;
                 if (fileObj != null) {
                     newFileObjs.add(fileObj);
                 }
+                else if (file != null) {
+                    newAllResolved = false;
+                }
             }
 
             this.fileObjs = Collections.unmodifiableSet(newFileObjs);
             this.fileSystem = getFileSystem(newFileObjs);
+            this.allResolved = newAllResolved;
         }
 
         @Override
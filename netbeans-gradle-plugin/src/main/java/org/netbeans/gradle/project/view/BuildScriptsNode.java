@@ -11,11 +11,14 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.SwingUtilities;
 import org.jtrim2.cancel.Cancellation;
 import org.jtrim2.concurrent.AsyncTasks;
+import org.jtrim2.event.ListenerRef;
+import org.jtrim2.event.ListenerRefs;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbGradleProjectFactory;
 import org.netbeans.gradle.project.NbIcons;
@@ -30,6 +33,8 @@ import org.netbeans.gradle.project.util.RefreshableChildren;
 import org.netbeans.gradle.project.util.StringUtils;
 import org.openide.DialogDisplayer;
 import org.openide.NotifyDescriptor;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
 import org.openide.nodes.AbstractNode;
 import org.openide.nodes.ChildFactory;
 import org.openide.nodes.Children;
@@ -134,11 +139,15 @@ public final class BuildScriptsNode extends AbstractNode {
 
         private final NbGradleProject project;
         private final ListenerRegistrations listenerRefs;
+        private final AtomicReference<ScriptLocations> shownLocationsRef;
+        private final AtomicReference<BuildSrcListener> buildSrcListenerRef;
         private volatile boolean createdOnce;
 
         public BuildScriptChildFactory(NbGradleProject project) {
             this.project = Objects.requireNonNull(project, "project");
             this.listenerRefs = new ListenerRegistrations();
+            this.shownLocationsRef = new AtomicReference<>(null);
+            this.buildSrcListenerRef = new AtomicReference<>(null);
             this.createdOnce = false;
         }
 
@@ -149,14 +158,49 @@ public final class BuildScriptsNode extends AbstractNode {
             }
         }
 
+        private void onModelChanged() {
+            ScriptLocations locations = new ScriptLocations(project.currentModel().getValue());
+            updateBuildSrcListener(locations.settingsDir);
+
+            // The listed nodes only depend on the locations of the scripts
+            // (and the existence of buildSrc, which is tracked separately),
+            // so there is no need to recreate them after each model load.
+            if (!locations.equals(shownLocationsRef.get())) {
+                refreshChildren();
+            }
+        }
+
+        private void updateBuildSrcListener(Path settingsDir) {
+            BuildSrcListener prevListener = buildSrcListenerRef.get();
+            if (prevListener != null && prevListener.settingsDir.equals(settingsDir)) {
+                return;
+            }
+
+            BuildSrcListener newListener = new BuildSrcListener(settingsDir, this::refreshChildren);
+            if (buildSrcListenerRef.compareAndSet(prevListener, newListener)) {
+                if (prevListener != null) {
+                    prevListener.unregister();
+                }
+            }
+            else {
+                newListener.unregister();
+            }
+        }
+
         @Override
         protected void addNotify() {
-            listenerRefs.add(project.currentModel().addChangeListener(this::refreshChildren));
+            listenerRefs.add(project.currentModel().addChangeListener(this::onModelChanged));
+            updateBuildSrcListener(project.currentModel().getValue().getSettingsDir());
         }
 
         @Override
         protected void removeNotify() {
             listenerRefs.unregisterAll();
+
+            BuildSrcListener buildSrcListener = buildSrcListenerRef.getAndSet(null);
+            if (buildSrcListener != null) {
+                buildSrcListener.unregister();
+            }
         }
 
         private static void addProjectScriptsNode(
@@ -171,6 +215,7 @@ public final class BuildScriptsNode extends AbstractNode {
 
         private void readKeys(List<SingleNodeFactory> toPopulate) {
             NbGradleModel currentModel = project.currentModel().getValue();
+            shownLocationsRef.set(new ScriptLocations(currentModel));
 
             if (!currentModel.isBuildSrc()) {
                 Path buildSrc = getBuildSrcDir(currentModel);
@@ -203,6 +248,65 @@ public final class BuildScriptsNode extends AbstractNode {
         }
     }
 
+    private static final class ScriptLocations {
+        private final File projectDir;
+        private final Path settingsDir;
+        private final boolean buildSrc;
+
+        public ScriptLocations(NbGradleModel model) {
+            this.projectDir = model.getProjectDir();
+            this.settingsDir = model.getSettingsDir();
+            this.buildSrc = model.isBuildSrc();
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 41 * hash + Objects.hashCode(this.projectDir);
+            hash = 41 * hash + Objects.hashCode(this.settingsDir);
+            hash = 41 * hash + (this.buildSrc ? 1 : 0);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final ScriptLocations other = (ScriptLocations)obj;
+            return this.buildSrc == other.buildSrc
+                    && Objects.equals(this.projectDir, other.projectDir)
+                    && Objects.equals(this.settingsDir, other.settingsDir);
+        }
+    }
+
+    /**
+     * Listens for the creation and removal of the buildSrc directory, ignoring
+     * the changes of other files in the root project directory.
+     */
+    private static final class BuildSrcListener {
+        private final Path settingsDir;
+        private final ListenerRef listenerRef;
+
+        public BuildSrcListener(Path settingsDir, Runnable listener) {
+            this.settingsDir = settingsDir;
+
+            FileObject settingsDirObj = FileUtil.toFileObject(settingsDir.toFile());
+            this.listenerRef = settingsDirObj != null
+                    ? NbFileUtils.addDirectoryContentListener(
+                            settingsDirObj,
+                            true,
+                            CommonScripts.BUILD_SRC_NAME::equals,
+                            listener)
+                    : ListenerRefs.unregistered();
+        }
+
+        public void unregister() {
+            listenerRef.unregister();
+        }
+    }
+
     @SuppressWarnings("serial")
     private static class OpenOrCreateBuildSrc extends AbstractAction {
         private final NbGradleProject project;
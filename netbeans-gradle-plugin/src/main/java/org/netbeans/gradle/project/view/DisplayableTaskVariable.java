@@ -136,7 +136,8 @@ public enum DisplayableTaskVariable {
     }
 
     private VariableDef<NbGradleModel> asVariableDef() {
-        return new VariableDef<>(variable, valueGetter);
+        // The values only depend on the model which is replaced when reloaded.
+        return new VariableDef<>(variable, valueGetter, model -> model);
     }
 
     public TaskVariable getVariable() {
@@ -0,0 +1,292 @@
+package org.netbeans.gradle.project.view;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import org.jtrim2.event.ListenerRef;
+import org.netbeans.gradle.project.util.StringUtils;
+import org.openide.filesystems.FileChangeAdapter;
+import org.openide.filesystems.FileChangeListener;
+import org.openide.filesystems.FileEvent;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileRenameEvent;
+
+/**
+ * Maintains the list of files in a directory whose name is accepted by a
+ * filter. While changes are tracked, the list is updated from the file events
+ * of the directory instead of listing the directory again. The directory is
+ * only listed again if the received events were not processed in time (that is,
+ * too many events were received since the last query) or if the directory
+ * itself was deleted.
+ * <P>
+ * The methods of this class are safe to be called from multiple threads
+ * concurrently.
+ */
+final class FilteredDirectoryFiles {
+    private static final int MAX_PENDING_CHANGES = 256;
+
+    private final FileObject dir;
+    private final Predicate<? super String> nameFilter;
+
+    private final Lock mainLock;
+    private int trackerCount;
+    private long rescanRequestCount;
+    private Map<String, FileObject> files;
+    private List<FileChange> pendingChanges;
+
+    public FilteredDirectoryFiles(FileObject dir, Predicate<? super String> nameFilter) {
+        this.dir = Objects.requireNonNull(dir, "dir");
+        this.nameFilter = Objects.requireNonNull(nameFilter, "nameFilter");
+
+        this.mainLock = new ReentrantLock();
+        this.trackerCount = 0;
+        this.rescanRequestCount = 0;
+        this.files = null;
+        this.pendingChanges = new ArrayList<>();
+    }
+
+    /**
+     * Starts updating the list of files from the events of the directory
+     * until the returned reference is unregistered.
+     *
+     * @param changeListener the listener to be notified after a file accepted
+     *   by the filter was created, deleted or renamed. This argument cannot be
+     *   {@code null}.
+     * @return the reference which can be used to stop tracking the changes.
+     *   This method never returns {@code null}.
+     */
+    public ListenerRef trackChanges(Runnable changeListener) {
+        Objects.requireNonNull(changeListener, "changeListener");
+
+        FileChangeListener fileListener = new FileChangeAdapter() {
+            @Override
+            public void fileDataCreated(FileEvent fe) {
+                FileObject file = fe.getFile();
+                if (nameFilter.test(file.getNameExt())) {
+                    addChange(new FileChange(file.getNameExt(), file));
+                    changeListener.run();
+                }
+            }
+
+            @Override
+            public void fileDeleted(FileEvent fe) {
+                FileObject file = fe.getFile();
+                if (file.equals(dir)) {
+                    requestRescan();
+                    changeListener.run();
+                }
+                else if (nameFilter.test(file.getNameExt())) {
+                    addChange(new FileChange(file.getNameExt(), null));
+                    changeListener.run();
+                }
+            }
+
+            @Override
+            public void fileRenamed(FileRenameEvent fe) {
+                FileObject file = fe.getFile();
+                if (file.equals(dir)) {
+                    return;
+                }
+
+                String ext = fe.getExt();
+                String prevName = ext.isEmpty() ? fe.getName() : fe.getName() + "." + ext;
+
+                boolean changed = false;
+                if (nameFilter.test(prevName)) {
+                    addChange(new FileChange(prevName, null));
+                    changed = true;
+                }
+                if (file.isData() && nameFilter.test(file.getNameExt())) {
+                    addChange(new FileChange(file.getNameExt(), file));
+                    changed = true;
+                }
+
+                if (changed) {
+                    changeListener.run();
+                }
+            }
+        };
+
+        dir.addFileChangeListener(fileListener);
+
+        mainLock.lock();
+        try {
+            trackerCount++;
+            // The files might have been changed before we started listening.
+            clearFiles();
+        } finally {
+            mainLock.unlock();
+        }
+
+        return new ListenerRef() {
+            private volatile boolean registered = true;
+
+            @Override
+            public boolean isRegistered() {
+                return registered;
+            }
+
+            @Override
+            public void unregister() {
+                if (!registered) {
+                    return;
+                }
+                registered = false;
+
+                dir.removeFileChangeListener(fileListener);
+                stopTracking();
+            }
+        };
+    }
+
+    private void stopTracking() {
+        mainLock.lock();
+        try {
+            trackerCount--;
+            if (trackerCount == 0) {
+                // We won't be notified about the changes from now on.
+                clearFiles();
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void requestRescan() {
+        mainLock.lock();
+        try {
+            clearFiles();
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void clearFiles() {
+        assert ((ReentrantLock)mainLock).isHeldByCurrentThread();
+
+        rescanRequestCount++;
+        files = null;
+        pendingChanges = new ArrayList<>();
+    }
+
+    private void addChange(FileChange change) {
+        mainLock.lock();
+        try {
+            if (pendingChanges.size() >= MAX_PENDING_CHANGES) {
+                // Overflow: It is cheaper to list the directory again.
+                clearFiles();
+                return;
+            }
+            pendingChanges.add(change);
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private Map<String, FileObject> scanDirectory() {
+        Map<String, FileObject> result = new HashMap<>();
+        for (FileObject file: dir.getChildren()) {
+            String name = file.getNameExt();
+            if (file.isData() && nameFilter.test(name)) {
+                result.put(name, file);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the files of the directory accepted by the filter, ordered by
+     * their names.
+     *
+     * @return the files of the directory accepted by the filter. This method
+     *   never returns {@code null}.
+     */
+    public List<FileObject> getFiles() {
+        long scanRequestCount;
+        List<FileObject> currentFiles = null;
+
+        mainLock.lock();
+        try {
+            if (files != null) {
+                currentFiles = applyPendingChanges();
+            }
+            scanRequestCount = rescanRequestCount;
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (currentFiles != null) {
+            return sortedFiles(currentFiles);
+        }
+
+        Map<String, FileObject> scannedFiles = scanDirectory();
+
+        mainLock.lock();
+        try {
+            // The pending changes might have already been reflected by the
+            // listing but applying them again is harmless because the last
+            // change of a file determines its state.
+            if (files == null && trackerCount > 0 && scanRequestCount == rescanRequestCount) {
+                files = scannedFiles;
+            }
+            if (files != null) {
+                currentFiles = applyPendingChanges();
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        // If we could not store the result of the listing, then some changes
+        // might have been lost during the listing, so it must not be relied
+        // on later.
+        return sortedFiles(currentFiles != null ? currentFiles : scannedFiles.values());
+    }
+
+    private List<FileObject> applyPendingChanges() {
+        assert ((ReentrantLock)mainLock).isHeldByCurrentThread();
+
+        for (FileChange change: pendingChanges) {
+            change.applyTo(files);
+        }
+        pendingChanges = new ArrayList<>();
+
+        return new ArrayList<>(files.values());
+    }
+
+    private static List<FileObject> sortedFiles(Collection<FileObject> files) {
+        List<FileObject> result = new ArrayList<>(files.size());
+        for (FileObject file: files) {
+            if (file.isValid()) {
+                result.add(file);
+            }
+        }
+        result.sort(Comparator.comparing(FileObject::getNameExt, StringUtils.STR_CMP::compare));
+        return result;
+    }
+
+    private static final class FileChange {
+        private final String name;
+        private final FileObject file;
+
+        public FileChange(String name, FileObject file) {
+            this.name = name;
+            this.file = file;
+        }
+
+        public void applyTo(Map<String, FileObject> files) {
+            if (file != null) {
+                files.put(name, file);
+            }
+            else {
+                files.remove(name);
+            }
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package org.netbeans.gradle.project.view;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
@@ -25,6 +28,7 @@ import org.netbeans.gradle.project.tasks.GradleTaskDef;
 import org.netbeans.gradle.project.tasks.GradleTaskDefFactory;
 import org.netbeans.gradle.project.tasks.GradleTasks;
 import org.netbeans.spi.project.ActionProvider;
+import org.netbeans.spi.project.SingleMethod;
 import org.openide.filesystems.FileObject;
 import org.openide.loaders.DataObject;
 import org.openide.util.Lookup;
@@ -37,10 +41,22 @@ public final class GradleActionProvider implements ActionProvider {
     public static final String COMMAND_RELOAD = "reload";
     public static final String COMMAND_SET_AS_MAIN_PROJECT = "setAsMain";
 
+    // Commands which might keep running indefinitely (until the user stops
+    // the application or the debugger).
+    private static final Set<String> LONG_RUNNING_COMMANDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            ActionProvider.COMMAND_RUN,
+            ActionProvider.COMMAND_RUN_SINGLE,
+            ActionProvider.COMMAND_DEBUG,
+            ActionProvider.COMMAND_DEBUG_SINGLE,
+            ActionProvider.COMMAND_DEBUG_TEST_SINGLE,
+            SingleMethod.COMMAND_DEBUG_SINGLE_METHOD)));
+
     private final NbGradleProject project;
+    private volatile SupportedActions supportedActions;
 
     public GradleActionProvider(NbGradleProject project) {
         this.project = project;
+        this.supportedActions = null;
     }
 
     public static String getCommandStr(Lookup context, String defaultCommandStr) {
@@ -50,12 +66,16 @@ public final class GradleActionProvider implements ActionProvider {
 
     @Override
     public String[] getSupportedActions() {
-        String[] actions = project.getMergedCommandQuery().getSupportedCommands().toArray(new String[0]);
-        String[] result = new String[actions.length + 2];
-        System.arraycopy(actions, 0, result, 0, actions.length);
-        result[actions.length + 0] = COMMAND_RELOAD;
-        result[actions.length + 1] = COMMAND_SET_AS_MAIN_PROJECT;
-        return result;
+        // The merged query returns the same set until the extensions change,
+        // so we only have to rebuild the array when the set changes.
+        Set<String> commands = project.getMergedCommandQuery().getSupportedCommands();
+
+        SupportedActions result = supportedActions;
+        if (result == null || result.commands != commands) {
+            result = new SupportedActions(commands);
+            supportedActions = result;
+        }
+        return result.actions;
     }
 
     @Override
@@ -68,7 +88,9 @@ public final class GradleActionProvider implements ActionProvider {
 
     @Override
     public boolean isActionEnabled(String command, Lookup context) {
-        return createAction(command, context) != null;
+        // createAction returns a task for every non-null command, there is
+        // no need to actually create it.
+        return command != null;
     }
 
     protected List<FileObject> getFilesOfContext(Lookup context) {
@@ -231,10 +253,12 @@ public final class GradleActionProvider implements ActionProvider {
                     displayName = task.getDisplayName();
                 }
 
-                return GradleTaskDef.createFromTemplate(project,
+                GradleTaskDef.Builder result = GradleTaskDef.createFromTemplate(project,
                         task.toCommandTemplate(displayName),
                         customActions,
-                        appliedContext).create();
+                        appliedContext);
+                result.setLongRunning(LONG_RUNNING_COMMANDS.contains(command));
+                return result.create();
             }
         };
 
@@ -252,8 +276,31 @@ public final class GradleActionProvider implements ActionProvider {
                     }
                 }
             } finally {
-                GradleTasks.projectTaskCompleteListener(project).onComplete(error);
+                try {
+                    GradleTasks.projectTaskCompleteListener(project).onComplete(error);
+                } finally {
+                    // Allows the caller of the action to know when the command
+                    // completed (e.g.: to avoid submitting overlapping builds).
+                    CommandCompleteListener contextListener = appliedContext.lookup(CommandCompleteListener.class);
+                    if (contextListener != null) {
+                        contextListener.onComplete(error);
+                    }
+                }
             }
         });
     }
+
+    private static final class SupportedActions {
+        public final Set<String> commands;
+        public final String[] actions;
+
+        public SupportedActions(Set<String> commands) {
+            this.commands = commands;
+
+            String[] result = commands.toArray(new String[commands.size() + 2]);
+            result[commands.size() + 0] = COMMAND_RELOAD;
+            result[commands.size() + 1] = COMMAND_SET_AS_MAIN_PROJECT;
+            this.actions = result;
+        }
+    }
 }
@@ -163,7 +163,11 @@ public final class GradleFolderNode extends AbstractNode {
 
         @Override
         protected void addNotify() {
-            listenerRegistrations.add(NbFileUtils.addDirectoryContentListener(dir, this::refreshChildren));
+            listenerRegistrations.add(NbFileUtils.addDirectoryContentListener(
+                    dir,
+                    false,
+                    scriptProvider::isScriptFileName,
+                    this::refreshChildren));
         }
 
         @Override
@@ -7,6 +7,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
@@ -44,6 +46,10 @@ implements
 
     private static final Logger LOGGER = Logger.getLogger(GradleProjectChildFactory.class.getName());
 
+    // The same factories are checked after each model load, we don't want to
+    // spam the log with the same warning.
+    private static final Set<String> WARNED_NODE_FACTORY_CLASSES = ConcurrentHashMap.newKeySet();
+
     private final NbGradleProject project;
     private final GradleProjectLogicalViewProvider parent;
     private final AtomicReference<NodeExtensions> nodeExtensionsRef;
@@ -227,52 +233,12 @@ implements
     }
 
     private void addChildren(List<SingleNodeFactory> toPopulate) {
-        final NbGradleModel shownModule = getShownModule();
-        final Collection<NbGradleProjectTree> immediateChildren
-                = shownModule.getMainProject().getChildren();
-
-        if (immediateChildren.isEmpty()) {
+        NbGradleModel shownModule = getShownModule();
+        if (shownModule.getMainProject().getChildren().isEmpty()) {
             return;
         }
-        final List<NbGradleProjectTree> children = getAllChildren(shownModule);
-
-        toPopulate.add(() -> new FilterNode(
-                createSimpleNode(),
-                createSubprojectsChild(),
-                Lookups.singleton(shownModule.getMainProject())) {
-                    @Override
-                    public String getName() {
-                        return "SubProjectsNode_" + getShownModule().getMainProject().getProjectFullName().replace(':', '_');
-                    }
-
-                    @Override
-                    public Action[] getActions(boolean context) {
-                        return new Action[] {
-                            createOpenAction(NbStrings.getOpenImmediateSubProjectsCaption(), immediateChildren),
-                            createOpenAction(NbStrings.getOpenSubProjectsCaption(), children)
-                        };
-                    }
-
-                    @Override
-                    public String getDisplayName() {
-                        return NbStrings.getSubProjectsCaption();
-                    }
-
-                    @Override
-                    public Image getIcon(int type) {
-                        return NbIcons.getGradleIcon();
-                    }
 
-                    @Override
-                    public Image getOpenedIcon(int type) {
-                        return getIcon(type);
-                    }
-
-                    @Override
-                    public boolean canRename() {
-                        return false;
-                    }
-                });
+        toPopulate.add(new SubProjectsNodeFactory(this, shownModule));
     }
 
     private void readKeys(List<SingleNodeFactory> toPopulate) throws DataObjectNotFoundException {
@@ -301,6 +267,94 @@ implements
         return true;
     }
 
+    /**
+     * Defines the key of the node listing the subprojects. Two keys are equal
+     * if they list the same subprojects, so that reloading the project does
+     * not recreate (and collapse) the subprojects node unless the structure
+     * of the multi-project build changes.
+     */
+    private static final class SubProjectsNodeFactory implements SingleNodeFactory {
+        private final GradleProjectChildFactory childFactory;
+        private final NbGradleProjectTree mainProject;
+        private final Collection<NbGradleProjectTree> immediateChildren;
+        private final List<NbGradleProjectTree> children;
+        private final List<String> childIds;
+
+        public SubProjectsNodeFactory(GradleProjectChildFactory childFactory, NbGradleModel shownModule) {
+            this.childFactory = childFactory;
+            this.mainProject = shownModule.getMainProject();
+            this.immediateChildren = mainProject.getChildren();
+            this.children = getAllChildren(shownModule);
+
+            List<String> ids = new ArrayList<>(children.size() + 1);
+            ids.add(mainProject.getProjectDir().getPath());
+            for (NbGradleProjectTree child: children) {
+                ids.add(child.getProjectFullName() + "@" + child.getProjectDir().getPath());
+            }
+            this.childIds = ids;
+        }
+
+        @Override
+        public Node createNode() {
+            return new FilterNode(
+                    childFactory.createSimpleNode(),
+                    childFactory.createSubprojectsChild(),
+                    Lookups.singleton(mainProject)) {
+                @Override
+                public String getName() {
+                    return "SubProjectsNode_" + childFactory.getShownModule().getMainProject().getProjectFullName().replace(':', '_');
+                }
+
+                @Override
+                public Action[] getActions(boolean context) {
+                    return new Action[] {
+                        createOpenAction(NbStrings.getOpenImmediateSubProjectsCaption(), immediateChildren),
+                        createOpenAction(NbStrings.getOpenSubProjectsCaption(), children)
+                    };
+                }
+
+                @Override
+                public String getDisplayName() {
+                    return NbStrings.getSubProjectsCaption();
+                }
+
+                @Override
+                public Image getIcon(int type) {
+                    return NbIcons.getGradleIcon();
+                }
+
+                @Override
+                public Image getOpenedIcon(int type) {
+                    return getIcon(type);
+                }
+
+                @Override
+                public boolean canRename() {
+                    return false;
+                }
+            };
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 3;
+            hash = 59 * hash + System.identityHashCode(childFactory);
+            hash = 59 * hash + childIds.hashCode();
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final SubProjectsNodeFactory other = (SubProjectsNodeFactory)obj;
+            return this.childFactory == other.childFactory
+                    && this.childIds.equals(other.childIds);
+        }
+    }
+
     private static boolean isAllAnnotatedWith(
             Collection<?> objects,
             Class<? extends Annotation> annotation) {
@@ -350,7 +404,8 @@ implements
             if (result.isNeedRefreshOnProjectReload()) {
                 for (GradleProjectExtensionNodes nodeFactory: nodeFactories) {
                     Class<?> nodeFactoryClass = nodeFactory.getClass();
-                    if (!nodeFactoryClass.isAnnotationPresent(ManualRefreshedNodes.class)) {
+                    if (!nodeFactoryClass.isAnnotationPresent(ManualRefreshedNodes.class)
+                            && WARNED_NODE_FACTORY_CLASSES.add(nodeFactoryClass.getName())) {
                         LOGGER.log(Level.WARNING,
                                 "{0} is not annotated with ManualRefreshedNodes and this will cause project node refresh on all model loads.",
                                 nodeFactoryClass.getName());
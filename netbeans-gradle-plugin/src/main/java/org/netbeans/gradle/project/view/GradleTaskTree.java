@@ -7,9 +7,11 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
+import org.jtrim2.utils.LazyValues;
 import org.netbeans.gradle.model.GradleTaskID;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.model.util.MultiMapUtils;
@@ -21,25 +23,26 @@ public final class GradleTaskTree {
 
     private final String caption;
     private final GradleTaskID taskID;
-    private final List<GradleTaskTree> children;
+    private final Supplier<List<GradleTaskTree>> children;
 
     public GradleTaskTree(GradleTaskID taskID) {
         this.taskID = Objects.requireNonNull(taskID, "taskID");
         this.caption = taskID.getName();
-        this.children = Collections.emptyList();
+        this.children = Collections::emptyList;
     }
 
     public GradleTaskTree(String caption, List<GradleTaskTree> children) {
-        this(caption, null, children);
-    }
+        List<GradleTaskTree> childrenCopy = CollectionUtils.copyNullSafeList(children);
 
-    private GradleTaskTree(
-            String caption,
-            GradleTaskID taskID,
-            List<GradleTaskTree> children) {
         this.caption = Objects.requireNonNull(caption, "caption");
-        this.taskID = taskID;
-        this.children = CollectionUtils.copyNullSafeList(children);
+        this.taskID = null;
+        this.children = () -> childrenCopy;
+    }
+
+    private GradleTaskTree(String caption, Supplier<List<GradleTaskTree>> childrenFactory) {
+        this.caption = caption;
+        this.taskID = null;
+        this.children = LazyValues.lazyValue(childrenFactory);
     }
 
     public String getCaption() {
@@ -51,8 +54,17 @@ public final class GradleTaskTree {
         return taskID;
     }
 
+    /**
+     * Returns the child nodes of this node. The children of groups created by
+     * {@link #createTaskTree(int, Collection) createTaskTree} are only
+     * created when this method is first called, so that a tree of many tasks
+     * is only built as far as it is actually displayed.
+     *
+     * @return the child nodes of this node. This method never returns
+     *   {@code null}.
+     */
     public List<GradleTaskTree> getChildren() {
-        return children;
+        return children.get();
     }
 
     public static List<GradleTaskTree> createTaskTree(Collection<GradleTaskID> tasks) {
@@ -124,10 +136,7 @@ public final class GradleTaskTree {
         int childrenCount = childTasks.size();
         if (childrenCount > 1) {
             String key = entry.getKey();
-
-            List<GradleTaskTree> subTrees
-                    = createTaskTree(taskLimit, key.length(), childTasks);
-            return new GradleTaskTree(key, subTrees);
+            return new GradleTaskTree(key, () -> createTaskTree(taskLimit, key.length(), childTasks));
         }
         else if (childrenCount == 1) {
             return new GradleTaskTree(childTasks.get(0));
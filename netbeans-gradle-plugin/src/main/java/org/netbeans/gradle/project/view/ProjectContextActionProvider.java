@@ -28,6 +28,7 @@ import org.netbeans.gradle.project.api.nodes.GradleProjectContextActions;
 import org.netbeans.gradle.project.api.task.CustomCommandActions;
 import org.netbeans.gradle.project.api.task.GradleCommandTemplate;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
+import org.netbeans.gradle.project.model.GradleTaskIndex;
 import org.netbeans.gradle.project.model.NbGradleModel;
 import org.netbeans.gradle.project.properties.NbGradleCommonProperties;
 import org.netbeans.gradle.project.properties.PredefinedTask;
@@ -443,29 +444,22 @@ public final class ProjectContextActionProvider implements ContextActionProvider
         private final NbGradleProject project;
         private final JMenu menu;
         private NbGradleModel lastUsedModel;
+        private GradleTaskIndex lastTaskIndex;
 
         public TasksMenuBuilder(NbGradleProject project, JMenu menu) {
             this.project = Objects.requireNonNull(project, "project");
             this.menu = Objects.requireNonNull(menu, "menu");
             this.lastUsedModel = null;
+            this.lastTaskIndex = null;
         }
 
         private void addToMenu(JMenu rootMenu, List<GradleTaskTree> rootNodes) {
             for (GradleTaskTree root: rootNodes) {
-                List<GradleTaskTree> children = root.getChildren();
+                final GradleTaskID taskID = root.getTaskID();
 
                 JMenuItem toAdd;
-                if (children.isEmpty()) {
-                    toAdd = new JMenuItem(root.getCaption());
-                }
-                else {
-                    JMenu subMenu = new JMenu(root.getCaption());
-                    toAdd = subMenu;
-                    addToMenu(subMenu, children);
-                }
-
-                final GradleTaskID taskID = root.getTaskID();
                 if (taskID != null) {
+                    toAdd = new JMenuItem(root.getCaption());
                     toAdd.addActionListener((ActionEvent e) -> {
                         GradleCommandTemplate.Builder command
                                 = new GradleCommandTemplate.Builder("", Arrays.asList(taskID.getFullName()));
@@ -473,11 +467,41 @@ public final class ProjectContextActionProvider implements ContextActionProvider
                         executeCommandTemplate(project, command.create());
                     });
                 }
+                else {
+                    toAdd = createLazySubMenu(root);
+                }
 
                 rootMenu.add(toAdd);
             }
         }
 
+        private JMenu createLazySubMenu(GradleTaskTree group) {
+            // Builds including thousands of tasks have many groups, most of
+            // them are never opened. So we only create the items of a group
+            // when it is first opened.
+            JMenu subMenu = new JMenu(group.getCaption());
+            subMenu.addMenuListener(new MenuListener() {
+                private boolean filled = false;
+
+                @Override
+                public void menuSelected(MenuEvent e) {
+                    if (!filled) {
+                        filled = true;
+                        addToMenu(subMenu, group.getChildren());
+                    }
+                }
+
+                @Override
+                public void menuDeselected(MenuEvent e) {
+                }
+
+                @Override
+                public void menuCanceled(MenuEvent e) {
+                }
+            });
+            return subMenu;
+        }
+
         public void updateMenuContent() {
             NbGradleModel projectModel = project.currentModel().getValue();
             if (lastUsedModel == projectModel) {
@@ -486,10 +510,17 @@ public final class ProjectContextActionProvider implements ContextActionProvider
 
             lastUsedModel = projectModel;
 
-            Collection<GradleTaskID> tasks = projectModel.getMainProject().getTasks();
+            GradleTaskIndex taskIndex = projectModel.getMainProject().getTaskIndex();
+            if (taskIndex.hasSameTasks(lastTaskIndex)) {
+                // Reloading the project rarely changes its tasks, so keep the
+                // menu (including the already opened groups).
+                return;
+            }
+
+            lastTaskIndex = taskIndex;
 
             menu.removeAll();
-            addToMenu(menu, GradleTaskTree.createTaskTree(tasks));
+            addToMenu(menu, GradleTaskTree.createTaskTree(taskIndex.getTasks()));
         }
     }
 
@@ -4,7 +4,6 @@ import java.awt.Image;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import javax.swing.Action;
@@ -17,7 +16,6 @@ import org.netbeans.gradle.project.script.ScriptFileProvider;
 import org.netbeans.gradle.project.util.ListenerRegistrations;
 import org.netbeans.gradle.project.util.NbFileUtils;
 import org.netbeans.gradle.project.util.RefreshableChildren;
-import org.netbeans.gradle.project.util.StringUtils;
 import org.netbeans.spi.project.ui.PathFinder;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
@@ -144,11 +142,15 @@ public final class ProjectScriptFilesNode extends AbstractNode {
     implements
             RefreshableChildren {
         private final NbGradleProject project;
+        private final FilteredDirectoryFiles scriptFiles;
         private final ListenerRegistrations listenerRefs;
         private volatile boolean createdOnce;
 
         public ProjectScriptFilesChildFactory(NbGradleProject project) {
             this.project = Objects.requireNonNull(project, "project");
+            this.scriptFiles = new FilteredDirectoryFiles(
+                    project.getProjectDirectory(),
+                    project.getScriptFileProvider()::isScriptFileName);
             this.listenerRefs = new ListenerRegistrations();
             this.createdOnce = false;
         }
@@ -165,7 +167,12 @@ public final class ProjectScriptFilesNode extends AbstractNode {
             Runnable refreshChildrenTask = this::refreshChildren;
 
             listenerRefs.add(project.currentModel().addChangeListener(refreshChildrenTask));
-            listenerRefs.add(NbFileUtils.addDirectoryContentListener(project.getProjectDirectory(), refreshChildrenTask));
+            listenerRefs.add(scriptFiles.trackChanges(refreshChildrenTask));
+            listenerRefs.add(NbFileUtils.addDirectoryContentListener(
+                    project.getProjectDirectory(),
+                    false,
+                    CommonScripts.GRADLE_PROPERTIES_NAME::equalsIgnoreCase,
+                    refreshChildrenTask));
         }
 
         @Override
@@ -226,24 +233,11 @@ public final class ProjectScriptFilesNode extends AbstractNode {
                 addFileObject(propertiesFile, toPopulate);
             }
 
-            ScriptFileProvider scriptFileProvider = project.getScriptFileProvider();
-
-            List<FileObject> gradleFiles = new ArrayList<>();
-            for (FileObject file: project.getProjectDirectory().getChildren()) {
-                if (file.equals(buildGradle) || file.equals(settingsGradle) || file.isFolder()) {
-                    continue;
-                }
-
-                if (scriptFileProvider.isScriptFileName(file.getNameExt())) {
-                    gradleFiles.add(file);
+            for (FileObject file: scriptFiles.getFiles()) {
+                if (!file.equals(buildGradle) && !file.equals(settingsGradle)) {
+                    addGradleFile(file, toPopulate);
                 }
             }
-
-            gradleFiles.sort(Comparator.comparing(FileObject::getNameExt, StringUtils.STR_CMP::compare));
-
-            for (FileObject file: gradleFiles) {
-                addGradleFile(file, toPopulate);
-            }
         }
 
         @Override
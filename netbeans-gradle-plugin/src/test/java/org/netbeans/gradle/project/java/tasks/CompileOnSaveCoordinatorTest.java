@@ -0,0 +1,205 @@
+package org.netbeans.gradle.project.java.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompileOnSaveCoordinatorTest {
+    private static final long QUIET_PERIOD_MS = 50;
+    private static final long WAIT_TIMEOUT_MS = 10000;
+
+    private static CompileOnSaveCoordinator<String, String> createCoordinator(BuildRecorder recorder) {
+        return createCoordinator(recorder, WAIT_TIMEOUT_MS * 10);
+    }
+
+    private static CompileOnSaveCoordinator<String, String> createCoordinator(
+            BuildRecorder recorder,
+            long maxBuildTimeMs) {
+        // Projects are named as "root:subproject".
+        return new CompileOnSaveCoordinator<>(
+                QUIET_PERIOD_MS,
+                maxBuildTimeMs,
+                project -> project.substring(0, project.indexOf(':')),
+                recorder);
+    }
+
+    @Test(timeout = 30000)
+    public void testSavesOfTheSameProjectAreBuiltOnce() throws Exception {
+        BuildRecorder recorder = new BuildRecorder();
+        CompileOnSaveCoordinator<String, String> coordinator = createCoordinator(recorder);
+
+        coordinator.fileSaved("root:app", "A.java");
+        coordinator.fileSaved("root:app", "B.java");
+        coordinator.fileSaved("root:app", "A.java");
+
+        Build build = recorder.takeBuild();
+        assertEquals("root:app", build.project);
+        assertEquals(Arrays.asList("A.java", "B.java"), build.files);
+
+        build.complete();
+        recorder.assertNoBuild();
+    }
+
+    @Test(timeout = 30000)
+    public void testSavesOfDifferentProjectsAreBuiltSeparately() throws Exception {
+        BuildRecorder recorder = new BuildRecorder();
+        CompileOnSaveCoordinator<String, String> coordinator = createCoordinator(recorder);
+
+        coordinator.fileSaved("root:app", "A.java");
+        coordinator.fileSaved("root:lib", "B.java");
+
+        Build build1 = recorder.takeBuild();
+        Build build2 = recorder.takeBuild();
+
+        assertEquals("root:app", build1.project);
+        assertEquals(Arrays.asList("A.java"), build1.files);
+        assertEquals("root:lib", build2.project);
+        assertEquals(Arrays.asList("B.java"), build2.files);
+    }
+
+    @Test(timeout = 30000)
+    public void testSavesDuringBuildAreFoldedIntoNextBuild() throws Exception {
+        BuildRecorder recorder = new BuildRecorder();
+        CompileOnSaveCoordinator<String, String> coordinator = createCoordinator(recorder);
+
+        coordinator.fileSaved("root:app", "A.java");
+        Build build1 = recorder.takeBuild();
+
+        coordinator.fileSaved("root:app", "B.java");
+        coordinator.fileSaved("root:lib", "C.java");
+        coordinator.fileSaved("root:app", "D.java");
+        recorder.assertNoBuild();
+
+        build1.complete();
+
+        Build build2 = recorder.takeBuild();
+        Build build3 = recorder.takeBuild();
+        assertEquals("root:app", build2.project);
+        assertEquals(Arrays.asList("B.java", "D.java"), build2.files);
+        assertEquals("root:lib", build3.project);
+        assertEquals(Arrays.asList("C.java"), build3.files);
+
+        // The next batch must wait for all builds of the previous batch.
+        coordinator.fileSaved("root:app", "E.java");
+        build2.complete();
+        recorder.assertNoBuild();
+
+        build3.complete();
+        assertEquals(Arrays.asList("E.java"), recorder.takeBuild().files);
+    }
+
+    @Test(timeout = 30000)
+    public void testDifferentRootBuildsDoNotWaitForEachOther() throws Exception {
+        BuildRecorder recorder = new BuildRecorder();
+        CompileOnSaveCoordinator<String, String> coordinator = createCoordinator(recorder);
+
+        coordinator.fileSaved("root1:app", "A.java");
+        recorder.takeBuild();
+
+        coordinator.fileSaved("root2:app", "B.java");
+        Build build = recorder.takeBuild();
+        assertEquals("root2:app", build.project);
+    }
+
+    @Test(timeout = 30000)
+    public void testBuildIsNotAwaitedForever() throws Exception {
+        BuildRecorder recorder = new BuildRecorder();
+        CompileOnSaveCoordinator<String, String> coordinator = createCoordinator(recorder, 10 * QUIET_PERIOD_MS);
+
+        coordinator.fileSaved("root:app", "A.java");
+        Build build1 = recorder.takeBuild();
+
+        coordinator.fileSaved("root:app", "B.java");
+        Build build2 = recorder.takeBuild();
+        assertEquals(Arrays.asList("B.java"), build2.files);
+
+        // Late notification must not affect the current batch.
+        build1.complete();
+        coordinator.fileSaved("root:app", "C.java");
+        recorder.assertNoBuild();
+
+        build2.complete();
+        assertEquals(Arrays.asList("C.java"), recorder.takeBuild().files);
+    }
+
+    @Test(timeout = 30000)
+    public void testNotStartedBuildDoesNotBlockLaterSaves() throws Exception {
+        BuildRecorder recorder = new BuildRecorder();
+        recorder.startBuilds = false;
+        CompileOnSaveCoordinator<String, String> coordinator = createCoordinator(recorder);
+
+        coordinator.fileSaved("root:app", "A.java");
+        recorder.takeBuild();
+
+        coordinator.fileSaved("root:app", "B.java");
+        assertEquals(Arrays.asList("B.java"), recorder.takeBuild().files);
+    }
+
+    @Test(timeout = 30000)
+    public void testRootKeyIsNotResolvedOnSavingThread() throws Exception {
+        BuildRecorder recorder = new BuildRecorder();
+        Thread savingThread = Thread.currentThread();
+        AtomicReference<Thread> resolvingThreadRef = new AtomicReference<>();
+
+        CompileOnSaveCoordinator<String, String> coordinator = new CompileOnSaveCoordinator<>(
+                QUIET_PERIOD_MS,
+                WAIT_TIMEOUT_MS * 10,
+                project -> {
+                    resolvingThreadRef.set(Thread.currentThread());
+                    return project.substring(0, project.indexOf(':'));
+                },
+                recorder);
+
+        coordinator.fileSaved("root:app", "A.java");
+        recorder.takeBuild();
+
+        assertNotNull(resolvingThreadRef.get());
+        assertNotSame(savingThread, resolvingThreadRef.get());
+    }
+
+    private static final class Build {
+        public final String project;
+        public final List<String> files;
+        private final Runnable completeListener;
+
+        public Build(String project, Collection<String> files, Runnable completeListener) {
+            this.project = project;
+            this.files = new ArrayList<>(files);
+            this.completeListener = completeListener;
+        }
+
+        public void complete() {
+            completeListener.run();
+        }
+    }
+
+    private static final class BuildRecorder implements CompileOnSaveCoordinator.BatchBuilder<String, String> {
+        private final BlockingQueue<Build> builds = new LinkedBlockingQueue<>();
+        public volatile boolean startBuilds = true;
+
+        @Override
+        public boolean tryStartBuild(String project, Collection<String> files, Runnable completeListener) {
+            builds.add(new Build(project, files, completeListener));
+            return startBuilds;
+        }
+
+        public Build takeBuild() throws InterruptedException {
+            Build result = builds.poll(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            assertNotNull("Expected a build.", result);
+            return result;
+        }
+
+        public void assertNoBuild() throws InterruptedException {
+            Build build = builds.poll(4 * QUIET_PERIOD_MS, TimeUnit.MILLISECONDS);
+            assertNull("Unexpected build.", build);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.netbeans.gradle.project.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.netbeans.gradle.model.GradleTaskID;
+
+import static org.junit.Assert.*;
+
+public class GradleTaskIndexTest {
+    private static GradleTaskIndex createIndex(String... taskNames) {
+        List<GradleTaskID> tasks = new ArrayList<>(taskNames.length);
+        for (String taskName: taskNames) {
+            tasks.add(new GradleTaskID(taskName, ":Project:" + taskName));
+        }
+        return new GradleTaskIndex(tasks);
+    }
+
+    @Test
+    public void testContainsTask() {
+        GradleTaskIndex index = createIndex("build", "compileJava", "test");
+
+        assertTrue(index.containsTask("build"));
+        assertTrue(index.containsTask("compileJava"));
+        assertFalse(index.containsTask("compile"));
+        assertFalse(index.containsTask("Build"));
+    }
+
+    @Test
+    public void testHasSameTasks() {
+        GradleTaskIndex index1 = createIndex("build", "test");
+
+        assertTrue(index1.hasSameTasks(createIndex("build", "test")));
+        assertFalse(index1.hasSameTasks(createIndex("test", "build")));
+        assertFalse(index1.hasSameTasks(createIndex("build")));
+        assertFalse(index1.hasSameTasks(null));
+    }
+}
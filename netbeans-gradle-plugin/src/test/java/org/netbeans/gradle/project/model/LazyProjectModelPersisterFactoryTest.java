@@ -2,12 +2,22 @@ package org.netbeans.gradle.project.model;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
 import org.jtrim2.executor.ContextAwareWrapper;
 import org.jtrim2.executor.ManualTaskExecutor;
 import org.jtrim2.executor.TaskExecutor;
+import org.jtrim2.executor.TaskExecutorService;
 import org.jtrim2.executor.TaskExecutors;
 import org.junit.Test;
+import org.netbeans.gradle.project.util.NbTaskExecutors;
 import org.mockito.invocation.InvocationOnMock;
 
 import static org.junit.Assert.*;
@@ -141,4 +151,118 @@ public class LazyProjectModelPersisterFactoryTest {
         Object storedModel = persister.tryLoadModel(dest);
         assertSame("model", model2, storedModel);
     }
+
+    @Test
+    public void testParallelDrainersSaveAll() throws Exception {
+        MemPersistentModelStore<Object> modelStore = new MemPersistentModelStore<>();
+        ManualTaskExecutor executor = new ManualTaskExecutor(true);
+
+        LazyPersistentModelStoreFactory<Object> factory
+                = new LazyPersistentModelStoreFactory<>(modelStore, executor, 2);
+        PersistentModelStore<Object> persister = factory.createStore(modelStore);
+
+        Path dest1 = Paths.get("MyTestDest1");
+        Path dest2 = Paths.get("MyTestDest2");
+        Path dest3 = Paths.get("MyTestDest3");
+
+        persister.persistModel("MyModel1", dest1);
+        persister.persistModel("MyModel2", dest2);
+        persister.persistModel("MyModel3", dest3);
+
+        assertEquals("submitted drainers", 2, executor.executeCurrentlySubmitted());
+        executeAll(executor);
+
+        assertEquals("MyModel1", modelStore.tryLoadModel(dest1));
+        assertEquals("MyModel2", modelStore.tryLoadModel(dest2));
+        assertEquals("MyModel3", modelStore.tryLoadModel(dest3));
+    }
+
+    @Test
+    public void testPersistWhileBeingSaved() throws Exception {
+        MemPersistentModelStore<Object> savedModels = new MemPersistentModelStore<>();
+        ManualTaskExecutor executor = new ManualTaskExecutor(true);
+
+        Path dest = Paths.get("MyTestDest");
+        AtomicReference<PersistentModelStore<Object>> persisterRef = new AtomicReference<>();
+
+        @SuppressWarnings("unchecked")
+        PersistentModelStore<Object> modelStore = (PersistentModelStore<Object>)mock(PersistentModelStore.class);
+        doAnswer((InvocationOnMock invocation) -> {
+            Object model = invocation.getArguments()[0];
+            if ("MyModel1".equals(model)) {
+                persisterRef.get().persistModel("MyModel2", dest);
+            }
+            savedModels.persistModel(model, dest);
+            return null;
+        }).when(modelStore).persistModel(any(), any(Path.class));
+
+        PersistentModelStore<Object> persister = createLazyStore(modelStore, executor);
+        persisterRef.set(persister);
+
+        List<LogRecord> warnings = new ArrayList<>();
+        Handler logHandler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getLevel().intValue() >= Level.WARNING.intValue()) {
+                    warnings.add(record);
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        Logger logger = Logger.getLogger(LazyPersistentModelStoreFactory.class.getName());
+        logger.addHandler(logHandler);
+        try {
+            persister.persistModel("MyModel1", dest);
+            executeAll(executor);
+        } finally {
+            logger.removeHandler(logHandler);
+        }
+
+        verify(modelStore, times(2)).persistModel(any(), any(Path.class));
+        assertEquals("MyModel2", savedModels.tryLoadModel(dest));
+        assertEquals("warnings", 0, warnings.size());
+    }
+
+    @Test(timeout = 30000)
+    public void testEnqueueWhileLastDrainerExits() throws Exception {
+        MemPersistentModelStore<Object> modelStore = new MemPersistentModelStore<>();
+        TaskExecutorService executor = NbTaskExecutors.newStoppableExecutor("Test-Persister", 1);
+        try {
+            LazyPersistentModelStoreFactory<Object> factory
+                    = new LazyPersistentModelStoreFactory<>(modelStore, executor, 1);
+            PersistentModelStore<Object> persister = factory.createStore(modelStore);
+
+            // The single drainer keeps finding the queue empty and exiting
+            // while new models are being added.
+            int modelCount = 1000;
+            for (int i = 0; i < modelCount; i++) {
+                persister.persistModel("MyModel" + i, Paths.get("MyTestDest" + i));
+                if (i % 8 == 0) {
+                    Thread.yield();
+                }
+            }
+
+            long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while (modelStore.getSavedModels().size() < modelCount) {
+                if (System.nanoTime() > endTime) {
+                    fail("Not all models were saved: " + modelStore.getSavedModels().size());
+                }
+                Thread.sleep(1);
+            }
+
+            for (int i = 0; i < modelCount; i++) {
+                assertEquals("MyModel" + i, modelStore.tryLoadModel(Paths.get("MyTestDest" + i)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
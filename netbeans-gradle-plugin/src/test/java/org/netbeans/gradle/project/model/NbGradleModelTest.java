@@ -0,0 +1,69 @@
+package org.netbeans.gradle.project.model;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.netbeans.gradle.model.util.SerializationUtils;
+
+import static org.junit.Assert.*;
+import static org.netbeans.gradle.project.model.NbGradleMultiProjectDefTest.*;
+
+public class NbGradleModelTest {
+    private static NbGradleModel createModel(Map<String, Object> extensionModels) {
+        NbGradleMultiProjectDef projectDef = createTestMultiProject();
+        NbGenericModelInfo genericInfo = new NbGenericModelInfo(projectDef, Paths.get("settings.gradle"));
+        return new NbGradleModel(genericInfo, extensionModels, false);
+    }
+
+    private static SerializedExtensionModel serializedModel(byte[] serialized, Runnable failureListener) {
+        return new SerializedExtensionModel(
+                "test-ext",
+                serialized,
+                NbGradleModelTest.class.getClassLoader(),
+                failureListener);
+    }
+
+    @Test
+    public void testCheckingCachedModelDoesNotDeserialize() {
+        AtomicInteger failureCount = new AtomicInteger(0);
+        SerializedExtensionModel extensionModel = serializedModel(new byte[]{1, 2, 3}, failureCount::incrementAndGet);
+
+        NbGradleModel model = createModel(Collections.<String, Object>singletonMap("test-ext", extensionModel));
+
+        assertTrue(model.hasModelOfExtension("test-ext"));
+        assertFalse(extensionModel.isFailed());
+        assertEquals(0, failureCount.get());
+    }
+
+    @Test
+    public void testFailedDeserializationIsReportedOnFirstAccess() {
+        AtomicInteger failureCount = new AtomicInteger(0);
+        SerializedExtensionModel extensionModel = serializedModel(new byte[]{1, 2, 3}, failureCount::incrementAndGet);
+
+        NbGradleModel model = createModel(Collections.<String, Object>singletonMap("test-ext", extensionModel));
+
+        assertNull(model.getModelOfExtension("test-ext"));
+        assertEquals(1, failureCount.get());
+        assertFalse(model.hasModelOfExtension("test-ext"));
+
+        assertNull(model.getModelOfExtension("test-ext"));
+        assertEquals(1, failureCount.get());
+    }
+
+    @Test
+    public void testModelIsDeserializedOnAccess() {
+        AtomicInteger failureCount = new AtomicInteger(0);
+        byte[] serialized = SerializationUtils.serializeObject("model-value");
+
+        Map<String, Object> extensionModels = new HashMap<>();
+        extensionModels.put("test-ext", serializedModel(serialized, failureCount::incrementAndGet));
+        NbGradleModel model = createModel(extensionModels);
+
+        assertTrue(model.hasModelOfExtension("test-ext"));
+        assertEquals("model-value", model.getModelOfExtension("test-ext"));
+        assertEquals(0, failureCount.get());
+    }
+}
@@ -1,6 +1,11 @@
 package org.netbeans.gradle.project.model;
 
+import java.util.Arrays;
+import java.util.Collections;
 import org.junit.Test;
+import org.netbeans.gradle.model.GradleMultiProjectDef;
+import org.netbeans.gradle.model.GradleProjectTree;
+import org.netbeans.gradle.model.GradleTaskID;
 import org.netbeans.gradle.model.util.SerializationCache;
 import org.netbeans.gradle.model.util.SerializationUtils;
 
@@ -17,6 +22,44 @@ public class NbGradleMultiProjectDefTest {
         return new NbGradleMultiProjectDef(root, child1);
     }
 
+    private static GradleProjectTree createModelTree(String name, String fullName, GradleProjectTree... children) {
+        return new GradleProjectTree(
+                createProperties(name, fullName),
+                Collections.<GradleTaskID>emptyList(),
+                Arrays.asList(children));
+    }
+
+    private static GradleMultiProjectDef createModel(String mainName) {
+        GradleProjectTree child1 = createModelTree("child1", ":child1");
+        GradleProjectTree child2 = createModelTree("child2", ":child2");
+        GradleProjectTree root = createModelTree("testapp", ":", child1, child2);
+
+        GradleProjectTree main = mainName.equals(child1.getGenericProperties().getProjectName())
+                ? child1
+                : child2;
+        return new GradleMultiProjectDef(root, main);
+    }
+
+    @Test
+    public void testCreateSharingRoot() {
+        NbGradleMultiProjectDef def1 = NbGradleMultiProjectDef.createSharingRoot(createModel("child1"), null);
+        NbGradleMultiProjectDef def2 = NbGradleMultiProjectDef.createSharingRoot(createModel("child2"), def1);
+
+        assertSame(def1.getRootProject(), def2.getRootProject());
+        assertEquals("child1", def1.getProjectDir().getName());
+        assertEquals("child2", def2.getProjectDir().getName());
+        assertEquals(":child2", def2.tryGetMainProjectPathInRoot());
+    }
+
+    @Test
+    public void testCreateSharingRootOfDifferentBuild() {
+        NbGradleMultiProjectDef otherBuildDef = createTestMultiProject();
+        NbGradleMultiProjectDef def = NbGradleMultiProjectDef.createSharingRoot(createModel("child1"), otherBuildDef);
+
+        assertNotSame(otherBuildDef.getRootProject(), def.getRootProject());
+        assertEquals("child1", def.getProjectDir().getName());
+    }
+
     @Test
     public void testSerialization() throws ClassNotFoundException {
         NbGradleMultiProjectDef source = createTestMultiProject();
@@ -0,0 +1,139 @@
+package org.netbeans.gradle.project.model;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.Rule;
+import org.junit.Test;
+import org.netbeans.gradle.project.util.SafeTmpFolder;
+
+import static org.junit.Assert.*;
+import static org.netbeans.gradle.project.model.NbGradleProjectTreeTest.*;
+
+public class PersistentBuildDefStoreTest {
+    @Rule
+    public final SafeTmpFolder tmpDir = new SafeTmpFolder();
+
+    private static NbGradleProjectTree createTestRoot() {
+        return createTree("testapp", createTree("child1"), createTree("child2"));
+    }
+
+    private Path getBuildDefPath(NbGradleProjectTree root) throws Exception {
+        Path modelFile = tmpDir.newFolder("cache").toPath().resolve("model");
+        return PersistentBuildDefStore.getBuildDefPath(modelFile, root.getProjectDir());
+    }
+
+    @Test
+    public void testSameTreeIsStoredOnce() throws Exception {
+        NbGradleProjectTree root = createTestRoot();
+        Path buildDefPath = getBuildDefPath(root);
+
+        PersistentBuildDefStore store = new PersistentBuildDefStore(() -> false);
+        String id1 = store.persistBuildDef(buildDefPath, root);
+        FileTime writeTime = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(buildDefPath, writeTime);
+
+        String id2 = store.persistBuildDef(buildDefPath, root);
+        assertEquals(id1, id2);
+        assertEquals("Tree must not be rewritten.", writeTime, Files.getLastModifiedTime(buildDefPath));
+
+        assertSame(root, store.tryLoadBuildDef(buildDefPath, id1));
+    }
+
+    @Test
+    public void testRemovedFileIsRewritten() throws Exception {
+        NbGradleProjectTree root = createTestRoot();
+        Path buildDefPath = getBuildDefPath(root);
+
+        PersistentBuildDefStore store = new PersistentBuildDefStore(() -> false);
+        String id1 = store.persistBuildDef(buildDefPath, root);
+        Files.delete(buildDefPath);
+
+        String id2 = store.persistBuildDef(buildDefPath, root);
+        assertEquals("Models referring to the removed file must remain valid.", id1, id2);
+        assertTrue("Tree must be rewritten.", Files.isRegularFile(buildDefPath));
+
+        PersistentBuildDefStore newStore = new PersistentBuildDefStore(() -> false);
+        assertNotNull(newStore.tryLoadBuildDef(buildDefPath, id1));
+    }
+
+    @Test
+    public void testRememberedTreesAreLimited() throws Exception {
+        NbGradleProjectTree root = createTestRoot();
+        Path cacheDir = tmpDir.newFolder("cache").toPath();
+        Path buildDefPath1 = cacheDir.resolve("build1");
+        Path buildDefPath2 = cacheDir.resolve("build2");
+
+        PersistentBuildDefStore store = new PersistentBuildDefStore(() -> false, 1);
+        String id1 = store.persistBuildDef(buildDefPath1, root);
+        store.persistBuildDef(buildDefPath2, root);
+
+        NbGradleProjectTree loaded = store.tryLoadBuildDef(buildDefPath1, id1);
+        assertNotNull(loaded);
+        assertNotSame("Forgotten tree must be loaded from the file.", root, loaded);
+    }
+
+    @Test
+    public void testLoadFromFile() throws Exception {
+        NbGradleProjectTree root = createTestRoot();
+        Path buildDefPath = getBuildDefPath(root);
+
+        String id = new PersistentBuildDefStore(() -> true).persistBuildDef(buildDefPath, root);
+
+        PersistentBuildDefStore store = new PersistentBuildDefStore(() -> true);
+        NbGradleProjectTree loaded1 = store.tryLoadBuildDef(buildDefPath, id);
+        NbGradleProjectTree loaded2 = store.tryLoadBuildDef(buildDefPath, id);
+
+        assertNotNull(loaded1);
+        assertSame("Projects of the same build must share the tree.", loaded1, loaded2);
+        assertEquals(root.getProjectDir(), loaded1.getProjectDir());
+        assertEquals(root.getChildren().size(), loaded1.getChildren().size());
+    }
+
+    @Test
+    public void testEquivalentTreesShareTheId() throws Exception {
+        NbGradleProjectTree root1 = createTestRoot();
+        NbGradleProjectTree root2 = createTestRoot();
+        Path buildDefPath = getBuildDefPath(root1);
+
+        PersistentBuildDefStore store = new PersistentBuildDefStore(() -> false);
+        String id1 = store.persistBuildDef(buildDefPath, root1);
+        String id2 = new PersistentBuildDefStore(() -> false).persistBuildDef(buildDefPath, root2);
+        assertEquals("Concurrently loaded trees must not invalidate each other.", id1, id2);
+
+        FileTime writeTime = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(buildDefPath, writeTime);
+
+        String id3 = store.persistBuildDef(buildDefPath, root2);
+        assertEquals(id1, id3);
+        assertEquals("Tree must not be rewritten.", writeTime, Files.getLastModifiedTime(buildDefPath));
+
+        PersistentBuildDefStore newStore = new PersistentBuildDefStore(() -> false);
+        assertNotNull(newStore.tryLoadBuildDef(buildDefPath, id1));
+    }
+
+    @Test
+    public void testOverwrittenTree() throws Exception {
+        NbGradleProjectTree root1 = createTestRoot();
+        NbGradleProjectTree root2 = createTree("testapp", createTree("child1"), createTree("child3"));
+        Path buildDefPath = getBuildDefPath(root1);
+
+        PersistentBuildDefStore store = new PersistentBuildDefStore(() -> false);
+        String id1 = store.persistBuildDef(buildDefPath, root1);
+        String id2 = store.persistBuildDef(buildDefPath, root2);
+        assertNotEquals(id1, id2);
+
+        PersistentBuildDefStore newStore = new PersistentBuildDefStore(() -> false);
+        assertNull(newStore.tryLoadBuildDef(buildDefPath, id1));
+        assertNotNull(newStore.tryLoadBuildDef(buildDefPath, id2));
+    }
+
+    @Test
+    public void testMissingFile() throws Exception {
+        NbGradleProjectTree root = createTestRoot();
+        Path buildDefPath = getBuildDefPath(root);
+
+        PersistentBuildDefStore store = new PersistentBuildDefStore(() -> false);
+        assertNull(store.tryLoadBuildDef(buildDefPath, "unknown-id"));
+    }
+}
@@ -0,0 +1,94 @@
+package org.netbeans.gradle.project.model.issue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ReportedIssueFilterTest {
+    private static final long FORGET_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final AtomicLong currentTime = new AtomicLong(0);
+
+    private ReportedIssueFilter createFilter(int maxRememberedIssues) {
+        return new ReportedIssueFilter(
+                FORGET_TIMEOUT_NANOS,
+                TimeUnit.NANOSECONDS,
+                maxRememberedIssues,
+                currentTime::get);
+    }
+
+    private static List<String> filter(ReportedIssueFilter filter, String... issues) {
+        return filter.filterNewIssues(Arrays.asList(issues), Function.identity());
+    }
+
+    private static Exception testException(String message, Throwable cause) {
+        return new Exception(message, cause);
+    }
+
+    @Test
+    public void testRepeatedIssuesAreFiltered() {
+        ReportedIssueFilter filter = createFilter(100);
+
+        assertEquals(Arrays.asList("a", "b"), filter(filter, "a", "b", "a"));
+        assertEquals(Arrays.asList("c"), filter(filter, "b", "c", "a"));
+        assertEquals(Arrays.asList(), filter(filter, "a", "b", "c"));
+    }
+
+    @Test
+    public void testIssuesAreForgottenAfterFirstReport() {
+        ReportedIssueFilter filter = createFilter(100);
+
+        assertEquals(Arrays.asList("a", "b"), filter(filter, "a", "b"));
+
+        currentTime.addAndGet(FORGET_TIMEOUT_NANOS);
+        assertEquals(Arrays.asList(), filter(filter, "a"));
+
+        // Seeing "a" again must not postpone reporting it again.
+        currentTime.addAndGet(1);
+        assertEquals(Arrays.asList("a", "b"), filter(filter, "a", "b"));
+        assertEquals(Arrays.asList(), filter(filter, "a", "b"));
+    }
+
+    @Test
+    public void testEarliestReportedIssuesAreForgottenFirst() {
+        ReportedIssueFilter filter = createFilter(2);
+
+        assertEquals(Arrays.asList("a", "b"), filter(filter, "a", "b"));
+        assertEquals(Arrays.asList(), filter(filter, "a"));
+        assertEquals(Arrays.asList("c"), filter(filter, "c"));
+        assertEquals(Arrays.asList("a"), filter(filter, "a", "c"));
+        assertEquals(Arrays.asList("b"), filter(filter, "b"));
+    }
+
+    @Test
+    public void testMarkAllReportedRestartsTimeout() {
+        ReportedIssueFilter filter = createFilter(100);
+
+        assertEquals(Arrays.asList("a", "b"), filter(filter, "a", "b"));
+
+        currentTime.addAndGet(FORGET_TIMEOUT_NANOS);
+        filter.markAllReported(Arrays.asList("a"), Function.identity());
+
+        currentTime.addAndGet(1);
+        assertEquals(Arrays.asList("b"), filter(filter, "a", "b"));
+    }
+
+    @Test
+    public void testErrorFingerprintsAcrossLoads() {
+        List<Object> fingerprints = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Exception error = testException("Load failed", new IllegalStateException("Missing dependency"));
+            fingerprints.add(IssueFingerprints.errorFingerprint(error));
+        }
+        assertEquals(fingerprints.get(0), fingerprints.get(1));
+
+        Exception otherError = testException("Load failed", new IllegalStateException("Other dependency"));
+        assertNotEquals(fingerprints.get(0), IssueFingerprints.errorFingerprint(otherError));
+    }
+}
@@ -0,0 +1,132 @@
+package org.netbeans.gradle.project.others;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ReflectionHelperTest {
+    @Test
+    public void testIsInstanceOfAny() {
+        List<String> list = new ArrayList<>();
+
+        assertTrue(ReflectionHelper.isInstanceOf(list, ArrayList.class.getName()));
+        assertTrue(ReflectionHelper.isInstanceOf(list, "java.util.AbstractList"));
+        assertTrue(ReflectionHelper.isInstanceOf(list, "java.util.List"));
+        assertFalse(ReflectionHelper.isInstanceOf(list, "java.lang.Runnable"));
+        assertFalse(ReflectionHelper.isInstanceOf(null, "java.lang.Object"));
+
+        assertTrue(ReflectionHelper.isInstanceOfAny(list, new HashSet<>(Arrays.asList("java.lang.Runnable", "java.util.List"))));
+    }
+
+    @Test
+    public void testMethodLookupReturnsCopies() {
+        Method method1 = ReflectionHelper.tryGetMethod(String.class, "charAt", int.class);
+        Method method2 = ReflectionHelper.tryGetMethod(String.class, "charAt", int.class);
+
+        assertNotNull(method1);
+        assertEquals(method1, method2);
+        assertNotSame(method1, method2);
+        assertNull(ReflectionHelper.tryGetMethod(String.class, "charAt", long.class));
+    }
+
+    @Test
+    public void testInvokeInstanceMethod() {
+        Method method = ReflectionHelper.tryGetMethod(String.class, "charAt", int.class);
+        assertEquals('b', ReflectionHelper.tryInvoke(method, "abc", 1));
+    }
+
+    @Test
+    public void testInvokeStaticMethod() {
+        Method method = ReflectionHelper.tryGetMethod(Integer.class, "parseInt", String.class);
+        assertEquals(42, ReflectionHelper.tryInvoke(method, null, "42"));
+    }
+
+    @Test
+    public void testInvokeWithWideningConversion() {
+        Method method = ReflectionHelper.tryGetMethod(Long.class, "valueOf", long.class);
+        assertEquals(5L, ReflectionHelper.tryInvoke(method, null, 5));
+    }
+
+    @Test
+    public void testInvokeVoidMethod() {
+        List<String> list = new ArrayList<>(Arrays.asList("a", "b"));
+
+        Method method = ReflectionHelper.tryGetMethod(List.class, "clear");
+        assertNull(ReflectionHelper.tryInvoke(method, list));
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void testInvokeWithIllegalArguments() {
+        Method method = ReflectionHelper.tryGetMethod(String.class, "charAt", int.class);
+        assertNull(ReflectionHelper.tryInvoke(method, "abc", "1"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testExceptionOfInvokedMethodIsRethrown() {
+        Method method = ReflectionHelper.tryGetMethod(Integer.class, "parseInt", String.class);
+        ReflectionHelper.tryInvoke(method, null, "not-a-number");
+    }
+
+    @Test
+    public void testInvokerInstanceMethod() {
+        MethodInvoker invoker = ReflectionHelper.tryGetMethodInvoker(String.class, "charAt", int.class);
+        assertNotNull(invoker);
+        assertSame(invoker, ReflectionHelper.tryGetMethodInvoker(String.class, "charAt", int.class));
+        assertEquals('b', ReflectionHelper.tryInvoke(invoker, "abc", 1));
+    }
+
+    @Test
+    public void testInvokerStaticMethod() {
+        MethodInvoker invoker = ReflectionHelper.tryGetMethodInvoker(Integer.class, "parseInt", String.class);
+        assertEquals(42, ReflectionHelper.tryInvoke(invoker, null, "42"));
+    }
+
+    @Test
+    public void testInvokerWithWideningConversion() {
+        MethodInvoker invoker = ReflectionHelper.tryGetMethodInvoker(Long.class, "valueOf", long.class);
+        assertEquals(5L, ReflectionHelper.tryInvoke(invoker, null, 5));
+    }
+
+    @Test
+    public void testInvokerWithIllegalArguments() {
+        MethodInvoker invoker = ReflectionHelper.tryGetMethodInvoker(String.class, "charAt", int.class);
+        assertNull(ReflectionHelper.tryInvoke(invoker, "abc", "1"));
+        assertNull(ReflectionHelper.tryInvoke(invoker, 5, 1));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testInvokerWithNullReceiver() {
+        MethodInvoker invoker = ReflectionHelper.tryGetMethodInvoker(String.class, "charAt", int.class);
+        ReflectionHelper.tryInvoke(invoker, null, 1);
+    }
+
+    @Test
+    public void testInvokerOfPackagePrivateClass() {
+        MethodInvoker invoker = ReflectionHelper.tryGetMethodInvoker(PackagePrivateType.class, "concat", String.class);
+        assertEquals("ab", ReflectionHelper.tryInvoke(invoker, new PackagePrivateType("a"), "b"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testExceptionOfInvokerIsRethrown() {
+        MethodInvoker invoker = ReflectionHelper.tryGetMethodInvoker(Integer.class, "parseInt", String.class);
+        ReflectionHelper.tryInvoke(invoker, null, "not-a-number");
+    }
+
+    static final class PackagePrivateType {
+        private final String prefix;
+
+        public PackagePrivateType(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String concat(String suffix) {
+            return prefix + suffix;
+        }
+    }
+}
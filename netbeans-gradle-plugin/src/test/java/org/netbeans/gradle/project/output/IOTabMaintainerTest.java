@@ -145,18 +145,87 @@ public class IOTabMaintainerTest {
         assertEquals("tab1 #2", tabRef2.getTab().caption);
     }
 
+    @Test
+    public void testReusedTabIsTrimmed() throws IOException {
+        IOTabMaintainer<Integer, Tab> maintainer = create();
+
+        Tab tab;
+        try (IOTabRef<Tab> tabRef = maintainer.getTab(1, "tab1")) {
+            tab = tabRef.getTab();
+            assertEquals(0, tab.trimCount);
+        }
+
+        try (IOTabRef<Tab> tabRef = maintainer.getTab(1, "tab1")) {
+            assertSame(tab, tabRef.getTab());
+            assertEquals(1, tab.trimCount);
+        }
+    }
+
+    @Test
+    public void testIdleTabsAreLimited() throws IOException {
+        IOTabMaintainer<Integer, Tab> maintainer = new IOTabMaintainer<>(Tab::new, () -> 2);
+
+        IOTabRef<Tab> tabRef1 = maintainer.getTab(1, "tab1");
+        IOTabRef<Tab> tabRef2 = maintainer.getTab(2, "tab2");
+        IOTabRef<Tab> tabRef3 = maintainer.getTab(3, "tab3");
+
+        Tab tab1 = tabRef1.getTab();
+        Tab tab2 = tabRef2.getTab();
+        Tab tab3 = tabRef3.getTab();
+
+        tabRef1.close();
+        tabRef2.close();
+        assertEquals(2, maintainer.getIdleTabCount());
+        assertFalse(tab1.isDestroyed());
+
+        tabRef3.close();
+        assertEquals(2, maintainer.getIdleTabCount());
+        assertTrue("The tab released first must be destroyed.", tab1.isDestroyed());
+        assertFalse(tab2.isDestroyed());
+        assertFalse(tab3.isDestroyed());
+
+        try (IOTabRef<Tab> tabRef = maintainer.getTab(1, "tab1")) {
+            assertNotSame(tab1, tabRef.getTab());
+        }
+    }
+
+    @Test
+    public void testReusedTabIsNotEvictedByItsOldRelease() throws IOException {
+        IOTabMaintainer<Integer, Tab> maintainer = new IOTabMaintainer<>(Tab::new, () -> 1);
+
+        Tab tab1;
+        try (IOTabRef<Tab> tabRef = maintainer.getTab(1, "tab1")) {
+            tab1 = tabRef.getTab();
+        }
+        try (IOTabRef<Tab> tabRef = maintainer.getTab(1, "tab1")) {
+            assertSame(tab1, tabRef.getTab());
+        }
+
+        Tab tab2;
+        try (IOTabRef<Tab> tabRef = maintainer.getTab(2, "tab2")) {
+            tab2 = tabRef.getTab();
+        }
+
+        assertTrue(tab1.isDestroyed());
+        assertFalse(tab2.isDestroyed());
+        assertEquals(1, maintainer.getIdleTabCount());
+    }
+
     private static final class Tab implements IOTabDef {
         public final String caption;
         private volatile boolean destroyed;
         private volatile boolean closed;
+        private volatile int trimCount;
 
         public Tab(String caption) {
             this.caption = caption;
             this.destroyed = false;
             this.closed = false;
+            this.trimCount = 0;
         }
 
-        void destroy() {
+        @Override
+        public void destroy() {
             this.destroyed = true;
         }
 
@@ -174,6 +243,11 @@ public class IOTabMaintainerTest {
             return destroyed;
         }
 
+        @Override
+        public void trimOutput() {
+            trimCount++;
+        }
+
         @Override
         public String toString() {
             return "Tab{" + "caption=" + caption + ", closed for now: " + closed + ", destroyed=" + destroyed + '}';
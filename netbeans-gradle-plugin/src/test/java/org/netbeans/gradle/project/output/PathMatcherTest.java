@@ -0,0 +1,51 @@
+package org.netbeans.gradle.project.output;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PathMatcherTest {
+    private static PathMatcher matcher(String... paths) {
+        return new PathMatcher(Arrays.asList(paths));
+    }
+
+    @Test
+    public void testNoPaths() {
+        assertEquals(-1, new PathMatcher(Collections.<String>emptyList()).findFirstMatch("/home/user"));
+    }
+
+    @Test
+    public void testNoMatch() {
+        assertEquals(-1, matcher("/home/user/proj").findFirstMatch("/home/user/pro"));
+    }
+
+    @Test
+    public void testSingleMatch() {
+        assertEquals(9, matcher("/home/user/proj").findFirstMatch("error at /home/user/proj/A.java:12"));
+    }
+
+    @Test
+    public void testCaseInsensitive() {
+        assertEquals(9, matcher("/home/user/proj").findFirstMatch("error at /HOME/User/proj/A.java:12"));
+    }
+
+    @Test
+    public void testNestedRoots() {
+        PathMatcher matcher = matcher("/home/user/proj", "/home/user/proj/sub");
+        assertEquals(9, matcher.findFirstMatch("error at /home/user/proj/sub/A.java:12"));
+    }
+
+    @Test
+    public void testLeftmostMatchWins() {
+        PathMatcher matcher = matcher("cd", "abcdef");
+        assertEquals(1, matcher.findFirstMatch("xabcdefg"));
+    }
+
+    @Test
+    public void testMatchAfterPartialMatch() {
+        PathMatcher matcher = matcher("/home/user/proj");
+        assertEquals(14, matcher.findFirstMatch("/home/user/pr /home/user/proj"));
+    }
+}
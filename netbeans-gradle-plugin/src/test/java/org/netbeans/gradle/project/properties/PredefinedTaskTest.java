@@ -255,6 +255,21 @@ public class PredefinedTaskTest {
         taskExistsInProject(project, "${empty}:sub2:subsub2:sub2_2Task1", singletonVarMap("empty", ""));
     }
 
+    @Test
+    public void testIsTasksExistsIfRequired_MustExist_PrefixDoesntExist() {
+        String fullName = ":";
+        NbGradleProjectTree root = createProject(fullName,
+                gradleTasks(fullName, "fooBar"),
+                Collections.<NbGradleProjectTree>emptyList());
+        NbGradleMultiProjectDef project = new NbGradleMultiProjectDef(root, root);
+
+        taskExistsInProject(project, "fooBar");
+        taskExistsInProject(project, ":fooBar");
+        taskDoesNotExistInProject(project, "foo");
+        taskDoesNotExistInProject(project, ":foo");
+        taskDoesNotExistInProject(project, "fB");
+    }
+
     private static TaskVariableMap singletonVarMap(final String name, final String value) {
         return (TaskVariable variable) -> {
             if (variable.getVariableName().equals(name)) {
@@ -0,0 +1,273 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.jtrim2.cancel.Cancellation;
+import org.jtrim2.executor.CancelableTask;
+import org.junit.Test;
+import org.netbeans.gradle.project.NbStrings;
+
+import static org.junit.Assert.*;
+
+public class GradleTaskSchedulerTest {
+    private static final long TIMEOUT_MS = 10000;
+
+    private static Thread submit(
+            GradleTaskScheduler scheduler,
+            Object rootKey,
+            boolean background,
+            Object mergeKey,
+            CancelableTask task,
+            AtomicReference<Throwable> errorRef) {
+        return submit(scheduler, rootKey, background, mergeKey, message -> { }, task, errorRef);
+    }
+
+    private static Thread submit(
+            GradleTaskScheduler scheduler,
+            Object rootKey,
+            boolean background,
+            Object mergeKey,
+            Consumer<String> queueStateListener,
+            CancelableTask task,
+            AtomicReference<Throwable> errorRef) {
+
+        Thread thread = new Thread(() -> {
+            try {
+                scheduler.execute(Cancellation.UNCANCELABLE_TOKEN, rootKey, background, mergeKey, queueStateListener, task);
+            } catch (Throwable ex) {
+                errorRef.compareAndSet(null, ex);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static Thread submit(
+            GradleTaskScheduler scheduler,
+            Object rootKey,
+            GradleTaskScheduler.CommandKind kind,
+            CancelableTask task,
+            AtomicReference<Throwable> errorRef) {
+
+        Thread thread = new Thread(() -> {
+            try {
+                scheduler.execute(Cancellation.UNCANCELABLE_TOKEN, rootKey, false, kind, null, message -> { }, task);
+            } catch (Throwable ex) {
+                errorRef.compareAndSet(null, ex);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static CancelableTask blockingTask(CountDownLatch started, CountDownLatch release) {
+        return cancelToken -> {
+            started.countDown();
+            release.await();
+        };
+    }
+
+    private static void waitForWaitingCount(GradleTaskScheduler scheduler, int expected) throws InterruptedException {
+        long endTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        while (scheduler.getWaitingCount() != expected) {
+            if (System.nanoTime() > endTime) {
+                fail("Timeout waiting for " + expected + " waiting tasks.");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static void join(Thread... threads) throws InterruptedException {
+        for (Thread thread: threads) {
+            thread.join(TIMEOUT_MS);
+            assertFalse("Thread must terminate.", thread.isAlive());
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testPerRootLimit() throws Exception {
+        GradleTaskScheduler scheduler = new GradleTaskScheduler(() -> 10, () -> 1);
+        AtomicReference<Throwable> errorRef = new AtomicReference<>();
+
+        CountDownLatch started1 = new CountDownLatch(1);
+        CountDownLatch release1 = new CountDownLatch(1);
+        Thread thread1 = submit(scheduler, "root1", false, null, blockingTask(started1, release1), errorRef);
+        assertTrue(started1.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        AtomicInteger otherRootRuns = new AtomicInteger();
+        Thread otherRoot = submit(scheduler, "root2", false, null, cancelToken -> {
+            otherRootRuns.incrementAndGet();
+        }, errorRef);
+        join(otherRoot);
+        assertEquals("Other roots must not wait", 1, otherRootRuns.get());
+
+        AtomicInteger sameRootRuns = new AtomicInteger();
+        Thread sameRoot = submit(scheduler, "root1", false, null, cancelToken -> {
+            sameRootRuns.incrementAndGet();
+        }, errorRef);
+        waitForWaitingCount(scheduler, 1);
+        assertEquals(0, sameRootRuns.get());
+        assertEquals(1, scheduler.getRunningCount());
+
+        release1.countDown();
+        join(thread1, sameRoot);
+
+        assertEquals(1, sameRootRuns.get());
+        assertEquals(0, scheduler.getRunningCount());
+        assertEquals(0, scheduler.getWaitingCount());
+        assertNull(errorRef.get());
+    }
+
+    @Test(timeout = 30000)
+    public void testLongRunningTasksAreNotLimitedPerRoot() throws Exception {
+        GradleTaskScheduler scheduler = new GradleTaskScheduler(() -> 10, () -> 1);
+        AtomicReference<Throwable> errorRef = new AtomicReference<>();
+
+        CountDownLatch started1 = new CountDownLatch(1);
+        CountDownLatch release1 = new CountDownLatch(1);
+        Thread thread1 = submit(scheduler, "root", GradleTaskScheduler.CommandKind.LONG_RUNNING,
+                blockingTask(started1, release1), errorRef);
+        assertTrue(started1.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        AtomicInteger sameRootRuns = new AtomicInteger();
+        Thread sameRoot = submit(scheduler, "root", false, null, cancelToken -> {
+            sameRootRuns.incrementAndGet();
+        }, errorRef);
+        join(sameRoot);
+        assertEquals("Long running tasks must not hold the slot of the root", 1, sameRootRuns.get());
+
+        release1.countDown();
+        join(thread1);
+
+        assertEquals(0, scheduler.getRunningCount());
+        assertNull(errorRef.get());
+    }
+
+    @Test(timeout = 30000)
+    public void testLongRunningTasksDoNotStarveOtherTasks() throws Exception {
+        GradleTaskScheduler scheduler = new GradleTaskScheduler(() -> 2, () -> 2);
+        AtomicReference<Throwable> errorRef = new AtomicReference<>();
+
+        CountDownLatch longRunningStarted = new CountDownLatch(3);
+        CountDownLatch releaseLongRunning = new CountDownLatch(1);
+        List<Thread> longRunningThreads = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            longRunningThreads.add(submit(scheduler, "root" + i, GradleTaskScheduler.CommandKind.LONG_RUNNING,
+                    blockingTask(longRunningStarted, releaseLongRunning), errorRef));
+        }
+        assertTrue("Long running tasks must not be limited",
+                longRunningStarted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        AtomicInteger buildRuns = new AtomicInteger();
+        Thread build1 = submit(scheduler, "root0", false, null, cancelToken -> buildRuns.incrementAndGet(), errorRef);
+        Thread build2 = submit(scheduler, "root1", false, null, cancelToken -> buildRuns.incrementAndGet(), errorRef);
+        join(build1, build2);
+        assertEquals("Long running tasks must not hold the global slots", 2, buildRuns.get());
+
+        releaseLongRunning.countDown();
+        join(longRunningThreads.toArray(new Thread[longRunningThreads.size()]));
+
+        assertEquals(0, scheduler.getRunningCount());
+        assertNull(errorRef.get());
+    }
+
+    @Test(timeout = 30000)
+    public void testExclusiveTasksAreExecutedOneByOne() throws Exception {
+        GradleTaskScheduler scheduler = new GradleTaskScheduler(() -> 10, () -> 10);
+        AtomicReference<Throwable> errorRef = new AtomicReference<>();
+
+        CountDownLatch started1 = new CountDownLatch(1);
+        CountDownLatch release1 = new CountDownLatch(1);
+        Thread exclusive1 = submit(scheduler, "root1", GradleTaskScheduler.CommandKind.EXCLUSIVE,
+                blockingTask(started1, release1), errorRef);
+        assertTrue(started1.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        AtomicInteger exclusiveRuns = new AtomicInteger();
+        Thread exclusive2 = submit(scheduler, "root2", GradleTaskScheduler.CommandKind.EXCLUSIVE,
+                cancelToken -> exclusiveRuns.incrementAndGet(), errorRef);
+        waitForWaitingCount(scheduler, 1);
+
+        AtomicInteger normalRuns = new AtomicInteger();
+        Thread normal = submit(scheduler, "root2", GradleTaskScheduler.CommandKind.NORMAL,
+                cancelToken -> normalRuns.incrementAndGet(), errorRef);
+        join(normal);
+        assertEquals("Normal tasks must not wait for exclusive tasks", 1, normalRuns.get());
+        assertEquals(0, exclusiveRuns.get());
+
+        release1.countDown();
+        join(exclusive1, exclusive2);
+
+        assertEquals(1, exclusiveRuns.get());
+        assertEquals(0, scheduler.getRunningCount());
+        assertNull(errorRef.get());
+    }
+
+    @Test(timeout = 30000)
+    public void testMergeIdenticalWaitingTasks() throws Exception {
+        GradleTaskScheduler scheduler = new GradleTaskScheduler(() -> 1, () -> 1);
+        AtomicReference<Throwable> errorRef = new AtomicReference<>();
+
+        CountDownLatch started1 = new CountDownLatch(1);
+        CountDownLatch release1 = new CountDownLatch(1);
+        Thread thread1 = submit(scheduler, "root", false, "key", blockingTask(started1, release1), errorRef);
+        assertTrue(started1.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        AtomicInteger runCount = new AtomicInteger();
+        Thread thread2 = submit(scheduler, "root", false, "key", cancelToken -> runCount.incrementAndGet(), errorRef);
+        waitForWaitingCount(scheduler, 1);
+
+        CountDownLatch merged3 = new CountDownLatch(1);
+        String mergedMessage = NbStrings.getTaskMergedProgress();
+        Thread thread3 = submit(scheduler, "root", false, "key", message -> {
+            if (mergedMessage.equals(message)) {
+                merged3.countDown();
+            }
+        }, cancelToken -> runCount.incrementAndGet(), errorRef);
+
+        assertTrue(merged3.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(1, scheduler.getWaitingCount());
+
+        release1.countDown();
+        join(thread1, thread2, thread3);
+
+        assertEquals(1, runCount.get());
+        assertNull(errorRef.get());
+    }
+
+    @Test(timeout = 30000)
+    public void testBackgroundTasksAreNotStarved() throws Exception {
+        GradleTaskScheduler scheduler = new GradleTaskScheduler(() -> 1, () -> 1);
+        AtomicReference<Throwable> errorRef = new AtomicReference<>();
+
+        CountDownLatch started1 = new CountDownLatch(1);
+        CountDownLatch release1 = new CountDownLatch(1);
+        Thread thread1 = submit(scheduler, "root", false, null, blockingTask(started1, release1), errorRef);
+        assertTrue(started1.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+
+        threads.add(submit(scheduler, "root", true, null, cancelToken -> order.add("b1"), errorRef));
+        waitForWaitingCount(scheduler, 1);
+        for (int i = 1; i <= 3; i++) {
+            String name = "i" + i;
+            threads.add(submit(scheduler, "root", false, null, cancelToken -> order.add(name), errorRef));
+            waitForWaitingCount(scheduler, i + 1);
+        }
+
+        release1.countDown();
+        join(thread1);
+        join(threads.toArray(new Thread[threads.size()]));
+
+        // The blocking first task was the first interactive task of the streak.
+        assertEquals(Arrays.asList("i1", "b1", "i2", "i3"), order);
+        assertNull(errorRef.get());
+    }
+}
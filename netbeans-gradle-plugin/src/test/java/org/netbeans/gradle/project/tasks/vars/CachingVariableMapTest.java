@@ -0,0 +1,91 @@
+package org.netbeans.gradle.project.tasks.vars;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.netbeans.gradle.project.api.task.TaskVariable;
+import org.netbeans.gradle.project.api.task.TaskVariableMap;
+import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableDef;
+import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableValue;
+import org.openide.util.Lookup;
+
+import static org.junit.Assert.*;
+
+public class CachingVariableMapTest {
+    private static final TaskVariable VAR = new TaskVariable("test-var");
+    private static final TaskVariable OTHER_VAR = new TaskVariable("other-var");
+
+    private static TaskVariableMap createMap(VariableDef<TestProject> def, TestProject project) {
+        return new CachingVariableMap<>(
+                variable -> def.getVariable().equals(variable) ? def : null,
+                project,
+                Lookup.EMPTY);
+    }
+
+    private static VariableDef<TestProject> countingDef(AtomicInteger callCount, boolean projectScoped) {
+        return new VariableDef<>(VAR, (variables, project, actionContext) -> {
+            callCount.incrementAndGet();
+            return new VariableValue(project.model + "-value");
+        }, projectScoped ? project -> project.model : null);
+    }
+
+    @Test
+    public void testValueIsCachedWithinMap() {
+        AtomicInteger callCount = new AtomicInteger();
+        TaskVariableMap map = createMap(countingDef(callCount, false), new TestProject("model1"));
+
+        assertEquals("model1-value", map.tryGetValueForVariable(VAR));
+        assertEquals("model1-value", map.tryGetValueForVariable(VAR));
+        assertNull(map.tryGetValueForVariable(OTHER_VAR));
+        assertEquals(1, callCount.get());
+    }
+
+    @Test
+    public void testContextScopedValueIsNotSharedBetweenMaps() {
+        AtomicInteger callCount = new AtomicInteger();
+        VariableDef<TestProject> def = countingDef(callCount, false);
+        TestProject project = new TestProject("model1");
+
+        assertEquals("model1-value", createMap(def, project).tryGetValueForVariable(VAR));
+        assertEquals("model1-value", createMap(def, project).tryGetValueForVariable(VAR));
+        assertEquals(2, callCount.get());
+    }
+
+    @Test
+    public void testProjectScopedValueIsSharedUntilModelChanges() {
+        AtomicInteger callCount = new AtomicInteger();
+        VariableDef<TestProject> def = countingDef(callCount, true);
+        TestProject project = new TestProject("model1");
+
+        assertEquals("model1-value", createMap(def, project).tryGetValueForVariable(VAR));
+        assertEquals("model1-value", createMap(def, project).tryGetValueForVariable(VAR));
+        assertEquals(1, callCount.get());
+
+        project.model = "model2";
+        assertEquals("model2-value", createMap(def, project).tryGetValueForVariable(VAR));
+        assertEquals(2, callCount.get());
+    }
+
+    @Test
+    public void testCombinedMapPrefersFirstMap() {
+        AtomicInteger callCount = new AtomicInteger();
+        TaskVariableMap first = variable -> {
+            callCount.incrementAndGet();
+            return VAR.equals(variable) ? "first" : null;
+        };
+        TaskVariableMap second = variable -> "second";
+
+        TaskVariableMap combined = new CombinedTaskVariableMap(first, second);
+        assertEquals("first", combined.tryGetValueForVariable(VAR));
+        assertEquals("first", combined.tryGetValueForVariable(VAR));
+        assertEquals("second", combined.tryGetValueForVariable(OTHER_VAR));
+        assertEquals(2, callCount.get());
+    }
+
+    private static final class TestProject {
+        public volatile String model;
+
+        public TestProject(String model) {
+            this.model = model;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.netbeans.gradle.project.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParallelUtilsTest {
+    private static List<Integer> range(int count) {
+        List<Integer> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(i);
+        }
+        return result;
+    }
+
+    @Test(timeout = 30000)
+    public void testMapInParallelKeepsOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Integer> inputs = range(1000);
+            List<String> results = ParallelUtils.mapInParallel(executor, 4, inputs, input -> "value" + input);
+
+            assertEquals(inputs.size(), results.size());
+            for (int i = 0; i < inputs.size(); i++) {
+                assertEquals("value" + i, results.get(i));
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testMapInParallelWithoutAvailableThreads() {
+        // The calling thread must process the elements itself if the
+        // executor never runs the submitted tasks.
+        List<String> results = ParallelUtils.mapInParallel(task -> { }, 4, range(10), input -> "value" + input);
+        assertEquals(10, results.size());
+        assertEquals("value9", results.get(9));
+    }
+
+    @Test(timeout = 30000)
+    public void testMapInParallelRethrowsFailure() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ParallelUtils.mapInParallel(executor, 4, range(100), input -> {
+                if (input == 50) {
+                    throw new IllegalStateException("test-failure");
+                }
+                return input;
+            });
+            fail("Expected IllegalStateException.");
+        } catch (IllegalStateException ex) {
+            assertEquals("test-failure", ex.getMessage());
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testSplitToChunksSmallList() {
+        List<Integer> list = range(5);
+        assertEquals(Collections.singletonList(list), ParallelUtils.splitToChunks(list, 16));
+    }
+
+    @Test
+    public void testSplitToChunksCoversAllElementsInOrder() {
+        List<Integer> list = range(1001);
+        List<List<Integer>> chunks = ParallelUtils.splitToChunks(list, 16);
+
+        List<Integer> merged = new ArrayList<>();
+        for (List<Integer> chunk: chunks) {
+            assertFalse(chunk.isEmpty());
+            merged.addAll(chunk);
+        }
+        assertEquals(list, merged);
+    }
+
+    @Test
+    public void testSplitToChunksEmptyList() {
+        List<List<Object>> chunks = ParallelUtils.splitToChunks(Collections.emptyList(), 16);
+        assertEquals(Arrays.asList(Collections.emptyList()), chunks);
+    }
+}
@@ -0,0 +1,109 @@
+package org.netbeans.gradle.project.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SerializationUtils2Test {
+    @Rule
+    public final SafeTmpFolder tmpDir = new SafeTmpFolder();
+
+    private static List<String> testObject() {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            result.add("/home/user/.gradle/caches/my-lib-" + i + ".jar");
+        }
+        return result;
+    }
+
+    private Path newFile() throws IOException {
+        return tmpDir.newFolder().toPath().resolve("model.ser");
+    }
+
+    private void testAtomicRoundTrip(boolean compress) throws IOException {
+        Path file = newFile();
+        List<String> original = testObject();
+
+        SerializationUtils2.serializeToFileAtomic(file, original, compress);
+        assertEquals(original, SerializationUtils2.deserializeFile(file));
+
+        try (Stream<Path> siblings = Files.list(file.getParent())) {
+            assertEquals("files in dir", 1, siblings.count());
+        }
+    }
+
+    @Test
+    public void testAtomicRoundTripUncompressed() throws IOException {
+        testAtomicRoundTrip(false);
+    }
+
+    @Test
+    public void testAtomicRoundTripCompressed() throws IOException {
+        testAtomicRoundTrip(true);
+    }
+
+    @Test
+    public void testCompressedIsSmaller() throws IOException {
+        Path uncompressed = newFile();
+        Path compressed = newFile();
+
+        SerializationUtils2.serializeToFileAtomic(uncompressed, testObject(), false);
+        SerializationUtils2.serializeToFileAtomic(compressed, testObject(), true);
+
+        assertTrue(Files.size(compressed) < Files.size(uncompressed));
+    }
+
+    @Test
+    public void testOverwrite() throws IOException {
+        Path file = newFile();
+
+        SerializationUtils2.serializeToFileAtomic(file, "Value1", true);
+        SerializationUtils2.serializeToFileAtomic(file, "Value2", true);
+        assertEquals("Value2", SerializationUtils2.deserializeFile(file));
+    }
+
+    @Test
+    public void testStaleTempFilesAreRemoved() throws IOException {
+        Path file = newFile();
+        Path dir = file.getParent();
+
+        Path staleTmpFile = Files.createFile(dir.resolve("model.ser123.tmp"));
+        Files.setLastModifiedTime(staleTmpFile, FileTime.fromMillis(0));
+        Path recentTmpFile = Files.createFile(dir.resolve("model.ser456.tmp"));
+
+        SerializationUtils2.serializeToFileAtomic(file, "Value", false);
+
+        assertFalse("stale temp file", Files.exists(staleTmpFile));
+        assertTrue("recent temp file", Files.exists(recentTmpFile));
+        assertEquals("Value", SerializationUtils2.deserializeFile(file));
+    }
+
+    @Test
+    public void testReadsLegacyFormat() throws IOException {
+        Path file = newFile();
+        List<String> original = testObject();
+
+        SerializationUtils2.serializeToFile(file, original);
+        assertEquals(original, SerializationUtils2.deserializeFile(file));
+    }
+
+    @Test(expected = IOException.class)
+    public void testCorruptedContentIsDetected() throws IOException {
+        Path file = newFile();
+        SerializationUtils2.serializeToFileAtomic(file, testObject(), false);
+
+        byte[] content = Files.readAllBytes(file);
+        content[content.length - 10] ^= 0x55;
+        Files.write(file, content);
+
+        SerializationUtils2.deserializeFile(file);
+    }
+}
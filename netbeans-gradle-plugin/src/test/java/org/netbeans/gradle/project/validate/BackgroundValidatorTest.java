@@ -0,0 +1,130 @@
+package org.netbeans.gradle.project.validate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jtrim2.event.ListenerRef;
+import org.jtrim2.executor.SyncTaskExecutor;
+import org.jtrim2.property.MutableProperty;
+import org.jtrim2.property.PropertyFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BackgroundValidatorTest {
+    private static final long TIMEOUT_MS = 10000;
+
+    private static String getProblemMessage(BackgroundValidator validator) {
+        Problem problem = validator.currentProblem().getValue();
+        return problem != null ? problem.getMessage() : null;
+    }
+
+    private static void waitForProblem(BackgroundValidator validator, String expectedMessage) throws InterruptedException {
+        long endTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        while (!expectedMessage.equals(getProblemMessage(validator))) {
+            if (System.nanoTime() > endTime) {
+                fail("Timeout waiting for problem: " + expectedMessage);
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static ListenerRef addValidator(
+            BackgroundValidator validator,
+            Validator<String> inputValidator,
+            MutableProperty<String> input) {
+        return validator.addValidator(inputValidator, input, SyncTaskExecutor.getSimpleExecutor());
+    }
+
+    private static ListenerRef addMemoizedValidator(
+            BackgroundValidator validator,
+            Validator<String> inputValidator,
+            MutableProperty<String> input) {
+        return validator.addMemoizedValidator(inputValidator, input, SyncTaskExecutor.getSimpleExecutor());
+    }
+
+    @Test(timeout = 30000)
+    public void testResultsAreMemoizedByInput() throws Exception {
+        ConcurrentMap<String, AtomicInteger> validationCounts = new ConcurrentHashMap<>();
+        Validator<String> countingValidator = input -> {
+            validationCounts.computeIfAbsent(input, key -> new AtomicInteger(0)).incrementAndGet();
+            return Problem.severe(input);
+        };
+
+        BackgroundValidator validator = new BackgroundValidator();
+        MutableProperty<String> input = PropertyFactory.memProperty("a");
+        addMemoizedValidator(validator, countingValidator, input);
+        waitForProblem(validator, "a");
+
+        input.setValue("b");
+        waitForProblem(validator, "b");
+
+        input.setValue("a");
+        waitForProblem(validator, "a");
+
+        assertEquals(1, validationCounts.get("a").get());
+        assertEquals(1, validationCounts.get("b").get());
+        assertFalse(validator.isValid());
+    }
+
+    @Test(timeout = 30000)
+    public void testResultsAreNotMemoizedByDefault() throws Exception {
+        AtomicInteger validationCount = new AtomicInteger(0);
+        Validator<String> countingValidator = input -> {
+            validationCount.incrementAndGet();
+            return Problem.severe(input);
+        };
+
+        BackgroundValidator validator = new BackgroundValidator();
+        MutableProperty<String> input = PropertyFactory.memProperty("a");
+        addValidator(validator, countingValidator, input);
+        waitForProblem(validator, "a");
+
+        input.setValue("b");
+        waitForProblem(validator, "b");
+
+        input.setValue("a");
+        waitForProblem(validator, "a");
+
+        assertEquals(3, validationCount.get());
+    }
+
+    @Test(timeout = 30000)
+    public void testOutdatedResultIsIgnored() throws Exception {
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+        Validator<String> slowValidator = input -> {
+            if ("slow".equals(input)) {
+                slowStarted.countDown();
+                try {
+                    releaseSlow.await();
+                } catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+            return Problem.warning(input);
+        };
+
+        BackgroundValidator validator = new BackgroundValidator();
+        List<String> reportedMessages = Collections.synchronizedList(new ArrayList<>());
+        validator.currentProblem().addChangeListener(() -> {
+            reportedMessages.add(getProblemMessage(validator));
+        });
+
+        MutableProperty<String> input = PropertyFactory.memProperty("slow");
+        addValidator(validator, slowValidator, input);
+        assertTrue(slowStarted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        input.setValue("fast");
+        releaseSlow.countDown();
+
+        waitForProblem(validator, "fast");
+        assertFalse(reportedMessages.contains("slow"));
+        assertTrue(validator.isValid());
+    }
+}
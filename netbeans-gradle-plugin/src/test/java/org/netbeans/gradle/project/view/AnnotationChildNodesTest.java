@@ -20,6 +20,8 @@ import org.netbeans.spi.project.ui.support.NodeList;
 import org.openide.filesystems.FileObject;
 import org.openide.nodes.Node;
 import org.openide.util.Lookup;
+import org.openide.util.lookup.AbstractLookup;
+import org.openide.util.lookup.InstanceContent;
 import org.openide.util.lookup.Lookups;
 
 import static org.junit.Assert.*;
@@ -50,6 +52,51 @@ public class AnnotationChildNodesTest extends SwingTestAware {
         return project -> new TestNodeList(nodeList);
     }
 
+    private static NodeFactory countingNodeFactory(
+            final PropertySource<? extends TestNodeListSnapshot> nodeList,
+            final AtomicInteger createCount) {
+        return project -> {
+            createCount.incrementAndGet();
+            return new TestNodeList(nodeList);
+        };
+    }
+
+    @Test
+    @SwingTest
+    public void testNodeListsAreNotRecreatedForUnchangedFactories() {
+        TestNodeListSnapshot testList1 = new TestNodeListSnapshot(2);
+        TestNodeListSnapshot testList2 = new TestNodeListSnapshot(1);
+
+        AtomicInteger createCount1 = new AtomicInteger(0);
+        AtomicInteger createCount2 = new AtomicInteger(0);
+        NodeFactory factory1 = countingNodeFactory(PropertyFactory.constSource(testList1), createCount1);
+        NodeFactory factory2 = countingNodeFactory(PropertyFactory.constSource(testList2), createCount2);
+
+        InstanceContent factories = new InstanceContent();
+        factories.add(factory1);
+        Lookup lookup = new AbstractLookup(factories);
+        AnnotationChildNodes childNodes = new AnnotationChildNodes(mockProject(), () -> lookup);
+
+        PropertySource<Collection<SingleNodeFactory>> singleNodeFactoriesRef = childNodes.nodeFactories();
+        childNodes.addNotify();
+
+        testList1.verifyNodes(singleNodeFactoriesRef.getValue());
+        testList1.verifyNodes(singleNodeFactoriesRef.getValue());
+        assertEquals("createNodes calls", 1, createCount1.get());
+
+        factories.add(factory2);
+        assertEquals("node factory count", 3, singleNodeFactoriesRef.getValue().size());
+        assertEquals("createNodes calls", 1, createCount1.get());
+        assertEquals("createNodes calls", 1, createCount2.get());
+
+        factories.remove(factory1);
+        testList2.verifyNodes(singleNodeFactoriesRef.getValue());
+        assertEquals("createNodes calls", 1, createCount2.get());
+
+        childNodes.removeNotify();
+        assertEquals("node factory count", 0, singleNodeFactoriesRef.getValue().size());
+    }
+
     @Test
     @SwingTest
     public void testGetNodesAfterRecreate() {
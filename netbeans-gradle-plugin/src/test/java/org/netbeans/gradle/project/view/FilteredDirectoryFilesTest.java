@@ -0,0 +1,115 @@
+package org.netbeans.gradle.project.view;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jtrim2.event.ListenerRef;
+import org.junit.Before;
+import org.junit.Test;
+import org.openide.filesystems.FileLock;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+
+import static org.junit.Assert.*;
+
+public class FilteredDirectoryFilesTest {
+    private FileObject dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = FileUtil.createMemoryFileSystem().getRoot().createFolder("project");
+    }
+
+    private static FilteredDirectoryFiles gradleFiles(FileObject dir) {
+        return new FilteredDirectoryFiles(dir, name -> name.endsWith(".gradle"));
+    }
+
+    private static List<String> names(List<FileObject> files) {
+        List<String> result = new ArrayList<>(files.size());
+        for (FileObject file: files) {
+            result.add(file.getNameExt());
+        }
+        return result;
+    }
+
+    private static void rename(FileObject file, String newName, String newExt) throws IOException {
+        FileLock lock = file.lock();
+        try {
+            file.rename(lock, newName, newExt);
+        } finally {
+            lock.releaseLock();
+        }
+    }
+
+    @Test
+    public void testListsOnlyAcceptedFiles() throws IOException {
+        dir.createData("b.gradle");
+        dir.createData("a.gradle");
+        dir.createData("c.txt");
+        dir.createFolder("d.gradle");
+
+        FilteredDirectoryFiles files = gradleFiles(dir);
+        assertEquals(Arrays.asList("a.gradle", "b.gradle"), names(files.getFiles()));
+    }
+
+    @Test
+    public void testUpdatedFromEvents() throws IOException {
+        FileObject file1 = dir.createData("a.gradle");
+
+        FilteredDirectoryFiles files = gradleFiles(dir);
+        AtomicInteger changeCount = new AtomicInteger(0);
+        ListenerRef listenerRef = files.trackChanges(changeCount::incrementAndGet);
+        try {
+            assertEquals(Arrays.asList("a.gradle"), names(files.getFiles()));
+
+            dir.createData("b.gradle");
+            assertEquals(1, changeCount.get());
+            assertEquals(Arrays.asList("a.gradle", "b.gradle"), names(files.getFiles()));
+
+            file1.delete();
+            assertEquals(2, changeCount.get());
+            assertEquals(Arrays.asList("b.gradle"), names(files.getFiles()));
+
+            FileObject other = dir.createData("c.txt");
+            assertEquals(2, changeCount.get());
+
+            rename(other, "c", "gradle");
+            assertEquals(3, changeCount.get());
+            assertEquals(Arrays.asList("b.gradle", "c.gradle"), names(files.getFiles()));
+        } finally {
+            listenerRef.unregister();
+        }
+    }
+
+    @Test
+    public void testOverflow() throws IOException {
+        FilteredDirectoryFiles files = gradleFiles(dir);
+        ListenerRef listenerRef = files.trackChanges(() -> { });
+        try {
+            assertEquals(0, files.getFiles().size());
+
+            int fileCount = 1000;
+            for (int i = 0; i < fileCount; i++) {
+                dir.createData("file" + i + ".gradle");
+            }
+            dir.getFileObject("file0.gradle").delete();
+
+            assertEquals(fileCount - 1, files.getFiles().size());
+        } finally {
+            listenerRef.unregister();
+        }
+    }
+
+    @Test
+    public void testChangesAfterUnregister() throws IOException {
+        FilteredDirectoryFiles files = gradleFiles(dir);
+        ListenerRef listenerRef = files.trackChanges(() -> { });
+        assertEquals(0, files.getFiles().size());
+        listenerRef.unregister();
+
+        dir.createData("a.gradle");
+        assertEquals(Arrays.asList("a.gradle"), names(files.getFiles()));
+    }
+}